@@ -0,0 +1,3 @@
+-- Extensions used by the DBPulse PostgreSQL collectors.
+-- Runs once, when the data volume is first initialized.
+CREATE EXTENSION IF NOT EXISTS pg_stat_statements;
@@ -114,6 +114,74 @@ for i in {1..100}; do
 done
 echo -e " ${GREEN}Done!${NC}"
 
+# Throughput: single-order path vs batch endpoint, same number of orders, no delay
+THROUGHPUT_ORDERS=500
+BATCH_SIZE=50
+
+order_json() {
+    local client_id=$((1 + RANDOM % 50))
+    local product_id=$((1 + RANDOM % 30))
+    echo "{\"clientId\": ${client_id}, \"items\": [{\"productId\": ${product_id}, \"quantity\": 1}], \"shippingAddress\": \"${client_id} Shipping Street\"}"
+}
+
+orders_per_sec() {
+    local count=$1
+    local elapsed_ns=$2
+    awk -v n="$count" -v ns="$elapsed_ns" 'BEGIN { printf "%.1f", n / (ns / 1e9) }'
+}
+
+echo -e "${GREEN}Measuring throughput: ${THROUGHPUT_ORDERS} single orders...${NC}"
+created=0
+accepted=0
+start=$(date +%s%N)
+for i in $(seq 1 ${THROUGHPUT_ORDERS}); do
+    status=$(curl -s -o /dev/null -w "%{http_code}" -X POST "${BASE_URL}/orders" \
+        -H "Content-Type: application/json" -d "$(order_json)")
+    case "$status" in
+        201) created=$((created + 1)) ;;
+        # Queued by the asynchronous intake (app.orders.intake.enabled); its outcome is not known yet
+        202) accepted=$((accepted + 1)) ;;
+    esac
+done
+single_ns=$(( $(date +%s%N) - start ))
+echo -e "  single: ${created} created, $(orders_per_sec ${created} ${single_ns}) orders/sec"
+if [ ${accepted} -gt 0 ]; then
+    echo -e "          ${accepted} accepted by the intake, $(orders_per_sec ${accepted} ${single_ns}) requests/sec"
+fi
+
+echo -e "${GREEN}Measuring throughput: ${THROUGHPUT_ORDERS} orders in batches of ${BATCH_SIZE}...${NC}"
+created=0
+start=$(date +%s%N)
+for b in $(seq 1 $((THROUGHPUT_ORDERS / BATCH_SIZE))); do
+    batch=$(order_json)
+    for i in $(seq 2 ${BATCH_SIZE}); do
+        batch="${batch},$(order_json)"
+    done
+    successes=$(curl -s -X POST "${BASE_URL}/orders/batch" \
+        -H "Content-Type: application/json" -d "[${batch}]" | grep -o '"success":true' | wc -l)
+    created=$((created + successes))
+done
+batch_ns=$(( $(date +%s%N) - start ))
+echo -e "  batch:  ${created} created, $(orders_per_sec ${created} ${batch_ns}) orders/sec"
+
+# Flash sale: many concurrent buyers of one SKU. Start the application with
+# app.inventory.hot-stock.enabled=true (and optionally products=1) to compare the hot product path.
+FLASH_SALE_ORDERS=1000
+FLASH_SALE_CONCURRENCY=20
+echo -e "${GREEN}Flash sale: ${FLASH_SALE_ORDERS} orders for product 1 from ${FLASH_SALE_CONCURRENCY} concurrent buyers...${NC}"
+start=$(date +%s%N)
+statuses=$(seq 1 ${FLASH_SALE_ORDERS} | xargs -P ${FLASH_SALE_CONCURRENCY} -I{} \
+    curl -s -o /dev/null -w "%{http_code}\n" -X POST "${BASE_URL}/orders" \
+        -H "Content-Type: application/json" \
+        -d "{\"clientId\": $((1 + RANDOM % 50)), \"items\": [{\"productId\": 1, \"quantity\": 1}], \"shippingAddress\": \"Flash Sale Street\"}")
+flash_ns=$(( $(date +%s%N) - start ))
+created=$(grep -c '^201$' <<< "${statuses}" || true)
+accepted=$(grep -c '^202$' <<< "${statuses}" || true)
+echo -e "  ${created} created (the rest sold out), $(orders_per_sec ${created} ${flash_ns}) orders/sec"
+if [ ${accepted} -gt 0 ]; then
+    echo -e "  ${accepted} accepted by the intake, $(orders_per_sec ${accepted} ${flash_ns}) requests/sec"
+fi
+
 # Query patterns to generate read traffic
 echo -e "${GREEN}Generating read traffic...${NC}"
 for i in {1..50}; do
@@ -150,6 +218,6 @@ echo
 echo "Total created:"
 echo "  - 50 Clients"
 echo "  - 30 Products"
-echo "  - 100 Orders"
+echo "  - 100 Orders, plus ${THROUGHPUT_ORDERS} single and ${THROUGHPUT_ORDERS} batched for the throughput comparison"
 echo "  - 250+ Read operations"
 echo
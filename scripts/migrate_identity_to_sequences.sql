@@ -0,0 +1,47 @@
+-- DBPulse: move entity ids from IDENTITY columns to pooled sequences
+--
+-- Run once against an existing database before starting the version that uses
+-- GenerationType.SEQUENCE (fresh databases get the sequences from ddl-auto):
+--
+--   psql -h localhost -U postgres -d dbpulse -f scripts/migrate_identity_to_sequences.sql
+--
+-- Stop all application instances first. The block size must match IdAllocation.SIZE,
+-- or be changed later with ALTER SEQUENCE ... INCREMENT BY (the application adopts the
+-- sequence's increment on startup).
+
+\set allocation 50
+
+BEGIN;
+
+LOCK TABLE clients, products, orders, order_items IN ACCESS EXCLUSIVE MODE;
+
+-- Drop the identity (or serial default) and its backing sequence
+ALTER TABLE clients     ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE products    ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE orders      ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE order_items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE clients     ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE products    ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE orders      ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE order_items ALTER COLUMN id DROP DEFAULT;
+
+CREATE SEQUENCE IF NOT EXISTS clients_seq     INCREMENT BY :allocation OWNED BY clients.id;
+CREATE SEQUENCE IF NOT EXISTS products_seq    INCREMENT BY :allocation OWNED BY products.id;
+CREATE SEQUENCE IF NOT EXISTS orders_seq      INCREMENT BY :allocation OWNED BY orders.id;
+CREATE SEQUENCE IF NOT EXISTS order_items_seq INCREMENT BY :allocation OWNED BY order_items.id;
+
+-- The pooled optimizer treats each nextval as the top of a block of :allocation ids,
+-- so the first value handed out must be at least MAX(id) + :allocation + 1
+SELECT setval('clients_seq',     COALESCE(MAX(id), 0) + :allocation) FROM clients;
+SELECT setval('products_seq',    COALESCE(MAX(id), 0) + :allocation) FROM products;
+SELECT setval('orders_seq',      COALESCE(MAX(id), 0) + :allocation) FROM orders;
+SELECT setval('order_items_seq', COALESCE(MAX(id), 0) + :allocation) FROM order_items;
+
+-- Keeps ad-hoc inserts that omit the id working; they waste the rest of a block but never collide
+ALTER TABLE clients     ALTER COLUMN id SET DEFAULT nextval('clients_seq');
+ALTER TABLE products    ALTER COLUMN id SET DEFAULT nextval('products_seq');
+ALTER TABLE orders      ALTER COLUMN id SET DEFAULT nextval('orders_seq');
+ALTER TABLE order_items ALTER COLUMN id SET DEFAULT nextval('order_items_seq');
+
+COMMIT;
@@ -0,0 +1,30 @@
+package com.ibrahim.DBPulse.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibrahim.DBPulse.monitoring.anomaly.AnomalyDetector;
+import com.ibrahim.DBPulse.monitoring.anomaly.AnomalyProperties;
+import com.ibrahim.DBPulse.monitoring.live.SseBroadcaster;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * In-process anomaly detection configuration.
+ * Events go to the log, the dbpulse.anomalies counter and, when enabled, the live metrics stream.
+ */
+@Configuration
+@EnableConfigurationProperties(AnomalyProperties.class)
+@ConditionalOnProperty(prefix = "app.monitoring.anomaly", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AnomalyDetectionConfig {
+
+    @Bean
+    public AnomalyDetector anomalyDetector(MeterRegistry registry,
+                                           AnomalyProperties properties,
+                                           ObjectProvider<SseBroadcaster> liveMetricsBroadcaster,
+                                           ObjectMapper objectMapper) {
+        return new AnomalyDetector(registry, properties, liveMetricsBroadcaster.getIfUnique(), objectMapper);
+    }
+}
@@ -48,13 +48,17 @@ public class CorsConfig {
                 "Authorization",
                 "X-Requested-With",
                 "Access-Control-Request-Method",
-                "Access-Control-Request-Headers"));
+                "Access-Control-Request-Headers",
+                "Idempotency-Key"));
 
         // Exposed headers (visible to JavaScript in browser)
         corsConfiguration.setExposedHeaders(Arrays.asList(
                 "Access-Control-Allow-Origin",
                 "Access-Control-Allow-Credentials",
-                "Authorization"));
+                "Authorization",
+                "Idempotent-Replayed",
+                "Location",
+                "Retry-After"));
 
         // How long the browser should cache preflight requests (in seconds)
         corsConfiguration.setMaxAge(3600L);
@@ -0,0 +1,36 @@
+package com.ibrahim.DBPulse.config;
+
+import com.ibrahim.DBPulse.inventory.HotStockLedger;
+import com.ibrahim.DBPulse.inventory.HotStockProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Hot product mode configuration, off unless app.inventory.hot-stock.enabled=true.
+ * OrderService routes order lines for hot products to the ledger when it is present.
+ */
+@Configuration
+@EnableConfigurationProperties(HotStockProperties.class)
+@ConditionalOnProperty(prefix = "app.inventory.hot-stock", name = "enabled", havingValue = "true")
+public class HotStockConfig {
+
+    /**
+     * In-memory stock of hot products with a write-behind journal; replays the journal on startup.
+     */
+    @Bean
+    public HotStockLedger hotStockLedger(HotStockProperties properties,
+                                         JdbcTemplate jdbcTemplate,
+                                         NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                         PlatformTransactionManager transactionManager,
+                                         MeterRegistry registry) {
+        return new HotStockLedger(properties, jdbcTemplate, namedParameterJdbcTemplate,
+                new TransactionTemplate(transactionManager), registry);
+    }
+}
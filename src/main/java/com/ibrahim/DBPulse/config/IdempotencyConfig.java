@@ -0,0 +1,33 @@
+package com.ibrahim.DBPulse.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibrahim.DBPulse.idempotency.IdempotencyProperties;
+import com.ibrahim.DBPulse.idempotency.IdempotentRequests;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Idempotency-Key support for the order creation endpoints (app.orders.idempotency.*).
+ */
+@Configuration
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyConfig {
+
+    /**
+     * Key cache and store; the order services join its transaction so the key commits with the orders.
+     */
+    @Bean
+    public IdempotentRequests idempotentRequests(IdempotencyProperties properties,
+                                                 JdbcTemplate jdbcTemplate,
+                                                 PlatformTransactionManager transactionManager,
+                                                 ObjectMapper objectMapper,
+                                                 MeterRegistry registry) {
+        return new IdempotentRequests(properties, jdbcTemplate,
+                new TransactionTemplate(transactionManager), objectMapper, registry);
+    }
+}
@@ -0,0 +1,85 @@
+package com.ibrahim.DBPulse.config;
+
+import com.ibrahim.DBPulse.monitoring.jdbc.JdbcMonitoringProperties;
+import com.ibrahim.DBPulse.monitoring.jdbc.LazyQueryExecutionListener;
+import com.ibrahim.DBPulse.monitoring.jdbc.RequestQueryStatsFilter;
+import com.ibrahim.DBPulse.monitoring.jdbc.ResultSetRowCounter;
+import com.ibrahim.DBPulse.monitoring.jdbc.SlowQueryEndpoint;
+import com.ibrahim.DBPulse.monitoring.jdbc.SlowQueryLog;
+import com.ibrahim.DBPulse.monitoring.jdbc.StatementMetricsListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * JDBC statement monitoring configuration.
+ * Wraps the application DataSource with a datasource-proxy that times every
+ * statement by SQL fingerprint and captures slow executions.
+ */
+@Configuration
+@EnableConfigurationProperties(JdbcMonitoringProperties.class)
+@ConditionalOnProperty(prefix = "app.monitoring.jdbc", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class JdbcMonitoringConfig {
+
+    @Bean
+    public SlowQueryLog slowQueryLog(JdbcMonitoringProperties properties) {
+        return new SlowQueryLog(properties.getSlowQueryCapacity());
+    }
+
+    @Bean
+    public StatementMetricsListener statementMetricsListener(MeterRegistry registry,
+                                                             JdbcMonitoringProperties properties,
+                                                             SlowQueryLog slowQueryLog) {
+        return new StatementMetricsListener(registry, properties, slowQueryLog);
+    }
+
+    /**
+     * Slow query endpoint at /actuator/slowqueries.
+     */
+    @Bean
+    public SlowQueryEndpoint slowQueryEndpoint(SlowQueryLog slowQueryLog,
+                                               StatementMetricsListener listener,
+                                               JdbcMonitoringProperties properties) {
+        return new SlowQueryEndpoint(slowQueryLog, listener, properties);
+    }
+
+    /**
+     * Per-request statement and row counts, with repeated statement detection.
+     */
+    @Bean
+    public RequestQueryStatsFilter requestQueryStatsFilter(MeterRegistry registry, JdbcMonitoringProperties properties) {
+        return new RequestQueryStatsFilter(registry, properties);
+    }
+
+    /**
+     * Wrap every DataSource bean with the statement-timing proxy.
+     * Static so the post-processor does not force early creation of this configuration;
+     * the listener is resolved lazily on the first statement.
+     */
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(ObjectProvider<StatementMetricsListener> listener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    log.info("Wrapping DataSource '{}' with statement monitoring proxy", beanName);
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(new LazyQueryExecutionListener(listener))
+                            .proxyResultSet(new ResultSetRowCounter())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
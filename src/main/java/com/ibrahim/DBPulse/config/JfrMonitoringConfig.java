@@ -0,0 +1,36 @@
+package com.ibrahim.DBPulse.config;
+
+import com.ibrahim.DBPulse.monitoring.jfr.JfrEndpoint;
+import com.ibrahim.DBPulse.monitoring.jfr.JfrEventBridge;
+import com.ibrahim.DBPulse.monitoring.jfr.JfrProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Continuous JDK Flight Recorder configuration.
+ * Streams a few low-overhead JFR events into meters and per-frame summaries.
+ */
+@Configuration
+@EnableConfigurationProperties(JfrProperties.class)
+@ConditionalOnProperty(prefix = "app.monitoring.jfr", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class JfrMonitoringConfig {
+
+    /**
+     * JFR recording stream, started once the application is ready.
+     */
+    @Bean
+    public JfrEventBridge jfrEventBridge(MeterRegistry registry, JfrProperties properties) {
+        return new JfrEventBridge(registry, properties);
+    }
+
+    /**
+     * Top frames at /actuator/jfr.
+     */
+    @Bean
+    public JfrEndpoint jfrEndpoint(JfrEventBridge jfrEventBridge) {
+        return new JfrEndpoint(jfrEventBridge);
+    }
+}
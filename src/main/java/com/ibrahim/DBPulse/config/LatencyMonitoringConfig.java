@@ -0,0 +1,44 @@
+package com.ibrahim.DBPulse.config;
+
+import com.ibrahim.DBPulse.monitoring.latency.LatencyEndpoint;
+import com.ibrahim.DBPulse.monitoring.latency.LatencyProperties;
+import com.ibrahim.DBPulse.monitoring.latency.LatencyRecorder;
+import com.ibrahim.DBPulse.monitoring.latency.LatencyRecordingFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * HdrHistogram latency recording configuration.
+ * Interval histograms for HTTP endpoints and @Timed service methods, read at /actuator/latency.
+ */
+@Configuration
+@EnableConfigurationProperties(LatencyProperties.class)
+@ConditionalOnProperty(prefix = "app.monitoring.latency", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class LatencyMonitoringConfig {
+
+    /**
+     * Series registry; service methods are attached by ServiceTimers at startup.
+     */
+    @Bean
+    public LatencyRecorder latencyRecorder(LatencyProperties properties) {
+        return new LatencyRecorder(properties);
+    }
+
+    /**
+     * Per-endpoint HTTP latency.
+     */
+    @Bean
+    public LatencyRecordingFilter latencyRecordingFilter(LatencyRecorder latencyRecorder) {
+        return new LatencyRecordingFilter(latencyRecorder);
+    }
+
+    /**
+     * Interval percentiles at /actuator/latency.
+     */
+    @Bean
+    public LatencyEndpoint latencyEndpoint(LatencyRecorder latencyRecorder, LatencyProperties properties) {
+        return new LatencyEndpoint(latencyRecorder, properties);
+    }
+}
@@ -0,0 +1,37 @@
+package com.ibrahim.DBPulse.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibrahim.DBPulse.monitoring.live.LiveMetricsProperties;
+import com.ibrahim.DBPulse.monitoring.live.LiveMetricsPublisher;
+import com.ibrahim.DBPulse.monitoring.live.SseBroadcaster;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Live metrics stream configuration.
+ * Pushes a small set of dashboard values to server-sent event subscribers several times a second.
+ */
+@Configuration
+@EnableConfigurationProperties(LiveMetricsProperties.class)
+@ConditionalOnProperty(prefix = "app.monitoring.live", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class LiveMetricsConfig {
+
+    /**
+     * Subscribers of GET /api/metrics/live.
+     */
+    @Bean
+    public SseBroadcaster liveMetricsBroadcaster(LiveMetricsProperties properties, MeterRegistry registry) {
+        return new SseBroadcaster("live", properties.getBufferSize(), properties.getMaxSubscribers(),
+                properties.getTimeout().toMillis(), registry);
+    }
+
+    @Bean
+    public LiveMetricsPublisher liveMetricsPublisher(MeterRegistry registry,
+                                                     SseBroadcaster liveMetricsBroadcaster,
+                                                     ObjectMapper objectMapper) {
+        return new LiveMetricsPublisher(registry, liveMetricsBroadcaster, objectMapper);
+    }
+}
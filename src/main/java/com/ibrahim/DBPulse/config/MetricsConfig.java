@@ -1,13 +1,12 @@
 package com.ibrahim.DBPulse.config;
 
-import com.ibrahim.DBPulse.repositories.ClientRepository;
-import com.ibrahim.DBPulse.repositories.OrderRepository;
-import com.ibrahim.DBPulse.repositories.ProductRepository;
+import com.ibrahim.DBPulse.metrics.BusinessMetricsCollector;
+import com.ibrahim.DBPulse.metrics.InventoryTracker;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.binder.MeterBinder;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -16,7 +15,6 @@ import org.springframework.context.annotation.Configuration;
  * Provides business metrics for monitoring orders, revenue, inventory, and clients.
  */
 @Configuration
-@Slf4j
 public class MetricsConfig {
 
     /**
@@ -56,42 +54,65 @@ public class MetricsConfig {
                 .register(registry);
     }
 
+    /**
+     * Orders per batch request, created and failed alike.
+     * Recorded in OrderBatchService.createOrders(); its rate of sum is the batch path's order throughput.
+     */
+    @Bean
+    public DistributionSummary orderBatchSizeSummary(MeterRegistry registry) {
+        return DistributionSummary.builder("dbpulse.orders.batch.size")
+                .description("Orders submitted per batch request")
+                .baseUnit("orders")
+                .tag("type", "business")
+                .register(registry);
+    }
+
+    /**
+     * JDBC statements (a batch counts once) per order created over HTTP.
+     * Recorded in OrderService.createOrder(); should stay flat however many lines an order has.
+     */
+    @Bean
+    public DistributionSummary orderStatementsSummary(MeterRegistry registry) {
+        return DistributionSummary.builder("dbpulse.orders.create.statements")
+                .description("Database round-trips per order created")
+                .baseUnit("statements")
+                .tag("type", "performance")
+                .register(registry);
+    }
+
     /**
      * Gauge for current total inventory across all products.
-     * Updated automatically by Micrometer.
+     * Served from the business metrics snapshot, which reads the in-memory InventoryTracker.
      */
     @Bean
-    public Gauge inventoryGauge(MeterRegistry registry, ProductRepository productRepository) {
-        return Gauge.builder("dbpulse.inventory.total", productRepository,
-                        repo -> {
-                            try {
-                                return repo.findAll().stream()
-                                        .mapToLong(product -> product.getStockQuantity() != null ? product.getStockQuantity() : 0)
-                                        .sum();
-                            } catch (Exception e) {
-                                log.warn("Error calculating total inventory", e);
-                                return 0;
-                            }
-                        })
+    public Gauge inventoryGauge(MeterRegistry registry, BusinessMetricsCollector collector) {
+        return Gauge.builder("dbpulse.inventory.total", collector,
+                        c -> c.value(BusinessMetricsCollector.Metric.INVENTORY_TOTAL))
                 .description("Total inventory count across all products")
                 .tag("type", "business")
                 .register(registry);
     }
 
+    /**
+     * Gauge for the drift corrected by the last inventory reconciliation pass.
+     * Non-zero values mean some stock change bypassed the tracked service methods.
+     */
+    @Bean
+    public Gauge inventoryDriftGauge(MeterRegistry registry, InventoryTracker inventoryTracker) {
+        return Gauge.builder("dbpulse.inventory.drift", inventoryTracker, InventoryTracker::getLastDrift)
+                .description("Drift between tracked and actual inventory at the last reconciliation")
+                .tag("type", "business")
+                .register(registry);
+    }
+
     /**
      * Gauge for number of active clients.
+     * Served from the business metrics snapshot.
      */
     @Bean
-    public Gauge activeClientsGauge(MeterRegistry registry, ClientRepository clientRepository) {
-        return Gauge.builder("dbpulse.clients.active", clientRepository,
-                        repo -> {
-                            try {
-                                return repo.countByActiveTrue();
-                            } catch (Exception e) {
-                                log.warn("Error counting active clients", e);
-                                return 0;
-                            }
-                        })
+    public Gauge activeClientsGauge(MeterRegistry registry, BusinessMetricsCollector collector) {
+        return Gauge.builder("dbpulse.clients.active", collector,
+                        c -> c.value(BusinessMetricsCollector.Metric.ACTIVE_CLIENTS))
                 .description("Number of currently active clients")
                 .tag("type", "business")
                 .register(registry);
@@ -99,18 +120,12 @@ public class MetricsConfig {
 
     /**
      * Gauge for total number of orders.
+     * Served from the business metrics snapshot.
      */
     @Bean
-    public Gauge totalOrdersGauge(MeterRegistry registry, OrderRepository orderRepository) {
-        return Gauge.builder("dbpulse.orders.total", orderRepository,
-                        repo -> {
-                            try {
-                                return repo.count();
-                            } catch (Exception e) {
-                                log.warn("Error counting total orders", e);
-                                return 0;
-                            }
-                        })
+    public Gauge totalOrdersGauge(MeterRegistry registry, BusinessMetricsCollector collector) {
+        return Gauge.builder("dbpulse.orders.total", collector,
+                        c -> c.value(BusinessMetricsCollector.Metric.TOTAL_ORDERS))
                 .description("Total number of orders in the system")
                 .tag("type", "business")
                 .register(registry);
@@ -118,21 +133,15 @@ public class MetricsConfig {
 
     /**
      * Gauge for low stock products count.
+     * Served from the business metrics snapshot.
      */
     @Bean
-    public Gauge lowStockProductsGauge(MeterRegistry registry, ProductRepository productRepository) {
-        return Gauge.builder("dbpulse.products.low_stock", productRepository,
-                        repo -> {
-                            try {
-                                return repo.findLowStockProducts(10).size();
-                            } catch (Exception e) {
-                                log.warn("Error counting low stock products", e);
-                                return 0;
-                            }
-                        })
+    public Gauge lowStockProductsGauge(MeterRegistry registry, BusinessMetricsCollector collector) {
+        return Gauge.builder("dbpulse.products.low_stock", collector,
+                        c -> c.value(BusinessMetricsCollector.Metric.LOW_STOCK_PRODUCTS))
                 .description("Number of products with stock below threshold (10)")
                 .tag("type", "inventory")
-                .tag("threshold", "10")
+                .tag("threshold", String.valueOf(BusinessMetricsCollector.LOW_STOCK_THRESHOLD))
                 .register(registry);
     }
 }
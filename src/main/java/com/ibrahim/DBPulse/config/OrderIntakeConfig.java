@@ -0,0 +1,42 @@
+package com.ibrahim.DBPulse.config;
+
+import com.ibrahim.DBPulse.intake.OrderIntake;
+import com.ibrahim.DBPulse.intake.OrderIntakeProperties;
+import com.ibrahim.DBPulse.services.OrderBatchService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Asynchronous order intake, off unless app.orders.intake.enabled=true.
+ * POST /api/orders queues requests on OrderIntake and answers 202 when it is present.
+ */
+@Configuration
+@EnableConfigurationProperties(OrderIntakeProperties.class)
+@ConditionalOnProperty(prefix = "app.orders.intake", name = "enabled", havingValue = "true")
+public class OrderIntakeConfig {
+
+    /**
+     * Bounded queue drained in micro-batches by virtual-thread workers started on startup.
+     */
+    @Bean
+    public OrderIntake orderIntake(OrderIntakeProperties properties,
+                                   OrderBatchService orderBatchService,
+                                   JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry registry,
+                                   @Value("${app.orders.batch.max-size:500}") int maxBatchSize) {
+        if (properties.getMaxBatch() < 1 || properties.getMaxBatch() > maxBatchSize) {
+            throw new IllegalStateException("app.orders.intake.max-batch must be between 1 and "
+                    + maxBatchSize + " (app.orders.batch.max-size), was " + properties.getMaxBatch());
+        }
+        return new OrderIntake(properties, orderBatchService, jdbcTemplate,
+                new TransactionTemplate(transactionManager), registry);
+    }
+}
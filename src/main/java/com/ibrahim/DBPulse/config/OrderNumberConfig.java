@@ -0,0 +1,31 @@
+package com.ibrahim.DBPulse.config;
+
+import com.ibrahim.DBPulse.ordernumber.LegacyOrderNumberGenerator;
+import com.ibrahim.DBPulse.ordernumber.OrderNumberGenerator;
+import com.ibrahim.DBPulse.ordernumber.OrderNumberProperties;
+import com.ibrahim.DBPulse.ordernumber.SnowflakeOrderNumberGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Order number configuration; the generator is chosen with app.orders.number.generator.
+ */
+@Configuration
+@EnableConfigurationProperties(OrderNumberProperties.class)
+@Slf4j
+public class OrderNumberConfig {
+
+    /**
+     * Generator shared by the single and batch order paths.
+     */
+    @Bean
+    public OrderNumberGenerator orderNumberGenerator(OrderNumberProperties properties) {
+        log.info("Order numbers from the {} generator", properties.getGenerator());
+        return switch (properties.getGenerator()) {
+            case SNOWFLAKE -> new SnowflakeOrderNumberGenerator(properties.getNodeId());
+            case LEGACY -> new LegacyOrderNumberGenerator();
+        };
+    }
+}
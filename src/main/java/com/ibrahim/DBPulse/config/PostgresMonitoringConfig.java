@@ -0,0 +1,75 @@
+package com.ibrahim.DBPulse.config;
+
+import com.ibrahim.DBPulse.monitoring.postgres.ActiveSessionSampler;
+import com.ibrahim.DBPulse.monitoring.postgres.AshEndpoint;
+import com.ibrahim.DBPulse.monitoring.postgres.BlockingEndpoint;
+import com.ibrahim.DBPulse.monitoring.postgres.BlockingMonitor;
+import com.ibrahim.DBPulse.monitoring.postgres.PgStatStatementsCollector;
+import com.ibrahim.DBPulse.monitoring.postgres.PostgresMonitoringProperties;
+import com.ibrahim.DBPulse.monitoring.postgres.TableHealthCollector;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * PostgreSQL monitoring configuration.
+ * Collectors that read the server's statistics views through the application DataSource.
+ */
+@Configuration
+@EnableConfigurationProperties(PostgresMonitoringProperties.class)
+@ConditionalOnProperty(prefix = "app.monitoring.postgres", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class PostgresMonitoringConfig {
+
+    /**
+     * Top-N statement workload from pg_stat_statements.
+     */
+    @Bean
+    public PgStatStatementsCollector pgStatStatementsCollector(JdbcTemplate jdbcTemplate,
+                                                               MeterRegistry registry,
+                                                               PostgresMonitoringProperties properties) {
+        return new PgStatStatementsCollector(jdbcTemplate, registry, properties);
+    }
+
+    /**
+     * Active Session History sampler over pg_stat_activity.
+     */
+    @Bean
+    public ActiveSessionSampler activeSessionSampler(JdbcTemplate jdbcTemplate, PostgresMonitoringProperties properties) {
+        return new ActiveSessionSampler(jdbcTemplate, properties);
+    }
+
+    /**
+     * Wait event breakdowns at /actuator/ash.
+     */
+    @Bean
+    public AshEndpoint ashEndpoint(ActiveSessionSampler activeSessionSampler) {
+        return new AshEndpoint(activeSessionSampler);
+    }
+
+    /**
+     * Lock blocking tree from pg_locks and pg_blocking_pids().
+     */
+    @Bean
+    public BlockingMonitor blockingMonitor(JdbcTemplate jdbcTemplate, MeterRegistry registry) {
+        return new BlockingMonitor(jdbcTemplate, registry);
+    }
+
+    /**
+     * Blocking graph at /actuator/blocking.
+     */
+    @Bean
+    public BlockingEndpoint blockingEndpoint(BlockingMonitor blockingMonitor) {
+        return new BlockingEndpoint(blockingMonitor);
+    }
+
+    /**
+     * Table and index health from pg_stat_user_tables and pg_stat_user_indexes.
+     */
+    @Bean
+    public TableHealthCollector tableHealthCollector(JdbcTemplate jdbcTemplate, MeterRegistry registry) {
+        return new TableHealthCollector(jdbcTemplate, registry);
+    }
+}
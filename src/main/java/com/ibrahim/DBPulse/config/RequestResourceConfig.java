@@ -0,0 +1,32 @@
+package com.ibrahim.DBPulse.config;
+
+import com.ibrahim.DBPulse.monitoring.request.RequestResourceEndpoint;
+import com.ibrahim.DBPulse.monitoring.request.RequestResourceFilter;
+import com.ibrahim.DBPulse.monitoring.request.RequestResourceProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Per-request CPU time and allocation metrics configuration.
+ * The filter is always registered so measurement can be switched on at runtime;
+ * app.monitoring.request-resources.enabled only sets the initial state.
+ */
+@Configuration
+@EnableConfigurationProperties(RequestResourceProperties.class)
+public class RequestResourceConfig {
+
+    @Bean
+    public RequestResourceFilter requestResourceFilter(MeterRegistry registry, RequestResourceProperties properties) {
+        return new RequestResourceFilter(registry, properties);
+    }
+
+    /**
+     * Runtime switch at /actuator/requestresources.
+     */
+    @Bean
+    public RequestResourceEndpoint requestResourceEndpoint(RequestResourceFilter requestResourceFilter) {
+        return new RequestResourceEndpoint(requestResourceFilter);
+    }
+}
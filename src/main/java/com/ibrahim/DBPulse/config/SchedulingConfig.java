@@ -0,0 +1,13 @@
+package com.ibrahim.DBPulse.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling configuration.
+ * Enables @Scheduled background jobs such as metric reconciliation and collectors.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,37 @@
+package com.ibrahim.DBPulse.config;
+
+import com.ibrahim.DBPulse.inventory.StockBucketProperties;
+import com.ibrahim.DBPulse.inventory.StockBuckets;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Bucketed stock configuration, off unless app.inventory.stock-buckets.enabled=true.
+ * The order and product services route bucketed products to StockBuckets when it is present.
+ */
+@Configuration
+@EnableConfigurationProperties(StockBucketProperties.class)
+@ConditionalOnProperty(prefix = "app.inventory.stock-buckets", name = "enabled", havingValue = "true")
+public class StockBucketConfig {
+
+    /**
+     * Stock of the designated products split across bucket rows; creates and fills the buckets on startup.
+     */
+    @Bean
+    public StockBuckets stockBuckets(StockBucketProperties properties,
+                                     JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry registry) {
+        // Rebalancing also runs right after a restock commits, where a joined transaction would be over
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return new StockBuckets(properties, jdbcTemplate, transactionTemplate, registry);
+    }
+}
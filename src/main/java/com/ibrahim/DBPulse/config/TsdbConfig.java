@@ -0,0 +1,26 @@
+package com.ibrahim.DBPulse.config;
+
+import com.ibrahim.DBPulse.monitoring.tsdb.MetricHistoryStore;
+import com.ibrahim.DBPulse.monitoring.tsdb.TsdbProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Embedded metric history configuration.
+ * Keeps a compressed, downsampled history of every meter in-process, with optional file persistence.
+ */
+@Configuration
+@EnableConfigurationProperties(TsdbProperties.class)
+@ConditionalOnProperty(prefix = "app.monitoring.tsdb", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TsdbConfig {
+
+    @Bean
+    public MetricHistoryStore metricHistoryStore(MeterRegistry registry, TsdbProperties properties) {
+        MetricHistoryStore store = new MetricHistoryStore(registry, properties);
+        store.restore();
+        return store;
+    }
+}
@@ -0,0 +1,37 @@
+package com.ibrahim.DBPulse.controllers;
+
+import com.ibrahim.DBPulse.monitoring.live.SseBroadcaster;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST Controller for the live metrics stream.
+ * Serves server-sent events for dashboards that need sub-second updates.
+ */
+@RestController
+@RequestMapping("/api/metrics/live")
+@ConditionalOnProperty(prefix = "app.monitoring.live", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class LiveMetricsController {
+
+    private final SseBroadcaster liveMetricsBroadcaster;
+
+    /**
+     * Subscribe to live metrics.
+     * GET /api/metrics/live (Accept: text/event-stream)
+     * Emits a "metrics" event per tick: request rate, p50/p95/p99 latency, Hikari active/pending,
+     * orders/sec and revenue/sec. Slow clients skip ticks rather than queueing them.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe() {
+        log.debug("REST request to subscribe to live metrics");
+        return liveMetricsBroadcaster.subscribe();
+    }
+}
@@ -0,0 +1,96 @@
+package com.ibrahim.DBPulse.controllers;
+
+import com.ibrahim.DBPulse.dtos.MetricHistoryStatsResponse;
+import com.ibrahim.DBPulse.dtos.MetricSeriesResponse;
+import com.ibrahim.DBPulse.exceptions.BadRequestException;
+import com.ibrahim.DBPulse.monitoring.tsdb.MetricHistoryStore;
+import com.ibrahim.DBPulse.monitoring.tsdb.Resolution;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST Controller for the embedded metric history.
+ * Provides range queries over recorded meters when no Prometheus is available.
+ */
+@RestController
+@RequestMapping("/api/metrics/history")
+@ConditionalOnProperty(prefix = "app.monitoring.tsdb", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class MetricHistoryController {
+
+    private final MetricHistoryStore metricHistoryStore;
+
+    /**
+     * Query a meter's history.
+     * GET /api/metrics/history?name=hikaricp.connections.active&tag=pool:HikariCP-DBPulse&from=...&to=...&resolution=1m
+     * Defaults to the last hour; without a resolution the finest one still covering 'from' is used.
+     */
+    @GetMapping
+    public ResponseEntity<List<MetricSeriesResponse>> query(
+            @RequestParam String name,
+            @RequestParam(name = "tag", required = false) List<String> tags,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String resolution) {
+        log.debug("REST request to query metric history for {}", name);
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(Duration.ofHours(1));
+        if (start.isAfter(end)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+        List<MetricSeriesResponse> series = metricHistoryStore.query(name, parseTags(tags), start, end,
+                resolution != null ? parseResolution(resolution) : null);
+        return ResponseEntity.ok(series);
+    }
+
+    /**
+     * List recorded meter names.
+     * GET /api/metrics/history/names
+     */
+    @GetMapping("/names")
+    public ResponseEntity<List<String>> names() {
+        return ResponseEntity.ok(metricHistoryStore.names());
+    }
+
+    /**
+     * Store usage: series, memory against the cap, evictions.
+     * GET /api/metrics/history/stats
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<MetricHistoryStatsResponse> stats() {
+        return ResponseEntity.ok(metricHistoryStore.stats());
+    }
+
+    private static Map<String, String> parseTags(List<String> tags) {
+        Map<String, String> parsed = new LinkedHashMap<>();
+        if (tags != null) {
+            for (String tag : tags) {
+                int separator = tag.indexOf(':');
+                if (separator <= 0) {
+                    throw new BadRequestException("Tag filter '" + tag + "' must be key:value");
+                }
+                parsed.put(tag.substring(0, separator), tag.substring(separator + 1));
+            }
+        }
+        return parsed;
+    }
+
+    private static Resolution parseResolution(String resolution) {
+        try {
+            return Resolution.fromLabel(resolution);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage(), e);
+        }
+    }
+}
@@ -1,16 +1,24 @@
 package com.ibrahim.DBPulse.controllers;
 
+import com.ibrahim.DBPulse.dtos.OrderBatchResponse;
 import com.ibrahim.DBPulse.dtos.OrderRequest;
+import com.ibrahim.DBPulse.dtos.OrderRequestStatusResponse;
 import com.ibrahim.DBPulse.dtos.OrderResponse;
 import com.ibrahim.DBPulse.entities.Order;
+import com.ibrahim.DBPulse.exceptions.ResourceNotFoundException;
+import com.ibrahim.DBPulse.idempotency.IdempotentRequests;
+import com.ibrahim.DBPulse.intake.OrderIntake;
+import com.ibrahim.DBPulse.services.OrderBatchService;
 import com.ibrahim.DBPulse.services.OrderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.util.List;
 
 /**
@@ -24,16 +32,64 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderBatchService orderBatchService;
+    private final IdempotentRequests idempotentRequests;
+    private final ObjectProvider<OrderIntake> orderIntake;
 
     /**
      * Create a new order.
      * POST /api/orders
+     * A retry with the same Idempotency-Key returns the first response instead of ordering again.
+     * With asynchronous intake enabled the order is queued and 202 Accepted returns a tracking id,
+     * polled at the Location header's GET /api/orders/requests/{id}.
      */
     @PostMapping
-    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody OrderRequest request) {
+    public ResponseEntity<?> createOrder(
+            @Valid @RequestBody OrderRequest request,
+            @RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey) {
         log.info("REST request to create order for client ID: {}", request.getClientId());
-        OrderResponse response = orderService.createOrder(request);
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+        OrderIntake intake = orderIntake.getIfAvailable();
+        if (intake != null) {
+            IdempotentRequests.Result<OrderRequestStatusResponse> result = idempotentRequests.execute(
+                    "order-intake", idempotencyKey, request, OrderRequestStatusResponse.class,
+                    () -> intake.submit(request));
+            URI location = URI.create("/api/orders/requests/" + result.body().getRequestId());
+            return respond(result, ResponseEntity.accepted().location(location));
+        }
+        IdempotentRequests.Result<OrderResponse> result = idempotentRequests.execute(
+                "order", idempotencyKey, request, OrderResponse.class, () -> orderService.createOrder(request));
+        return respond(result, ResponseEntity.status(HttpStatus.CREATED));
+    }
+
+    /**
+     * Get the state of an order request accepted by the asynchronous intake.
+     * GET /api/orders/requests/{id}
+     */
+    @GetMapping("/requests/{id}")
+    public ResponseEntity<OrderRequestStatusResponse> getOrderRequest(@PathVariable String id) {
+        log.info("REST request to get order request with ID: {}", id);
+        OrderIntake intake = orderIntake.getIfAvailable();
+        if (intake == null) {
+            throw new ResourceNotFoundException("Order request not found with ID: " + id);
+        }
+        return ResponseEntity.ok(intake.getStatus(id));
+    }
+
+    /**
+     * Create several orders in one transaction.
+     * POST /api/orders/batch
+     * Each order is validated and fulfilled on its own; failures are reported per item.
+     * A retry with the same Idempotency-Key returns the first response instead of ordering again.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<OrderBatchResponse> createOrders(
+            @RequestBody List<OrderRequest> requests,
+            @RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey) {
+        log.info("REST request to create batch of {} orders", requests.size());
+        IdempotentRequests.Result<OrderBatchResponse> result = idempotentRequests.execute(
+                "order-batch", idempotencyKey, requests, OrderBatchResponse.class,
+                () -> orderBatchService.createOrders(requests));
+        return respond(result, ResponseEntity.ok());
     }
 
     /**
@@ -82,4 +138,12 @@ public class OrderController {
         OrderResponse response = orderService.updateOrderStatus(id, status);
         return ResponseEntity.ok(response);
     }
+
+    private static <T> ResponseEntity<T> respond(IdempotentRequests.Result<T> result,
+                                                 ResponseEntity.BodyBuilder response) {
+        if (result.replayed()) {
+            response.header(IdempotentRequests.REPLAYED_HEADER, "true");
+        }
+        return response.body(result.body());
+    }
 }
@@ -0,0 +1,21 @@
+package com.ibrahim.DBPulse.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO for the embedded metric history usage.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MetricHistoryStatsResponse {
+
+    private int series;
+    private long memoryBytes;
+    private long maxMemoryBytes;
+    private long evictedChunks;
+    private long rejectedSeries;
+    private long stepMillis;
+}
@@ -0,0 +1,35 @@
+package com.ibrahim.DBPulse.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response DTO for one series of the embedded metric history.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MetricSeriesResponse {
+
+    private String name;
+    private String statistic;
+    private Map<String, String> tags;
+    private String resolution;
+    private List<Point> points;
+
+    /**
+     * One point; the timestamp is in epoch milliseconds.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Point {
+
+        private long timestamp;
+        private double value;
+    }
+}
@@ -0,0 +1,28 @@
+package com.ibrahim.DBPulse.dtos;
+
+import lombok.*;
+import java.math.BigDecimal;
+
+/**
+ * Outcome of one order of a batch, in request order.
+ * On failure only index, success and error are set.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchItemResult {
+    private int index;
+    private boolean success;
+    private Long orderId;
+    private String orderNumber;
+    private BigDecimal totalAmount;
+    private String error;
+
+    public static OrderBatchItemResult created(int index, Long orderId, String orderNumber, BigDecimal totalAmount) {
+        return new OrderBatchItemResult(index, true, orderId, orderNumber, totalAmount, null);
+    }
+
+    public static OrderBatchItemResult failed(int index, String error) {
+        return new OrderBatchItemResult(index, false, null, null, null, error);
+    }
+}
@@ -0,0 +1,14 @@
+package com.ibrahim.DBPulse.dtos;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchResponse {
+    private int requested;
+    private int created;
+    private int failed;
+    private List<OrderBatchItemResult> results;
+}
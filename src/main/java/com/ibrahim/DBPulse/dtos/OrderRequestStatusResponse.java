@@ -0,0 +1,27 @@
+package com.ibrahim.DBPulse.dtos;
+
+import com.ibrahim.DBPulse.entities.OrderRequestRecord;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * State of an order request accepted by the asynchronous intake.
+ * Order fields are set once the status is CREATED, error once it is FAILED.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderRequestStatusResponse {
+    private String requestId;
+    private OrderRequestRecord.Status status;
+    private Long orderId;
+    private String orderNumber;
+    private BigDecimal totalAmount;
+    private String error;
+    private LocalDateTime acceptedAt;
+    private LocalDateTime completedAt;
+}
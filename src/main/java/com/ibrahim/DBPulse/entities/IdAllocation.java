@@ -0,0 +1,18 @@
+package com.ibrahim.DBPulse.entities;
+
+/**
+ * Sequence allocation shared by all entity ids.
+ * Each nextval reserves a block of SIZE ids that Hibernate's pooled optimizer hands out
+ * in memory, so inserts need no round-trip for their key and can be JDBC-batched
+ * (IDENTITY columns make Hibernate disable insert batching).
+ * With hibernate.id.sequence.increment_size_mismatch_strategy=fix the database sequence's
+ * INCREMENT BY takes precedence, so the block size can be changed per environment with
+ * ALTER SEQUENCE ... INCREMENT BY, as long as every application instance is restarted.
+ */
+public final class IdAllocation {
+
+    public static final int SIZE = 50;
+
+    private IdAllocation() {
+    }
+}
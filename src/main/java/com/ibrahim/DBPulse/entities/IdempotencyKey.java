@@ -0,0 +1,45 @@
+package com.ibrahim.DBPulse.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Response stored for an Idempotency-Key, written in the transaction that created the orders.
+ * The primary key makes a second commit of the same key fail, so a key is executed once across
+ * application instances. Rows are written with plain SQL by IdempotentRequests; the entity
+ * defines the table.
+ */
+@Entity
+@Table(name = "idempotency_keys",
+        indexes = @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyKey {
+
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String key;
+
+    @Column(nullable = false, length = 20)
+    private String scope;
+
+    /**
+     * SHA-256 of the scope and request body, hex encoded.
+     */
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    /**
+     * Response body as JSON.
+     */
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String response;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,63 @@
+package com.ibrahim.DBPulse.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of an order request accepted by the asynchronous intake, polled through
+ * GET /api/orders/requests/{id}. The row is written in the transaction that creates the
+ * order, so CREATED always points at a committed order; requests still in the queue have
+ * no row yet. Rows are written with plain SQL by OrderIntake; the entity defines the table.
+ */
+@Entity
+@Table(name = "order_requests",
+        indexes = @Index(name = "idx_order_requests_completed_at", columnList = "completed_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderRequestRecord {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "order_number", length = 50)
+    private String orderNumber;
+
+    @Column(name = "total_amount", precision = 10, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(length = 500)
+    private String error;
+
+    @Column(name = "accepted_at", nullable = false)
+    private LocalDateTime acceptedAt;
+
+    @Column(name = "completed_at", nullable = false)
+    private LocalDateTime completedAt;
+
+    public enum Status {
+        /**
+         * Waiting in the intake queue; only ever held in memory.
+         */
+        QUEUED,
+        /**
+         * Part of a batch being written; only ever held in memory.
+         */
+        PROCESSING,
+        CREATED,
+        FAILED
+    }
+}
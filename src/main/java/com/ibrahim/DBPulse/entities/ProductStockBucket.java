@@ -0,0 +1,56 @@
+package com.ibrahim.DBPulse.entities;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.io.Serializable;
+
+/**
+ * One share of a bucketed product's stock.
+ * A bucketed product's stock is products.stock_quantity plus the sum of its bucket rows,
+ * so concurrent orders decrement different rows instead of queueing on the product row.
+ * Rows are written with plain SQL by StockBuckets; the entity defines the table and lets
+ * JPQL queries add bucket stock to a product's own.
+ */
+@Entity
+@Table(name = "product_stock_buckets")
+@IdClass(ProductStockBucket.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductStockBucket {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Id
+    @Column(nullable = false)
+    private Integer bucket;
+
+    @Min(value = 0, message = "Bucket quantity cannot be negative")
+    @Column(nullable = false)
+    private Integer quantity = 0;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Product product;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long productId;
+        private Integer bucket;
+    }
+}
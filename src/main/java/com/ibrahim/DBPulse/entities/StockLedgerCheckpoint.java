@@ -0,0 +1,26 @@
+package com.ibrahim.DBPulse.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Last stock journal segment applied to the products table by the hot product ledger.
+ * A single row (id 1) is updated in the same transaction as the flushed stock deltas, so
+ * a restart replays exactly the segments after it. Rows are written with plain SQL by
+ * HotStockLedger; the entity defines the table.
+ */
+@Entity
+@Table(name = "stock_ledger_checkpoint")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLedgerCheckpoint {
+
+    @Id
+    private Integer id;
+
+    @Column(name = "last_segment", nullable = false)
+    private Long lastSegment;
+}
@@ -0,0 +1,17 @@
+package com.ibrahim.DBPulse.exceptions;
+
+/**
+ * Exception thrown when a request parameter or header is malformed in a way
+ * bean validation cannot express.
+ * Results in HTTP 400 Bad Request response.
+ */
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+
+    public BadRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
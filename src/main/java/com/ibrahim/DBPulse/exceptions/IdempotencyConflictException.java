@@ -0,0 +1,16 @@
+package com.ibrahim.DBPulse.exceptions;
+
+/**
+ * Exception thrown when an Idempotency-Key is reused with a different request.
+ * Results in HTTP 422 Unprocessable Content response.
+ */
+public class IdempotencyConflictException extends RuntimeException {
+
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+
+    public IdempotencyConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,17 @@
+package com.ibrahim.DBPulse.exceptions;
+
+/**
+ * Exception thrown when the asynchronous order intake cannot take a request,
+ * because its queue is full or it is shutting down.
+ * Results in HTTP 503 Service Unavailable response.
+ */
+public class IntakeUnavailableException extends RuntimeException {
+
+    public IntakeUnavailableException(String message) {
+        super(message);
+    }
+
+    public IntakeUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
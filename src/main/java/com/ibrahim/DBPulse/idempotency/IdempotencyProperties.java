@@ -0,0 +1,30 @@
+package com.ibrahim.DBPulse.idempotency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for Idempotency-Key handling on order creation (app.orders.idempotency.*).
+ * The purge interval is read directly by IdempotentRequests' @Scheduled trigger.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.orders.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * How long a key is remembered, in memory and in idempotency_keys.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * Most keys held in memory; older responses are still served from idempotency_keys.
+     */
+    private int maxEntries = 10_000;
+
+    /**
+     * Interval (ms) of the pass that drops expired keys from memory and the table.
+     */
+    private long purgeInterval = 60_000;
+}
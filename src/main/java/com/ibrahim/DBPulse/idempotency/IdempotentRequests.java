@@ -0,0 +1,287 @@
+package com.ibrahim.DBPulse.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ibrahim.DBPulse.exceptions.BadRequestException;
+import com.ibrahim.DBPulse.exceptions.IdempotencyConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Runs order creation at most once per Idempotency-Key.
+ *
+ * Keys live in a bounded concurrent map of in-flight and completed responses, backed by the
+ * idempotency_keys table. The first request for a key claims the map entry; concurrent
+ * duplicates wait on its future instead of racing it, and later retries get the response
+ * from memory, or from the table once it has been evicted, without touching products.
+ *
+ * The table row is inserted in the transaction that creates the orders, so a key is only
+ * remembered if its orders committed. When another instance commits the same key first,
+ * the insert fails on the primary key, this transaction rolls back and the stored response
+ * is returned instead. Failed requests are not remembered and may be retried. Actions with
+ * effects outside the database must defer them to the commit, as OrderIntake does.
+ */
+@Slf4j
+public class IdempotentRequests {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private static final String SELECT = """
+            SELECT request_hash, response FROM idempotency_keys WHERE idempotency_key = ?""";
+    private static final String INSERT = """
+            INSERT INTO idempotency_keys (idempotency_key, scope, request_hash, response, created_at)
+            VALUES (?, ?, ?, ?, ?)""";
+    private static final String PURGE = "DELETE FROM idempotency_keys WHERE created_at < ?";
+
+    /**
+     * Response to a request and whether it was produced by an earlier request with the same key.
+     */
+    public record Result<T>(T body, boolean replayed) {
+    }
+
+    private record Stored(String requestHash, String response) {
+    }
+
+    private static final class Entry {
+        final String fingerprint;
+        final CompletableFuture<Object> response = new CompletableFuture<>();
+        volatile long expiresAt = Long.MAX_VALUE;
+
+        Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        boolean isExpired(long now) {
+            return response.isDone() && now - expiresAt >= 0;
+        }
+    }
+
+    private final IdempotencyProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter writer;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final Counter executed;
+    private final Counter cached;
+    private final Counter stored;
+    private final Counter coalesced;
+    private final Counter conflicts;
+
+    public IdempotentRequests(IdempotencyProperties properties, JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+                              MeterRegistry registry) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        // The shared mapper pretty-prints for API responses; stored bodies and hashes do not need it
+        this.writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.executed = requests(registry, "executed");
+        this.cached = requests(registry, "cached");
+        this.stored = requests(registry, "stored");
+        this.coalesced = requests(registry, "coalesced");
+        this.conflicts = requests(registry, "conflict");
+        Gauge.builder("dbpulse.orders.idempotency.keys", entries, ConcurrentHashMap::size)
+                .description("Idempotency keys held in memory")
+                .register(registry);
+    }
+
+    private static Counter requests(MeterRegistry registry, String outcome) {
+        return Counter.builder("dbpulse.orders.idempotency.requests")
+                .description("Order requests carrying an Idempotency-Key, by how they were answered")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    /**
+     * Run action once for this key and scope, or return the response of the request that did.
+     * Without a key the action simply runs.
+     *
+     * @param scope   endpoint the key is used on; the same key on another endpoint is a conflict
+     * @param request request body, hashed to detect a key reused for a different request
+     * @throws BadRequestException if the key is blank or too long
+     * @throws IdempotencyConflictException if the key was used with a different request
+     */
+    public <T> Result<T> execute(String scope, String key, Object request, Class<T> type, Supplier<T> action) {
+        if (key == null) {
+            return new Result<>(action.get(), false);
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String fingerprint = fingerprint(scope, request);
+        while (true) {
+            Entry entry = new Entry(fingerprint);
+            Entry existing = entries.putIfAbsent(key, entry);
+            if (existing == null) {
+                if (entries.size() > properties.getMaxEntries()) {
+                    evict();
+                }
+                return first(scope, key, entry, type, action);
+            }
+            if (existing.isExpired(System.nanoTime())) {
+                entries.remove(key, existing);
+                continue;
+            }
+            checkSameRequest(key, existing.fingerprint, fingerprint);
+            (existing.response.isDone() ? cached : coalesced).increment();
+            return new Result<>(type.cast(await(existing)), true);
+        }
+    }
+
+    /**
+     * The request that claimed the key: replay a stored response or run the action and store it.
+     * Either way the entry is completed, so waiting duplicates see the same outcome.
+     */
+    private <T> Result<T> first(String scope, String key, Entry entry, Class<T> type, Supplier<T> action) {
+        try {
+            Result<T> result = replay(key, entry.fingerprint, type);
+            if (result == null) {
+                try {
+                    result = new Result<>(transactionTemplate.execute(status -> {
+                        T body = action.get();
+                        jdbcTemplate.update(INSERT, key, scope, entry.fingerprint, write(body),
+                                Timestamp.valueOf(LocalDateTime.now()));
+                        return body;
+                    }), false);
+                    executed.increment();
+                } catch (DuplicateKeyException e) {
+                    // Another instance committed this key while we ran; our orders were rolled back
+                    result = replay(key, entry.fingerprint, type);
+                    if (result == null) {
+                        throw e;
+                    }
+                }
+            }
+            entry.expiresAt = System.nanoTime() + properties.getTtl().toNanos();
+            entry.response.complete(result.body());
+            return result;
+        } catch (RuntimeException e) {
+            entries.remove(key, entry);
+            entry.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private <T> Result<T> replay(String key, String fingerprint, Class<T> type) {
+        List<Stored> rows = jdbcTemplate.query(SELECT, (rs, rowNum) -> new Stored(
+                rs.getString("request_hash"), rs.getString("response")), key);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        checkSameRequest(key, rows.getFirst().requestHash(), fingerprint);
+        stored.increment();
+        return new Result<>(read(rows.getFirst().response(), type), true);
+    }
+
+    private void checkSameRequest(String key, String expected, String actual) {
+        if (!expected.equals(actual)) {
+            conflicts.increment();
+            throw new IdempotencyConflictException(
+                    "Idempotency key " + key + " was already used with a different request");
+        }
+    }
+
+    private static Object await(Entry entry) {
+        try {
+            return entry.response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Drop expired entries, then completed ones in map order until a tenth of the room is free.
+     * Dropped responses are still found in idempotency_keys; in-flight entries always stay.
+     */
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            entries.values().removeIf(entry -> entry.isExpired(now));
+            int target = properties.getMaxEntries() - properties.getMaxEntries() / 10;
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (entries.size() > target && iterator.hasNext()) {
+                if (iterator.next().response.isDone()) {
+                    iterator.remove();
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * Forget keys older than the TTL, in memory and in the table.
+     */
+    @Scheduled(fixedDelayString = "${app.orders.idempotency.purge-interval:60000}")
+    public void purge() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.isExpired(now));
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getTtl());
+        int purged = jdbcTemplate.update(PURGE, Timestamp.valueOf(cutoff));
+        if (purged > 0) {
+            log.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private String fingerprint(String scope, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(scope.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            return HexFormat.of().formatHex(digest.digest(writer.writeValueAsBytes(request)));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Could not hash request for " + HEADER, e);
+        }
+    }
+
+    private String write(Object body) {
+        try {
+            return writer.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not store response for " + HEADER, e);
+        }
+    }
+
+    private <T> T read(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read stored response for " + HEADER, e);
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.ibrahim.DBPulse.intake;
+
+import com.ibrahim.DBPulse.dtos.OrderBatchItemResult;
+import com.ibrahim.DBPulse.dtos.OrderBatchResponse;
+import com.ibrahim.DBPulse.dtos.OrderRequest;
+import com.ibrahim.DBPulse.dtos.OrderRequestStatusResponse;
+import com.ibrahim.DBPulse.entities.OrderRequestRecord.Status;
+import com.ibrahim.DBPulse.exceptions.IntakeUnavailableException;
+import com.ibrahim.DBPulse.exceptions.ResourceNotFoundException;
+import com.ibrahim.DBPulse.services.OrderBatchService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous order intake: POST /api/orders only enqueues the validated request and
+ * answers 202 with a tracking id, so a burst of orders holds neither request threads nor
+ * connections while it waits for stock rows.
+ *
+ * A few virtual-thread workers drain the bounded queue in micro-batches: whatever queued up
+ * while the previous batch was written, up to maxBatch, goes through OrderBatchService in one
+ * transaction together with one order_requests row per request. Only the workers use
+ * connections, so intake never takes more than one per worker from the pool.
+ *
+ * A request submitted inside a transaction, such as the one storing its Idempotency-Key, only
+ * reserves its place in the queue and is enqueued once that transaction commits; if it rolls
+ * back, the request never reaches the workers.
+ *
+ * Requests waiting in the queue are answered from memory and live only in this instance;
+ * they are lost if it stops abruptly. On shutdown the workers finish the queue first.
+ * A request leaves memory only once its outcome row is committed; if even the FAILED row
+ * cannot be written, it stays in memory as FAILED until the retention passes.
+ */
+@Slf4j
+public class OrderIntake implements SmartInitializingSingleton, DisposableBean {
+
+    private static final String INSERT = """
+            INSERT INTO order_requests (id, status, order_id, order_number, total_amount, error, accepted_at, completed_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)""";
+    private static final String SELECT = """
+            SELECT id, status, order_id, order_number, total_amount, error, accepted_at, completed_at
+            FROM order_requests WHERE id = ?""";
+    private static final String PURGE = "DELETE FROM order_requests WHERE completed_at < ?";
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    /**
+     * A request between acceptance and the commit of its outcome.
+     */
+    private static final class Queued {
+        private final String id;
+        private final OrderRequest request;
+        private final LocalDateTime acceptedAt = LocalDateTime.now();
+        private final long enqueuedNanos = System.nanoTime();
+        private volatile boolean processing;
+        private volatile String error;
+        private volatile LocalDateTime failedAt;
+
+        private Queued(String id, OrderRequest request) {
+            this.id = id;
+            this.request = request;
+        }
+
+        private void fail(String error) {
+            this.error = error;
+            this.failedAt = LocalDateTime.now();
+        }
+
+        private OrderRequestStatusResponse toResponse() {
+            if (failedAt != null) {
+                return new OrderRequestStatusResponse(id, Status.FAILED, null, null, null, error, acceptedAt, failedAt);
+            }
+            return new OrderRequestStatusResponse(id, processing ? Status.PROCESSING : Status.QUEUED,
+                    null, null, null, null, acceptedAt, null);
+        }
+    }
+
+    private final OrderIntakeProperties properties;
+    private final OrderBatchService orderBatchService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final BlockingQueue<Queued> queue;
+    // Places taken in the queue, including those of requests waiting for their transaction to commit
+    private final AtomicInteger reserved = new AtomicInteger();
+    // Accepted requests whose outcome row is not committed, by tracking id
+    private final ConcurrentHashMap<String, Queued> pending = new ConcurrentHashMap<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean stopping;
+
+    private final Counter accepted;
+    private final Counter rejected;
+    private final Timer waitTimer;
+    private final DistributionSummary batchSize;
+
+    public OrderIntake(OrderIntakeProperties properties, OrderBatchService orderBatchService,
+                       JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, MeterRegistry registry) {
+        this.properties = properties;
+        this.orderBatchService = orderBatchService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+
+        this.accepted = Counter.builder("dbpulse.orders.intake.requests")
+                .description("Order requests offered to the asynchronous intake")
+                .tag("outcome", "accepted")
+                .register(registry);
+        this.rejected = Counter.builder("dbpulse.orders.intake.requests")
+                .description("Order requests offered to the asynchronous intake")
+                .tag("outcome", "rejected")
+                .register(registry);
+        this.waitTimer = Timer.builder("dbpulse.orders.intake.wait")
+                .description("Time order requests spend in the intake queue before their batch starts")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.batchSize = DistributionSummary.builder("dbpulse.orders.intake.batch.size")
+                .description("Order requests written per intake batch")
+                .baseUnit("orders")
+                .register(registry);
+        Gauge.builder("dbpulse.orders.intake.queue", queue, BlockingQueue::size)
+                .description("Order requests waiting in the intake queue")
+                .register(registry);
+    }
+
+    /**
+     * Start the workers before the web server accepts requests.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (int i = 0; i < properties.getWorkers(); i++) {
+            workers.add(Thread.ofVirtual().name("order-intake-" + i).start(this::run));
+        }
+        log.info("Order intake started with {} workers and room for {} requests",
+                properties.getWorkers(), properties.getQueueCapacity());
+    }
+
+    /**
+     * Stop accepting and let the workers write what is already queued.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        stopping = true;
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        if (!queue.isEmpty()) {
+            log.warn("Order intake stopped with {} requests still queued", queue.size());
+        }
+    }
+
+    /**
+     * Queue a validated order request. Within a transaction the request is queued after it commits
+     * and dropped if it rolls back, so a caller that fails afterwards has not ordered anything.
+     *
+     * @return the tracking id and QUEUED status
+     * @throws IntakeUnavailableException if the queue is full or the intake is stopping
+     */
+    public OrderRequestStatusResponse submit(OrderRequest request) {
+        if (stopping) {
+            rejected.increment();
+            throw new IntakeUnavailableException("Order intake is shutting down, retry later");
+        }
+        if (reserved.incrementAndGet() > properties.getQueueCapacity()) {
+            reserved.decrementAndGet();
+            rejected.increment();
+            throw new IntakeUnavailableException(
+                    "Order intake queue is full (" + properties.getQueueCapacity() + " requests), retry later");
+        }
+        Queued queued = new Queued(UUID.randomUUID().toString(), request);
+        // Taken before the enqueue: a worker may pick the request up right away
+        OrderRequestStatusResponse response = queued.toResponse();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        enqueue(queued);
+                    } else {
+                        reserved.decrementAndGet();
+                    }
+                }
+            });
+        } else {
+            enqueue(queued);
+        }
+        return response;
+    }
+
+    /**
+     * Hand a request to the workers; its reserved place guarantees the queue has room.
+     */
+    private void enqueue(Queued queued) {
+        pending.put(queued.id, queued);
+        queue.add(queued);
+        accepted.increment();
+    }
+
+    /**
+     * State of an accepted request: from memory until its outcome is written, then from order_requests.
+     */
+    public OrderRequestStatusResponse getStatus(String id) {
+        Queued queued = pending.get(id);
+        if (queued != null) {
+            return queued.toResponse();
+        }
+        return jdbcTemplate.query(SELECT, (rs, rowNum) -> new OrderRequestStatusResponse(
+                        rs.getString("id"),
+                        Status.valueOf(rs.getString("status")),
+                        rs.getObject("order_id", Long.class),
+                        rs.getString("order_number"),
+                        rs.getBigDecimal("total_amount"),
+                        rs.getString("error"),
+                        rs.getTimestamp("accepted_at").toLocalDateTime(),
+                        rs.getTimestamp("completed_at").toLocalDateTime()), id)
+                .stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Order request not found with ID: " + id));
+    }
+
+    private void run() {
+        List<Queued> batch = new ArrayList<>(properties.getMaxBatch());
+        while (!stopping || !queue.isEmpty()) {
+            try {
+                Queued first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.getMaxBatch() - 1);
+                reserved.addAndGet(-batch.size());
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Order intake worker failed on a batch of {} requests", batch.size(), e);
+                batch.forEach(queued -> queued.fail("Order could not be processed: " + e.getMessage()));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<Queued> batch) {
+        long now = System.nanoTime();
+        for (Queued queued : batch) {
+            queued.processing = true;
+            waitTimer.record(now - queued.enqueuedNanos, TimeUnit.NANOSECONDS);
+        }
+        batchSize.record(batch.size());
+
+        List<OrderRequest> requests = batch.stream().map(queued -> queued.request).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                OrderBatchResponse response = orderBatchService.createOrders(requests);
+                record(batch, response.getResults());
+            });
+        } catch (RuntimeException e) {
+            // The whole batch rolled back; record every request as failed so pollers get an answer
+            log.error("Order intake batch of {} requests failed", batch.size(), e);
+            String error = "Order could not be processed: " + e.getMessage();
+            List<OrderBatchItemResult> failed = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                failed.add(OrderBatchItemResult.failed(i, error));
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> record(batch, failed));
+            } catch (RuntimeException recordFailure) {
+                log.error("Unable to record the failure of {} order requests, keeping it in memory",
+                        batch.size(), recordFailure);
+                batch.forEach(queued -> queued.fail(error));
+                return;
+            }
+        }
+        batch.forEach(queued -> pending.remove(queued.id));
+    }
+
+    private void record(List<Queued> batch, List<OrderBatchItemResult> results) {
+        Timestamp completedAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (OrderBatchItemResult result : results) {
+            Queued queued = batch.get(result.getIndex());
+            rows.add(new Object[]{
+                    queued.id,
+                    (result.isSuccess() ? Status.CREATED : Status.FAILED).name(),
+                    result.getOrderId(),
+                    result.getOrderNumber(),
+                    result.getTotalAmount(),
+                    truncate(result.getError()),
+                    Timestamp.valueOf(queued.acceptedAt),
+                    completedAt});
+        }
+        jdbcTemplate.batchUpdate(INSERT, rows);
+    }
+
+    private static String truncate(String error) {
+        return error == null || error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    /**
+     * Delete outcomes older than the retention, including failures only held in memory.
+     */
+    @Scheduled(fixedDelayString = "${app.orders.intake.purge-interval:3600000}")
+    public void purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getRetention());
+        pending.values().removeIf(queued -> queued.failedAt != null && queued.failedAt.isBefore(cutoff));
+        int purged = jdbcTemplate.update(PURGE, Timestamp.valueOf(cutoff));
+        if (purged > 0) {
+            log.debug("Purged {} order request outcomes", purged);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.ibrahim.DBPulse.intake;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for asynchronous order intake (app.orders.intake.*).
+ * The purge interval is read directly by OrderIntake's @Scheduled trigger.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.orders.intake")
+public class OrderIntakeProperties {
+
+    /**
+     * Accept POST /api/orders into a queue and answer 202 instead of creating the order in the request.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Most requests waiting in the queue; beyond it requests are refused with 503.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * Virtual-thread workers draining the queue; each holds one connection while it writes a batch.
+     */
+    private int workers = 4;
+
+    /**
+     * Most requests written per batch; at most app.orders.batch.max-size.
+     */
+    private int maxBatch = 100;
+
+    /**
+     * How long outcomes stay in order_requests.
+     */
+    private Duration retention = Duration.ofDays(7);
+
+    /**
+     * Interval (ms) of the pass that deletes outcomes older than the retention.
+     */
+    private long purgeInterval = 3_600_000;
+}
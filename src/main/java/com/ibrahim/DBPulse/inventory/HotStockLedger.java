@@ -0,0 +1,374 @@
+package com.ibrahim.DBPulse.inventory;
+
+import com.ibrahim.DBPulse.entities.StockLedgerCheckpoint;
+import com.ibrahim.DBPulse.metrics.SpaceSaving;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Hot product mode: stock of designated or auto-detected hot products is reserved in memory.
+ * Each hot product's stock lives in a {@link StripedStock} loaded from products.stock_quantity.
+ * A reservation takes units from it and waits until the delta is durable in the
+ * {@link StockJournal}; a periodic flush applies the journaled deltas to the products table
+ * in one batch, so a flash sale on one SKU no longer serializes on its row lock.
+ *
+ * The last flushed segment is recorded in stock_ledger_checkpoint ({@link StockLedgerCheckpoint})
+ * in the same transaction as the stock updates, so on startup exactly the segments not yet
+ * applied are replayed. Each flush also re-reads the hot rows and folds changes made outside
+ * the ledger (restocks, the batch endpoint, orders in flight while a product was promoted)
+ * into the counters.
+ */
+@Slf4j
+public class HotStockLedger implements SmartInitializingSingleton, DisposableBean {
+
+    private static final String INIT_CHECKPOINT = "INSERT INTO stock_ledger_checkpoint (id, last_segment) "
+            + "SELECT 1, 0 WHERE NOT EXISTS (SELECT 1 FROM stock_ledger_checkpoint WHERE id = 1)";
+    private static final String READ_CHECKPOINT = "SELECT last_segment FROM stock_ledger_checkpoint WHERE id = 1";
+    private static final String WRITE_CHECKPOINT = "UPDATE stock_ledger_checkpoint SET last_segment = ? WHERE id = 1";
+    private static final String APPLY_DELTA =
+            "UPDATE products SET stock_quantity = stock_quantity + ?, updated_at = ? WHERE id = ?";
+    private static final String LOAD_STOCK = "SELECT stock_quantity FROM products WHERE id = ? FOR UPDATE";
+    private static final String READ_STOCK = "SELECT id, stock_quantity FROM products WHERE id IN (:ids)";
+
+    /**
+     * In-memory stock of one product. databaseStock is what the flusher last read from the
+     * row, so a difference beyond the flushed deltas is a change made outside the ledger.
+     */
+    private static final class HotProduct {
+        private final StripedStock stock;
+        private long databaseStock;
+
+        private HotProduct(StripedStock stock, long databaseStock) {
+            this.stock = stock;
+            this.databaseStock = databaseStock;
+        }
+    }
+
+    private final HotStockProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry registry;
+    private final int stripes;
+
+    private final ConcurrentMap<Long, HotProduct> hot = new ConcurrentHashMap<>();
+    private final Counter reserved;
+    private final Counter insufficient;
+    private final Counter drift;
+
+    private volatile SpaceSaving demand;
+    private long windowStart = System.currentTimeMillis();
+    private StockJournal journal;
+    // Rotated segments not yet in the database; touched by the flusher only
+    private final List<StockJournal.Segment> pending = new ArrayList<>();
+
+    public HotStockLedger(HotStockProperties properties, JdbcTemplate jdbcTemplate,
+                          NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                          TransactionTemplate transactionTemplate, MeterRegistry registry) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.registry = registry;
+        this.stripes = properties.getStripes() > 0 ? properties.getStripes() : Runtime.getRuntime().availableProcessors();
+        this.demand = new SpaceSaving(properties.getMaxProducts() * 4);
+
+        this.reserved = Counter.builder("dbpulse.stock.hot.reservations")
+                .description("Reservations against in-memory stock of hot products")
+                .tag("outcome", "reserved")
+                .register(registry);
+        this.insufficient = Counter.builder("dbpulse.stock.hot.reservations")
+                .description("Reservations against in-memory stock of hot products")
+                .tag("outcome", "insufficient")
+                .register(registry);
+        this.drift = Counter.builder("dbpulse.stock.hot.drift")
+                .description("Units of hot product stock changed outside the ledger and folded back in")
+                .baseUnit("units")
+                .register(registry);
+        Gauge.builder("dbpulse.stock.hot.products", hot, Map::size)
+                .description("Products whose stock is held in memory")
+                .register(registry);
+    }
+
+    /**
+     * Replay unflushed journal segments, open the journal and load the designated products,
+     * before the web server accepts orders.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        Path directory = Path.of(properties.getJournal().getDirectory());
+        try {
+            jdbcTemplate.update(INIT_CHECKPOINT);
+            long lastSegment = replay(directory);
+            journal = new StockJournal(directory, lastSegment + 1, properties.getJournal().getMaxBatch(), registry);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open stock journal in " + directory, e);
+        }
+        properties.getProducts().forEach(this::promote);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (journal != null) {
+            flush();
+            journal.close();
+        }
+    }
+
+    public boolean isHot(long productId) {
+        return hot.containsKey(productId);
+    }
+
+    /**
+     * Reserve stock of a hot product once the reservation is durable in the journal.
+     * Inside a transaction the units are returned if it rolls back.
+     *
+     * @return false when not enough stock is left
+     */
+    public boolean reserve(long productId, int quantity) {
+        HotProduct product = hot.get(productId);
+        if (product == null) {
+            throw new IllegalStateException("Product " + productId + " is not hot");
+        }
+        if (!product.stock.tryReserve(quantity)) {
+            insufficient.increment();
+            return false;
+        }
+        try {
+            journal.append(productId, -quantity).join();
+        } catch (CompletionException e) {
+            product.stock.release(quantity);
+            throw new IllegalStateException("Unable to journal stock reservation for product " + productId, e.getCause());
+        }
+        reserved.increment();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        release(productId, quantity);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Return reserved units. The reverse delta is journaled without waiting: if it is lost
+     * in a crash the database ends up with fewer units, never more.
+     */
+    public void release(long productId, int quantity) {
+        HotProduct product = hot.get(productId);
+        if (product == null) {
+            return;
+        }
+        product.stock.release(quantity);
+        journal.append(productId, quantity);
+    }
+
+    /**
+     * Count an order line for a product that is not hot yet, towards auto-detection.
+     */
+    public void recordDemand(long productId) {
+        if (properties.getAutoDetect().isEnabled()) {
+            demand.add(productId, 1);
+        }
+    }
+
+    /**
+     * In-memory stock of a hot product, ahead of the database by up to one flush interval.
+     */
+    public OptionalLong available(long productId) {
+        HotProduct product = hot.get(productId);
+        return product != null ? OptionalLong.of(product.stock.available()) : OptionalLong.empty();
+    }
+
+    /**
+     * Apply journaled reservations to products.stock_quantity, fold outside changes into
+     * the counters and promote products detected as hot.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.hot-stock.flush-interval:1000}")
+    public synchronized void flush() {
+        try {
+            pending.add(journal.rotate().join());
+        } catch (CompletionException e) {
+            log.warn("Unable to rotate stock journal, flushing what was rotated before", e.getCause());
+        }
+
+        Map<Long, Long> deltas = new TreeMap<>();
+        pending.forEach(segment -> segment.deltas().forEach((id, delta) -> deltas.merge(id, delta, Long::sum)));
+        deltas.values().removeIf(delta -> delta == 0);
+        if (!pending.isEmpty() || !hot.isEmpty()) {
+            Map<Long, Long> stock;
+            try {
+                stock = transactionTemplate.execute(status -> {
+                    applyDeltas(deltas);
+                    if (!pending.isEmpty()) {
+                        jdbcTemplate.update(WRITE_CHECKPOINT, pending.getLast().id());
+                    }
+                    return readStock();
+                });
+            } catch (RuntimeException e) {
+                // The segments stay pending and are retried, merged with the next ones
+                log.warn("Unable to flush hot product stock to the database", e);
+                return;
+            }
+            pending.forEach(segment -> delete(segment.path()));
+            pending.clear();
+            reconcile(stock, deltas);
+        }
+        promoteDetected();
+    }
+
+    /**
+     * Hold a product's stock in memory, loaded from its row under a lock.
+     * The product is published as hot before that lock is released: order transactions holding
+     * the row lock have committed and are in the loaded stock, and an order that decrements
+     * the row after this commit sees the product as hot when it re-checks under its own lock
+     * and moves its units to the ledger, so no unit is sold from both.
+     */
+    void promote(long productId) {
+        if (hot.containsKey(productId)) {
+            return;
+        }
+        if (hot.size() >= properties.getMaxProducts()) {
+            log.warn("Not promoting product {}: already {} hot products", productId, hot.size());
+            return;
+        }
+        Long stock = transactionTemplate.execute(status -> {
+            List<Long> loaded = jdbcTemplate.queryForList(LOAD_STOCK, Long.class, productId);
+            if (loaded.isEmpty()) {
+                return null;
+            }
+            hot.put(productId, new HotProduct(new StripedStock(loaded.getFirst(), stripes), loaded.getFirst()));
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        hot.remove(productId);
+                    }
+                }
+            });
+            return loaded.getFirst();
+        });
+        if (stock == null) {
+            log.warn("Not promoting product {}: not found", productId);
+            return;
+        }
+        log.info("Product {} is hot, {} units held in memory over {} stripes", productId, stock, stripes);
+    }
+
+    private void promoteDetected() {
+        HotStockProperties.AutoDetect autoDetect = properties.getAutoDetect();
+        long now = System.currentTimeMillis();
+        if (!autoDetect.isEnabled() || now - windowStart < autoDetect.getWindow().toMillis()) {
+            return;
+        }
+        SpaceSaving window = demand;
+        demand = new SpaceSaving(properties.getMaxProducts() * 4);
+        windowStart = now;
+        for (SpaceSaving.Entry entry : window.top(properties.getMaxProducts())) {
+            // The lower bound, so a product is never promoted on overestimated counts alone
+            if (entry.count() - entry.error() >= autoDetect.getThreshold()) {
+                promote(entry.key());
+            }
+        }
+    }
+
+    private long replay(Path directory) throws IOException {
+        long lastSegment = jdbcTemplate.queryForObject(READ_CHECKPOINT, Long.class);
+        for (Path segment : StockJournal.segments(directory)) {
+            long id = StockJournal.segmentId(segment);
+            if (id > lastSegment) {
+                Map<Long, Long> deltas = new TreeMap<>(StockJournal.read(segment));
+                deltas.values().removeIf(delta -> delta == 0);
+                transactionTemplate.executeWithoutResult(status -> {
+                    applyDeltas(deltas);
+                    jdbcTemplate.update(WRITE_CHECKPOINT, id);
+                });
+                log.info("Replayed stock journal segment {} for {} products", id, deltas.size());
+                lastSegment = id;
+            }
+            delete(segment);
+        }
+        return lastSegment;
+    }
+
+    /**
+     * One batched update per product, in id order like the order path's locks.
+     */
+    private void applyDeltas(Map<Long, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> updates = new ArrayList<>(deltas.size());
+        deltas.forEach((productId, delta) -> updates.add(new Object[]{delta, now, productId}));
+        jdbcTemplate.batchUpdate(APPLY_DELTA, updates);
+    }
+
+    private Map<Long, Long> readStock() {
+        Map<Long, Long> stock = new HashMap<>();
+        if (hot.isEmpty()) {
+            return stock;
+        }
+        namedParameterJdbcTemplate.query(READ_STOCK, Map.of("ids", hot.keySet()), rs -> {
+            stock.put(rs.getLong("id"), rs.getLong("stock_quantity"));
+        });
+        return stock;
+    }
+
+    private void reconcile(Map<Long, Long> stock, Map<Long, Long> flushed) {
+        stock.forEach((productId, actual) -> {
+            HotProduct product = hot.get(productId);
+            if (product == null) {
+                return;
+            }
+            long expected = product.databaseStock + flushed.getOrDefault(productId, 0L);
+            long difference = actual - expected;
+            product.databaseStock = actual;
+            if (difference != 0) {
+                long oversold = product.stock.adjust(difference);
+                drift.increment(Math.abs(difference));
+                log.warn("Stock of hot product {} changed by {} outside the ledger{}", productId, difference,
+                        oversold > 0 ? ", " + oversold + " units were already reserved" : "");
+            }
+        });
+    }
+
+    private static void delete(Path segment) {
+        try {
+            Files.deleteIfExists(segment);
+        } catch (IOException e) {
+            log.warn("Unable to delete stock journal segment {}", segment, e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.ibrahim.DBPulse.inventory;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration for hot product mode (app.inventory.hot-stock.*).
+ * Stock of hot products is reserved in memory and written behind to the products table,
+ * so the mode is only safe with a single application instance.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.inventory.hot-stock")
+public class HotStockProperties {
+
+    /**
+     * Reserve stock of hot products in memory instead of updating their row per order.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Product ids held in memory from startup.
+     */
+    private List<Long> products = new ArrayList<>();
+
+    /**
+     * Counter stripes per product, rounded up to a power of two; 0 means one per CPU.
+     */
+    private int stripes = 0;
+
+    /**
+     * Most products held in memory, designated and detected together.
+     */
+    private int maxProducts = 32;
+
+    /**
+     * Interval (ms) between write-behind flushes of journaled reservations to products.stock_quantity.
+     */
+    private long flushInterval = 1000;
+
+    private Journal journal = new Journal();
+
+    private AutoDetect autoDetect = new AutoDetect();
+
+    @Data
+    public static class Journal {
+
+        /**
+         * Directory of the reservation journal segments; replayed into the database on startup.
+         */
+        private String directory = "data/stock-journal";
+
+        /**
+         * Most reservations made durable by one fsync.
+         */
+        private int maxBatch = 512;
+    }
+
+    @Data
+    public static class AutoDetect {
+
+        /**
+         * Promote products whose order lines in one window reach the threshold.
+         */
+        private boolean enabled = true;
+
+        private Duration window = Duration.ofSeconds(10);
+
+        /**
+         * Order lines for one product within a window that make it hot.
+         */
+        private int threshold = 500;
+    }
+}
@@ -0,0 +1,39 @@
+package com.ibrahim.DBPulse.inventory;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration for bucketed stock (app.inventory.stock-buckets.*).
+ * Stock of the listed products is split across rows of product_stock_buckets and every
+ * change goes through the database, so any number of application instances can share it.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.inventory.stock-buckets")
+public class StockBucketProperties {
+
+    /**
+     * Split the stock of the listed products across bucket rows.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Product ids whose stock is bucketed. Products removed from the list get their
+     * bucket stock moved back to products.stock_quantity on the next startup.
+     */
+    private List<Long> products = new ArrayList<>();
+
+    /**
+     * Bucket rows per product; roughly the number of orders for one product that can
+     * commit in parallel.
+     */
+    private int buckets = 8;
+
+    /**
+     * Interval (ms) between passes that spread stock evenly again once a bucket runs empty.
+     */
+    private long rebalanceInterval = 5000;
+}
@@ -0,0 +1,376 @@
+package com.ibrahim.DBPulse.inventory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Bucketed stock: the stock of designated products is split across rows of
+ * product_stock_buckets, so concurrent orders for one SKU lock different rows.
+ * A bucketed product's stock is products.stock_quantity plus the sum of its buckets;
+ * the row normally holds 0 and only takes restocks until they are spread again.
+ *
+ * A reservation is one conditional decrement of the nearest bucket, in ring order from a
+ * random one, that has enough stock and is not locked by another transaction. When every
+ * such bucket is locked it waits for the nearest one, and when no single bucket holds
+ * enough it locks the product row and all buckets and takes the quantity from the total.
+ * Locks are taken row first, then buckets in bucket order, and bucketed products after
+ * ordinary product rows, so the order paths cannot deadlock each other. Everything is in
+ * the database, so stock stays exact with any number of application instances.
+ */
+@Slf4j
+public class StockBuckets implements SmartInitializingSingleton {
+
+    private static final String LOCK_PRODUCT = "SELECT stock_quantity FROM products WHERE id = ? FOR UPDATE";
+    private static final String LOCK_BUCKETS =
+            "SELECT bucket, quantity FROM product_stock_buckets WHERE product_id = ? ORDER BY bucket FOR UPDATE";
+    private static final String READ_STOCK = "SELECT b.bucket, b.quantity, p.stock_quantity FROM products p "
+            + "JOIN product_stock_buckets b ON b.product_id = p.id WHERE p.id = ?";
+    private static final String BUCKETED_PRODUCTS = "SELECT DISTINCT product_id FROM product_stock_buckets";
+    // The subquery picks the bucket; the outer condition re-checks it once the row is locked
+    private static final String RESERVE = "UPDATE product_stock_buckets SET quantity = quantity - ? "
+            + "WHERE product_id = ? AND quantity >= ? AND bucket = (SELECT bucket FROM product_stock_buckets "
+            + "WHERE product_id = ? AND quantity >= ? ORDER BY MOD(bucket + ?, ?) LIMIT 1 %s)";
+    private static final String RESERVE_UNLOCKED = String.format(RESERVE, "FOR UPDATE SKIP LOCKED");
+    private static final String RESERVE_NEAREST = String.format(RESERVE, "FOR UPDATE");
+    private static final String INSERT_BUCKET =
+            "INSERT INTO product_stock_buckets (product_id, bucket, quantity) VALUES (?, ?, 0)";
+    private static final String UPDATE_BUCKET =
+            "UPDATE product_stock_buckets SET quantity = ? WHERE product_id = ? AND bucket = ?";
+    private static final String DELETE_BUCKETS = "DELETE FROM product_stock_buckets WHERE product_id = ? AND bucket >= ?";
+    private static final String UPDATE_PRODUCT_STOCK =
+            "UPDATE products SET stock_quantity = ?, updated_at = ? WHERE id = ?";
+
+    /**
+     * A product's row and bucket quantities as read under lock.
+     */
+    private record Stock(int row, TreeMap<Integer, Integer> buckets) {
+
+        long total() {
+            long total = row;
+            for (int quantity : buckets.values()) {
+                total += quantity;
+            }
+            return total;
+        }
+    }
+
+    private final StockBucketProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int buckets;
+
+    private final Counter skipLocked;
+    private final Counter waited;
+    private final Counter swept;
+    private final Counter insufficient;
+    private final Counter rebalances;
+
+    private volatile Set<Long> bucketed = Set.of();
+
+    /**
+     * @param transactionTemplate must start a new transaction; used for startup, rebalancing
+     *                            and refilling buckets after a restock commits
+     */
+    public StockBuckets(StockBucketProperties properties, JdbcTemplate jdbcTemplate,
+                        TransactionTemplate transactionTemplate, MeterRegistry registry) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.buckets = Math.max(1, properties.getBuckets());
+
+        this.skipLocked = reservations(registry, "bucket");
+        this.waited = reservations(registry, "waited");
+        this.swept = reservations(registry, "swept");
+        this.insufficient = reservations(registry, "insufficient");
+        this.rebalances = Counter.builder("dbpulse.stock.buckets.rebalances")
+                .description("Times a bucketed product's stock was spread evenly across its buckets")
+                .register(registry);
+    }
+
+    private static Counter reservations(MeterRegistry registry, String outcome) {
+        return Counter.builder("dbpulse.stock.buckets.reservations")
+                .description("Stock reservations against bucketed products, by how the stock was found")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    /**
+     * Create the buckets of the designated products and spread their stock, and move the
+     * bucket stock of products no longer designated back to their rows, before the web
+     * server accepts orders.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        Set<Long> designated = new TreeSet<>(properties.getProducts());
+        Set<Long> existing = new TreeSet<>(jdbcTemplate.queryForList(BUCKETED_PRODUCTS, Long.class));
+        existing.removeAll(designated);
+        for (Long productId : existing) {
+            transactionTemplate.executeWithoutResult(status -> unbucket(productId));
+        }
+
+        Set<Long> ready = new TreeSet<>();
+        for (Long productId : designated) {
+            Boolean found = transactionTemplate.execute(status -> prepare(productId));
+            if (Boolean.TRUE.equals(found)) {
+                ready.add(productId);
+            }
+        }
+        bucketed = Set.copyOf(ready);
+    }
+
+    public boolean isBucketed(long productId) {
+        return bucketed.contains(productId);
+    }
+
+    /**
+     * Take stock of a bucketed product within the caller's transaction.
+     *
+     * @return false when the product's total stock is short
+     */
+    public boolean reserve(long productId, int quantity) {
+        if (Boolean.TRUE.equals(jdbcTemplate.execute(
+                (ConnectionCallback<Boolean>) connection -> reserveFromOneBucket(connection, productId, quantity)))) {
+            return true;
+        }
+
+        // No single bucket holds enough
+        Stock stock = lock(productId);
+        long total = stock.total();
+        if (total < quantity) {
+            insufficient.increment();
+            return false;
+        }
+        spread(productId, stock, total - quantity);
+        swept.increment();
+        return true;
+    }
+
+    /**
+     * The attempts run under a savepoint: one that finds its bucket short after waiting for
+     * it still holds the bucket's lock, and two orders sweeping with such a lock would deadlock.
+     */
+    private boolean reserveFromOneBucket(Connection connection, long productId, int quantity) throws SQLException {
+        // Offset that makes a random bucket sort first, followed by its neighbours in ring order
+        int offset = buckets - ThreadLocalRandom.current().nextInt(buckets);
+        Savepoint savepoint = connection.setSavepoint();
+        if (decrement(RESERVE_UNLOCKED, productId, quantity, offset)) {
+            skipLocked.increment();
+        } else if (decrement(RESERVE_NEAREST, productId, quantity, offset)) {
+            waited.increment();
+        } else {
+            connection.rollback(savepoint);
+            return false;
+        }
+        connection.releaseSavepoint(savepoint);
+        return true;
+    }
+
+    /**
+     * Lock a bucketed product's row and buckets within the caller's transaction.
+     *
+     * @return the product's total stock
+     */
+    public long lockTotal(long productId) {
+        return lock(productId).total();
+    }
+
+    /**
+     * Replace a product's stock, locked with {@link #lockTotal}, by the given total spread
+     * evenly across its buckets.
+     */
+    public void setTotal(long productId, long total) {
+        spread(productId, lock(productId), total);
+    }
+
+    /**
+     * Empty a bucketed product's buckets, in the caller's transaction, ahead of an absolute
+     * stock update of its row. The buckets are refilled from the row once that commits.
+     *
+     * @return the product's total stock before the update
+     */
+    public long drain(long productId) {
+        Stock stock = lock(productId);
+        List<Object[]> updates = new ArrayList<>();
+        stock.buckets().forEach((bucket, quantity) -> {
+            if (quantity != 0) {
+                updates.add(new Object[]{0, productId, bucket});
+            }
+        });
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_BUCKET, updates);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rebalance(productId);
+                }
+            });
+        }
+        return stock.total();
+    }
+
+    /**
+     * Spread the stock of bucketed products evenly again once a bucket has run empty while
+     * others have units to spare, or a restock has landed on the product row.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.stock-buckets.rebalance-interval:5000}")
+    public void rebalance() {
+        for (Long productId : new TreeSet<>(bucketed)) {
+            rebalance(productId);
+        }
+    }
+
+    private void rebalance(long productId) {
+        try {
+            // Checked without locks first, so balanced products cost one read
+            if (!unbalanced(read(productId))) {
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                Stock stock = lock(productId);
+                if (unbalanced(stock)) {
+                    spread(productId, stock, stock.total());
+                    rebalances.increment();
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Unable to rebalance stock buckets of product {}", productId, e);
+        }
+    }
+
+    private static boolean unbalanced(Stock stock) {
+        if (stock == null || stock.buckets().isEmpty()) {
+            return false;
+        }
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        for (int quantity : stock.buckets().values()) {
+            min = Math.min(min, quantity);
+            max = Math.max(max, quantity);
+        }
+        return stock.row() > 0 || (min == 0 && max > 1);
+    }
+
+    /**
+     * Give a designated product exactly the configured buckets and spread its stock over them.
+     *
+     * @return false when the product does not exist
+     */
+    private boolean prepare(long productId) {
+        Stock stock = lock(productId);
+        if (stock == null) {
+            log.warn("Not bucketing stock of product {}: not found", productId);
+            return false;
+        }
+        long total = stock.total();
+        if (stock.buckets().size() != buckets || stock.buckets().lastKey() != buckets - 1) {
+            jdbcTemplate.update(DELETE_BUCKETS, productId, buckets);
+            stock.buckets().tailMap(buckets).clear();
+            List<Object[]> inserts = new ArrayList<>();
+            for (int bucket = 0; bucket < buckets; bucket++) {
+                if (stock.buckets().putIfAbsent(bucket, 0) == null) {
+                    inserts.add(new Object[]{productId, bucket});
+                }
+            }
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_BUCKET, inserts);
+            }
+        }
+        // The total still counts the dropped buckets, so their stock is spread over the rest
+        spread(productId, stock, total);
+        log.info("Stock of product {} bucketed: {} units over {} buckets", productId, total, buckets);
+        return true;
+    }
+
+    /**
+     * Move all bucket stock of a product back to its row and drop its buckets.
+     */
+    private void unbucket(long productId) {
+        Stock stock = lock(productId);
+        if (stock == null) {
+            return;
+        }
+        long total = stock.total();
+        jdbcTemplate.update(DELETE_BUCKETS, productId, 0);
+        jdbcTemplate.update(UPDATE_PRODUCT_STOCK, (int) total, Timestamp.valueOf(LocalDateTime.now()), productId);
+        log.info("Stock of product {} no longer bucketed: {} units moved back to the product row", productId, total);
+    }
+
+    /**
+     * Write the given total as even bucket shares and an empty product row, touching only
+     * the rows whose quantity changes.
+     */
+    private void spread(long productId, Stock stock, long total) {
+        int count = stock.buckets().size();
+        if (count == 0) {
+            jdbcTemplate.update(UPDATE_PRODUCT_STOCK, (int) total, Timestamp.valueOf(LocalDateTime.now()), productId);
+            return;
+        }
+        long share = total / count;
+        long extra = total % count;
+        List<Object[]> updates = new ArrayList<>();
+        int index = 0;
+        for (var entry : stock.buckets().entrySet()) {
+            int quantity = (int) (share + (index++ < extra ? 1 : 0));
+            if (quantity != entry.getValue()) {
+                updates.add(new Object[]{quantity, productId, entry.getKey()});
+            }
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_BUCKET, updates);
+        }
+        if (stock.row() != 0) {
+            jdbcTemplate.update(UPDATE_PRODUCT_STOCK, 0, Timestamp.valueOf(LocalDateTime.now()), productId);
+        }
+    }
+
+    private boolean decrement(String sql, long productId, int quantity, int offset) {
+        return jdbcTemplate.update(sql, quantity, productId, quantity, productId, quantity, offset, buckets) == 1;
+    }
+
+    /**
+     * Lock the product row, then its buckets in bucket order; null when the product does not exist.
+     */
+    private Stock lock(long productId) {
+        List<Integer> row = jdbcTemplate.queryForList(LOCK_PRODUCT, Integer.class, productId);
+        if (row.isEmpty()) {
+            return null;
+        }
+        TreeMap<Integer, Integer> quantities = new TreeMap<>();
+        jdbcTemplate.query(LOCK_BUCKETS, rs -> {
+            quantities.put(rs.getInt("bucket"), rs.getInt("quantity"));
+        }, productId);
+        return new Stock(row.getFirst(), quantities);
+    }
+
+    private Stock read(long productId) {
+        TreeMap<Integer, Integer> quantities = new TreeMap<>();
+        int[] row = new int[1];
+        jdbcTemplate.query(READ_STOCK, rs -> {
+            quantities.put(rs.getInt("bucket"), rs.getInt("quantity"));
+            row[0] = rs.getInt("stock_quantity");
+        }, productId);
+        return quantities.isEmpty() ? null : new Stock(row[0], quantities);
+    }
+}
@@ -0,0 +1,278 @@
+package com.ibrahim.DBPulse.inventory;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, group-committed journal of stock deltas for hot products.
+ * Callers enqueue a delta and wait on its future; a single writer thread drains whatever
+ * has queued up, writes it with one write and one fsync and completes the whole group, so
+ * concurrent reservations share the cost of each fsync. Records go to numbered segment
+ * files; {@link #rotate()} closes the current segment and hands its per-product totals to
+ * the flusher, which deletes the file once those totals are in the database.
+ *
+ * Record layout (16 bytes): product id (long), delta (int), CRC32 of the first 12 bytes (int).
+ * A torn or corrupt record, left by a crash mid-write, ends the replay of its segment.
+ */
+@Slf4j
+public class StockJournal implements AutoCloseable {
+
+    static final int RECORD_BYTES = 16;
+
+    private static final String PREFIX = "stock-";
+    private static final String SUFFIX = ".journal";
+
+    /**
+     * A closed segment and the sum of its deltas per product.
+     */
+    public record Segment(long id, Path path, Map<Long, Long> deltas) {
+    }
+
+    private sealed interface Command permits Append, Rotate {
+    }
+
+    private record Append(long productId, int delta, CompletableFuture<Void> durable) implements Command {
+    }
+
+    private record Rotate(CompletableFuture<Segment> closed) implements Command {
+    }
+
+    private final Path directory;
+    private final int maxBatch;
+    private final BlockingQueue<Command> queue = new LinkedBlockingQueue<>();
+    private final ByteBuffer buffer;
+    private final CRC32 crc = new CRC32();
+    private final DistributionSummary groupSize;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    // Owned by the writer thread
+    private FileChannel channel;
+    private Path segmentPath;
+    private long segmentId;
+    private long committedPosition;
+    private Map<Long, Long> segmentDeltas = new HashMap<>();
+
+    /**
+     * @param firstSegment id of the segment to open; must be above every segment already on disk
+     * @param maxBatch     most records written per fsync
+     */
+    public StockJournal(Path directory, long firstSegment, int maxBatch, MeterRegistry registry) throws IOException {
+        this.directory = directory;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.buffer = ByteBuffer.allocateDirect(this.maxBatch * RECORD_BYTES);
+        this.groupSize = DistributionSummary.builder("dbpulse.stock.journal.group")
+                .description("Stock journal records made durable per fsync")
+                .baseUnit("records")
+                .register(registry);
+        Files.createDirectories(directory);
+        open(firstSegment);
+        this.writer = Thread.ofPlatform().daemon().name("stock-journal").start(this::run);
+    }
+
+    /**
+     * Queue a delta; the future completes once it is on disk.
+     */
+    public CompletableFuture<Void> append(long productId, int delta) {
+        CompletableFuture<Void> durable = new CompletableFuture<>();
+        if (!running) {
+            durable.completeExceptionally(new IllegalStateException("Stock journal is closed"));
+            return durable;
+        }
+        queue.add(new Append(productId, delta, durable));
+        return durable;
+    }
+
+    /**
+     * Close the current segment after everything queued before this call and start the next one.
+     */
+    public CompletableFuture<Segment> rotate() {
+        CompletableFuture<Segment> closed = new CompletableFuture<>();
+        queue.add(new Rotate(closed));
+        return closed;
+    }
+
+    /**
+     * Segment files in the directory, oldest first.
+     */
+    public static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(StockJournal::isSegment)
+                    .sorted((a, b) -> Long.compare(segmentId(a), segmentId(b)))
+                    .toList();
+        }
+    }
+
+    public static long segmentId(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    /**
+     * Sum a segment's deltas per product, stopping at the first torn or corrupt record.
+     */
+    public static Map<Long, Long> read(Path segment) throws IOException {
+        Map<Long, Long> deltas = new HashMap<>();
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(segment));
+        CRC32 checksum = new CRC32();
+        while (data.remaining() >= RECORD_BYTES) {
+            long productId = data.getLong();
+            int delta = data.getInt();
+            int stored = data.getInt();
+            checksum.reset();
+            checksum.update(data.array(), data.position() - RECORD_BYTES, RECORD_BYTES - Integer.BYTES);
+            if ((int) checksum.getValue() != stored) {
+                log.warn("Corrupt record at offset {} of {}, ignoring the rest of the segment",
+                        data.position() - RECORD_BYTES, segment);
+                break;
+            }
+            deltas.merge(productId, (long) delta, Long::sum);
+        }
+        return deltas;
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+
+    private void open(long id) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", PREFIX, id, SUFFIX));
+        FileChannel opened = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        segmentId = id;
+        segmentPath = path;
+        channel = opened;
+        committedPosition = opened.size();
+        segmentDeltas = new HashMap<>();
+    }
+
+    private void run() {
+        List<Command> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Command first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<Command> batch) {
+        List<Append> group = new ArrayList<>(batch.size());
+        for (Command command : batch) {
+            if (command instanceof Append append) {
+                group.add(append);
+            } else if (command instanceof Rotate rotate) {
+                commit(group);
+                group.clear();
+                rotate(rotate);
+            }
+        }
+        commit(group);
+    }
+
+    private void commit(List<Append> group) {
+        if (group.isEmpty()) {
+            return;
+        }
+        buffer.clear();
+        for (Append append : group) {
+            int start = buffer.position();
+            buffer.putLong(append.productId()).putInt(append.delta());
+            crc.reset();
+            crc.update(buffer.duplicate().position(start).limit(buffer.position()));
+            buffer.putInt((int) crc.getValue());
+        }
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+            committedPosition = channel.position();
+        } catch (IOException e) {
+            log.error("Stock journal write to {} failed for {} records", segmentPath, group.size(), e);
+            truncateToCommitted();
+            group.forEach(append -> append.durable().completeExceptionally(e));
+            return;
+        }
+        for (Append append : group) {
+            segmentDeltas.merge(append.productId(), (long) append.delta(), Long::sum);
+            append.durable().complete(null);
+        }
+        groupSize.record(group.size());
+    }
+
+    private void rotate(Rotate rotate) {
+        Segment closed = new Segment(segmentId, segmentPath, segmentDeltas);
+        FileChannel previous = channel;
+        try {
+            open(segmentId + 1);
+        } catch (IOException e) {
+            // Keep appending to the current segment; the flusher retries the rotation
+            log.error("Unable to start stock journal segment {}", segmentId + 1, e);
+            rotate.closed().completeExceptionally(e);
+            return;
+        }
+        try {
+            previous.close();
+        } catch (IOException e) {
+            log.warn("Unable to close stock journal segment {}", closed.path(), e);
+        }
+        rotate.closed().complete(closed);
+    }
+
+    /**
+     * Drop a partially written group so later records are not hidden behind a torn one on replay.
+     */
+    private void truncateToCommitted() {
+        try {
+            channel.truncate(committedPosition);
+            channel.position(committedPosition);
+        } catch (IOException e) {
+            log.error("Unable to truncate {} after a failed write", segmentPath, e);
+        }
+    }
+}
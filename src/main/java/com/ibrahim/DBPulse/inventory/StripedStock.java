@@ -0,0 +1,134 @@
+package com.ibrahim.DBPulse.inventory;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Stock of one hot product spread over striped counters, LongAdder style.
+ * A reservation takes units from the calling thread's home stripe with a CAS that never
+ * lets a stripe drop below zero, moving on to the other stripes when it runs short, so
+ * threads buying the same product rarely contend on one cache line. Because no stripe can
+ * go negative the total cannot either, whatever the interleaving.
+ */
+public final class StripedStock {
+
+    // 8 longs per stripe keep neighbouring stripes on separate 64-byte cache lines
+    private static final int PADDING = 8;
+
+    private final AtomicLongArray cells;
+    private final int mask;
+
+    /**
+     * @param stripes rounded up to a power of two
+     */
+    public StripedStock(long initial, int stripes) {
+        int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.cells = new AtomicLongArray(size * PADDING);
+        this.mask = size - 1;
+        long floor = Math.max(0, initial);
+        for (int stripe = 0; stripe < size; stripe++) {
+            cells.set(stripe * PADDING, floor / size + (stripe < floor % size ? 1 : 0));
+        }
+    }
+
+    /**
+     * Take the quantity if enough stock is left, all or nothing.
+     * Near sell-out a reservation may gather units from several stripes and put them back
+     * when the total falls short, which can briefly make a concurrent reservation fail.
+     */
+    public boolean tryReserve(long quantity) {
+        int home = home();
+        for (int i = 0; i <= mask; i++) {
+            if (tryTake((home + i) & mask, quantity)) {
+                return true;
+            }
+        }
+
+        long[] taken = new long[mask + 1];
+        long remaining = quantity;
+        for (int i = 0; i <= mask && remaining > 0; i++) {
+            int stripe = (home + i) & mask;
+            taken[stripe] = takeUpTo(stripe, remaining);
+            remaining -= taken[stripe];
+        }
+        if (remaining == 0) {
+            return true;
+        }
+        for (int stripe = 0; stripe <= mask; stripe++) {
+            if (taken[stripe] > 0) {
+                cells.getAndAdd(stripe * PADDING, taken[stripe]);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Return units, e.g. from a reservation whose order rolled back.
+     */
+    public void release(long quantity) {
+        cells.getAndAdd(home() * PADDING, quantity);
+    }
+
+    /**
+     * Apply a correction from the database. A negative correction takes what is there.
+     *
+     * @return the part of a negative correction that could not be taken because the stock ran out
+     */
+    public long adjust(long delta) {
+        if (delta >= 0) {
+            release(delta);
+            return 0;
+        }
+        long remaining = -delta;
+        int home = home();
+        for (int i = 0; i <= mask && remaining > 0; i++) {
+            remaining -= takeUpTo((home + i) & mask, remaining);
+        }
+        return remaining;
+    }
+
+    /**
+     * Units left; a moving target while reservations run.
+     */
+    public long available() {
+        long sum = 0;
+        for (int stripe = 0; stripe <= mask; stripe++) {
+            sum += cells.get(stripe * PADDING);
+        }
+        return sum;
+    }
+
+    public int stripes() {
+        return mask + 1;
+    }
+
+    private boolean tryTake(int stripe, long quantity) {
+        int index = stripe * PADDING;
+        long current;
+        do {
+            current = cells.get(index);
+            if (current < quantity) {
+                return false;
+            }
+        } while (!cells.compareAndSet(index, current, current - quantity));
+        return true;
+    }
+
+    private long takeUpTo(int stripe, long max) {
+        int index = stripe * PADDING;
+        long current;
+        long take;
+        do {
+            current = cells.get(index);
+            if (current <= 0) {
+                return 0;
+            }
+            take = Math.min(current, max);
+        } while (!cells.compareAndSet(index, current, current - take));
+        return take;
+    }
+
+    private int home() {
+        // Fibonacci hashing spreads consecutive thread ids over the stripes
+        return (int) ((Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+}
@@ -0,0 +1,133 @@
+package com.ibrahim.DBPulse.metrics;
+
+import com.ibrahim.DBPulse.repositories.ClientRepository;
+import com.ibrahim.DBPulse.repositories.OrderRepository;
+import com.ibrahim.DBPulse.repositories.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Refreshes all business gauges on a single background schedule.
+ * Values are published as an immutable snapshot behind an AtomicReference, so
+ * Prometheus scrapes and /actuator/metrics calls are served from memory and never
+ * borrow a Hikari connection.
+ */
+@Component
+@Slf4j
+public class BusinessMetricsCollector {
+
+    /**
+     * Stock level below which a product counts as low stock.
+     */
+    public static final int LOW_STOCK_THRESHOLD = 10;
+
+    /**
+     * Business values held in the snapshot.
+     */
+    public enum Metric {
+        ACTIVE_CLIENTS("clients.active"),
+        TOTAL_ORDERS("orders.total"),
+        LOW_STOCK_PRODUCTS("products.low_stock"),
+        INVENTORY_TOTAL("inventory.total");
+
+        private final String tagValue;
+
+        Metric(String tagValue) {
+            this.tagValue = tagValue;
+        }
+
+        public String getTagValue() {
+            return tagValue;
+        }
+    }
+
+    /**
+     * Immutable snapshot of all business values and the time each one was captured.
+     * A metric whose query failed keeps its previous value and capture time.
+     */
+    public record Snapshot(long[] values, long[] capturedAtMillis) {
+
+        static Snapshot empty() {
+            return new Snapshot(new long[Metric.values().length], new long[Metric.values().length]);
+        }
+    }
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.empty());
+    private final LongSupplier[] sources = new LongSupplier[Metric.values().length];
+    private final Timer refreshTimer;
+
+    public BusinessMetricsCollector(MeterRegistry registry,
+                                    ClientRepository clientRepository,
+                                    OrderRepository orderRepository,
+                                    ProductRepository productRepository,
+                                    InventoryTracker inventoryTracker) {
+        sources[Metric.ACTIVE_CLIENTS.ordinal()] = clientRepository::countByActiveTrue;
+        sources[Metric.TOTAL_ORDERS.ordinal()] = orderRepository::count;
+        sources[Metric.LOW_STOCK_PRODUCTS.ordinal()] = () -> productRepository.countLowStockProducts(LOW_STOCK_THRESHOLD);
+        sources[Metric.INVENTORY_TOTAL.ordinal()] = inventoryTracker::getTotal;
+
+        this.refreshTimer = Timer.builder("dbpulse.metrics.snapshot.refresh")
+                .description("Time taken to refresh the business metrics snapshot")
+                .tag("type", "internal")
+                .register(registry);
+
+        for (Metric metric : Metric.values()) {
+            Gauge.builder("dbpulse.metrics.snapshot.age", this, collector -> collector.ageSeconds(metric))
+                    .description("Age of the business metric value served to scrapes")
+                    .baseUnit("seconds")
+                    .tag("type", "internal")
+                    .tag("metric", metric.getTagValue())
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Refresh every business value and publish a new snapshot.
+     * Driven by app.metrics.collection-interval.
+     */
+    @Scheduled(fixedDelayString = "${app.metrics.collection-interval:15000}")
+    public void refresh() {
+        refreshTimer.record(() -> {
+            Snapshot previous = snapshot.get();
+            long[] values = previous.values().clone();
+            long[] capturedAt = previous.capturedAtMillis().clone();
+
+            for (Metric metric : Metric.values()) {
+                int i = metric.ordinal();
+                try {
+                    values[i] = sources[i].getAsLong();
+                    capturedAt[i] = System.currentTimeMillis();
+                } catch (Exception e) {
+                    log.warn("Error refreshing business metric {}", metric.getTagValue(), e);
+                }
+            }
+
+            snapshot.set(new Snapshot(values, capturedAt));
+        });
+    }
+
+    /**
+     * Current value of a business metric, read from the last snapshot.
+     */
+    public double value(Metric metric) {
+        return snapshot.get().values()[metric.ordinal()];
+    }
+
+    /**
+     * Seconds since the value of a business metric was last captured, or NaN if it never was.
+     */
+    public double ageSeconds(Metric metric) {
+        long capturedAt = snapshot.get().capturedAtMillis()[metric.ordinal()];
+        if (capturedAt == 0) {
+            return Double.NaN;
+        }
+        return (System.currentTimeMillis() - capturedAt) / 1000.0;
+    }
+}
@@ -0,0 +1,135 @@
+package com.ibrahim.DBPulse.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Attributes orders, revenue and slow requests to the clients generating the most of them.
+ * Each dimension is a {@link SpaceSaving} sketch with a fixed number of counters, so memory
+ * stays constant however many clients exist. Only the current top-K clients are exported
+ * with a client tag; everything else is folded into client="other", which keeps the
+ * Prometheus series count at K + 1 per dimension.
+ */
+@Component
+@Slf4j
+public class ClientHeavyHitters {
+
+    static final String OTHER = "other";
+
+    /**
+     * Attributed quantities.
+     */
+    public enum Dimension {
+        ORDERS("dbpulse.clients.top.orders", "Orders created by the top clients"),
+        REVENUE("dbpulse.clients.top.revenue", "Revenue generated by the top clients"),
+        SLOW_REQUESTS("dbpulse.clients.top.slow_requests", "Slow client requests by the top clients");
+
+        private final String metricName;
+        private final String description;
+
+        Dimension(String metricName, String description) {
+            this.metricName = metricName;
+            this.description = description;
+        }
+    }
+
+    private final int topK;
+    private final long slowThresholdNanos;
+    private final Map<Dimension, Tracker> trackers = new EnumMap<>(Dimension.class);
+
+    /**
+     * Sketch plus the values its gauge rows read.
+     */
+    private static final class Tracker {
+
+        private final SpaceSaving sketch;
+        private final MultiGauge gauge;
+        private volatile Map<String, Double> published = Map.of();
+
+        private Tracker(SpaceSaving sketch, MultiGauge gauge) {
+            this.sketch = sketch;
+            this.gauge = gauge;
+        }
+
+        private double value(String client) {
+            return published.getOrDefault(client, 0.0);
+        }
+    }
+
+    public ClientHeavyHitters(MeterRegistry registry,
+                              @Value("${app.metrics.clients.top-k:10}") int topK,
+                              @Value("${app.metrics.clients.capacity:100}") int capacity,
+                              @Value("${app.metrics.clients.slow-threshold:500ms}") Duration slowThreshold) {
+        this.topK = topK;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        for (Dimension dimension : Dimension.values()) {
+            MultiGauge gauge = MultiGauge.builder(dimension.metricName)
+                    .description(dimension.description)
+                    .register(registry);
+            // Counters beyond top-K absorb churn and keep the top-K estimates accurate
+            trackers.put(dimension, new Tracker(new SpaceSaving(Math.max(capacity, topK)), gauge));
+        }
+    }
+
+    /**
+     * Attribute a created order and its amount to a client.
+     */
+    public void recordOrder(long clientId, double amount) {
+        trackers.get(Dimension.ORDERS).sketch.add(clientId, 1);
+        trackers.get(Dimension.REVENUE).sketch.add(clientId, amount);
+    }
+
+    /**
+     * Attribute a request made for a client; counted only when slower than the threshold.
+     */
+    public void recordRequest(long clientId, long nanos) {
+        if (nanos >= slowThresholdNanos) {
+            trackers.get(Dimension.SLOW_REQUESTS).sketch.add(clientId, 1);
+        }
+    }
+
+    /**
+     * Current top-K of a dimension, largest first.
+     */
+    public List<SpaceSaving.Entry> top(Dimension dimension) {
+        return trackers.get(dimension).sketch.top(topK);
+    }
+
+    /**
+     * Re-rank the sketches and replace the gauge rows with the current top-K and "other".
+     */
+    @Scheduled(fixedDelayString = "${app.metrics.collection-interval:15000}")
+    public void publish() {
+        trackers.forEach((dimension, tracker) -> {
+            List<SpaceSaving.Entry> top = tracker.sketch.top(topK);
+            Map<String, Double> values = HashMap.newHashMap(top.size() + 1);
+            double ranked = 0;
+            for (SpaceSaving.Entry entry : top) {
+                values.put(Long.toString(entry.key()), entry.count());
+                ranked += entry.count();
+            }
+            // Counts overestimate, so the remainder is clamped rather than allowed to go negative
+            values.put(OTHER, Math.max(0, tracker.sketch.total() - ranked));
+            tracker.published = values;
+
+            List<MultiGauge.Row<?>> rows = new ArrayList<>(values.size());
+            for (String client : values.keySet()) {
+                rows.add(MultiGauge.Row.of(Tags.of("client", client), tracker, t -> t.value(client)));
+            }
+            tracker.gauge.register(rows, true);
+        });
+        log.debug("Published top {} clients for {} dimensions", topK, trackers.size());
+    }
+}
@@ -0,0 +1,61 @@
+package com.ibrahim.DBPulse.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Feeds the latency of client-scoped endpoints (/api/clients/{id}/..., /api/orders/client/{clientId})
+ * into {@link ClientHeavyHitters}, keyed by the client id from the URI template.
+ */
+@Component
+public class ClientRequestAttributionFilter extends OncePerRequestFilter {
+
+    private static final Map<String, String> CLIENT_VARIABLES = Map.of(
+            "/api/clients/{id}", "id",
+            "/api/clients/{id}/deactivate", "id",
+            "/api/orders/client/{clientId}", "clientId");
+
+    private final ClientHeavyHitters clientHeavyHitters;
+
+    public ClientRequestAttributionFilter(ClientHeavyHitters clientHeavyHitters) {
+        this.clientHeavyHitters = clientHeavyHitters;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Long clientId = clientId(request);
+            if (clientId != null) {
+                clientHeavyHitters.recordRequest(clientId, System.nanoTime() - start);
+            }
+        }
+    }
+
+    private static Long clientId(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String variable = pattern != null ? CLIENT_VARIABLES.get(pattern.toString()) : null;
+        if (variable == null) {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String value = variables != null ? variables.get(variable) : null;
+        try {
+            return value != null ? Long.valueOf(value) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.ibrahim.DBPulse.metrics;
+
+import com.ibrahim.DBPulse.repositories.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory aggregate of the total stock quantity across all products.
+ * Seeded once with a single SQL SUM and then kept up to date by deltas from the
+ * services that change stock, so the inventory gauge never scans the products table.
+ * A periodic reconciliation pass re-reads the SUM and reports the drift it corrects.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryTracker {
+
+    private final ProductRepository productRepository;
+
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong lastDrift = new AtomicLong();
+    private volatile boolean seeded;
+
+    /**
+     * Seed the aggregate once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        try {
+            total.set(productRepository.sumStockQuantity());
+            seeded = true;
+            log.info("Inventory total seeded with {} units", total.get());
+        } catch (Exception e) {
+            log.warn("Unable to seed inventory total, will retry on next reconciliation", e);
+        }
+    }
+
+    /**
+     * Apply a stock delta once the surrounding transaction commits.
+     * Rolled back changes never reach the aggregate. Outside a transaction the delta is applied immediately.
+     */
+    public void adjust(long delta) {
+        if (delta == 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    total.addAndGet(delta);
+                }
+            });
+        } else {
+            total.addAndGet(delta);
+        }
+    }
+
+    /**
+     * Periodically compare the aggregate against the database and correct any drift.
+     * Deltas committed while the SUM runs may be counted twice or not at all, which
+     * shows up as a small drift that the next pass corrects.
+     */
+    @Scheduled(fixedDelayString = "${app.metrics.inventory.reconcile-interval:300000}",
+            initialDelayString = "${app.metrics.inventory.reconcile-interval:300000}")
+    public void reconcile() {
+        try {
+            long tracked = total.get();
+            long actual = productRepository.sumStockQuantity();
+            long drift = actual - tracked;
+
+            total.addAndGet(drift);
+
+            if (!seeded) {
+                seeded = true;
+                log.info("Inventory total seeded with {} units", actual);
+                return;
+            }
+
+            lastDrift.set(drift);
+            if (drift != 0) {
+                log.warn("Inventory total drifted by {} units, corrected to {}", drift, actual);
+            }
+        } catch (Exception e) {
+            log.warn("Error reconciling inventory total", e);
+        }
+    }
+
+    public long getTotal() {
+        return total.get();
+    }
+
+    public long getLastDrift() {
+        return lastDrift.get();
+    }
+}
@@ -0,0 +1,133 @@
+package com.ibrahim.DBPulse.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitters sketch over long keys with weighted increments.
+ * Holds a fixed number of counters in primitive arrays, ordered by an indexed min-heap.
+ * An unseen key takes over the smallest counter and inherits its count as error, so
+ * every reported count overestimates the true one by at most its error, and any key
+ * whose true weight exceeds total / capacity is guaranteed to be tracked.
+ */
+public class SpaceSaving {
+
+    /**
+     * One tracked key; the true weight lies between count - error and count.
+     */
+    public record Entry(long key, double count, double error) {
+    }
+
+    private final long[] keys;
+    private final double[] counts;
+    private final double[] errors;
+    // heap[i] is a slot; position[slot] is its index in heap
+    private final int[] heap;
+    private final int[] position;
+    private final Map<Long, Integer> slots;
+    private int size;
+    private double total;
+
+    public SpaceSaving(int capacity) {
+        int slots = Math.max(1, capacity);
+        this.keys = new long[slots];
+        this.counts = new double[slots];
+        this.errors = new double[slots];
+        this.heap = new int[slots];
+        this.position = new int[slots];
+        this.slots = HashMap.newHashMap(slots);
+    }
+
+    public synchronized void add(long key, double weight) {
+        if (weight <= 0) {
+            return;
+        }
+        total += weight;
+        Integer slot = slots.get(key);
+        if (slot != null) {
+            counts[slot] += weight;
+            siftDown(position[slot]);
+            return;
+        }
+        if (size < keys.length) {
+            int free = size++;
+            keys[free] = key;
+            counts[free] = weight;
+            errors[free] = 0;
+            heap[free] = free;
+            position[free] = free;
+            slots.put(key, free);
+            siftUp(free);
+            return;
+        }
+        int smallest = heap[0];
+        slots.remove(keys[smallest]);
+        keys[smallest] = key;
+        errors[smallest] = counts[smallest];
+        counts[smallest] += weight;
+        slots.put(key, smallest);
+        siftDown(0);
+    }
+
+    /**
+     * The k largest counters, largest first.
+     */
+    public synchronized List<Entry> top(int k) {
+        List<Entry> entries = new ArrayList<>(size);
+        for (int slot = 0; slot < size; slot++) {
+            entries.add(new Entry(keys[slot], counts[slot], errors[slot]));
+        }
+        entries.sort(Comparator.comparingDouble(Entry::count).reversed());
+        return entries.size() > k ? List.copyOf(entries.subList(0, k)) : entries;
+    }
+
+    /**
+     * Exact sum of all weights added.
+     */
+    public synchronized double total() {
+        return total;
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+
+    private void siftUp(int index) {
+        int slot = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (counts[heap[parent]] <= counts[slot]) {
+                break;
+            }
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(slot, index);
+    }
+
+    private void siftDown(int index) {
+        int slot = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && counts[heap[right]] < counts[heap[child]]) {
+                child = right;
+            }
+            if (counts[slot] <= counts[heap[child]]) {
+                break;
+            }
+            place(heap[child], index);
+            index = child;
+        }
+        place(slot, index);
+    }
+
+    private void place(int slot, int index) {
+        heap[index] = slot;
+        position[slot] = index;
+    }
+}
@@ -0,0 +1,223 @@
+package com.ibrahim.DBPulse.monitoring.anomaly;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ibrahim.DBPulse.monitoring.live.SseBroadcaster;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs EWMA and seasonal z-score models over a few derived signals every step:
+ * order rate, order creation latency, Hikari acquire time per pool, HTTP 5xx ratio per
+ * endpoint and the low stock count. An anomalous sample is logged, counted in
+ * dbpulse.anomalies and pushed as an "anomaly" event on the live metrics stream, at
+ * most once per series per cooldown. Model state lives in {@link SeriesModels}.
+ */
+@Slf4j
+public class AnomalyDetector {
+
+    static final String EVENT = "anomaly";
+
+    /**
+     * How a signal's value is derived from the cumulative inputs (a, b) of two consecutive steps.
+     */
+    enum Kind {
+        /** delta a per second */
+        RATE,
+        /** delta a / delta b, e.g. total time over count */
+        MEAN,
+        /** delta a / delta b, e.g. errors over requests */
+        RATIO,
+        /** a as is */
+        GAUGE
+    }
+
+    @FunctionalInterface
+    interface Sink {
+        void accept(String tagValue, double a, double b);
+    }
+
+    @FunctionalInterface
+    interface Reader {
+        void read(MeterRegistry registry, Sink sink);
+    }
+
+    record Signal(String name, Kind kind, String tagKey, Reader reader) {
+    }
+
+    private record SeriesKey(String signal, String tagValue) {
+    }
+
+    private final MeterRegistry registry;
+    private final SseBroadcaster broadcaster;
+    private final ObjectWriter writer;
+    private final List<Signal> signals;
+    private final SeriesModels models;
+    private final long cooldownMillis;
+    private final int maxSeries;
+    private final Map<SeriesKey, Integer> seriesIndex = new HashMap<>();
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private long previousStep;
+
+    public AnomalyDetector(MeterRegistry registry, AnomalyProperties properties,
+                           SseBroadcaster broadcaster, ObjectMapper objectMapper) {
+        this(registry, properties, broadcaster, objectMapper, defaultSignals());
+    }
+
+    AnomalyDetector(MeterRegistry registry, AnomalyProperties properties,
+                    SseBroadcaster broadcaster, ObjectMapper objectMapper, List<Signal> signals) {
+        this.registry = registry;
+        this.broadcaster = broadcaster;
+        this.writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.signals = signals;
+        this.models = new SeriesModels(properties);
+        this.cooldownMillis = properties.getCooldown().toMillis();
+        this.maxSeries = properties.getMaxSeries();
+        Gauge.builder("dbpulse.anomaly.series", models, SeriesModels::size)
+                .description("Series modelled by the anomaly detector")
+                .register(registry);
+    }
+
+    @Scheduled(fixedRateString = "${app.monitoring.anomaly.step:5000}")
+    public void evaluate() {
+        evaluate(System.currentTimeMillis());
+    }
+
+    /**
+     * Read every signal and score it; returns the events emitted.
+     */
+    synchronized List<AnomalyEvent> evaluate(long now) {
+        double seconds = previousStep > 0 ? (now - previousStep) / 1000.0 : 0;
+        previousStep = now;
+        List<AnomalyEvent> events = new ArrayList<>();
+        for (Signal signal : signals) {
+            signal.reader().read(registry, (tagValue, a, b) -> {
+                AnomalyEvent event = observe(signal, tagValue, a, b, seconds, now);
+                if (event != null) {
+                    events.add(event);
+                }
+            });
+        }
+        for (AnomalyEvent event : events) {
+            emit(event);
+        }
+        return events;
+    }
+
+    private AnomalyEvent observe(Signal signal, String tagValue, double a, double b, double seconds, long now) {
+        Integer series = series(signal, tagValue);
+        if (series == null) {
+            return null;
+        }
+        double previousA = models.previousA(series);
+        double previousB = models.previousB(series);
+        models.setPrevious(series, a, b);
+
+        double value = switch (signal.kind()) {
+            case GAUGE -> a;
+            case RATE -> seconds > 0 && !Double.isNaN(previousA) ? Math.max(0, a - previousA) / seconds : Double.NaN;
+            case MEAN, RATIO -> !Double.isNaN(previousB) && b > previousB ? (a - previousA) / (b - previousB) : Double.NaN;
+        };
+        // No traffic in the step: nothing to learn from and nothing to judge
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return null;
+        }
+
+        int verdict = models.observe(series, now, value);
+        if (verdict == SeriesModels.NONE || !models.tryEmit(series, now, cooldownMillis)) {
+            return null;
+        }
+        String name = signal.tagKey() == null ? signal.name() : signal.name() + "{" + signal.tagKey() + "=" + tagValue + "}";
+        return new AnomalyEvent(Instant.ofEpochMilli(now), signal.name(), name,
+                verdict == SeriesModels.EWMA ? "ewma" : "seasonal", value, models.lastExpected(), models.lastZ());
+    }
+
+    private Integer series(Signal signal, String tagValue) {
+        SeriesKey key = new SeriesKey(signal.name(), tagValue);
+        Integer series = seriesIndex.get(key);
+        if (series == null && seriesIndex.size() < maxSeries) {
+            series = models.add();
+            seriesIndex.put(key, series);
+        }
+        return series;
+    }
+
+    private void emit(AnomalyEvent event) {
+        log.warn("Anomaly detected: series={} model={} value={} expected={} z={}",
+                event.series(), event.model(), format(event.value()), format(event.expected()), format(event.zScore()));
+        counters.computeIfAbsent(event.signal() + "|" + event.model(), key -> Counter.builder("dbpulse.anomalies")
+                        .description("Anomalous samples detected in-process")
+                        .tag("signal", event.signal())
+                        .tag("model", event.model())
+                        .register(registry))
+                .increment();
+        if (broadcaster != null) {
+            try {
+                broadcaster.publish(EVENT, writer.writeValueAsString(event));
+            } catch (JsonProcessingException e) {
+                log.warn("Could not serialize anomaly event: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static String format(double value) {
+        return String.format("%.3f", value);
+    }
+
+    static List<Signal> defaultSignals() {
+        return List.of(
+                new Signal("order.rate", Kind.RATE, null, (registry, sink) -> {
+                    double created = 0;
+                    for (Counter counter : registry.find("dbpulse.orders.created").counters()) {
+                        created += counter.count();
+                    }
+                    sink.accept("", created, 0);
+                }),
+                new Signal("order.create.latency", Kind.MEAN, null, (registry, sink) -> {
+                    double millis = 0;
+                    double count = 0;
+                    for (Timer timer : registry.find("dbpulse.orders.create").timers()) {
+                        millis += timer.totalTime(TimeUnit.MILLISECONDS);
+                        count += timer.count();
+                    }
+                    sink.accept("", millis, count);
+                }),
+                new Signal("hikari.acquire.latency", Kind.MEAN, "pool", (registry, sink) -> {
+                    for (Timer timer : registry.find("hikaricp.connections.acquire").timers()) {
+                        sink.accept(timer.getId().getTag("pool"), timer.totalTime(TimeUnit.MILLISECONDS), timer.count());
+                    }
+                }),
+                new Signal("http.error.ratio", Kind.RATIO, "uri", (registry, sink) -> {
+                    Map<String, double[]> byUri = new HashMap<>();
+                    for (Timer timer : registry.find("http.server.requests").timers()) {
+                        double[] counts = byUri.computeIfAbsent(String.valueOf(timer.getId().getTag("uri")), uri -> new double[2]);
+                        if ("SERVER_ERROR".equals(timer.getId().getTag("outcome"))) {
+                            counts[0] += timer.count();
+                        }
+                        counts[1] += timer.count();
+                    }
+                    byUri.forEach((uri, counts) -> sink.accept(uri, counts[0], counts[1]));
+                }),
+                new Signal("products.low_stock", Kind.GAUGE, null, (registry, sink) -> {
+                    Gauge gauge = registry.find("dbpulse.products.low_stock").gauge();
+                    if (gauge != null) {
+                        sink.accept("", gauge.value(), 0);
+                    }
+                }));
+    }
+}
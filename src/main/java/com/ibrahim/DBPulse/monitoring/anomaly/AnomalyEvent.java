@@ -0,0 +1,20 @@
+package com.ibrahim.DBPulse.monitoring.anomaly;
+
+import java.time.Instant;
+
+/**
+ * A sample that one of the models found anomalous.
+ *
+ * @param series   signal name plus its tag value, e.g. "http.error.ratio{uri=/api/orders}"
+ * @param model    "ewma" or "seasonal"
+ * @param expected the model's mean for the sample
+ * @param zScore   signed distance from the expected value, in standard deviations
+ */
+public record AnomalyEvent(Instant timestamp,
+                           String signal,
+                           String series,
+                           String model,
+                           double value,
+                           double expected,
+                           double zScore) {
+}
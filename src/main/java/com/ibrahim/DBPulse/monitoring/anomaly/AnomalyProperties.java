@@ -0,0 +1,87 @@
+package com.ibrahim.DBPulse.monitoring.anomaly;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for in-process anomaly detection (app.monitoring.anomaly.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "app.monitoring.anomaly")
+public class AnomalyProperties {
+
+    /**
+     * Evaluate the anomaly models.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Interval (ms) between evaluations; rates and means are computed over it.
+     */
+    private long step = 5000;
+
+    /**
+     * |z-score| above which a sample is anomalous.
+     */
+    private double threshold = 4.0;
+
+    /**
+     * Smoothing factor of the EWMA mean and variance; higher adapts faster.
+     */
+    private double alpha = 0.05;
+
+    /**
+     * Samples a series needs before the EWMA model may fire.
+     */
+    private int warmup = 30;
+
+    /**
+     * Standard deviation floor as a fraction of the expected value, so near-constant
+     * series do not fire on tiny changes.
+     */
+    private double minRelativeDeviation = 0.1;
+
+    /**
+     * Standard deviation floor in the signal's own unit, so a series that has been constant
+     * at zero does not fire on the first small nonzero value.
+     */
+    private double minAbsoluteDeviation = 0.05;
+
+    private Seasonal seasonal = new Seasonal();
+
+    /**
+     * Minimum time between two events for the same series.
+     */
+    private Duration cooldown = Duration.ofMinutes(1);
+
+    /**
+     * Upper bound on modelled series; further tag values are not modelled.
+     */
+    private int maxSeries = 1000;
+
+    @Data
+    public static class Seasonal {
+
+        /**
+         * Length of the repeating pattern, e.g. one day.
+         */
+        private Duration period = Duration.ofDays(1);
+
+        /**
+         * Slots the period is divided into; each slot has its own mean and variance.
+         */
+        private int slots = 24;
+
+        /**
+         * Smoothing factor of the per-slot statistics, applied once per period with the mean of that period's visit.
+         */
+        private double alpha = 0.1;
+
+        /**
+         * Periods a slot needs to have seen before the seasonal model may fire.
+         */
+        private int warmup = 3;
+    }
+}
@@ -0,0 +1,227 @@
+package com.ibrahim.DBPulse.monitoring.anomaly;
+
+import java.util.Arrays;
+
+/**
+ * EWMA and seasonal z-score state for many series, in parallel primitive arrays indexed
+ * by series. A series costs (6 + 2 * slots) doubles, (2 + slots) ints and two longs: about
+ * 550 bytes with 24 seasonal slots. Not thread-safe; only the detector's scheduler thread touches it.
+ *
+ * The samples of one visit to a seasonal slot (e.g. today's 10:00-11:00) are first summarized
+ * on their own; the slot's statistics are updated once with that summary when the visit ends,
+ * so a slot holds one data point per period and remembers the same hour on previous days.
+ */
+final class SeriesModels {
+
+    static final int NONE = 0;
+    static final int EWMA = 1;
+    static final int SEASONAL = 2;
+
+    private final double alpha;
+    private final int warmup;
+    private final double threshold;
+    private final double minRelativeDeviation;
+    private final double minAbsoluteDeviation;
+    private final int slots;
+    private final long slotMillis;
+    private final double seasonalAlpha;
+    private final int seasonalWarmup;
+
+    private int size;
+    private double[] mean;
+    private double[] variance;
+    private int[] samples;
+    private double[] seasonalMean;
+    private double[] seasonalVariance;
+    private int[] seasonalSamples;
+    // Running mean and sum of squared deviations of the slot visit in progress (Welford)
+    private long[] visit;
+    private int[] visitSamples;
+    private double[] visitMean;
+    private double[] visitM2;
+    private double[] previousA;
+    private double[] previousB;
+    private long[] lastEvent;
+
+    // Details of the last positive observe(), read right after it
+    private double lastExpected;
+    private double lastZ;
+
+    SeriesModels(AnomalyProperties properties) {
+        this.alpha = properties.getAlpha();
+        this.warmup = properties.getWarmup();
+        this.threshold = properties.getThreshold();
+        this.minRelativeDeviation = properties.getMinRelativeDeviation();
+        this.minAbsoluteDeviation = properties.getMinAbsoluteDeviation();
+        this.slots = Math.max(1, properties.getSeasonal().getSlots());
+        this.slotMillis = Math.max(1, properties.getSeasonal().getPeriod().toMillis() / slots);
+        this.seasonalAlpha = properties.getSeasonal().getAlpha();
+        this.seasonalWarmup = properties.getSeasonal().getWarmup();
+        allocate(16);
+    }
+
+    /**
+     * Add a series and return its index.
+     */
+    int add() {
+        if (size == mean.length) {
+            allocate(size * 2);
+        }
+        previousA[size] = Double.NaN;
+        previousB[size] = Double.NaN;
+        lastEvent[size] = Long.MIN_VALUE;
+        visit[size] = Long.MIN_VALUE;
+        return size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Cumulative inputs of the series at the previous step, NaN before the first one.
+     */
+    double previousA(int series) {
+        return previousA[series];
+    }
+
+    double previousB(int series) {
+        return previousB[series];
+    }
+
+    void setPrevious(int series, double a, double b) {
+        previousA[series] = a;
+        previousB[series] = b;
+    }
+
+    /**
+     * Score a sample against both models, then fold it into them.
+     *
+     * @return the model that flagged it ({@link #EWMA}, {@link #SEASONAL}) or {@link #NONE}
+     */
+    int observe(int series, long epochMillis, double value) {
+        int verdict = NONE;
+        double strongest = 0;
+
+        if (samples[series] >= warmup) {
+            double z = z(value, mean[series], variance[series]);
+            if (Math.abs(z) > threshold) {
+                verdict = EWMA;
+                strongest = Math.abs(z);
+                lastZ = z;
+                lastExpected = mean[series];
+            }
+        }
+        long current = Math.floorDiv(epochMillis, slotMillis);
+        if (current != visit[series]) {
+            endVisit(series);
+            visit[series] = current;
+        }
+        int slot = series * slots + (int) Math.floorMod(current, (long) slots);
+        if (seasonalSamples[slot] >= seasonalWarmup) {
+            double z = z(value, seasonalMean[slot], seasonalVariance[slot]);
+            if (Math.abs(z) > threshold && Math.abs(z) > strongest) {
+                verdict = SEASONAL;
+                lastZ = z;
+                lastExpected = seasonalMean[slot];
+            }
+        }
+
+        samples[series] = update(mean, variance, series, samples[series], alpha, value);
+        int n = ++visitSamples[series];
+        double delta = value - visitMean[series];
+        visitMean[series] += delta / n;
+        visitM2[series] += delta * (value - visitMean[series]);
+        return verdict;
+    }
+
+    /**
+     * Fold the finished visit into its slot: the slot mean follows the visit means, and the
+     * slot variance covers both their spread across periods and the spread within a visit.
+     */
+    private void endVisit(int series) {
+        int n = visitSamples[series];
+        if (n > 0) {
+            int slot = series * slots + (int) Math.floorMod(visit[series], (long) slots);
+            double within = visitM2[series] / n;
+            if (seasonalSamples[slot] == 0) {
+                seasonalMean[slot] = visitMean[series];
+                seasonalVariance[slot] = within;
+            } else {
+                double delta = visitMean[series] - seasonalMean[slot];
+                seasonalMean[slot] += seasonalAlpha * delta;
+                seasonalVariance[slot] = (1 - seasonalAlpha) * (seasonalVariance[slot] + seasonalAlpha * delta * delta)
+                        + seasonalAlpha * within;
+            }
+            if (seasonalSamples[slot] < Integer.MAX_VALUE) {
+                seasonalSamples[slot]++;
+            }
+        }
+        visitSamples[series] = 0;
+        visitMean[series] = 0;
+        visitM2[series] = 0;
+    }
+
+    /**
+     * Whether an event for the series may be emitted at the given time; records it if so.
+     */
+    boolean tryEmit(int series, long epochMillis, long cooldownMillis) {
+        if (lastEvent[series] != Long.MIN_VALUE && epochMillis - lastEvent[series] < cooldownMillis) {
+            return false;
+        }
+        lastEvent[series] = epochMillis;
+        return true;
+    }
+
+    double lastExpected() {
+        return lastExpected;
+    }
+
+    double lastZ() {
+        return lastZ;
+    }
+
+    private double z(double value, double expected, double variance) {
+        double deviation = Math.max(Math.sqrt(variance),
+                Math.max(Math.abs(expected) * minRelativeDeviation, minAbsoluteDeviation));
+        if (deviation == 0) {
+            return value == expected ? 0 : Math.copySign(Double.MAX_VALUE, value - expected);
+        }
+        return (value - expected) / deviation;
+    }
+
+    /**
+     * Exponentially weighted mean and variance (West's incremental form); the first sample seeds the mean.
+     */
+    private static int update(double[] mean, double[] variance, int index, int samples, double alpha, double value) {
+        if (samples == 0) {
+            mean[index] = value;
+            variance[index] = 0;
+        } else {
+            double delta = value - mean[index];
+            mean[index] += alpha * delta;
+            variance[index] = (1 - alpha) * (variance[index] + alpha * delta * delta);
+        }
+        return samples == Integer.MAX_VALUE ? samples : samples + 1;
+    }
+
+    private void allocate(int capacity) {
+        mean = grow(mean, capacity);
+        variance = grow(variance, capacity);
+        samples = samples != null ? Arrays.copyOf(samples, capacity) : new int[capacity];
+        seasonalMean = grow(seasonalMean, capacity * slots);
+        seasonalVariance = grow(seasonalVariance, capacity * slots);
+        seasonalSamples = seasonalSamples != null ? Arrays.copyOf(seasonalSamples, capacity * slots) : new int[capacity * slots];
+        previousA = grow(previousA, capacity);
+        previousB = grow(previousB, capacity);
+        lastEvent = lastEvent != null ? Arrays.copyOf(lastEvent, capacity) : new long[capacity];
+        visit = visit != null ? Arrays.copyOf(visit, capacity) : new long[capacity];
+        visitSamples = visitSamples != null ? Arrays.copyOf(visitSamples, capacity) : new int[capacity];
+        visitMean = grow(visitMean, capacity);
+        visitM2 = grow(visitM2, capacity);
+    }
+
+    private static double[] grow(double[] array, int capacity) {
+        return array != null ? Arrays.copyOf(array, capacity) : new double[capacity];
+    }
+}
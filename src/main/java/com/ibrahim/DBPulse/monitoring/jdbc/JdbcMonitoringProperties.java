@@ -0,0 +1,41 @@
+package com.ibrahim.DBPulse.monitoring.jdbc;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for JDBC statement monitoring (app.monitoring.jdbc.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "app.monitoring.jdbc")
+public class JdbcMonitoringProperties {
+
+    /**
+     * Wrap the DataSource with the statement-timing proxy.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of distinct fingerprints tagged on statement timers.
+     * Further shapes are recorded under fingerprint "other".
+     */
+    private int maxFingerprints = 200;
+
+    /**
+     * Executions at or above this duration are captured in the slow query log.
+     */
+    private Duration slowThreshold = Duration.ofMillis(200);
+
+    /**
+     * Number of slow executions kept in the ring buffer.
+     */
+    private int slowQueryCapacity = 256;
+
+    /**
+     * A statement shape executed more than this many times within one HTTP request
+     * is logged as a likely N+1 pattern.
+     */
+    private int repeatThreshold = 20;
+}
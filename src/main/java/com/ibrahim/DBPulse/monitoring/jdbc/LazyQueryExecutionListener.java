@@ -0,0 +1,43 @@
+package com.ibrahim.DBPulse.monitoring.jdbc;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+
+/**
+ * Defers resolving the listener (and the MeterRegistry behind it) until the first statement runs.
+ */
+public class LazyQueryExecutionListener implements QueryExecutionListener {
+
+    private final ObjectProvider<? extends QueryExecutionListener> provider;
+    private volatile QueryExecutionListener delegate;
+
+    public LazyQueryExecutionListener(ObjectProvider<? extends QueryExecutionListener> provider) {
+        this.provider = provider;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        delegate().beforeQuery(execInfo, queryInfoList);
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        delegate().afterQuery(execInfo, queryInfoList);
+    }
+
+    private QueryExecutionListener delegate() {
+        QueryExecutionListener current = delegate;
+        if (current == null) {
+            current = provider.getIfAvailable();
+            if (current == null) {
+                return QueryExecutionListener.DEFAULT;
+            }
+            delegate = current;
+        }
+        return current;
+    }
+}
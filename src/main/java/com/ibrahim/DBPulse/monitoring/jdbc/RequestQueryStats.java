@@ -0,0 +1,97 @@
+package com.ibrahim.DBPulse.monitoring.jdbc;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC activity of the HTTP request bound to the current thread.
+ * Opened and closed by {@link RequestQueryStatsFilter}; fed by {@link StatementMetricsListener}
+ * for statements and by {@link ResultSetRowCounter} for fetched rows. Only the request
+ * thread touches an instance, so plain fields are enough.
+ */
+public final class RequestQueryStats {
+
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+    /**
+     * A statement shape that ran more often than the repeat threshold.
+     *
+     * @param caller repository method (or first application frame) that issued the repeating statement
+     */
+    public record RepeatedStatement(SqlFingerprint fingerprint, int executions, String caller) {
+    }
+
+    private static final class ShapeCount {
+        private final SqlFingerprint fingerprint;
+        private int executions;
+        private String caller;
+
+        private ShapeCount(SqlFingerprint fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    private final int repeatThreshold;
+    private final Map<String, ShapeCount> shapes = new HashMap<>();
+    private long statements;
+    private long rows;
+
+    private RequestQueryStats(int repeatThreshold) {
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    static RequestQueryStats begin(int repeatThreshold) {
+        RequestQueryStats stats = new RequestQueryStats(repeatThreshold);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Stats of the request running on this thread, or null outside a request.
+     */
+    public static RequestQueryStats current() {
+        return CURRENT.get();
+    }
+
+    void statement(SqlFingerprint fingerprint) {
+        statements++;
+        ShapeCount shape = shapes.computeIfAbsent(fingerprint.id(), id -> new ShapeCount(fingerprint));
+        shape.executions++;
+        // Walk the stack once per shape, on the execution that crosses the threshold
+        if (shape.executions == repeatThreshold + 1) {
+            shape.caller = StatementMetricsListener.caller();
+        }
+    }
+
+    void rows(long count) {
+        rows += count;
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Statement shapes that ran more than the repeat threshold, most frequent first.
+     */
+    public List<RepeatedStatement> repeatedStatements() {
+        List<RepeatedStatement> repeated = new ArrayList<>();
+        for (ShapeCount shape : shapes.values()) {
+            if (shape.executions > repeatThreshold) {
+                repeated.add(new RepeatedStatement(shape.fingerprint, shape.executions, shape.caller));
+            }
+        }
+        repeated.sort((a, b) -> Integer.compare(b.executions(), a.executions()));
+        return repeated;
+    }
+}
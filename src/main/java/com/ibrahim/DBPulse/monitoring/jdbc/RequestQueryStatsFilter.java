@@ -0,0 +1,85 @@
+package com.ibrahim.DBPulse.monitoring.jdbc;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Counts the JDBC statements and fetched rows of each HTTP request and records them
+ * as dbpulse.request.statements / dbpulse.request.rows summaries per endpoint.
+ * Logs a warning when a single statement shape repeats more than
+ * app.monitoring.jdbc.repeat-threshold times within one request (N+1 pattern).
+ */
+@Slf4j
+public class RequestQueryStatsFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry registry;
+    private final int repeatThreshold;
+    private final ConcurrentMap<EndpointKey, Summaries> summaries = new ConcurrentHashMap<>();
+
+    private record EndpointKey(String uri, String method) {
+    }
+
+    private record Summaries(DistributionSummary statements, DistributionSummary rows) {
+    }
+
+    public RequestQueryStatsFilter(MeterRegistry registry, JdbcMonitoringProperties properties) {
+        this.registry = registry;
+        this.repeatThreshold = properties.getRepeatThreshold();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestQueryStats stats = RequestQueryStats.begin(repeatThreshold);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestQueryStats.end();
+            record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestQueryStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : UNKNOWN_URI;
+
+        Summaries endpoint = summaries.computeIfAbsent(new EndpointKey(uri, request.getMethod()), this::summaries);
+        endpoint.statements().record(stats.getStatements());
+        endpoint.rows().record(stats.getRows());
+
+        for (RequestQueryStats.RepeatedStatement repeated : stats.repeatedStatements()) {
+            log.warn("Repeated statement detected: method={} uri={} fingerprint={} executions={} threshold={} caller={} statements={} sql=\"{}\"",
+                    request.getMethod(), uri, repeated.fingerprint().id(), repeated.executions(), repeatThreshold,
+                    repeated.caller(), stats.getStatements(), repeated.fingerprint().sql());
+        }
+    }
+
+    private Summaries summaries(EndpointKey key) {
+        return new Summaries(
+                DistributionSummary.builder("dbpulse.request.statements")
+                        .description("JDBC statements executed per HTTP request")
+                        .baseUnit("statements")
+                        .tag("uri", key.uri())
+                        .tag("method", key.method())
+                        .register(registry),
+                DistributionSummary.builder("dbpulse.request.rows")
+                        .description("Result set rows fetched per HTTP request")
+                        .baseUnit("rows")
+                        .tag("uri", key.uri())
+                        .tag("method", key.method())
+                        .register(registry));
+    }
+}
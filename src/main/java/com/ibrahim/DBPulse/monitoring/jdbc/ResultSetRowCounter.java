@@ -0,0 +1,58 @@
+package com.ibrahim.DBPulse.monitoring.jdbc;
+
+import net.ttddyy.dsproxy.ConnectionInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.proxy.ProxyConfig;
+import net.ttddyy.dsproxy.proxy.ProxyLogicSupport;
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogic;
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogicFactory;
+
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+
+/**
+ * Counts rows fetched by the current request: every ResultSet.next() that returns true.
+ * Used as the proxy's result set logic (ProxyDataSourceBuilder.proxyResultSet(factory)) rather
+ * than as a method listener, so the other JDBC calls go straight to the driver and a result
+ * set only looks up the request's stats once, when it is opened.
+ */
+public class ResultSetRowCounter implements ResultSetProxyLogicFactory {
+
+    @Override
+    public ResultSetProxyLogic create(ResultSet resultSet, ConnectionInfo connectionInfo, ProxyConfig proxyConfig) {
+        return new CountingLogic(resultSet, proxyConfig, RequestQueryStats.current());
+    }
+
+    private static final class CountingLogic extends ProxyLogicSupport implements ResultSetProxyLogic {
+
+        private final ResultSet resultSet;
+        private final ProxyConfig proxyConfig;
+        private final RequestQueryStats stats;
+
+        private CountingLogic(ResultSet resultSet, ProxyConfig proxyConfig, RequestQueryStats stats) {
+            this.resultSet = resultSet;
+            this.proxyConfig = proxyConfig;
+            this.stats = stats;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            // Not through proceedMethodExecution(): no MethodExecutionContext per call
+            return performProxyLogic(proxy, method, args, null);
+        }
+
+        @Override
+        protected Object performProxyLogic(Object proxy, Method method, Object[] args,
+                                           MethodExecutionContext methodContext) throws Throwable {
+            String name = method.getName();
+            if (isCommonMethod(name)) {
+                return handleCommonMethod(name, resultSet, proxyConfig, args);
+            }
+            Object result = proceedExecution(method, resultSet, args);
+            if (stats != null && "next".equals(name) && Boolean.TRUE.equals(result)) {
+                stats.rows(1);
+            }
+            return result;
+        }
+    }
+}
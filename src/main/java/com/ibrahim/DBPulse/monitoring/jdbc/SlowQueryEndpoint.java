@@ -0,0 +1,52 @@
+package com.ibrahim.DBPulse.monitoring.jdbc;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Actuator endpoint exposing the slowest recent JDBC executions.
+ * GET /actuator/slowqueries?limit=20
+ */
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+    private final SlowQueryLog slowQueryLog;
+    private final StatementMetricsListener listener;
+    private final JdbcMonitoringProperties properties;
+
+    public SlowQueryEndpoint(SlowQueryLog slowQueryLog, StatementMetricsListener listener,
+                             JdbcMonitoringProperties properties) {
+        this.slowQueryLog = slowQueryLog;
+        this.listener = listener;
+        this.properties = properties;
+    }
+
+    /**
+     * Slow query report with the fingerprint ids used as timer tags.
+     */
+    public record SlowQueryReport(Duration threshold,
+                                  int capacity,
+                                  long recorded,
+                                  List<SlowQueryLog.SlowQuery> slowest,
+                                  Map<String, String> fingerprints) {
+    }
+
+    @ReadOperation
+    public SlowQueryReport slowQueries(@Nullable Integer limit) {
+        Map<String, String> fingerprints = new TreeMap<>();
+        listener.getTrackedFingerprints().forEach((id, fingerprint) -> fingerprints.put(id, fingerprint.sql()));
+
+        return new SlowQueryReport(
+                properties.getSlowThreshold(),
+                slowQueryLog.capacity(),
+                slowQueryLog.recorded(),
+                slowQueryLog.slowest(limit != null ? limit : 20),
+                fingerprints);
+    }
+}
@@ -0,0 +1,69 @@
+package com.ibrahim.DBPulse.monitoring.jdbc;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size, lock-free ring buffer of recent slow statement executions.
+ * Writers claim a slot with a single getAndIncrement and overwrite the oldest entry,
+ * so recording never blocks the JDBC thread. Readers copy the buffer and sort it
+ * by duration to get the slowest recent executions.
+ */
+public class SlowQueryLog {
+
+    /**
+     * One captured slow execution.
+     *
+     * @param parameterShapes bind parameter types per parameter set, never the values
+     * @param caller          repository method (or first application frame) that issued the statement
+     */
+    public record SlowQuery(Instant timestamp,
+                            String fingerprint,
+                            String sql,
+                            double durationMillis,
+                            boolean success,
+                            int batchSize,
+                            List<String> parameterShapes,
+                            String caller,
+                            String thread) {
+    }
+
+    private final AtomicReferenceArray<SlowQuery> slots;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public SlowQueryLog(int capacity) {
+        this.slots = new AtomicReferenceArray<>(Math.max(1, capacity));
+    }
+
+    public void add(SlowQuery query) {
+        int slot = (int) (sequence.getAndIncrement() % slots.length());
+        slots.set(slot, query);
+    }
+
+    /**
+     * The slowest executions currently in the buffer, slowest first.
+     */
+    public List<SlowQuery> slowest(int limit) {
+        List<SlowQuery> snapshot = new ArrayList<>(slots.length());
+        for (int i = 0; i < slots.length(); i++) {
+            SlowQuery query = slots.get(i);
+            if (query != null) {
+                snapshot.add(query);
+            }
+        }
+        snapshot.sort(Comparator.comparingDouble(SlowQuery::durationMillis).reversed());
+        return snapshot.size() > limit ? List.copyOf(snapshot.subList(0, limit)) : snapshot;
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    public long recorded() {
+        return sequence.get();
+    }
+}
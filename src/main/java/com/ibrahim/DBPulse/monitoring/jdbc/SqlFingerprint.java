@@ -0,0 +1,69 @@
+package com.ibrahim.DBPulse.monitoring.jdbc;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalized shape of a SQL statement.
+ * Literals and bind markers become "?", IN lists and multi-row VALUES lists are
+ * collapsed, comments are dropped and whitespace is squeezed, so every execution
+ * of the same statement shape maps to the same fingerprint regardless of its values.
+ */
+public record SqlFingerprint(String id, String sql, String operation) {
+
+    private static final Pattern BLOCK_COMMENT = Pattern.compile("/\\*.*?\\*/", Pattern.DOTALL);
+    private static final Pattern LINE_COMMENT = Pattern.compile("--[^\\n]*");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile("(?<![\\w$.])-?\\d+(?:\\.\\d+)?(?:e[+-]?\\d+)?\\b",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern POSITIONAL_PARAMETER = Pattern.compile("\\$\\d+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern IN_LIST = Pattern.compile("\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern VALUES_LIST = Pattern.compile("\\bvalues\\s*(\\([?,\\s]*\\))(?:\\s*,\\s*\\([?,\\s]*\\))+");
+
+    /**
+     * Fingerprint a raw SQL statement.
+     */
+    public static SqlFingerprint of(String rawSql) {
+        String sql = normalize(rawSql);
+        return new SqlFingerprint(hash(sql), sql, operation(sql));
+    }
+
+    static String normalize(String rawSql) {
+        if (rawSql == null) {
+            return "";
+        }
+        String sql = BLOCK_COMMENT.matcher(rawSql).replaceAll(" ");
+        sql = LINE_COMMENT.matcher(sql).replaceAll(" ");
+        sql = STRING_LITERAL.matcher(sql).replaceAll("?");
+        sql = POSITIONAL_PARAMETER.matcher(sql).replaceAll("?");
+        sql = NUMERIC_LITERAL.matcher(sql).replaceAll("?");
+        sql = WHITESPACE.matcher(sql).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+        sql = IN_LIST.matcher(sql).replaceAll("in (?...)");
+        sql = VALUES_LIST.matcher(sql).replaceAll("values $1, ...");
+        return sql;
+    }
+
+    private static String operation(String sql) {
+        int end = sql.indexOf(' ');
+        String keyword = end < 0 ? sql : sql.substring(0, end);
+        return switch (keyword) {
+            case "select", "with" -> "select";
+            case "insert", "update", "delete", "merge" -> keyword;
+            default -> "other";
+        };
+    }
+
+    /**
+     * 32-bit FNV-1a hash of the normalized SQL, as 8 hex digits.
+     */
+    private static String hash(String sql) {
+        int hash = 0x811c9dc5;
+        for (int i = 0; i < sql.length(); i++) {
+            hash ^= sql.charAt(i);
+            hash *= 0x01000193;
+        }
+        String hex = Integer.toHexString(hash);
+        return "00000000".substring(hex.length()) + hex;
+    }
+}
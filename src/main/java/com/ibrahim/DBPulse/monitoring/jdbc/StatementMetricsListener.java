@@ -0,0 +1,201 @@
+package com.ibrahim.DBPulse.monitoring.jdbc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Datasource-proxy listener that times every statement under its SQL fingerprint.
+ * Tag cardinality is bounded by app.monitoring.jdbc.max-fingerprints; statements
+ * beyond that are recorded under fingerprint "other". Executions slower than the
+ * configured threshold are captured, with bind parameter shapes and the calling
+ * repository method, in the {@link SlowQueryLog}.
+ */
+public class StatementMetricsListener implements QueryExecutionListener {
+
+    static final String OTHER = "other";
+
+    private static final String START_NANOS = StatementMetricsListener.class.getName() + ".start";
+    private static final String APPLICATION_PACKAGE = "com.ibrahim.DBPulse.";
+    private static final String MONITORING_PACKAGE = APPLICATION_PACKAGE + "monitoring.";
+    private static final String REPOSITORY_PACKAGE = APPLICATION_PACKAGE + "repositories.";
+    private static final int MAX_CACHED_STATEMENTS = 4096;
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    private final MeterRegistry registry;
+    private final JdbcMonitoringProperties properties;
+    private final SlowQueryLog slowQueryLog;
+    private final long slowThresholdNanos;
+
+    private final ConcurrentMap<String, SqlFingerprint> fingerprintsBySql = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, SqlFingerprint> trackedFingerprints = new ConcurrentHashMap<>();
+    private final ConcurrentMap<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    private record TimerKey(String fingerprint, String operation, boolean success) {
+    }
+
+    public StatementMetricsListener(MeterRegistry registry, JdbcMonitoringProperties properties, SlowQueryLog slowQueryLog) {
+        this.registry = registry;
+        this.properties = properties;
+        this.slowQueryLog = slowQueryLog;
+        this.slowThresholdNanos = properties.getSlowThreshold().toNanos();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+        if (start == null || queryInfoList.isEmpty()) {
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        // A batch runs one statement shape many times; time it once under its first query
+        SqlFingerprint fingerprint = fingerprint(queryInfoList.get(0).getQuery());
+        String tag = tagFor(fingerprint);
+        timers.computeIfAbsent(new TimerKey(tag, fingerprint.operation(), execInfo.isSuccess()), this::timer)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+
+        RequestQueryStats requestStats = RequestQueryStats.current();
+        if (requestStats != null) {
+            requestStats.statement(fingerprint);
+        }
+
+        if (elapsed >= slowThresholdNanos) {
+            QueryInfo query = queryInfoList.get(0);
+            slowQueryLog.add(new SlowQueryLog.SlowQuery(
+                    Instant.now(),
+                    fingerprint.id(),
+                    fingerprint.sql(),
+                    elapsed / 1_000_000.0,
+                    execInfo.isSuccess(),
+                    execInfo.isBatch() ? execInfo.getBatchSize() : 1,
+                    parameterShapes(query),
+                    caller(),
+                    Thread.currentThread().getName()));
+        }
+    }
+
+    /**
+     * Fingerprint a raw statement, caching results per distinct SQL string.
+     */
+    public SqlFingerprint fingerprint(String sql) {
+        SqlFingerprint fingerprint = fingerprintsBySql.get(sql);
+        if (fingerprint == null) {
+            fingerprint = SqlFingerprint.of(sql);
+            if (fingerprintsBySql.size() < MAX_CACHED_STATEMENTS) {
+                fingerprintsBySql.putIfAbsent(sql, fingerprint);
+            }
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Fingerprints currently used as timer tags, keyed by id.
+     */
+    public ConcurrentMap<String, SqlFingerprint> getTrackedFingerprints() {
+        return trackedFingerprints;
+    }
+
+    private String tagFor(SqlFingerprint fingerprint) {
+        if (trackedFingerprints.containsKey(fingerprint.id())) {
+            return fingerprint.id();
+        }
+        // Racing threads may overshoot the cap by a few entries, which keeps this path lock-free
+        if (trackedFingerprints.size() < properties.getMaxFingerprints()) {
+            trackedFingerprints.putIfAbsent(fingerprint.id(), fingerprint);
+            return fingerprint.id();
+        }
+        return OTHER;
+    }
+
+    private Timer timer(TimerKey key) {
+        return Timer.builder("dbpulse.jdbc.statements")
+                .description("JDBC statement execution time by SQL fingerprint")
+                .tag("fingerprint", key.fingerprint())
+                .tag("operation", key.operation())
+                .tag("outcome", key.success() ? "SUCCESS" : "ERROR")
+                .register(registry);
+    }
+
+    private static List<String> parameterShapes(QueryInfo query) {
+        List<String> shapes = new ArrayList<>();
+        for (List<ParameterSetOperation> parameterSet : query.getParametersList()) {
+            StringBuilder shape = new StringBuilder("(");
+            for (ParameterSetOperation operation : parameterSet) {
+                if (shape.length() > 1) {
+                    shape.append(", ");
+                }
+                Object[] args = operation.getArgs();
+                Object value = args.length > 1 ? args[1] : null;
+                if (ParameterSetOperation.isSetNullParameterOperation(operation) || value == null) {
+                    shape.append("null");
+                } else if (value instanceof CharSequence text) {
+                    shape.append("String[").append(text.length()).append(']');
+                } else {
+                    shape.append(value.getClass().getSimpleName());
+                }
+            }
+            shapes.add(shape.append(')').toString());
+            if (shapes.size() == 5) {
+                int remaining = query.getParametersList().size() - shapes.size();
+                if (remaining > 0) {
+                    shapes.add("... " + remaining + " more");
+                }
+                break;
+            }
+        }
+        return shapes;
+    }
+
+    /**
+     * The repository method that issued the statement, or else the first application frame.
+     */
+    static String caller() {
+        Optional<String> caller = STACK_WALKER.walk(frames -> frames
+                .filter(frame -> isRepositoryProxy(frame.getDeclaringClass()) || isApplicationFrame(frame.getClassName()))
+                .findFirst()
+                .map(frame -> {
+                    Class<?> type = frame.getDeclaringClass();
+                    String owner = isRepositoryProxy(type) ? repositoryInterface(type).getSimpleName() : type.getSimpleName();
+                    return owner + "." + frame.getMethodName();
+                }));
+        return caller.orElse("unknown");
+    }
+
+    private static boolean isApplicationFrame(String className) {
+        return className.startsWith(APPLICATION_PACKAGE)
+                && !className.startsWith(MONITORING_PACKAGE)
+                && !className.contains("$$")
+                && !className.contains("$HibernateProxy");
+    }
+
+    private static boolean isRepositoryProxy(Class<?> type) {
+        return Proxy.isProxyClass(type) && repositoryInterface(type) != null;
+    }
+
+    private static Class<?> repositoryInterface(Class<?> proxyType) {
+        for (Class<?> candidate : proxyType.getInterfaces()) {
+            if (candidate.getName().startsWith(REPOSITORY_PACKAGE)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,50 @@
+package com.ibrahim.DBPulse.monitoring.jfr;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Actuator endpoint exposing the top allocating, contended, socket-waiting and pinning frames.
+ * GET /actuator/jfr?minutes=5&limit=10
+ */
+@Endpoint(id = "jfr")
+public class JfrEndpoint {
+
+    private final JfrEventBridge bridge;
+
+    public JfrEndpoint(JfrEventBridge bridge) {
+        this.bridge = bridge;
+    }
+
+    /**
+     * Frame totals over a window. Allocation values are bytes, the others milliseconds.
+     */
+    public record JfrReport(boolean running,
+                            Instant from,
+                            Instant to,
+                            List<JfrFrameAggregator.FrameStats> allocation,
+                            List<JfrFrameAggregator.FrameStats> contention,
+                            List<JfrFrameAggregator.FrameStats> socketRead,
+                            List<JfrFrameAggregator.FrameStats> pinned) {
+    }
+
+    @ReadOperation
+    public JfrReport jfr(@Nullable Integer minutes, @Nullable Integer limit) {
+        Instant to = Instant.now();
+        Instant from = to.minus(Duration.ofMinutes(minutes != null ? Math.max(1, minutes) : 5));
+        int top = limit != null ? Math.max(1, limit) : 10;
+        return new JfrReport(
+                bridge.isRunning(),
+                from,
+                to,
+                bridge.top(JfrFrameAggregator.Category.ALLOCATION, from, top),
+                bridge.top(JfrFrameAggregator.Category.CONTENTION, from, top),
+                bridge.top(JfrFrameAggregator.Category.SOCKET_READ, from, top),
+                bridge.top(JfrFrameAggregator.Category.PINNED, from, top));
+    }
+}
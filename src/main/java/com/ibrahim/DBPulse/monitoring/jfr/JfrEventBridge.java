@@ -0,0 +1,183 @@
+package com.ibrahim.DBPulse.monitoring.jfr;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * Continuous in-process JDK Flight Recorder session consumed with {@link RecordingStream}.
+ * Only a handful of low-overhead events are enabled: throttled allocation samples,
+ * contended monitor enters, slow socket reads (JDBC waits), GC pauses and virtual thread
+ * pinning. Each is turned into a Micrometer meter and, where it has a stack, added to
+ * the per-minute frame totals served by /actuator/jfr.
+ */
+@Slf4j
+public class JfrEventBridge {
+
+    private static final String ALLOCATION_SAMPLE = "jdk.ObjectAllocationSample";
+    private static final String MONITOR_ENTER = "jdk.JavaMonitorEnter";
+    private static final String SOCKET_READ = "jdk.SocketRead";
+    private static final String GARBAGE_COLLECTION = "jdk.GarbageCollection";
+    private static final String VIRTUAL_THREAD_PINNED = "jdk.VirtualThreadPinned";
+
+    // Trailing thread numbers ("http-nio-8080-exec-12") would make one tag value per thread
+    private static final Pattern THREAD_NUMBER = Pattern.compile("[-#_ ]?\\d+$");
+
+    private final MeterRegistry registry;
+    private final JfrProperties properties;
+    private final JfrFrameAggregator frames;
+    private final ConcurrentMap<String, Counter> allocationCounters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Timer> monitorTimers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Timer> socketTimers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Timer> gcTimers = new ConcurrentHashMap<>();
+    private final Timer pinnedTimer;
+    private volatile RecordingStream stream;
+    private volatile Instant started;
+
+    public JfrEventBridge(MeterRegistry registry, JfrProperties properties) {
+        this.registry = registry;
+        this.properties = properties;
+        this.frames = new JfrFrameAggregator((int) Math.max(1, properties.getRetention().toMinutes()),
+                properties.getMaxFramesPerBucket());
+        this.pinnedTimer = Timer.builder("dbpulse.jfr.virtual.thread.pinned")
+                .description("Time virtual threads stayed pinned to their carrier (JFR)")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (stream != null) {
+            return;
+        }
+        try {
+            RecordingStream recording = new RecordingStream();
+            recording.enable(ALLOCATION_SAMPLE)
+                    .with("throttle", properties.getAllocationSamplesPerSecond() + "/s")
+                    .withStackTrace();
+            recording.enable(MONITOR_ENTER).withThreshold(properties.getMonitorEnterThreshold()).withStackTrace();
+            recording.enable(SOCKET_READ).withThreshold(properties.getSocketReadThreshold()).withStackTrace();
+            recording.enable(GARBAGE_COLLECTION);
+            recording.enable(VIRTUAL_THREAD_PINNED).withThreshold(properties.getPinnedThreshold()).withStackTrace();
+            // Events are consumed as they are flushed; keep little on disk
+            recording.setMaxAge(Duration.ofMinutes(1));
+
+            recording.onEvent(ALLOCATION_SAMPLE, this::onAllocation);
+            recording.onEvent(MONITOR_ENTER, this::onMonitorEnter);
+            recording.onEvent(SOCKET_READ, this::onSocketRead);
+            recording.onEvent(GARBAGE_COLLECTION, this::onGarbageCollection);
+            recording.onEvent(VIRTUAL_THREAD_PINNED, this::onPinned);
+            recording.onError(error -> log.warn("JFR event handling failed: {}", error.getMessage()));
+            recording.startAsync();
+            stream = recording;
+            started = Instant.now();
+            log.info("JFR event stream started");
+        } catch (RuntimeException e) {
+            // JFR unavailable (e.g. disabled on the command line): meters simply stay empty
+            log.warn("Unable to start JFR event stream: {}", e.getMessage());
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public synchronized void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    public Instant getStarted() {
+        return started;
+    }
+
+    /**
+     * Frame totals of a category since {@code from}, largest first.
+     */
+    public List<JfrFrameAggregator.FrameStats> top(JfrFrameAggregator.Category category, Instant from, int limit) {
+        return frames.top(category, from, limit);
+    }
+
+    void onAllocation(RecordedEvent event) {
+        // Each sample stands for "weight" bytes allocated since the previous sample of the thread
+        long weight = event.getLong("weight");
+        String thread = threadGroup(event.getThread("eventThread"));
+        allocationCounters.computeIfAbsent(thread, key -> Counter.builder("dbpulse.jfr.allocation")
+                        .description("Bytes allocated by thread pool, estimated from JFR allocation samples")
+                        .baseUnit("bytes")
+                        .tag("thread", key)
+                        .register(registry))
+                .increment(weight);
+        frames.add(JfrFrameAggregator.Category.ALLOCATION, event.getStartTime(), event.getStackTrace(), weight);
+    }
+
+    void onMonitorEnter(RecordedEvent event) {
+        String monitorClass = event.getClass("monitorClass") != null ? event.getClass("monitorClass").getName() : "unknown";
+        monitorTimers.computeIfAbsent(monitorClass, key -> Timer.builder("dbpulse.jfr.monitor.enter")
+                        .description("Time blocked entering contended monitors (JFR)")
+                        .tag("monitor", key)
+                        .register(registry))
+                .record(event.getDuration());
+        frames.add(JfrFrameAggregator.Category.CONTENTION, event.getStartTime(), event.getStackTrace(),
+                event.getDuration().toNanos() / 1e6);
+    }
+
+    void onSocketRead(RecordedEvent event) {
+        String remote = event.getString("address") + ":" + event.getInt("port");
+        socketTimers.computeIfAbsent(remote, key -> Timer.builder("dbpulse.jfr.socket.read")
+                        .description("Slow blocking socket reads, e.g. waiting for database results (JFR)")
+                        .tag("remote", key)
+                        .register(registry))
+                .record(event.getDuration());
+        frames.add(JfrFrameAggregator.Category.SOCKET_READ, event.getStartTime(), event.getStackTrace(),
+                event.getDuration().toNanos() / 1e6);
+    }
+
+    void onGarbageCollection(RecordedEvent event) {
+        String name = valueOrUnknown(event.getString("name"));
+        String cause = valueOrUnknown(event.getString("cause"));
+        gcTimers.computeIfAbsent(name + "|" + cause, key -> Timer.builder("dbpulse.jfr.gc.pause")
+                        .description("Total stop-the-world pause time per collection (JFR)")
+                        .tag("collector", name)
+                        .tag("cause", cause)
+                        .register(registry))
+                .record(event.getDuration("sumOfPauses"));
+    }
+
+    void onPinned(RecordedEvent event) {
+        pinnedTimer.record(event.getDuration());
+        frames.add(JfrFrameAggregator.Category.PINNED, event.getStartTime(), event.getStackTrace(),
+                event.getDuration().toNanos() / 1e6);
+    }
+
+    private static String valueOrUnknown(String value) {
+        return value != null && !value.isEmpty() ? value : "unknown";
+    }
+
+    static String threadGroup(RecordedThread thread) {
+        if (thread == null) {
+            return "unknown";
+        }
+        String name = thread.getJavaName();
+        if (name == null || name.isEmpty()) {
+            return thread.isVirtual() ? "virtual" : "unnamed";
+        }
+        return THREAD_NUMBER.matcher(name).replaceFirst("");
+    }
+}
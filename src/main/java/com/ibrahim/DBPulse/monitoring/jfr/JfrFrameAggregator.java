@@ -0,0 +1,138 @@
+package com.ibrahim.DBPulse.monitoring.jfr;
+
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-minute ring of stack frame totals for each event category.
+ * An event is attributed to the first application frame of its stack (falling back to the
+ * first frame outside the JDK) together with the frame on top of the stack, so a report
+ * points at both the code that asked and the code that did the work.
+ */
+public final class JfrFrameAggregator {
+
+    static final String OTHER = "other";
+
+    private static final String APPLICATION_PACKAGE = "com.ibrahim.DBPulse.";
+    private static final String MONITORING_PACKAGE = APPLICATION_PACKAGE + "monitoring.";
+    private static final long BUCKET_MILLIS = 60_000;
+
+    /**
+     * Event categories with a stack report.
+     */
+    public enum Category {
+        ALLOCATION, CONTENTION, SOCKET_READ, PINNED
+    }
+
+    /**
+     * Totals of one frame over a report window.
+     *
+     * @param value bytes for allocation, milliseconds for the others
+     */
+    public record FrameStats(String frame, String topFrame, long events, double value) {
+    }
+
+    private record FrameKey(String frame, String topFrame) {
+    }
+
+    private static final class Bucket {
+        private long start = Long.MIN_VALUE;
+        private final Map<Category, Map<FrameKey, double[]>> frames = new EnumMap<>(Category.class);
+    }
+
+    private final Bucket[] buckets;
+    private final int maxFramesPerBucket;
+
+    JfrFrameAggregator(int minutes, int maxFramesPerBucket) {
+        this.buckets = new Bucket[Math.max(1, minutes)];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Bucket();
+        }
+        this.maxFramesPerBucket = maxFramesPerBucket;
+    }
+
+    synchronized void add(Category category, Instant time, RecordedStackTrace stackTrace, double value) {
+        long start = Math.floorDiv(time.toEpochMilli(), BUCKET_MILLIS) * BUCKET_MILLIS;
+        Bucket bucket = buckets[(int) Math.floorMod(start / BUCKET_MILLIS, (long) buckets.length)];
+        if (bucket.start != start) {
+            if (bucket.start > start) {
+                // Late event for a bucket that has already been reused
+                return;
+            }
+            bucket.start = start;
+            bucket.frames.clear();
+        }
+        Map<FrameKey, double[]> frames = bucket.frames.computeIfAbsent(category, c -> new HashMap<>());
+        FrameKey key = key(stackTrace);
+        if (!frames.containsKey(key) && frames.size() >= maxFramesPerBucket) {
+            key = new FrameKey(OTHER, OTHER);
+        }
+        double[] totals = frames.computeIfAbsent(key, k -> new double[2]);
+        totals[0]++;
+        totals[1] += value;
+    }
+
+    /**
+     * Frames of a category over the buckets starting at or after {@code from}, largest value first.
+     */
+    synchronized List<FrameStats> top(Category category, Instant from, int limit) {
+        long fromMillis = from.toEpochMilli();
+        Map<FrameKey, double[]> merged = new HashMap<>();
+        for (Bucket bucket : buckets) {
+            Map<FrameKey, double[]> frames = bucket.frames.get(category);
+            if (frames == null || bucket.start + BUCKET_MILLIS <= fromMillis) {
+                continue;
+            }
+            frames.forEach((key, totals) -> {
+                double[] sum = merged.computeIfAbsent(key, k -> new double[2]);
+                sum[0] += totals[0];
+                sum[1] += totals[1];
+            });
+        }
+        List<FrameStats> stats = new ArrayList<>(merged.size());
+        merged.forEach((key, totals) -> stats.add(new FrameStats(key.frame(), key.topFrame(), (long) totals[0], totals[1])));
+        stats.sort(Comparator.comparingDouble(FrameStats::value).reversed());
+        return stats.size() > limit ? List.copyOf(stats.subList(0, limit)) : stats;
+    }
+
+    private static FrameKey key(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return new FrameKey("unknown", "unknown");
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        String top = describe(frames.get(0));
+        String nonJdk = null;
+        for (RecordedFrame frame : frames) {
+            if (!frame.isJavaFrame()) {
+                continue;
+            }
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith(APPLICATION_PACKAGE) && !type.startsWith(MONITORING_PACKAGE) && !type.contains("$$")) {
+                return new FrameKey(describe(frame), top);
+            }
+            if (nonJdk == null && !isJdk(type)) {
+                nonJdk = describe(frame);
+            }
+        }
+        return new FrameKey(nonJdk != null ? nonJdk : top, top);
+    }
+
+    private static boolean isJdk(String type) {
+        return type.startsWith("java.") || type.startsWith("javax.") || type.startsWith("jdk.") || type.startsWith("sun.");
+    }
+
+    private static String describe(RecordedFrame frame) {
+        String type = frame.getMethod().getType().getName();
+        String simple = type.substring(type.lastIndexOf('.') + 1);
+        int line = frame.getLineNumber();
+        return simple + "." + frame.getMethod().getName() + (line > 0 ? ":" + line : "");
+    }
+}
@@ -0,0 +1,50 @@
+package com.ibrahim.DBPulse.monitoring.jfr;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the continuous JFR stream (app.monitoring.jfr.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "app.monitoring.jfr")
+public class JfrProperties {
+
+    /**
+     * Run a JFR recording in-process and bridge its events into meters.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Allocation samples per second (jdk.ObjectAllocationSample throttle); bounds the overhead
+     * however much the application allocates.
+     */
+    private int allocationSamplesPerSecond = 100;
+
+    /**
+     * Monitor enters blocked for at least this long are recorded.
+     */
+    private Duration monitorEnterThreshold = Duration.ofMillis(10);
+
+    /**
+     * Socket reads (e.g. waiting on PostgreSQL) taking at least this long are recorded.
+     */
+    private Duration socketReadThreshold = Duration.ofMillis(10);
+
+    /**
+     * Virtual threads pinned to their carrier for at least this long are recorded.
+     */
+    private Duration pinnedThreshold = Duration.ofMillis(20);
+
+    /**
+     * How far back /actuator/jfr can report, in one-minute buckets.
+     */
+    private Duration retention = Duration.ofMinutes(30);
+
+    /**
+     * Distinct frames kept per bucket and category; further frames are counted under "other".
+     */
+    private int maxFramesPerBucket = 500;
+}
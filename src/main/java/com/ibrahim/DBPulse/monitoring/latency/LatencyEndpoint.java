@@ -0,0 +1,54 @@
+package com.ibrahim.DBPulse.monitoring.latency;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Actuator endpoint exposing HdrHistogram percentiles of the last interval.
+ * GET /actuator/latency?kind=http
+ */
+@Endpoint(id = "latency")
+public class LatencyEndpoint {
+
+    private final LatencyRecorder latencyRecorder;
+    private final LatencyProperties properties;
+
+    public LatencyEndpoint(LatencyRecorder latencyRecorder, LatencyProperties properties) {
+        this.latencyRecorder = latencyRecorder;
+        this.properties = properties;
+    }
+
+    /**
+     * Interval percentiles per series, with the memory the recorders hold.
+     *
+     * @param intervalEnd when the reported interval was closed
+     */
+    public record LatencyReport(Instant intervalEnd,
+                                Duration interval,
+                                int significantDigits,
+                                Duration highestTrackable,
+                                int series,
+                                long footprintBytesPerSeries,
+                                long footprintBytes,
+                                List<LatencyRecorder.IntervalStats> latencies) {
+    }
+
+    @ReadOperation
+    public LatencyReport latency(@Nullable String kind) {
+        int series = latencyRecorder.seriesCount();
+        return new LatencyReport(
+                latencyRecorder.getLastRotation(),
+                Duration.ofMillis(properties.getInterval()),
+                latencyRecorder.significantDigits(),
+                Duration.ofNanos(latencyRecorder.highestTrackableMicros() * 1000),
+                series,
+                latencyRecorder.footprintPerSeries(),
+                series * latencyRecorder.footprintPerSeries(),
+                latencyRecorder.latest(kind));
+    }
+}
@@ -0,0 +1,42 @@
+package com.ibrahim.DBPulse.monitoring.latency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the HdrHistogram latency recorders (app.monitoring.latency.*).
+ * Each series keeps two concurrent histograms whose size follows from
+ * highest-trackable and significant-digits; /actuator/latency reports the footprint.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.monitoring.latency")
+public class LatencyProperties {
+
+    /**
+     * Record HTTP and service latencies into interval histograms.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Interval (ms) after which recorders are swapped; percentiles describe one interval.
+     */
+    private long interval = 10000;
+
+    /**
+     * Values above this are recorded as this value.
+     */
+    private Duration highestTrackable = Duration.ofMinutes(1);
+
+    /**
+     * Value precision: 2 keeps every percentile within 1% (about 41KB per histogram
+     * for a one minute range), 3 within 0.1% at about 7 times the memory.
+     */
+    private int significantDigits = 2;
+
+    /**
+     * Upper bound on series; further endpoints or methods share the "other" series of their kind.
+     */
+    private int maxSeries = 200;
+}
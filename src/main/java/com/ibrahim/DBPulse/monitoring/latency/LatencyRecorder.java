@@ -0,0 +1,164 @@
+package com.ibrahim.DBPulse.monitoring.latency;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency recorders backed by HdrHistogram, one series per HTTP endpoint or service method.
+ * Writers record into the active histogram of a {@link Recorder} without locks; every
+ * interval the scheduler swaps it for the previous interval's histogram and reads exact
+ * percentiles from the one it took out. Values are recorded in microseconds.
+ */
+public class LatencyRecorder {
+
+    public static final String HTTP = "http";
+    public static final String SERVICE = "service";
+
+    static final String OTHER = "other";
+
+    private final long highestTrackableMicros;
+    private final int significantDigits;
+    private final int maxSeries;
+    private final long footprintPerSeries;
+    private final ConcurrentMap<SeriesKey, Series> series = new ConcurrentHashMap<>();
+    private volatile Instant lastRotation = Instant.now();
+
+    private record SeriesKey(String kind, String name) {
+    }
+
+    /**
+     * Percentiles of one series over the last completed interval.
+     */
+    public record IntervalStats(String kind,
+                                String name,
+                                long count,
+                                double p50Millis,
+                                double p99Millis,
+                                double p999Millis,
+                                double maxMillis) {
+    }
+
+    /**
+     * Recorder and last interval of one series.
+     */
+    public final class Series {
+
+        private final SeriesKey key;
+        private final Recorder recorder;
+        private Histogram interval;
+        private volatile IntervalStats latest;
+
+        private Series(SeriesKey key) {
+            this.key = key;
+            this.recorder = new Recorder(1, highestTrackableMicros, significantDigits);
+            this.latest = new IntervalStats(key.kind(), key.name(), 0, 0, 0, 0, 0);
+        }
+
+        /**
+         * Record one duration; safe to call from any number of threads.
+         */
+        public void record(long nanos) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+            recorder.recordValue(Math.max(0, Math.min(micros, highestTrackableMicros)));
+        }
+
+        /**
+         * Only called from the rotating thread.
+         */
+        private void rotate() {
+            interval = recorder.getIntervalHistogram(interval);
+            latest = new IntervalStats(key.kind(), key.name(),
+                    interval.getTotalCount(),
+                    millis(interval.getValueAtPercentile(50)),
+                    millis(interval.getValueAtPercentile(99)),
+                    millis(interval.getValueAtPercentile(99.9)),
+                    millis(interval.getMaxValue()));
+        }
+    }
+
+    public LatencyRecorder(LatencyProperties properties) {
+        this.highestTrackableMicros = Math.max(2, properties.getHighestTrackable().toNanos() / 1000);
+        this.significantDigits = properties.getSignificantDigits();
+        this.maxSeries = properties.getMaxSeries();
+        // A recorder's active histogram plus the interval histogram swapped out of it
+        this.footprintPerSeries = 2 * new ConcurrentHistogram(1, highestTrackableMicros, significantDigits)
+                .getEstimatedFootprintInBytes();
+    }
+
+    /**
+     * The series for an endpoint or method, created on first use. Callers on hot paths
+     * should resolve it once and keep it.
+     */
+    public Series series(String kind, String name) {
+        SeriesKey key = new SeriesKey(kind, name);
+        Series existing = series.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        // Racing threads may overshoot the cap by a few entries, which keeps this path lock-free
+        if (series.size() >= maxSeries) {
+            key = new SeriesKey(kind, OTHER);
+        }
+        return series.computeIfAbsent(key, Series::new);
+    }
+
+    @Scheduled(fixedRateString = "${app.monitoring.latency.interval:10000}")
+    public void rotate() {
+        for (Series each : series.values()) {
+            each.rotate();
+        }
+        lastRotation = Instant.now();
+    }
+
+    /**
+     * Last interval of every series of the given kind (all kinds when null), slowest p99 first.
+     */
+    public List<IntervalStats> latest(String kind) {
+        List<IntervalStats> stats = new ArrayList<>(series.size());
+        for (Series each : series.values()) {
+            if (kind == null || each.key.kind().equals(kind)) {
+                stats.add(each.latest);
+            }
+        }
+        stats.sort(Comparator.comparingDouble(IntervalStats::p99Millis).reversed()
+                .thenComparing(IntervalStats::name));
+        return stats;
+    }
+
+    public Instant getLastRotation() {
+        return lastRotation;
+    }
+
+    public int seriesCount() {
+        return series.size();
+    }
+
+    /**
+     * Estimated heap held by the histograms of one series.
+     */
+    public long footprintPerSeries() {
+        return footprintPerSeries;
+    }
+
+    public long highestTrackableMicros() {
+        return highestTrackableMicros;
+    }
+
+    public int significantDigits() {
+        return significantDigits;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
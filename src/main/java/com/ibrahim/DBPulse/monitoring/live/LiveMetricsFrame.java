@@ -0,0 +1,20 @@
+package com.ibrahim.DBPulse.monitoring.live;
+
+/**
+ * One tick of the live metrics stream. Rates and percentiles cover the interval since the previous tick.
+ *
+ * @param intervalMillis   length of the interval the rates were computed over
+ * @param latencyP50Millis HTTP server latency percentiles, interpolated within histogram buckets;
+ *                         null when no request completed in the interval
+ */
+public record LiveMetricsFrame(long timestamp,
+                               long intervalMillis,
+                               double requestsPerSecond,
+                               Double latencyP50Millis,
+                               Double latencyP95Millis,
+                               Double latencyP99Millis,
+                               int connectionsActive,
+                               int connectionsPending,
+                               double ordersPerSecond,
+                               double revenuePerSecond) {
+}
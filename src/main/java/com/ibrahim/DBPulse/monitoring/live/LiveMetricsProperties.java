@@ -0,0 +1,39 @@
+package com.ibrahim.DBPulse.monitoring.live;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the live metrics stream (app.monitoring.live.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "app.monitoring.live")
+public class LiveMetricsProperties {
+
+    /**
+     * Serve GET /api/metrics/live.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Interval (ms) between frames. Values are computed once per tick, only while someone is subscribed.
+     */
+    private long interval = 500;
+
+    /**
+     * Frames buffered per subscriber; a slower client loses the oldest ones and only sees recent ticks.
+     */
+    private int bufferSize = 4;
+
+    /**
+     * Concurrent subscribers; further connections are rejected with 503.
+     */
+    private int maxSubscribers = 100;
+
+    /**
+     * Connection lifetime before the client has to reconnect.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+}
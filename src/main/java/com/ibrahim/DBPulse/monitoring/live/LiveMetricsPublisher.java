@@ -0,0 +1,193 @@
+package com.ibrahim.DBPulse.monitoring.live;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Computes the live metrics frame once per tick and publishes it to every subscriber of the stream.
+ * Latency percentiles come from the http.server.requests histogram: bucket counts of all
+ * endpoints are summed and diffed against the previous tick, so they describe only the
+ * requests that completed during the interval. Nothing is computed while nobody is subscribed.
+ */
+@Slf4j
+public class LiveMetricsPublisher {
+
+    static final String EVENT = "metrics";
+    static final String STREAM_URI = "/api/metrics/live";
+
+    private final MeterRegistry registry;
+    private final SseBroadcaster broadcaster;
+    private final ObjectWriter writer;
+
+    // Merged cumulative bucket counts (bounds in ms) at the previous tick
+    private double[] bounds = new double[0];
+    private double[] previousBuckets = new double[0];
+    private double[] currentBuckets = new double[0];
+    private long previousRequests = -1;
+    private double previousOrders;
+    private double previousRevenue;
+    private long previousTick;
+
+    public LiveMetricsPublisher(MeterRegistry registry, SseBroadcaster broadcaster, ObjectMapper objectMapper) {
+        this.registry = registry;
+        this.broadcaster = broadcaster;
+        this.writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    @Scheduled(fixedRateString = "${app.monitoring.live.interval:500}")
+    public void tick() {
+        if (!broadcaster.hasSubscribers()) {
+            // Restart the deltas when the next subscriber connects
+            previousRequests = -1;
+            return;
+        }
+        LiveMetricsFrame frame = sample(System.currentTimeMillis());
+        if (frame == null) {
+            return;
+        }
+        try {
+            broadcaster.publish(EVENT, writer.writeValueAsString(frame));
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize live metrics frame: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Read the meters and compute a frame against the previous call; null on the first call.
+     */
+    synchronized LiveMetricsFrame sample(long now) {
+        long requests = mergeRequestHistograms();
+        double orders = counter("dbpulse.orders.created");
+        double revenue = counter("dbpulse.revenue.total");
+
+        LiveMetricsFrame frame = null;
+        if (previousRequests >= 0 && now > previousTick) {
+            long interval = now - previousTick;
+            double seconds = interval / 1000.0;
+            long completed = Math.max(0, requests - previousRequests);
+            frame = new LiveMetricsFrame(
+                    now,
+                    interval,
+                    completed / seconds,
+                    percentile(0.50, completed),
+                    percentile(0.95, completed),
+                    percentile(0.99, completed),
+                    (int) gauge("hikaricp.connections.active"),
+                    (int) gauge("hikaricp.connections.pending"),
+                    Math.max(0, orders - previousOrders) / seconds,
+                    Math.max(0, revenue - previousRevenue) / seconds);
+        }
+
+        double[] swap = previousBuckets;
+        previousBuckets = currentBuckets;
+        currentBuckets = swap;
+        previousRequests = requests;
+        previousOrders = orders;
+        previousRevenue = revenue;
+        previousTick = now;
+        return frame;
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void close() {
+        broadcaster.closeAll();
+    }
+
+    /**
+     * Sum the cumulative bucket counts of every http.server.requests timer into currentBuckets.
+     * All of them share the bucket layout configured under management.metrics.distribution.
+     *
+     * @return total requests recorded so far
+     */
+    private long mergeRequestHistograms() {
+        Arrays.fill(currentBuckets, 0);
+        long total = 0;
+        for (Timer timer : registry.find("http.server.requests").timers()) {
+            if (STREAM_URI.equals(timer.getId().getTag("uri"))) {
+                // Stream connections last for minutes and would swamp the percentiles
+                continue;
+            }
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            CountAtBucket[] counts = snapshot.histogramCounts();
+            if (counts.length != bounds.length) {
+                resetBuckets(counts);
+            }
+            for (int i = 0; i < counts.length; i++) {
+                currentBuckets[i] += counts[i].count();
+            }
+            total += snapshot.count();
+        }
+        return total;
+    }
+
+    private void resetBuckets(CountAtBucket[] counts) {
+        bounds = new double[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            bounds[i] = counts[i].bucket(TimeUnit.MILLISECONDS);
+        }
+        double[] merged = new double[counts.length];
+        System.arraycopy(currentBuckets, 0, merged, 0, Math.min(currentBuckets.length, merged.length));
+        currentBuckets = merged;
+        previousBuckets = new double[counts.length];
+        // No usable baseline for the new layout: this tick reports no percentiles
+        previousRequests = -1;
+    }
+
+    /**
+     * Latency below which a fraction q of the interval's requests completed, interpolated
+     * linearly inside the bucket holding that rank. Null when no request completed.
+     */
+    private Double percentile(double q, long completed) {
+        if (completed == 0 || bounds.length == 0) {
+            return null;
+        }
+        double rank = q * completed;
+        double below = 0;
+        for (int i = 0; i < bounds.length; i++) {
+            double atOrBelow = currentBuckets[i] - previousBuckets[i];
+            if (atOrBelow >= rank) {
+                double lower = i == 0 ? 0 : bounds[i - 1];
+                double inBucket = atOrBelow - below;
+                double fraction = inBucket > 0 ? (rank - below) / inBucket : 1;
+                return lower + fraction * (bounds[i] - lower);
+            }
+            below = atOrBelow;
+        }
+        // Rank falls above the largest bucket
+        return bounds[bounds.length - 1];
+    }
+
+    private double counter(String name) {
+        double sum = 0;
+        for (Counter counter : registry.find(name).counters()) {
+            sum += counter.count();
+        }
+        return sum;
+    }
+
+    private double gauge(String name) {
+        double sum = 0;
+        for (Gauge gauge : registry.find(name).gauges()) {
+            double value = gauge.value();
+            if (!Double.isNaN(value)) {
+                sum += value;
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,171 @@
+package com.ibrahim.DBPulse.monitoring.live;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans server-sent events out to many subscribers.
+ * An event is built once by {@link #publish} and the same frame is handed to every subscriber.
+ * Each subscriber has a small bounded buffer drained by its own virtual thread; when a slow
+ * client lets it fill up, the oldest frames are dropped, so a stalled connection costs a
+ * fixed amount of memory and never holds up the publisher or the other subscribers.
+ */
+@Slf4j
+public class SseBroadcaster {
+
+    private final String name;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong subscriberIds = new AtomicLong();
+    private final Counter droppedFrames;
+
+    /**
+     * One event, built once and shared by all subscribers.
+     */
+    private record Frame(Set<ResponseBodyEmitter.DataWithMediaType> items) {
+    }
+
+    public SseBroadcaster(String name, int bufferSize, int maxSubscribers, long timeoutMillis, MeterRegistry registry) {
+        this.name = name;
+        this.bufferSize = Math.max(1, bufferSize);
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeoutMillis;
+        Gauge.builder("dbpulse.sse.subscribers", subscribers, Set::size)
+                .description("Connected server-sent event subscribers")
+                .tag("stream", name)
+                .register(registry);
+        this.droppedFrames = Counter.builder("dbpulse.sse.dropped")
+                .description("Frames dropped because a subscriber was too slow to keep up")
+                .tag("stream", name)
+                .register(registry);
+    }
+
+    /**
+     * Register a new subscriber. Rejected with 503 once max-subscribers are connected.
+     */
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(SseEmitter emitter) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many subscribers on the " + name + " stream");
+        }
+        Subscriber subscriber = new Subscriber(emitter);
+        subscribers.add(subscriber);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscriber.start();
+        log.debug("New subscriber on {} stream ({} connected)", name, subscribers.size());
+        return emitter;
+    }
+
+    public boolean hasSubscribers() {
+        return !subscribers.isEmpty();
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Send an already serialized JSON payload as event {@code event} to every subscriber.
+     */
+    public void publish(String event, String json) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Frame frame = new Frame(SseEmitter.event()
+                .id(Long.toString(sequence.incrementAndGet()))
+                .name(event)
+                .data(json, MediaType.APPLICATION_JSON)
+                .build());
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(frame);
+        }
+    }
+
+    /**
+     * Complete every subscriber, e.g. on shutdown.
+     */
+    public void closeAll() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+            subscriber.close();
+        }
+    }
+
+    private final class Subscriber implements Runnable {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<Frame> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private volatile Thread sender;
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void start() {
+            sender = Thread.ofVirtual().name("sse-" + name + "-" + subscriberIds.incrementAndGet()).start(this);
+        }
+
+        /**
+         * Called from the publisher only, so dropping the oldest frame cannot race another offer.
+         */
+        private void offer(Frame frame) {
+            while (!buffer.offer(frame)) {
+                if (buffer.poll() != null) {
+                    droppedFrames.increment();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!closed) {
+                    Frame frame = buffer.take();
+                    emitter.send(frame.items());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the emitter already completed
+                emitter.completeWithError(e);
+            } finally {
+                close();
+            }
+        }
+
+        private void close() {
+            closed = true;
+            if (subscribers.remove(this)) {
+                log.debug("Subscriber left {} stream ({} connected)", name, subscribers.size());
+            }
+            Thread thread = sender;
+            if (thread != null && thread != Thread.currentThread()) {
+                thread.interrupt();
+            }
+        }
+    }
+}
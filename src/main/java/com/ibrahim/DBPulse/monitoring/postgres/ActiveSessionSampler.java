@@ -0,0 +1,203 @@
+package com.ibrahim.DBPulse.monitoring.postgres;
+
+import com.ibrahim.DBPulse.monitoring.jdbc.SqlFingerprint;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Active Session History: samples the non-idle sessions of the current database from
+ * pg_stat_activity on a fixed interval and keeps them in a primitive-array ring buffer
+ * sized to cover app.monitoring.postgres.ash.retention. Sessions on the CPU (active
+ * with no wait event) are recorded as wait event "CPU".
+ */
+public class ActiveSessionSampler extends PostgresCollector {
+
+    static final String CPU = "CPU";
+
+    /**
+     * Most buckets in one report; larger windows get proportionally wider buckets.
+     */
+    static final int MAX_BUCKETS = 720;
+
+    private static final String ACTIVITY_QUERY = """
+            SELECT pid,
+                   state,
+                   wait_event_type,
+                   wait_event,
+                   query,
+                   (EXTRACT(EPOCH FROM clock_timestamp() - COALESCE(query_start, xact_start, backend_start)) * 1000)::bigint AS duration_ms
+            FROM pg_stat_activity
+            WHERE datname = current_database()
+              AND backend_type = 'client backend'
+              AND pid <> pg_backend_pid()
+              AND state IS DISTINCT FROM 'idle'
+            ORDER BY duration_ms DESC
+            LIMIT ?
+            """;
+
+    private final Duration interval;
+    private final Duration retention;
+    private final int maxActiveSessions;
+    private final AshSampleBuffer samples;
+    private final AshDictionary states = new AshDictionary(64);
+    private final AshDictionary waitEvents = new AshDictionary(Short.MAX_VALUE);
+    private final AshDictionary fingerprints;
+    private final ConcurrentMap<String, String> sqlByFingerprint = new ConcurrentHashMap<>();
+
+    /**
+     * Sessions by wait event over a window, in fixed-size time buckets.
+     *
+     * @param averageActiveSessions samples divided by the number of sampling ticks in the window
+     */
+    public record AshReport(Instant from,
+                            Instant to,
+                            Duration sampleInterval,
+                            long samples,
+                            double averageActiveSessions,
+                            Map<String, Long> waitEvents,
+                            Map<String, Long> states,
+                            List<Bucket> buckets,
+                            List<TopQuery> topQueries) {
+    }
+
+    public record Bucket(Instant start, double averageActiveSessions, Map<String, Long> waitEvents) {
+    }
+
+    public record TopQuery(String fingerprint, String sql, long samples, Map<String, Long> waitEvents) {
+    }
+
+    public ActiveSessionSampler(JdbcTemplate jdbcTemplate, PostgresMonitoringProperties properties) {
+        super(jdbcTemplate);
+        PostgresMonitoringProperties.Ash ash = properties.getAsh();
+        this.interval = Duration.ofMillis(ash.getInterval());
+        this.retention = ash.getRetention();
+        this.maxActiveSessions = ash.getMaxActiveSessions();
+        long ticks = Math.max(1, ash.getRetention().toMillis() / Math.max(1, ash.getInterval()));
+        this.samples = new AshSampleBuffer((int) Math.min(Integer.MAX_VALUE - 8, ticks * maxActiveSessions));
+        this.fingerprints = new AshDictionary(ash.getMaxFingerprints());
+    }
+
+    @Scheduled(fixedRateString = "${app.monitoring.postgres.ash.interval:1000}")
+    public void sample() {
+        runCycle();
+    }
+
+    @Override
+    protected void collect() {
+        long sampledAt = System.currentTimeMillis();
+        jdbcTemplate.query(ACTIVITY_QUERY, rs -> {
+            record(sampledAt,
+                    rs.getInt("pid"),
+                    rs.getString("state"),
+                    rs.getString("wait_event_type"),
+                    rs.getString("wait_event"),
+                    rs.getString("query"),
+                    rs.getLong("duration_ms"));
+        }, maxActiveSessions);
+    }
+
+    void record(long sampledAt, int pid, String state, String waitEventType, String waitEvent, String query,
+                long durationMillis) {
+        samples.add(sampledAt,
+                pid,
+                states.id(state != null ? state : "unknown"),
+                waitEvents.id(waitEvent != null ? waitEventType + ":" + waitEvent : CPU),
+                fingerprintId(SqlFingerprint.of(query)),
+                (int) Math.min(Integer.MAX_VALUE, Math.max(0, durationMillis)));
+    }
+
+    /**
+     * Aggregate the samples of the last {@code window} into {@code bucket}-sized wait event breakdowns.
+     * The window is capped at the retention, since older samples are gone, and buckets are
+     * widened so that one report has at most {@link #MAX_BUCKETS}.
+     */
+    public AshReport report(Duration window, Duration bucket, int topQueries) {
+        return report(System.currentTimeMillis(), window, bucket, topQueries);
+    }
+
+    AshReport report(long to, Duration window, Duration bucket, int topQueries) {
+        long windowMillis = Math.max(interval.toMillis(), Math.min(window.toMillis(), retention.toMillis()));
+        long from = to - windowMillis;
+        long bucketMillis = Math.max(Math.max(interval.toMillis(), bucket.toMillis()),
+                (windowMillis + MAX_BUCKETS - 1) / MAX_BUCKETS);
+        int bucketCount = (int) Math.ceil((double) windowMillis / bucketMillis);
+
+        long[] bucketSamples = new long[bucketCount];
+        List<Map<Integer, Long>> bucketWaits = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            bucketWaits.add(new HashMap<>());
+        }
+        Map<Integer, Long> waitTotals = new HashMap<>();
+        Map<Integer, Long> stateTotals = new HashMap<>();
+        Map<Integer, long[]> querySamples = new HashMap<>();
+        Map<Integer, Map<Integer, Long>> queryWaits = new HashMap<>();
+        long[] total = new long[1];
+
+        samples.forEachSince(from, (sampledAt, pid, state, waitEvent, fingerprint, durationMillis) -> {
+            int index = (int) Math.min(bucketCount - 1, (sampledAt - from) / bucketMillis);
+            bucketSamples[index]++;
+            bucketWaits.get(index).merge(waitEvent, 1L, Long::sum);
+            waitTotals.merge(waitEvent, 1L, Long::sum);
+            stateTotals.merge(state, 1L, Long::sum);
+            querySamples.computeIfAbsent(fingerprint, id -> new long[1])[0]++;
+            queryWaits.computeIfAbsent(fingerprint, id -> new HashMap<>()).merge(waitEvent, 1L, Long::sum);
+            total[0]++;
+        });
+
+        double ticksPerBucket = (double) bucketMillis / interval.toMillis();
+        List<Bucket> buckets = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.add(new Bucket(Instant.ofEpochMilli(from + i * bucketMillis),
+                    bucketSamples[i] / ticksPerBucket,
+                    named(bucketWaits.get(i), waitEvents)));
+        }
+
+        List<TopQuery> top = querySamples.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<Integer, long[]> entry) -> entry.getValue()[0]).reversed())
+                .limit(topQueries)
+                .map(entry -> {
+                    String id = fingerprints.value(entry.getKey());
+                    return new TopQuery(id, sqlByFingerprint.get(id), entry.getValue()[0],
+                            named(queryWaits.get(entry.getKey()), waitEvents));
+                })
+                .toList();
+
+        return new AshReport(Instant.ofEpochMilli(from), Instant.ofEpochMilli(to), interval, total[0],
+                total[0] / ((double) windowMillis / interval.toMillis()),
+                named(waitTotals, waitEvents), named(stateTotals, states), buckets, top);
+    }
+
+    public int capacity() {
+        return samples.capacity();
+    }
+
+    private int fingerprintId(SqlFingerprint fingerprint) {
+        int id = fingerprints.id(fingerprint.id());
+        if (id != AshDictionary.OTHER) {
+            sqlByFingerprint.putIfAbsent(fingerprint.id(), fingerprint.sql());
+        }
+        return id;
+    }
+
+    /**
+     * Resolve dictionary ids to names, largest count first.
+     */
+    private static Map<String, Long> named(Map<Integer, Long> counts, AshDictionary dictionary) {
+        Map<String, Long> named = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Long>comparingByValue().reversed())
+                .forEach(entry -> named.merge(dictionary.value(entry.getKey()), entry.getValue(), Long::sum));
+        return named;
+    }
+}
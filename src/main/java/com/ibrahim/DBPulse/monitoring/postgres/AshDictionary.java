@@ -0,0 +1,52 @@
+package com.ibrahim.DBPulse.monitoring.postgres;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Bounded string-to-id dictionary, so ASH samples can store wait events, states and
+ * query fingerprints as small ints. Once full, unseen values map to {@link #OTHER}.
+ */
+final class AshDictionary {
+
+    static final int OTHER = 0;
+    private static final String OTHER_VALUE = "other";
+
+    private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private volatile String[] values;
+    private int size = 1;
+
+    AshDictionary(int maxSize) {
+        this.maxSize = maxSize;
+        this.values = new String[Math.min(64, maxSize)];
+        this.values[OTHER] = OTHER_VALUE;
+    }
+
+    /**
+     * Id of the value, adding it if there is room. Called from the single sampler thread.
+     */
+    int id(String value) {
+        Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        if (size >= maxSize) {
+            return OTHER;
+        }
+        String[] current = values;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, Math.min(maxSize, current.length * 2));
+        }
+        current[size] = value;
+        values = current;
+        ids.put(value, size);
+        return size++;
+    }
+
+    String value(int id) {
+        String[] current = values;
+        return id >= 0 && id < current.length && current[id] != null ? current[id] : OTHER_VALUE;
+    }
+}
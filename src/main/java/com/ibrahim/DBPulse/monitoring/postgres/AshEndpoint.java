@@ -0,0 +1,31 @@
+package com.ibrahim.DBPulse.monitoring.postgres;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.time.Duration;
+
+/**
+ * Actuator endpoint exposing Active Session History wait event breakdowns.
+ * GET /actuator/ash?minutes=15&bucketSeconds=60
+ * The window is capped at the sampler's retention and the bucket count at
+ * {@link ActiveSessionSampler#MAX_BUCKETS}.
+ */
+@Endpoint(id = "ash")
+public class AshEndpoint {
+
+    private final ActiveSessionSampler sampler;
+
+    public AshEndpoint(ActiveSessionSampler sampler) {
+        this.sampler = sampler;
+    }
+
+    @ReadOperation
+    public ActiveSessionSampler.AshReport ash(@Nullable Integer minutes, @Nullable Integer bucketSeconds) {
+        return sampler.report(
+                Duration.ofMinutes(minutes != null ? Math.max(1, minutes) : 15),
+                Duration.ofSeconds(bucketSeconds != null ? Math.max(1, bucketSeconds) : 60),
+                10);
+    }
+}
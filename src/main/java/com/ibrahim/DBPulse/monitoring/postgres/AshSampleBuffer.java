@@ -0,0 +1,67 @@
+package com.ibrahim.DBPulse.monitoring.postgres;
+
+/**
+ * Fixed-capacity ring buffer of Active Session History samples in parallel primitive arrays
+ * (about 24 bytes per sample, no per-sample objects). The oldest samples are overwritten
+ * once full. Strings are stored as {@link AshDictionary} ids.
+ */
+final class AshSampleBuffer {
+
+    /**
+     * Receives samples in insertion order from {@link #forEachSince}.
+     */
+    @FunctionalInterface
+    interface SampleVisitor {
+        void visit(long sampledAtMillis, int pid, int state, int waitEvent, int fingerprint, int durationMillis);
+    }
+
+    private final long[] sampledAt;
+    private final int[] pid;
+    private final short[] state;
+    private final short[] waitEvent;
+    private final int[] fingerprint;
+    private final int[] durationMillis;
+    private long written;
+
+    AshSampleBuffer(int capacity) {
+        int size = Math.max(1, capacity);
+        sampledAt = new long[size];
+        pid = new int[size];
+        state = new short[size];
+        waitEvent = new short[size];
+        fingerprint = new int[size];
+        durationMillis = new int[size];
+    }
+
+    synchronized void add(long sampledAtMillis, int pid, int state, int waitEvent, int fingerprint, int durationMillis) {
+        int slot = (int) (written % sampledAt.length);
+        this.sampledAt[slot] = sampledAtMillis;
+        this.pid[slot] = pid;
+        this.state[slot] = (short) state;
+        this.waitEvent[slot] = (short) waitEvent;
+        this.fingerprint[slot] = fingerprint;
+        this.durationMillis[slot] = durationMillis;
+        written++;
+    }
+
+    /**
+     * Visit retained samples taken at or after {@code sinceMillis}, oldest first.
+     */
+    synchronized void forEachSince(long sinceMillis, SampleVisitor visitor) {
+        long retained = Math.min(written, sampledAt.length);
+        for (long i = written - retained; i < written; i++) {
+            int slot = (int) (i % sampledAt.length);
+            if (sampledAt[slot] >= sinceMillis) {
+                visitor.visit(sampledAt[slot], pid[slot], state[slot], waitEvent[slot], fingerprint[slot], durationMillis[slot]);
+            }
+        }
+    }
+
+    int capacity() {
+        return sampledAt.length;
+    }
+
+    synchronized long written() {
+        return written;
+    }
+}
@@ -0,0 +1,26 @@
+package com.ibrahim.DBPulse.monitoring.postgres;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * Actuator endpoint exposing the current lock blocking graph.
+ * GET /actuator/blocking
+ */
+@Endpoint(id = "blocking")
+public class BlockingEndpoint {
+
+    private final BlockingMonitor monitor;
+
+    public BlockingEndpoint(BlockingMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    /**
+     * Graph from the monitor's last cycle (app.monitoring.postgres.blocking.interval).
+     */
+    @ReadOperation
+    public BlockingMonitor.BlockingReport blocking() {
+        return monitor.current();
+    }
+}
@@ -0,0 +1,251 @@
+package com.ibrahim.DBPulse.monitoring.postgres;
+
+import com.ibrahim.DBPulse.monitoring.jdbc.SqlFingerprint;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds the lock blocking tree of the current database from pg_stat_activity, pg_blocking_pids()
+ * and pg_locks. Exports the number of blocked sessions, the longest current lock wait and blocked
+ * sessions per relation, and keeps the last graph for the blocking endpoint.
+ * <p>
+ * The relation of a blocked session is the one of its ungranted lock or, for row lock waits on a
+ * transaction id, of the tuple lock it already holds, which is how a second buyer of the same
+ * product row shows up as blocked on "products".
+ */
+public class BlockingMonitor extends PostgresCollector {
+
+    static final String UNKNOWN_RELATION = "unknown";
+
+    // pg_blocking_pids() is evaluated once per session; only sessions in a blocking chain are returned
+    private static final String BLOCKING_QUERY = """
+            WITH sessions AS (
+                SELECT pid, pg_blocking_pids(pid) AS blocked_by, state, wait_event_type, wait_event,
+                       query, xact_start, state_change
+                FROM pg_stat_activity
+                WHERE datname = current_database()
+            ),
+            involved AS (
+                SELECT pid FROM sessions WHERE cardinality(blocked_by) > 0
+                UNION
+                SELECT unnest(blocked_by) FROM sessions
+            )
+            SELECT s.pid,
+                   s.blocked_by,
+                   s.state,
+                   s.wait_event_type,
+                   s.wait_event,
+                   s.query,
+                   CASE WHEN cardinality(s.blocked_by) > 0
+                        THEN (EXTRACT(EPOCH FROM clock_timestamp() - COALESCE(w.waitstart, s.state_change)) * 1000)::bigint
+                        ELSE 0 END AS wait_ms,
+                   COALESCE((EXTRACT(EPOCH FROM clock_timestamp() - s.xact_start) * 1000)::bigint, 0) AS xact_ms,
+                   w.locktype,
+                   w.mode,
+                   COALESCE(w.relation, t.relation)::regclass::text AS relation
+            FROM sessions s
+            JOIN involved i ON i.pid = s.pid
+            LEFT JOIN LATERAL (
+                SELECT l.locktype, l.mode, l.relation, l.waitstart
+                FROM pg_locks l
+                WHERE l.pid = s.pid AND NOT l.granted
+                LIMIT 1
+            ) w ON true
+            LEFT JOIN LATERAL (
+                SELECT l.relation
+                FROM pg_locks l
+                WHERE l.pid = s.pid AND l.granted AND l.locktype = 'tuple'
+                LIMIT 1
+            ) t ON true
+            """;
+
+    private static final int MAX_RELATIONS = 10;
+
+    private final MultiGauge blockedByRelation;
+    private volatile BlockingReport current = BlockingReport.empty();
+
+    /**
+     * One session in the blocking tree with the sessions waiting on it.
+     *
+     * @param sql         normalized statement the session is running, or last ran if idle in transaction
+     * @param waitMillis  time spent waiting for the lock, 0 for sessions that are not blocked
+     * @param xactMillis  age of the session's open transaction
+     * @param relation    relation the session waits on, null when it is not blocked
+     */
+    public record BlockingSession(int pid,
+                                  String state,
+                                  String waitEvent,
+                                  String sql,
+                                  long waitMillis,
+                                  long xactMillis,
+                                  String lockType,
+                                  String lockMode,
+                                  String relation,
+                                  List<BlockingSession> blocked) {
+    }
+
+    /**
+     * The blocking graph at one point in time; {@code roots} are the sessions at the head of each chain.
+     */
+    public record BlockingReport(Instant sampledAt,
+                                 int blockedSessions,
+                                 long longestWaitMillis,
+                                 Map<String, Long> blockedByRelation,
+                                 List<BlockingSession> roots) {
+
+        static BlockingReport empty() {
+            return new BlockingReport(Instant.now(), 0, 0, Map.of(), List.of());
+        }
+    }
+
+    record Row(int pid, int[] blockedBy, String state, String waitEvent, String sql, long waitMillis,
+                       long xactMillis, String lockType, String lockMode, String relation) {
+    }
+
+    public BlockingMonitor(JdbcTemplate jdbcTemplate, MeterRegistry registry) {
+        super(jdbcTemplate);
+        Gauge.builder("dbpulse.pg.blocking.sessions", this, monitor -> monitor.current.blockedSessions())
+                .description("Sessions currently waiting on a lock held by another session")
+                .register(registry);
+        Gauge.builder("dbpulse.pg.blocking.wait.longest", this, monitor -> monitor.current.longestWaitMillis())
+                .description("Longest current lock wait")
+                .baseUnit("milliseconds")
+                .register(registry);
+        this.blockedByRelation = MultiGauge.builder("dbpulse.pg.blocking.relations")
+                .description("Blocked sessions per relation they wait on")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.monitoring.postgres.blocking.interval:5000}")
+    public void refresh() {
+        runCycle();
+    }
+
+    @Override
+    protected void collect() {
+        List<Row> rows = jdbcTemplate.query(BLOCKING_QUERY, (rs, rowNum) -> row(rs));
+        BlockingReport report = build(rows);
+        current = report;
+        blockedByRelation.register(report.blockedByRelation().keySet().stream()
+                .map(relation -> MultiGauge.Row.of(Tags.of("relation", relation), this,
+                        monitor -> monitor.current.blockedByRelation().getOrDefault(relation, 0L)))
+                .toList(), true);
+    }
+
+    /**
+     * The blocking graph from the last cycle.
+     */
+    public BlockingReport current() {
+        return current;
+    }
+
+    static BlockingReport build(List<Row> rows) {
+        Map<Integer, Row> byPid = new LinkedHashMap<>();
+        Map<Integer, List<Integer>> waiters = new LinkedHashMap<>();
+        int blockedSessions = 0;
+        long longestWait = 0;
+        Map<String, Long> relations = new LinkedHashMap<>();
+        for (Row row : rows) {
+            byPid.put(row.pid(), row);
+            for (int blocker : row.blockedBy()) {
+                waiters.computeIfAbsent(blocker, pid -> new ArrayList<>()).add(row.pid());
+            }
+            if (row.blockedBy().length > 0) {
+                blockedSessions++;
+                longestWait = Math.max(longestWait, row.waitMillis());
+                relations.merge(row.relation() != null ? row.relation() : UNKNOWN_RELATION, 1L, Long::sum);
+            }
+        }
+
+        // Heads of chains are sessions that block others without being blocked; a pure cycle
+        // (a deadlock the server has not broken yet) has none, so its members are used instead
+        List<Integer> roots = new ArrayList<>();
+        for (Row row : byPid.values()) {
+            if (row.blockedBy().length == 0) {
+                roots.add(row.pid());
+            }
+        }
+        Set<Integer> visited = new HashSet<>();
+        List<BlockingSession> trees = new ArrayList<>();
+        for (int root : roots) {
+            trees.add(node(root, byPid, waiters, visited));
+        }
+        for (Row row : byPid.values()) {
+            if (!visited.contains(row.pid())) {
+                trees.add(node(row.pid(), byPid, waiters, visited));
+            }
+        }
+        trees.sort(Comparator.comparingInt((BlockingSession session) -> size(session)).reversed());
+
+        Map<String, Long> topRelations = new LinkedHashMap<>();
+        relations.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(MAX_RELATIONS)
+                .forEach(entry -> topRelations.put(entry.getKey(), entry.getValue()));
+
+        return new BlockingReport(Instant.now(), blockedSessions, longestWait, topRelations, trees);
+    }
+
+    private static BlockingSession node(int pid, Map<Integer, Row> byPid, Map<Integer, List<Integer>> waiters,
+                                        Set<Integer> visited) {
+        visited.add(pid);
+        List<BlockingSession> blocked = new ArrayList<>();
+        for (int waiter : waiters.getOrDefault(pid, List.of())) {
+            if (!visited.contains(waiter)) {
+                blocked.add(node(waiter, byPid, waiters, visited));
+            }
+        }
+        Row row = byPid.get(pid);
+        if (row == null) {
+            // Blocker outside the current database: known only by its pid
+            return new BlockingSession(pid, null, null, null, 0, 0, null, null, null, blocked);
+        }
+        return new BlockingSession(pid, row.state(), row.waitEvent(), row.sql(), row.waitMillis(), row.xactMillis(),
+                row.lockType(), row.lockMode(), row.blockedBy().length > 0 ? row.relation() : null, blocked);
+    }
+
+    private static int size(BlockingSession session) {
+        int size = 1;
+        for (BlockingSession blocked : session.blocked()) {
+            size += size(blocked);
+        }
+        return size;
+    }
+
+    private static Row row(ResultSet rs) throws SQLException {
+        Array blockedBy = rs.getArray("blocked_by");
+        Integer[] pids = blockedBy != null ? (Integer[]) blockedBy.getArray() : new Integer[0];
+        int[] blockers = new int[pids.length];
+        for (int i = 0; i < pids.length; i++) {
+            blockers[i] = pids[i];
+        }
+        String waitEventType = rs.getString("wait_event_type");
+        String waitEvent = rs.getString("wait_event");
+        return new Row(rs.getInt("pid"),
+                blockers,
+                rs.getString("state"),
+                waitEvent != null ? waitEventType + ":" + waitEvent : null,
+                SqlFingerprint.of(rs.getString("query")).sql(),
+                rs.getLong("wait_ms"),
+                rs.getLong("xact_ms"),
+                rs.getString("locktype"),
+                rs.getString("mode"),
+                rs.getString("relation"));
+    }
+}
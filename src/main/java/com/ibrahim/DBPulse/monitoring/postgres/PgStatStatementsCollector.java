@@ -0,0 +1,134 @@
+package com.ibrahim.DBPulse.monitoring.postgres;
+
+import com.ibrahim.DBPulse.monitoring.postgres.StatementStatsSnapshot.StatementDelta;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Publishes the top-N statements of the current database by execution time, per collection interval,
+ * from pg_stat_statements. Values are deltas over the last interval, tagged with the stable
+ * pg_stat_statements queryid, so dashboards can join them back to the statement text in PostgreSQL.
+ * Only the previous cumulative snapshot is retained, in primitive arrays.
+ */
+@Slf4j
+public class PgStatStatementsCollector extends PostgresCollector {
+
+    private static final String EXTENSION_QUERY =
+            "SELECT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_stat_statements')";
+
+    private static final String STATEMENTS_QUERY = """
+            SELECT s.queryid,
+                   SUM(s.calls) AS calls,
+                   SUM(s.total_exec_time) AS total_exec_time,
+                   SUM(s.rows) AS rows,
+                   SUM(s.shared_blks_hit) AS shared_blks_hit,
+                   SUM(s.shared_blks_read) AS shared_blks_read
+            FROM pg_stat_statements s
+            JOIN pg_database d ON d.oid = s.dbid
+            WHERE d.datname = current_database() AND s.queryid IS NOT NULL
+            GROUP BY s.queryid
+            ORDER BY s.queryid
+            """;
+
+    private final int topN;
+    private final List<Metric> metrics = new ArrayList<>();
+
+    private StatementStatsSnapshot previous = new StatementStatsSnapshot(256);
+    private StatementStatsSnapshot current = new StatementStatsSnapshot(256);
+    private boolean hasBaseline;
+    private boolean extensionMissingLogged;
+    private volatile Map<Long, StatementDelta> published = Map.of();
+
+    private record Metric(MultiGauge gauge, ToDoubleFunction<StatementDelta> value) {
+    }
+
+    public PgStatStatementsCollector(JdbcTemplate jdbcTemplate, MeterRegistry registry, PostgresMonitoringProperties properties) {
+        super(jdbcTemplate);
+        this.topN = properties.getStatements().getTopN();
+        metric(registry, "dbpulse.pg.statements.calls", "Calls in the last interval", null, StatementDelta::calls);
+        metric(registry, "dbpulse.pg.statements.time", "Execution time in the last interval", "milliseconds",
+                StatementDelta::totalTimeMillis);
+        metric(registry, "dbpulse.pg.statements.mean.time", "Mean execution time in the last interval", "milliseconds",
+                StatementDelta::meanTimeMillis);
+        metric(registry, "dbpulse.pg.statements.rows", "Rows returned or affected in the last interval", "rows",
+                StatementDelta::rows);
+        metric(registry, "dbpulse.pg.statements.shared.blocks.hit", "Shared buffer hits in the last interval", "blocks",
+                StatementDelta::sharedBlksHit);
+        metric(registry, "dbpulse.pg.statements.shared.blocks.read", "Shared blocks read in the last interval", "blocks",
+                StatementDelta::sharedBlksRead);
+    }
+
+    @Scheduled(fixedDelayString = "${app.monitoring.postgres.statements.interval:60000}",
+            initialDelayString = "${app.monitoring.postgres.statements.interval:60000}")
+    public void refresh() {
+        runCycle();
+    }
+
+    @Override
+    protected void collect() {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(EXTENSION_QUERY, Boolean.class))) {
+            if (!extensionMissingLogged) {
+                log.info("pg_stat_statements extension is not installed; statement metrics are disabled until it is");
+                extensionMissingLogged = true;
+            }
+            return;
+        }
+
+        current.clear();
+        jdbcTemplate.query(STATEMENTS_QUERY, rs -> {
+            current.add(rs.getLong(1), rs.getLong(2), rs.getDouble(3), rs.getLong(4), rs.getLong(5), rs.getLong(6));
+        });
+
+        if (hasBaseline) {
+            publish(current.topByTime(previous, topN));
+        }
+        hasBaseline = true;
+
+        StatementStatsSnapshot swap = previous;
+        previous = current;
+        current = swap;
+    }
+
+    /**
+     * Statements published on the last cycle, keyed by queryid.
+     */
+    public Map<Long, StatementDelta> getPublished() {
+        return published;
+    }
+
+    private void publish(List<StatementDelta> top) {
+        published = top.stream().collect(Collectors.toUnmodifiableMap(StatementDelta::queryId, delta -> delta));
+        for (Metric metric : metrics) {
+            metric.gauge().register(top.stream()
+                    .map(delta -> row(delta.queryId(), metric.value()))
+                    .toList(), true);
+        }
+    }
+
+    private MultiGauge.Row<PgStatStatementsCollector> row(long queryId, ToDoubleFunction<StatementDelta> value) {
+        // Rows resolve through the collector, which the registry can hold strongly, rather than a boxed value
+        return MultiGauge.Row.of(Tags.of("queryid", Long.toString(queryId)), this, collector -> {
+            StatementDelta delta = collector.published.get(queryId);
+            return delta != null ? value.applyAsDouble(delta) : Double.NaN;
+        });
+    }
+
+    private void metric(MeterRegistry registry, String name, String description, String baseUnit,
+                        ToDoubleFunction<StatementDelta> value) {
+        MultiGauge gauge = MultiGauge.builder(name)
+                .description(description + ", top statements by time from pg_stat_statements")
+                .baseUnit(baseUnit)
+                .register(registry);
+        metrics.add(new Metric(gauge, value));
+    }
+}
@@ -0,0 +1,56 @@
+package com.ibrahim.DBPulse.monitoring.postgres;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Base class for collectors that read PostgreSQL statistics views through the application DataSource.
+ * Subclasses schedule {@link #runCycle()}; cycles are skipped when the datasource is not PostgreSQL
+ * and a failing cycle is logged and retried on the next tick instead of propagating.
+ */
+@Slf4j
+public abstract class PostgresCollector {
+
+    private static final String POSTGRES_PRODUCT_NAME = "PostgreSQL";
+
+    protected final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    protected PostgresCollector(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Collect one cycle of statistics.
+     */
+    protected abstract void collect();
+
+    /**
+     * Run {@link #collect()} if the datasource is PostgreSQL.
+     */
+    protected final void runCycle() {
+        try {
+            if (isPostgres()) {
+                collect();
+            }
+        } catch (DataAccessException e) {
+            log.warn("{} cycle failed: {}", getClass().getSimpleName(), e.getMessage());
+        }
+    }
+
+    protected boolean isPostgres() {
+        Boolean current = postgres;
+        if (current == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            current = POSTGRES_PRODUCT_NAME.equals(product);
+            if (!current) {
+                log.info("{} disabled: datasource is {}, not PostgreSQL", getClass().getSimpleName(), product);
+            }
+            postgres = current;
+        }
+        return current;
+    }
+}
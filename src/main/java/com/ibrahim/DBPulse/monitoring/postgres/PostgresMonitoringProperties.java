@@ -0,0 +1,84 @@
+package com.ibrahim.DBPulse.monitoring.postgres;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the PostgreSQL statistics collectors (app.monitoring.postgres.*).
+ * Collection intervals are read directly by the collectors' @Scheduled triggers.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.monitoring.postgres")
+public class PostgresMonitoringProperties {
+
+    /**
+     * Run the PostgreSQL collectors. They also skip themselves on non-PostgreSQL datasources.
+     */
+    private boolean enabled = true;
+
+    private Statements statements = new Statements();
+
+    private Ash ash = new Ash();
+
+    private Blocking blocking = new Blocking();
+
+    private Tables tables = new Tables();
+
+    @Data
+    public static class Statements {
+
+        /**
+         * Interval (ms) between pg_stat_statements snapshots; published values are deltas over it.
+         */
+        private long interval = 60000;
+
+        /**
+         * Number of statements, ranked by execution time in the interval, published as gauges.
+         */
+        private int topN = 10;
+    }
+
+    @Data
+    public static class Ash {
+
+        /**
+         * Interval (ms) between pg_stat_activity samples.
+         */
+        private long interval = 1000;
+
+        /**
+         * How far back samples are kept; with max-active-sessions this sizes the ring buffer.
+         */
+        private Duration retention = Duration.ofHours(1);
+
+        /**
+         * Most sessions recorded per sample, longest running first.
+         */
+        private int maxActiveSessions = 50;
+
+        /**
+         * Distinct query fingerprints remembered; further shapes are reported as "other".
+         */
+        private int maxFingerprints = 2000;
+    }
+
+    @Data
+    public static class Blocking {
+
+        /**
+         * Interval (ms) between blocking graph refreshes.
+         */
+        private long interval = 5000;
+    }
+
+    @Data
+    public static class Tables {
+
+        /**
+         * Interval (ms) between table and index health reads.
+         */
+        private long interval = 60000;
+    }
+}
@@ -0,0 +1,133 @@
+package com.ibrahim.DBPulse.monitoring.postgres;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cumulative pg_stat_statements counters per queryid, held in parallel primitive arrays
+ * sorted by queryid. Two snapshots are diffed with a single merge pass, so the collector
+ * only ever keeps the previous snapshot and never a per-statement object graph.
+ */
+public final class StatementStatsSnapshot {
+
+    private long[] queryIds;
+    private long[] calls;
+    private double[] totalTimeMillis;
+    private long[] rows;
+    private long[] sharedBlksHit;
+    private long[] sharedBlksRead;
+    private int size;
+    private long lastQueryId = Long.MIN_VALUE;
+
+    /**
+     * Counters of one statement over a collection interval.
+     */
+    public record StatementDelta(long queryId,
+                                 long calls,
+                                 double totalTimeMillis,
+                                 long rows,
+                                 long sharedBlksHit,
+                                 long sharedBlksRead) {
+
+        public double meanTimeMillis() {
+            return calls > 0 ? totalTimeMillis / calls : 0.0;
+        }
+    }
+
+    public StatementStatsSnapshot(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        queryIds = new long[capacity];
+        calls = new long[capacity];
+        totalTimeMillis = new double[capacity];
+        rows = new long[capacity];
+        sharedBlksHit = new long[capacity];
+        sharedBlksRead = new long[capacity];
+    }
+
+    /**
+     * Drop all entries but keep the arrays, so the snapshot can be refilled without allocating.
+     */
+    public void clear() {
+        size = 0;
+        lastQueryId = Long.MIN_VALUE;
+    }
+
+    /**
+     * Append one statement. Entries must arrive in ascending queryid order.
+     */
+    public void add(long queryId, long calls, double totalTimeMillis, long rows, long sharedBlksHit, long sharedBlksRead) {
+        if (size > 0 && queryId <= lastQueryId) {
+            throw new IllegalArgumentException("Entries must be added in ascending queryid order");
+        }
+        if (size == queryIds.length) {
+            grow();
+        }
+        this.queryIds[size] = queryId;
+        this.calls[size] = calls;
+        this.totalTimeMillis[size] = totalTimeMillis;
+        this.rows[size] = rows;
+        this.sharedBlksHit[size] = sharedBlksHit;
+        this.sharedBlksRead[size] = sharedBlksRead;
+        lastQueryId = queryId;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The {@code limit} statements with the most execution time since {@code previous}, most expensive first.
+     * Statements absent from {@code previous}, or whose counters went backwards after a
+     * pg_stat_statements_reset(), count from zero. Statements without calls in the interval are skipped.
+     */
+    public List<StatementDelta> topByTime(StatementStatsSnapshot previous, int limit) {
+        StatementDelta[] top = new StatementDelta[Math.max(0, limit)];
+        int topSize = 0;
+        int p = 0;
+        for (int i = 0; i < size; i++) {
+            long queryId = queryIds[i];
+            while (p < previous.size && previous.queryIds[p] < queryId) {
+                p++;
+            }
+            boolean known = p < previous.size && previous.queryIds[p] == queryId;
+            boolean reset = known && calls[i] < previous.calls[p];
+            StatementDelta delta = known && !reset
+                    ? new StatementDelta(queryId,
+                    calls[i] - previous.calls[p],
+                    totalTimeMillis[i] - previous.totalTimeMillis[p],
+                    rows[i] - previous.rows[p],
+                    sharedBlksHit[i] - previous.sharedBlksHit[p],
+                    sharedBlksRead[i] - previous.sharedBlksRead[p])
+                    : new StatementDelta(queryId, calls[i], totalTimeMillis[i], rows[i], sharedBlksHit[i], sharedBlksRead[i]);
+            if (delta.calls() <= 0 || top.length == 0) {
+                continue;
+            }
+            if (topSize < top.length) {
+                top[topSize++] = delta;
+            } else if (delta.totalTimeMillis() > top[topSize - 1].totalTimeMillis()) {
+                top[topSize - 1] = delta;
+            } else {
+                continue;
+            }
+            // Insertion step keeps the small top array ordered by time, descending
+            for (int j = topSize - 1; j > 0 && top[j].totalTimeMillis() > top[j - 1].totalTimeMillis(); j--) {
+                StatementDelta swap = top[j];
+                top[j] = top[j - 1];
+                top[j - 1] = swap;
+            }
+        }
+        return new ArrayList<>(Arrays.asList(top).subList(0, topSize));
+    }
+
+    private void grow() {
+        int capacity = queryIds.length * 2;
+        queryIds = Arrays.copyOf(queryIds, capacity);
+        calls = Arrays.copyOf(calls, capacity);
+        totalTimeMillis = Arrays.copyOf(totalTimeMillis, capacity);
+        rows = Arrays.copyOf(rows, capacity);
+        sharedBlksHit = Arrays.copyOf(sharedBlksHit, capacity);
+        sharedBlksRead = Arrays.copyOf(sharedBlksRead, capacity);
+    }
+}
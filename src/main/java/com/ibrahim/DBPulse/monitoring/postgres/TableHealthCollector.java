@@ -0,0 +1,211 @@
+package com.ibrahim.DBPulse.monitoring.postgres;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Table and index health of the application schemas: live/dead tuples, autovacuum age,
+ * sequential vs index scans, sizes and never-used indexes. pg_stat_user_tables and
+ * pg_stat_user_indexes (with sizes from pg_class) are read in one UNION ALL query,
+ * so each cycle is a single round trip. Tables and indexes are keyed by schema-qualified
+ * name and their gauges tagged with the schema, since the search path may hold several.
+ */
+public class TableHealthCollector extends PostgresCollector {
+
+    private static final String HEALTH_QUERY = """
+            SELECT 'table' AS kind,
+                   t.schemaname AS schema_name,
+                   t.relname AS table_name,
+                   NULL::text AS index_name,
+                   t.n_live_tup AS live_tuples,
+                   t.n_dead_tup AS dead_tuples,
+                   EXTRACT(EPOCH FROM now() - t.last_autovacuum)::double precision AS autovacuum_age,
+                   t.seq_scan AS seq_scan,
+                   COALESCE(t.idx_scan, 0) AS idx_scan,
+                   pg_table_size(c.oid) AS size_bytes,
+                   pg_indexes_size(c.oid) AS index_bytes
+            FROM pg_stat_user_tables t
+            JOIN pg_class c ON c.oid = t.relid
+            WHERE t.schemaname = ANY (current_schemas(false))
+            UNION ALL
+            SELECT 'unused_index',
+                   i.schemaname,
+                   i.relname,
+                   i.indexrelname,
+                   NULL::bigint,
+                   NULL::bigint,
+                   NULL::double precision,
+                   NULL::bigint,
+                   i.idx_scan,
+                   pg_relation_size(c.oid),
+                   NULL::bigint
+            FROM pg_stat_user_indexes i
+            JOIN pg_class c ON c.oid = i.indexrelid
+            JOIN pg_index x ON x.indexrelid = i.indexrelid
+            WHERE i.schemaname = ANY (current_schemas(false))
+              AND i.idx_scan = 0
+              AND NOT x.indisunique
+              AND NOT x.indisprimary
+            """;
+
+    private final List<Metric> tableMetrics = new ArrayList<>();
+    private final MultiGauge unusedIndexes;
+    private volatile Map<String, TableStats> tables = Map.of();
+    private volatile Map<String, UnusedIndex> indexes = Map.of();
+
+    /**
+     * Health of one table.
+     *
+     * @param autovacuumAgeSeconds time since the last autovacuum, NaN if it never ran
+     */
+    public record TableStats(String schema,
+                             String table,
+                             long liveTuples,
+                             long deadTuples,
+                             double autovacuumAgeSeconds,
+                             long seqScans,
+                             long indexScans,
+                             long sizeBytes,
+                             long indexSizeBytes) {
+
+        public String qualifiedName() {
+            return schema + "." + table;
+        }
+
+        public double deadTupleRatio() {
+            long total = liveTuples + deadTuples;
+            return total > 0 ? (double) deadTuples / total : 0.0;
+        }
+
+        public double seqScanRatio() {
+            long total = seqScans + indexScans;
+            return total > 0 ? (double) seqScans / total : 0.0;
+        }
+    }
+
+    /**
+     * A non-unique index that has never been scanned since statistics were last reset.
+     */
+    public record UnusedIndex(String schema, String table, String index, long sizeBytes) {
+
+        public String qualifiedName() {
+            return schema + "." + index;
+        }
+    }
+
+    private record Metric(MultiGauge gauge, ToDoubleFunction<TableStats> value) {
+    }
+
+    public TableHealthCollector(JdbcTemplate jdbcTemplate, MeterRegistry registry) {
+        super(jdbcTemplate);
+        metric(registry, "dbpulse.pg.table.tuples.live", "Estimated live rows", "rows", TableStats::liveTuples);
+        metric(registry, "dbpulse.pg.table.tuples.dead", "Estimated dead rows awaiting vacuum", "rows",
+                TableStats::deadTuples);
+        metric(registry, "dbpulse.pg.table.tuples.dead.ratio", "Dead rows as a fraction of all rows", null,
+                TableStats::deadTupleRatio);
+        metric(registry, "dbpulse.pg.table.autovacuum.age", "Time since the last autovacuum", "seconds",
+                TableStats::autovacuumAgeSeconds);
+        metric(registry, "dbpulse.pg.table.seq.scan.ratio", "Sequential scans as a fraction of all scans", null,
+                TableStats::seqScanRatio);
+        metric(registry, "dbpulse.pg.table.size", "Table size without indexes", "bytes", TableStats::sizeBytes);
+        metric(registry, "dbpulse.pg.table.index.size", "Size of all indexes of the table", "bytes",
+                TableStats::indexSizeBytes);
+        this.unusedIndexes = MultiGauge.builder("dbpulse.pg.index.unused")
+                .description("Size of non-unique indexes never scanned since the last statistics reset")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.monitoring.postgres.tables.interval:60000}")
+    public void refresh() {
+        runCycle();
+    }
+
+    @Override
+    protected void collect() {
+        List<TableStats> tableStats = new ArrayList<>();
+        List<UnusedIndex> unused = new ArrayList<>();
+        jdbcTemplate.query(HEALTH_QUERY, rs -> {
+            String schema = rs.getString("schema_name");
+            String table = rs.getString("table_name");
+            if ("table".equals(rs.getString("kind"))) {
+                double autovacuumAge = rs.getDouble("autovacuum_age");
+                if (rs.wasNull()) {
+                    autovacuumAge = Double.NaN;
+                }
+                tableStats.add(new TableStats(schema, table,
+                        rs.getLong("live_tuples"),
+                        rs.getLong("dead_tuples"),
+                        autovacuumAge,
+                        rs.getLong("seq_scan"),
+                        rs.getLong("idx_scan"),
+                        rs.getLong("size_bytes"),
+                        rs.getLong("index_bytes")));
+            } else {
+                unused.add(new UnusedIndex(schema, table, rs.getString("index_name"), rs.getLong("size_bytes")));
+            }
+        });
+        publish(tableStats, unused);
+    }
+
+    /**
+     * Replace the current stats and the gauge rows, dropping rows of tables and indexes that are gone.
+     */
+    void publish(List<TableStats> tableStats, List<UnusedIndex> unused) {
+        Map<String, TableStats> byTable = new LinkedHashMap<>();
+        tableStats.forEach(stats -> byTable.put(stats.qualifiedName(), stats));
+        Map<String, UnusedIndex> byIndex = new LinkedHashMap<>();
+        unused.forEach(index -> byIndex.put(index.qualifiedName(), index));
+        tables = byTable;
+        indexes = byIndex;
+
+        for (Metric metric : tableMetrics) {
+            metric.gauge().register(byTable.values().stream()
+                    .map(table -> MultiGauge.Row.of(Tags.of("schema", table.schema(), "table", table.table()), this,
+                            collector -> {
+                                TableStats stats = collector.tables.get(table.qualifiedName());
+                                return stats != null ? metric.value().applyAsDouble(stats) : Double.NaN;
+                            }))
+                    .toList(), true);
+        }
+        unusedIndexes.register(byIndex.values().stream()
+                .map(index -> MultiGauge.Row.of(
+                        Tags.of("schema", index.schema(), "table", index.table(), "index", index.index()), this,
+                        collector -> {
+                            UnusedIndex current = collector.indexes.get(index.qualifiedName());
+                            return current != null ? current.sizeBytes() : Double.NaN;
+                        }))
+                .toList(), true);
+    }
+
+    /**
+     * Table stats by schema-qualified name.
+     */
+    public Map<String, TableStats> getTables() {
+        return tables;
+    }
+
+    /**
+     * Unused indexes by schema-qualified name.
+     */
+    public Map<String, UnusedIndex> getUnusedIndexes() {
+        return indexes;
+    }
+
+    private void metric(MeterRegistry registry, String name, String description, String baseUnit,
+                        ToDoubleFunction<TableStats> value) {
+        tableMetrics.add(new Metric(MultiGauge.builder(name)
+                .description(description)
+                .baseUnit(baseUnit)
+                .register(registry), value));
+    }
+}
@@ -0,0 +1,41 @@
+package com.ibrahim.DBPulse.monitoring.request;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+/**
+ * Actuator endpoint to inspect and switch per-request resource metrics at runtime.
+ * GET /actuator/requestresources
+ * POST /actuator/requestresources {"enabled": false}
+ */
+@Endpoint(id = "requestresources")
+public class RequestResourceEndpoint {
+
+    private final RequestResourceFilter filter;
+
+    public RequestResourceEndpoint(RequestResourceFilter filter) {
+        this.filter = filter;
+    }
+
+    /**
+     * Current state and what the JVM can measure.
+     */
+    public record RequestResourceStatus(boolean enabled,
+                                        boolean cpuTimeSupported,
+                                        boolean allocationSupported,
+                                        double skippedVirtualThreadDispatches) {
+    }
+
+    @ReadOperation
+    public RequestResourceStatus status() {
+        return new RequestResourceStatus(filter.isEnabled(), filter.isCpuTimeSupported(),
+                filter.isAllocationSupported(), filter.getSkippedVirtual());
+    }
+
+    @WriteOperation
+    public RequestResourceStatus configure(boolean enabled) {
+        filter.setEnabled(enabled);
+        return status();
+    }
+}
@@ -0,0 +1,176 @@
+package com.ibrahim.DBPulse.monitoring.request;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Records the CPU time and heap bytes each HTTP request costs its servlet thread, as
+ * dbpulse.request.cpu / dbpulse.request.allocated summaries per endpoint.
+ * Readings come from com.sun.management.ThreadMXBean before and after each dispatch.
+ * An async request is measured on every dispatch the container runs (initial and
+ * async) and recorded once when the last one ends; work its handler hands to other
+ * threads in between is not attributed. Dispatches on virtual threads are skipped
+ * and counted, because a virtual thread can move between carriers mid-request and
+ * the JVM reports no per-thread CPU time for it.
+ * Measurement can be switched off at runtime, leaving a single volatile read per request.
+ */
+@Slf4j
+public class RequestResourceFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+    private static final String USAGE_ATTRIBUTE = RequestResourceFilter.class.getName() + ".usage";
+
+    private final MeterRegistry registry;
+    private final com.sun.management.ThreadMXBean threads;
+    private final boolean cpuTimeSupported;
+    private final boolean allocationSupported;
+    private final Counter skippedVirtual;
+    private final ConcurrentMap<EndpointKey, Summaries> summaries = new ConcurrentHashMap<>();
+    private volatile boolean enabled;
+
+    private record EndpointKey(String uri, String method) {
+    }
+
+    private record Summaries(DistributionSummary cpu, DistributionSummary allocated) {
+    }
+
+    /**
+     * Totals across the dispatches of one request; -1 once any dispatch could not be measured.
+     */
+    private static final class Usage {
+        private long cpuNanos;
+        private long allocatedBytes;
+    }
+
+    public RequestResourceFilter(MeterRegistry registry, RequestResourceProperties properties) {
+        this.registry = registry;
+        this.threads = threadMXBean();
+        this.cpuTimeSupported = threads != null && threads.isCurrentThreadCpuTimeSupported() && threads.isThreadCpuTimeEnabled();
+        this.allocationSupported = threads != null && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled();
+        this.skippedVirtual = Counter.builder("dbpulse.request.resources.skipped")
+                .description("Request dispatches not measured because they ran on a virtual thread")
+                .tag("reason", "virtual_thread")
+                .register(registry);
+        this.enabled = properties.isEnabled();
+        if (!cpuTimeSupported || !allocationSupported) {
+            log.info("Per-request resource metrics: cpu time {}, allocated bytes {}",
+                    cpuTimeSupported ? "available" : "unavailable", allocationSupported ? "available" : "unavailable");
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // Async dispatches run the rest of the request, possibly on another container thread
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Usage usage = (Usage) request.getAttribute(USAGE_ATTRIBUTE);
+        if (usage == null && (!enabled || (!cpuTimeSupported && !allocationSupported))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (usage == null) {
+            usage = new Usage();
+            request.setAttribute(USAGE_ATTRIBUTE, usage);
+        }
+
+        boolean virtual = Thread.currentThread().isVirtual();
+        long cpuStart = !virtual && cpuTimeSupported ? threads.getCurrentThreadCpuTime() : -1;
+        long allocatedStart = !virtual && allocationSupported ? threads.getCurrentThreadAllocatedBytes() : -1;
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (virtual) {
+                skippedVirtual.increment();
+            }
+            usage.cpuNanos = add(usage.cpuNanos, cpuStart, cpuStart >= 0 ? threads.getCurrentThreadCpuTime() : -1);
+            usage.allocatedBytes = add(usage.allocatedBytes, allocatedStart,
+                    allocatedStart >= 0 ? threads.getCurrentThreadAllocatedBytes() : -1);
+            if (!request.isAsyncStarted()) {
+                request.removeAttribute(USAGE_ATTRIBUTE);
+                record(request, usage);
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        if (this.enabled != enabled) {
+            log.info("Per-request resource metrics {}", enabled ? "enabled" : "disabled");
+        }
+        this.enabled = enabled;
+    }
+
+    public boolean isCpuTimeSupported() {
+        return cpuTimeSupported;
+    }
+
+    public boolean isAllocationSupported() {
+        return allocationSupported;
+    }
+
+    public double getSkippedVirtual() {
+        return skippedVirtual.count();
+    }
+
+    private static long add(long total, long start, long end) {
+        if (total < 0 || start < 0 || end < 0) {
+            return -1;
+        }
+        return total + Math.max(0, end - start);
+    }
+
+    private void record(HttpServletRequest request, Usage usage) {
+        if (usage.cpuNanos < 0 && usage.allocatedBytes < 0) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : UNKNOWN_URI;
+        Summaries endpoint = summaries.computeIfAbsent(new EndpointKey(uri, request.getMethod()), this::summaries);
+        if (usage.cpuNanos >= 0) {
+            endpoint.cpu().record(usage.cpuNanos / 1_000_000.0);
+        }
+        if (usage.allocatedBytes >= 0) {
+            endpoint.allocated().record(usage.allocatedBytes);
+        }
+    }
+
+    private Summaries summaries(EndpointKey key) {
+        return new Summaries(
+                DistributionSummary.builder("dbpulse.request.cpu")
+                        .description("CPU time spent by the servlet thread per HTTP request")
+                        .baseUnit("milliseconds")
+                        .tag("uri", key.uri())
+                        .tag("method", key.method())
+                        .register(registry),
+                DistributionSummary.builder("dbpulse.request.allocated")
+                        .description("Heap bytes allocated by the servlet thread per HTTP request")
+                        .baseUnit("bytes")
+                        .tag("uri", key.uri())
+                        .tag("method", key.method())
+                        .register(registry));
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        return ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean ? bean : null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.ibrahim.DBPulse.monitoring.request;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for per-request CPU time and allocation metrics (app.monitoring.request-resources.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "app.monitoring.request-resources")
+public class RequestResourceProperties {
+
+    /**
+     * Measure requests from startup. Can be switched at runtime with POST /actuator/requestresources.
+     */
+    private boolean enabled = true;
+}
@@ -0,0 +1,278 @@
+package com.ibrahim.DBPulse.monitoring.tsdb;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Append-only block of (timestamp, value) points compressed as in Facebook's Gorilla:
+ * timestamps as delta-of-deltas, values as the XOR with the previous value.
+ * At a fixed collection step the delta-of-delta is 0 and costs one bit, and a value that
+ * did not change costs one bit, so steady series take a few bits per point.
+ * <p>
+ * Not thread-safe; {@link TimeSeries} guards its chunks.
+ */
+final class GorillaChunk {
+
+    /**
+     * Receives decoded points in timestamp order.
+     */
+    @FunctionalInterface
+    interface PointVisitor {
+        void visit(long timestamp, double value);
+    }
+
+    private long[] words;
+    private int bitSize;
+    private int count;
+    private long firstTimestamp;
+    private long lastTimestamp;
+
+    // Encoder state, only meaningful while the chunk is being appended to
+    private long previousDelta;
+    private long previousValueBits;
+    private int previousLeading = -1;
+    private int previousTrailing;
+
+    GorillaChunk(int initialWords) {
+        this.words = new long[Math.max(1, initialWords)];
+    }
+
+    private GorillaChunk(long[] words, int bitSize, int count, long firstTimestamp, long lastTimestamp) {
+        this.words = words;
+        this.bitSize = bitSize;
+        this.count = count;
+        this.firstTimestamp = firstTimestamp;
+        this.lastTimestamp = lastTimestamp;
+    }
+
+    /**
+     * Append a point; timestamps must be strictly increasing.
+     */
+    void append(long timestamp, double value) {
+        long valueBits = Double.doubleToRawLongBits(value);
+        if (count == 0) {
+            firstTimestamp = timestamp;
+            writeBits(timestamp, 64);
+            writeBits(valueBits, 64);
+        } else {
+            if (timestamp <= lastTimestamp) {
+                throw new IllegalArgumentException("Timestamp " + timestamp + " is not after " + lastTimestamp);
+            }
+            long delta = timestamp - lastTimestamp;
+            writeTimestamp(delta - previousDelta);
+            previousDelta = delta;
+            writeValue(valueBits ^ previousValueBits);
+        }
+        previousValueBits = valueBits;
+        lastTimestamp = timestamp;
+        count++;
+    }
+
+    private void writeTimestamp(long deltaOfDelta) {
+        if (deltaOfDelta == 0) {
+            writeBits(0b0, 1);
+        } else if (deltaOfDelta >= -64 && deltaOfDelta <= 63) {
+            writeBits(0b10, 2);
+            writeBits(deltaOfDelta, 7);
+        } else if (deltaOfDelta >= -256 && deltaOfDelta <= 255) {
+            writeBits(0b110, 3);
+            writeBits(deltaOfDelta, 9);
+        } else if (deltaOfDelta >= -2048 && deltaOfDelta <= 2047) {
+            writeBits(0b1110, 4);
+            writeBits(deltaOfDelta, 12);
+        } else {
+            writeBits(0b1111, 4);
+            writeBits(deltaOfDelta, 64);
+        }
+    }
+
+    private void writeValue(long xor) {
+        if (xor == 0) {
+            writeBits(0b0, 1);
+            return;
+        }
+        int leading = Math.min(31, Long.numberOfLeadingZeros(xor));
+        int trailing = Long.numberOfTrailingZeros(xor);
+        if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+            // Meaningful bits fit in the previous window: reuse it
+            writeBits(0b10, 2);
+            writeBits(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+        } else {
+            int meaningful = 64 - leading - trailing;
+            writeBits(0b11, 2);
+            writeBits(leading, 5);
+            // 64 meaningful bits is stored as 0 to fit 6 bits
+            writeBits(meaningful & 0x3F, 6);
+            writeBits(xor >>> trailing, meaningful);
+            previousLeading = leading;
+            previousTrailing = trailing;
+        }
+    }
+
+    private void writeBits(long value, int bits) {
+        if (bits == 0) {
+            return;
+        }
+        int required = (bitSize + bits + 63) >>> 6;
+        if (required > words.length) {
+            words = Arrays.copyOf(words, Math.max(required, words.length * 2));
+        }
+        long masked = bits == 64 ? value : value & ((1L << bits) - 1);
+        int word = bitSize >>> 6;
+        int offset = bitSize & 63;
+        int free = 64 - offset;
+        if (bits <= free) {
+            words[word] |= masked << (free - bits);
+        } else {
+            words[word] |= masked >>> (bits - free);
+            words[word + 1] |= masked << (64 - (bits - free));
+        }
+        bitSize += bits;
+    }
+
+    /**
+     * Decode every point in order.
+     */
+    void forEach(PointVisitor visitor) {
+        forEachBetween(Long.MIN_VALUE, Long.MAX_VALUE, visitor);
+    }
+
+    /**
+     * Decode the points with {@code from <= timestamp <= to}, stopping once past {@code to}.
+     */
+    void forEachBetween(long from, long to, PointVisitor visitor) {
+        if (count == 0 || to < firstTimestamp || from > lastTimestamp) {
+            return;
+        }
+        Reader reader = new Reader();
+        long timestamp = reader.read(64);
+        long valueBits = reader.read(64);
+        long delta = 0;
+        int leading = 0;
+        int trailing = 0;
+        for (int i = 0; ; ) {
+            if (timestamp >= from) {
+                visitor.visit(timestamp, Double.longBitsToDouble(valueBits));
+            }
+            if (++i == count) {
+                return;
+            }
+            delta += readDeltaOfDelta(reader);
+            timestamp += delta;
+            if (timestamp > to) {
+                return;
+            }
+            if (reader.read(1) == 1) {
+                if (reader.read(1) == 1) {
+                    leading = (int) reader.read(5);
+                    int meaningful = (int) reader.read(6);
+                    if (meaningful == 0) {
+                        meaningful = 64;
+                    }
+                    trailing = 64 - leading - meaningful;
+                }
+                valueBits ^= reader.read(64 - leading - trailing) << trailing;
+            }
+        }
+    }
+
+    private static long readDeltaOfDelta(Reader reader) {
+        if (reader.read(1) == 0) {
+            return 0;
+        }
+        if (reader.read(1) == 0) {
+            return reader.readSigned(7);
+        }
+        if (reader.read(1) == 0) {
+            return reader.readSigned(9);
+        }
+        if (reader.read(1) == 0) {
+            return reader.readSigned(12);
+        }
+        return reader.read(64);
+    }
+
+    private final class Reader {
+        private int position;
+
+        long read(int bits) {
+            if (bits == 0) {
+                return 0;
+            }
+            int word = position >>> 6;
+            int offset = position & 63;
+            int available = 64 - offset;
+            long value;
+            if (bits <= available) {
+                value = words[word] >>> (available - bits);
+            } else {
+                value = (words[word] << (bits - available)) | (words[word + 1] >>> (64 - (bits - available)));
+            }
+            position += bits;
+            return bits == 64 ? value : value & ((1L << bits) - 1);
+        }
+
+        long readSigned(int bits) {
+            long value = read(bits);
+            // Sign-extend from the field width
+            return (value << (64 - bits)) >> (64 - bits);
+        }
+    }
+
+    /**
+     * Release unused capacity once the chunk will not grow any more.
+     */
+    void trim() {
+        int used = Math.max(1, (bitSize + 63) >>> 6);
+        if (used < words.length) {
+            words = Arrays.copyOf(words, used);
+        }
+    }
+
+    int count() {
+        return count;
+    }
+
+    long firstTimestamp() {
+        return firstTimestamp;
+    }
+
+    long lastTimestamp() {
+        return lastTimestamp;
+    }
+
+    /**
+     * Approximate heap footprint: the word array plus object and array headers and fields.
+     */
+    long sizeBytes() {
+        return 16L + 8L * words.length + 64L;
+    }
+
+    int serializedSize() {
+        return 4 + 4 + 8 + 8 + 4 + 8 * ((bitSize + 63) >>> 6);
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        int used = (bitSize + 63) >>> 6;
+        buffer.putInt(count).putInt(bitSize).putLong(firstTimestamp).putLong(lastTimestamp).putInt(used);
+        for (int i = 0; i < used; i++) {
+            buffer.putLong(words[i]);
+        }
+    }
+
+    /**
+     * Read a chunk written by {@link #writeTo}. The result is sealed: it can be read but not appended to.
+     */
+    static GorillaChunk readFrom(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        int bitSize = buffer.getInt();
+        long first = buffer.getLong();
+        long last = buffer.getLong();
+        int used = buffer.getInt();
+        long[] words = new long[Math.max(1, used)];
+        for (int i = 0; i < used; i++) {
+            words[i] = buffer.getLong();
+        }
+        return new GorillaChunk(words, bitSize, count, first, last);
+    }
+}
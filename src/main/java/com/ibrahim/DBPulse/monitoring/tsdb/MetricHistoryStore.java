@@ -0,0 +1,308 @@
+package com.ibrahim.DBPulse.monitoring.tsdb;
+
+import com.ibrahim.DBPulse.dtos.MetricHistoryStatsResponse;
+import com.ibrahim.DBPulse.dtos.MetricSeriesResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Embedded time-series store holding the history of every registered meter, so DBPulse has
+ * metric history even without Prometheus. Each step every measurement of every meter is appended
+ * to a Gorilla-compressed series and rolled up to 1m and 10m means.
+ * <p>
+ * Memory is bounded three ways: chunks expire after their resolution's retention, the number of
+ * series is capped, and a hard byte cap evicts the oldest sealed chunks, raw first. Sealed chunks
+ * are queued per resolution in sealing order, so expiry and eviction only ever look at queue heads.
+ */
+@Slf4j
+public class MetricHistoryStore {
+
+    private final MeterRegistry registry;
+    private final TsdbProperties properties;
+    private final long maxBytes;
+
+    private final ConcurrentMap<SeriesKey, TimeSeries> series = new ConcurrentHashMap<>();
+    private final Map<Meter.Id, TimeSeries[]> seriesByMeter = new ConcurrentHashMap<>();
+    private final Map<Resolution, ArrayDeque<SealedChunk>> sealedChunks = new EnumMap<>(Resolution.class);
+    private final TimeSeries.SealListener sealListener = this::onSealed;
+
+    // Written by the collector thread only; volatile for the stats readers
+    private volatile long sealedBytes;
+    private volatile long totalBytes;
+    private volatile long evictedChunks;
+    private volatile long rejectedSeries;
+    private boolean capWarningLogged;
+
+    private record SealedChunk(TimeSeries series, Resolution resolution, GorillaChunk chunk) {
+    }
+
+    public MetricHistoryStore(MeterRegistry registry, TsdbProperties properties) {
+        this.registry = registry;
+        this.properties = properties;
+        this.maxBytes = properties.getMaxMemory().toBytes();
+        for (Resolution resolution : Resolution.values()) {
+            sealedChunks.put(resolution, new ArrayDeque<>());
+        }
+        Gauge.builder("dbpulse.tsdb.memory", this, store -> store.totalBytes)
+                .description("Memory held by the embedded metric history")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("dbpulse.tsdb.series", series, Map::size)
+                .description("Series in the embedded metric history")
+                .register(registry);
+    }
+
+    @Scheduled(fixedRateString = "${app.monitoring.tsdb.step:10000}")
+    public void collect() {
+        record(System.currentTimeMillis());
+    }
+
+    /**
+     * Append one point per meter statistic at {@code now}, aligned down to the step.
+     */
+    synchronized void record(long now) {
+        long timestamp = now - Math.floorMod(now, properties.getStep());
+        Set<Meter.Id> seen = new HashSet<>();
+        for (Meter meter : registry.getMeters()) {
+            seen.add(meter.getId());
+            TimeSeries[] meterSeries = seriesByMeter.get(meter.getId());
+            int index = 0;
+            for (Measurement measurement : meter.measure()) {
+                if (meterSeries == null) {
+                    meterSeries = resolve(meter);
+                }
+                if (index < meterSeries.length && meterSeries[index] != null) {
+                    meterSeries[index].append(timestamp, measurement.getValue(), sealListener);
+                }
+                index++;
+            }
+        }
+        retireRemovedMeters(seen);
+        expire(now);
+        enforceMemoryCap();
+    }
+
+    private TimeSeries[] resolve(Meter meter) {
+        List<TimeSeries> resolved = new ArrayList<>();
+        for (Measurement measurement : meter.measure()) {
+            SeriesKey key = SeriesKey.of(meter.getId(), measurement.getStatistic());
+            TimeSeries timeSeries = series.get(key);
+            if (timeSeries == null) {
+                if (series.size() >= properties.getMaxSeries()) {
+                    rejectedSeries++;
+                } else {
+                    timeSeries = new TimeSeries(key, properties.getPointsPerChunk());
+                    series.put(key, timeSeries);
+                }
+            }
+            if (timeSeries != null) {
+                timeSeries.setAttached(true);
+            }
+            resolved.add(timeSeries);
+        }
+        TimeSeries[] meterSeries = resolved.toArray(new TimeSeries[0]);
+        seriesByMeter.put(meter.getId(), meterSeries);
+        return meterSeries;
+    }
+
+    /**
+     * Seal the open chunks of meters that were removed from the registry, so their history
+     * ages out like everything else instead of pinning open chunks forever.
+     */
+    private void retireRemovedMeters(Set<Meter.Id> seen) {
+        Iterator<Map.Entry<Meter.Id, TimeSeries[]>> entries = seriesByMeter.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<Meter.Id, TimeSeries[]> entry = entries.next();
+            if (seen.contains(entry.getKey())) {
+                continue;
+            }
+            entries.remove();
+            for (TimeSeries timeSeries : entry.getValue()) {
+                if (timeSeries != null) {
+                    timeSeries.setAttached(false);
+                    timeSeries.seal(sealListener);
+                }
+            }
+        }
+    }
+
+    private void expire(long now) {
+        for (Resolution resolution : Resolution.values()) {
+            long cutoff = now - properties.getRetention().of(resolution).toMillis();
+            ArrayDeque<SealedChunk> queue = sealedChunks.get(resolution);
+            while (!queue.isEmpty() && queue.peekFirst().chunk().lastTimestamp() < cutoff) {
+                drop(queue.pollFirst());
+            }
+        }
+    }
+
+    private void enforceMemoryCap() {
+        long openBytes = 0;
+        for (TimeSeries timeSeries : series.values()) {
+            openBytes += timeSeries.openBytes();
+        }
+        long total = sealedBytes + openBytes;
+        for (Resolution resolution : Resolution.values()) {
+            ArrayDeque<SealedChunk> queue = sealedChunks.get(resolution);
+            while (total > maxBytes && !queue.isEmpty()) {
+                total -= drop(queue.pollFirst());
+                evictedChunks++;
+            }
+        }
+        if (total > maxBytes && !capWarningLogged) {
+            log.warn("Metric history uses {} bytes with nothing left to evict (cap {}); lower max-series or points-per-chunk",
+                    total, maxBytes);
+            capWarningLogged = true;
+        }
+        totalBytes = total;
+    }
+
+    private long drop(SealedChunk sealed) {
+        if (!sealed.series().drop(sealed.resolution(), sealed.chunk())) {
+            return 0;
+        }
+        long bytes = sealed.chunk().sizeBytes();
+        sealedBytes -= bytes;
+        if (!sealed.series().isAttached() && sealed.series().isEmpty()) {
+            series.remove(sealed.series().key(), sealed.series());
+        }
+        return bytes;
+    }
+
+    private void onSealed(TimeSeries timeSeries, Resolution resolution, GorillaChunk chunk) {
+        sealedChunks.get(resolution).addLast(new SealedChunk(timeSeries, resolution, chunk));
+        sealedBytes += chunk.sizeBytes();
+    }
+
+    /**
+     * Series named {@code name} carrying all of {@code tags}, between {@code from} and {@code to}.
+     * With a null resolution the finest one whose retention still covers {@code from} is used.
+     */
+    public List<MetricSeriesResponse> query(String name, Map<String, String> tags, Instant from, Instant to,
+                                            Resolution resolution) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        Resolution effective = resolution != null ? resolution : resolutionFor(from);
+        List<MetricSeriesResponse> results = new ArrayList<>();
+        for (TimeSeries timeSeries : series.values()) {
+            SeriesKey key = timeSeries.key();
+            if (!key.matches(name, tags)) {
+                continue;
+            }
+            List<MetricSeriesResponse.Point> points = new ArrayList<>();
+            timeSeries.query(effective, from.toEpochMilli(), to.toEpochMilli(), (timestamp, value) -> {
+                if (!Double.isNaN(value)) {
+                    points.add(new MetricSeriesResponse.Point(timestamp, value));
+                }
+            });
+            points.sort(Comparator.comparingLong(MetricSeriesResponse.Point::getTimestamp));
+            results.add(new MetricSeriesResponse(key.name(), key.statistic().name(), key.tags(),
+                    effective.getLabel(), points));
+        }
+        results.sort(Comparator.comparing(MetricSeriesResponse::getStatistic)
+                .thenComparing(response -> response.getTags().toString()));
+        return results;
+    }
+
+    private Resolution resolutionFor(Instant from) {
+        Duration age = Duration.between(from, Instant.now());
+        for (Resolution resolution : Resolution.values()) {
+            if (age.compareTo(properties.getRetention().of(resolution)) <= 0) {
+                return resolution;
+            }
+        }
+        return Resolution.TEN_MINUTES;
+    }
+
+    public List<String> names() {
+        TreeSet<String> names = new TreeSet<>();
+        for (SeriesKey key : series.keySet()) {
+            names.add(key.name());
+        }
+        return new ArrayList<>(names);
+    }
+
+    public MetricHistoryStatsResponse stats() {
+        return new MetricHistoryStatsResponse(series.size(), totalBytes, maxBytes, evictedChunks, rejectedSeries,
+                properties.getStep());
+    }
+
+    /**
+     * Load the persisted snapshot, if persistence is enabled.
+     */
+    public synchronized void restore() {
+        if (!properties.getPersistence().isEnabled()) {
+            return;
+        }
+        Path file = Path.of(properties.getPersistence().getFile());
+        try {
+            List<SnapshotFile.RestoredSeries> restored = SnapshotFile.read(file);
+            List<SealedChunk> chunks = new ArrayList<>();
+            for (SnapshotFile.RestoredSeries restoredSeries : restored) {
+                TimeSeries timeSeries = series.computeIfAbsent(restoredSeries.key(),
+                        key -> new TimeSeries(key, properties.getPointsPerChunk()));
+                restoredSeries.chunks().forEach((resolution, levelChunks) -> {
+                    for (GorillaChunk chunk : levelChunks) {
+                        timeSeries.restore(resolution, chunk);
+                        chunks.add(new SealedChunk(timeSeries, resolution, chunk));
+                    }
+                });
+            }
+            // Queue restored chunks oldest first so expiry and eviction stay chronological
+            chunks.sort(Comparator.comparingLong(sealed -> sealed.chunk().lastTimestamp()));
+            for (SealedChunk sealed : chunks) {
+                sealedChunks.get(sealed.resolution()).addLast(sealed);
+                sealedBytes += sealed.chunk().sizeBytes();
+            }
+            log.info("Restored {} metric history series ({} chunks) from {}", restored.size(), chunks.size(), file);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unable to restore metric history from {}, starting empty", file, e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.monitoring.tsdb.persistence.interval:300000}",
+            initialDelayString = "${app.monitoring.tsdb.persistence.interval:300000}")
+    public void persist() {
+        if (!properties.getPersistence().isEnabled()) {
+            return;
+        }
+        Path file = Path.of(properties.getPersistence().getFile());
+        try {
+            long start = System.nanoTime();
+            SnapshotFile.write(file, new ArrayList<>(series.values()));
+            log.debug("Persisted {} metric history series to {} in {} ms", series.size(), file,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            log.warn("Unable to persist metric history to {}", file, e);
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void persistOnShutdown() {
+        persist();
+    }
+}
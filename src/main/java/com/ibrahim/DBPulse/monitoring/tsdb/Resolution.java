@@ -0,0 +1,44 @@
+package com.ibrahim.DBPulse.monitoring.tsdb;
+
+import java.util.Locale;
+
+/**
+ * Storage resolutions of the metric history. Raw points are taken at the collection step;
+ * rollups hold the mean of the raw points in each bucket.
+ */
+public enum Resolution {
+
+    RAW("raw", 0),
+    ONE_MINUTE("1m", 60_000),
+    TEN_MINUTES("10m", 600_000);
+
+    private final String label;
+    private final long bucketMillis;
+
+    Resolution(String label, long bucketMillis) {
+        this.label = label;
+        this.bucketMillis = bucketMillis;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+
+    public boolean isRollup() {
+        return bucketMillis > 0;
+    }
+
+    public static Resolution fromLabel(String label) {
+        String normalized = label.toLowerCase(Locale.ROOT);
+        for (Resolution resolution : values()) {
+            if (resolution.label.equals(normalized)) {
+                return resolution;
+            }
+        }
+        throw new IllegalArgumentException("Unknown resolution '" + label + "', expected raw, 1m or 10m");
+    }
+}
@@ -0,0 +1,42 @@
+package com.ibrahim.DBPulse.monitoring.tsdb;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Statistic;
+import io.micrometer.core.instrument.Tag;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Identity of a stored series: one statistic (VALUE, COUNT, TOTAL_TIME, MAX...) of one meter.
+ */
+public record SeriesKey(String name, Map<String, String> tags, Statistic statistic) {
+
+    public SeriesKey {
+        tags = Collections.unmodifiableMap(new TreeMap<>(tags));
+    }
+
+    static SeriesKey of(Meter.Id id, Statistic statistic) {
+        Map<String, String> tags = new TreeMap<>();
+        for (Tag tag : id.getTagsAsIterable()) {
+            tags.put(tag.getKey(), tag.getValue());
+        }
+        return new SeriesKey(id.getName(), tags, statistic);
+    }
+
+    /**
+     * True if every requested tag is present with the same value.
+     */
+    boolean matches(String name, Map<String, String> requiredTags) {
+        if (!this.name.equals(name)) {
+            return false;
+        }
+        for (Map.Entry<String, String> required : requiredTags.entrySet()) {
+            if (!required.getValue().equals(tags.get(required.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
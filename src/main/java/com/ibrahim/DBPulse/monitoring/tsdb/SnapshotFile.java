@@ -0,0 +1,136 @@
+package com.ibrahim.DBPulse.monitoring.tsdb;
+
+import io.micrometer.core.instrument.Statistic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Memory-mapped snapshot of the metric history, so it survives restarts.
+ * The file is written to a temporary sibling and moved into place, so a crash mid-write
+ * leaves the previous snapshot intact.
+ * <p>
+ * Layout: magic, version, series count, then per series its key (name, tags, statistic)
+ * and per resolution a chunk count followed by the serialized chunks.
+ */
+final class SnapshotFile {
+
+    private static final int MAGIC = 0x44425453; // "DBTS"
+    private static final int VERSION = 1;
+
+    /**
+     * A series read back from a snapshot.
+     */
+    record RestoredSeries(SeriesKey key, Map<Resolution, List<GorillaChunk>> chunks) {
+    }
+
+    private SnapshotFile() {
+    }
+
+    static void write(Path file, List<TimeSeries> series) throws IOException {
+        List<byte[]> keys = new ArrayList<>(series.size());
+        List<byte[]> bodies = new ArrayList<>(series.size());
+        long size = 12;
+        for (TimeSeries timeSeries : series) {
+            byte[] key = encodeKey(timeSeries.key());
+            byte[] body = timeSeries.serializeChunks();
+            keys.add(key);
+            bodies.add(body);
+            size += key.length + body.length;
+        }
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(series.size());
+            for (int i = 0; i < keys.size(); i++) {
+                buffer.put(keys.get(i)).put(bodies.get(i));
+            }
+            buffer.force();
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static List<RestoredSeries> read(Path file) throws IOException {
+        List<RestoredSeries> restored = new ArrayList<>();
+        if (!Files.exists(file)) {
+            return restored;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 12 || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a metric history snapshot: " + file);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported metric history snapshot version " + version);
+            }
+            int seriesCount = buffer.getInt();
+            for (int i = 0; i < seriesCount; i++) {
+                SeriesKey key = decodeKey(buffer);
+                Map<Resolution, List<GorillaChunk>> chunks = new EnumMap<>(Resolution.class);
+                for (Resolution resolution : Resolution.values()) {
+                    int chunkCount = buffer.getInt();
+                    List<GorillaChunk> levelChunks = new ArrayList<>(chunkCount);
+                    for (int c = 0; c < chunkCount; c++) {
+                        levelChunks.add(GorillaChunk.readFrom(buffer));
+                    }
+                    chunks.put(resolution, levelChunks);
+                }
+                restored.add(new RestoredSeries(key, chunks));
+            }
+        }
+        return restored;
+    }
+
+    private static byte[] encodeKey(SeriesKey key) {
+        List<byte[]> strings = new ArrayList<>();
+        strings.add(key.name().getBytes(StandardCharsets.UTF_8));
+        strings.add(key.statistic().name().getBytes(StandardCharsets.UTF_8));
+        key.tags().forEach((tagKey, tagValue) -> {
+            strings.add(tagKey.getBytes(StandardCharsets.UTF_8));
+            strings.add(tagValue.getBytes(StandardCharsets.UTF_8));
+        });
+        int size = 4;
+        for (byte[] string : strings) {
+            size += 4 + string.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(key.tags().size());
+        for (byte[] string : strings) {
+            buffer.putInt(string.length).put(string);
+        }
+        return buffer.array();
+    }
+
+    private static SeriesKey decodeKey(ByteBuffer buffer) {
+        int tagCount = buffer.getInt();
+        String name = readString(buffer);
+        Statistic statistic = Statistic.valueOf(readString(buffer));
+        Map<String, String> tags = new LinkedHashMap<>();
+        for (int i = 0; i < tagCount; i++) {
+            tags.put(readString(buffer), readString(buffer));
+        }
+        return new SeriesKey(name, tags, statistic);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,210 @@
+package com.ibrahim.DBPulse.monitoring.tsdb;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * History of one series: per resolution, a queue of sealed chunks plus the chunk being appended to.
+ * Raw points feed the 1m and 10m rollups as they arrive, so no raw data has to be re-read to
+ * downsample. Writers (the collector) and readers (range queries, snapshots) synchronize on the series.
+ */
+final class TimeSeries {
+
+    /**
+     * Told about every chunk that fills up, so the store can expire and evict chunks oldest first.
+     */
+    @FunctionalInterface
+    interface SealListener {
+        void sealed(TimeSeries series, Resolution resolution, GorillaChunk chunk);
+    }
+
+    private static final int INITIAL_CHUNK_WORDS = 8;
+    private static final long OVERHEAD_BYTES = 512;
+
+    private final SeriesKey key;
+    private final int pointsPerChunk;
+    private final Level[] levels = new Level[Resolution.values().length];
+    private long lastAppend = Long.MIN_VALUE;
+    // True while a registered meter feeds this series
+    private volatile boolean attached;
+
+    private static final class Level {
+        private final ArrayDeque<GorillaChunk> sealed = new ArrayDeque<>();
+        private GorillaChunk open;
+        // Rollup accumulator for the bucket in progress
+        private long bucketStart = Long.MIN_VALUE;
+        private double sum;
+        private int samples;
+    }
+
+    TimeSeries(SeriesKey key, int pointsPerChunk) {
+        this.key = key;
+        this.pointsPerChunk = pointsPerChunk;
+        for (int i = 0; i < levels.length; i++) {
+            levels[i] = new Level();
+        }
+    }
+
+    SeriesKey key() {
+        return key;
+    }
+
+    boolean isAttached() {
+        return attached;
+    }
+
+    void setAttached(boolean attached) {
+        this.attached = attached;
+    }
+
+    synchronized void append(long timestamp, double value, SealListener listener) {
+        if (timestamp <= lastAppend) {
+            return;
+        }
+        lastAppend = timestamp;
+        append(Resolution.RAW, timestamp, value, listener);
+
+        for (Resolution resolution : Resolution.values()) {
+            if (!resolution.isRollup()) {
+                continue;
+            }
+            Level level = levels[resolution.ordinal()];
+            long bucket = timestamp - Math.floorMod(timestamp, resolution.getBucketMillis());
+            if (bucket != level.bucketStart) {
+                flushBucket(resolution, listener);
+                level.bucketStart = bucket;
+            }
+            if (!Double.isNaN(value)) {
+                level.sum += value;
+                level.samples++;
+            }
+        }
+    }
+
+    /**
+     * Close rollup buckets and seal open chunks, making all data evictable. Used when the meter is gone.
+     */
+    synchronized void seal(SealListener listener) {
+        for (Resolution resolution : Resolution.values()) {
+            if (resolution.isRollup()) {
+                flushBucket(resolution, listener);
+                levels[resolution.ordinal()].bucketStart = Long.MIN_VALUE;
+            }
+            Level level = levels[resolution.ordinal()];
+            if (level.open != null) {
+                sealOpen(resolution, level, listener);
+            }
+        }
+    }
+
+    private void flushBucket(Resolution resolution, SealListener listener) {
+        Level level = levels[resolution.ordinal()];
+        if (level.samples > 0) {
+            append(resolution, level.bucketStart, level.sum / level.samples, listener);
+        }
+        level.sum = 0;
+        level.samples = 0;
+    }
+
+    private void append(Resolution resolution, long timestamp, double value, SealListener listener) {
+        Level level = levels[resolution.ordinal()];
+        if (level.open == null) {
+            level.open = new GorillaChunk(INITIAL_CHUNK_WORDS);
+        }
+        level.open.append(timestamp, value);
+        if (level.open.count() >= pointsPerChunk) {
+            sealOpen(resolution, level, listener);
+        }
+    }
+
+    private void sealOpen(Resolution resolution, Level level, SealListener listener) {
+        GorillaChunk chunk = level.open;
+        level.open = null;
+        chunk.trim();
+        level.sealed.addLast(chunk);
+        listener.sealed(this, resolution, chunk);
+    }
+
+    /**
+     * Add a chunk read from a snapshot; restored chunks are older than anything appended since.
+     */
+    synchronized void restore(Resolution resolution, GorillaChunk chunk) {
+        levels[resolution.ordinal()].sealed.addLast(chunk);
+        lastAppend = Math.max(lastAppend, chunk.lastTimestamp());
+    }
+
+    /**
+     * Remove a sealed chunk; returns false if it was already gone.
+     */
+    synchronized boolean drop(Resolution resolution, GorillaChunk chunk) {
+        return levels[resolution.ordinal()].sealed.remove(chunk);
+    }
+
+    synchronized boolean isEmpty() {
+        for (Level level : levels) {
+            if (!level.sealed.isEmpty() || level.open != null || level.samples > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Points in [from, to] at the given resolution. For rollups, the bucket still in progress
+     * is included with its running mean.
+     */
+    synchronized void query(Resolution resolution, long from, long to, GorillaChunk.PointVisitor visitor) {
+        Level level = levels[resolution.ordinal()];
+        for (GorillaChunk chunk : level.sealed) {
+            chunk.forEachBetween(from, to, visitor);
+        }
+        if (level.open != null) {
+            level.open.forEachBetween(from, to, visitor);
+        }
+        if (resolution.isRollup() && level.samples > 0 && level.bucketStart >= from && level.bucketStart <= to) {
+            visitor.visit(level.bucketStart, level.sum / level.samples);
+        }
+    }
+
+    /**
+     * Bytes held by open chunks and series bookkeeping; sealed chunks are accounted by the store.
+     */
+    synchronized long openBytes() {
+        long bytes = OVERHEAD_BYTES;
+        for (Level level : levels) {
+            if (level.open != null) {
+                bytes += level.open.sizeBytes();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Serialize all chunks, open ones included, for a snapshot.
+     */
+    synchronized byte[] serializeChunks() {
+        int size = 0;
+        List<List<GorillaChunk>> perLevel = new ArrayList<>(levels.length);
+        for (Level level : levels) {
+            List<GorillaChunk> chunks = new ArrayList<>(level.sealed);
+            if (level.open != null) {
+                chunks.add(level.open);
+            }
+            perLevel.add(chunks);
+            size += 4;
+            for (GorillaChunk chunk : chunks) {
+                size += chunk.serializedSize();
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (List<GorillaChunk> chunks : perLevel) {
+            buffer.putInt(chunks.size());
+            for (GorillaChunk chunk : chunks) {
+                chunk.writeTo(buffer);
+            }
+        }
+        return buffer.array();
+    }
+}
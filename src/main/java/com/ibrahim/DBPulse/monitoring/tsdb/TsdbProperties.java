@@ -0,0 +1,81 @@
+package com.ibrahim.DBPulse.monitoring.tsdb;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the embedded metric history store (app.monitoring.tsdb.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "app.monitoring.tsdb")
+public class TsdbProperties {
+
+    /**
+     * Record meter history in-process.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Collection step (ms): every meter is read once per step.
+     */
+    private long step = 10000;
+
+    /**
+     * Points per compressed chunk before it is sealed. Chunks are the unit of expiry and eviction.
+     */
+    private int pointsPerChunk = 120;
+
+    /**
+     * Upper bound on stored series; statistics of further meters are not recorded.
+     */
+    private int maxSeries = 5000;
+
+    /**
+     * Hard cap on memory held by the store. Oldest raw chunks are evicted first, then 1m, then 10m.
+     */
+    private DataSize maxMemory = DataSize.ofMegabytes(64);
+
+    private Retention retention = new Retention();
+
+    private Persistence persistence = new Persistence();
+
+    @Data
+    public static class Retention {
+
+        private Duration raw = Duration.ofHours(2);
+
+        private Duration oneMinute = Duration.ofHours(24);
+
+        private Duration tenMinutes = Duration.ofDays(7);
+
+        public Duration of(Resolution resolution) {
+            return switch (resolution) {
+                case RAW -> raw;
+                case ONE_MINUTE -> oneMinute;
+                case TEN_MINUTES -> tenMinutes;
+            };
+        }
+    }
+
+    @Data
+    public static class Persistence {
+
+        /**
+         * Snapshot the history to a memory-mapped file and restore it on startup.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Snapshot file location.
+         */
+        private String file = "data/metric-history.dat";
+
+        /**
+         * Interval (ms) between snapshots; one is also written on shutdown.
+         */
+        private long interval = 300000;
+    }
+}
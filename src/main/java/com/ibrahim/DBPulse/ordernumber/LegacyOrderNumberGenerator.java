@@ -0,0 +1,21 @@
+package com.ibrahim.DBPulse.ordernumber;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+
+/**
+ * The original format, ORD-yyyyMMddHHmmss-XXXXXXXX with 8 hex digits of a random UUID.
+ * Numbers are unordered within a second and cost a SecureRandom draw each.
+ */
+public class LegacyOrderNumberGenerator implements OrderNumberGenerator {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    @Override
+    public String next() {
+        String timestamp = LocalDateTime.now().format(TIMESTAMP);
+        String uniqueId = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return "ORD-" + timestamp + "-" + uniqueId;
+    }
+}
@@ -0,0 +1,13 @@
+package com.ibrahim.DBPulse.ordernumber;
+
+/**
+ * Source of unique order numbers for orders.order_number.
+ * Implementations are called concurrently from every request thread.
+ */
+public interface OrderNumberGenerator {
+
+    /**
+     * A new order number, at most 50 characters and starting with ORD-.
+     */
+    String next();
+}
@@ -0,0 +1,30 @@
+package com.ibrahim.DBPulse.ordernumber;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for order numbers (app.orders.number.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "app.orders.number")
+public class OrderNumberProperties {
+
+    public enum Generator {
+        /**
+         * Time-ordered ORD- plus 13 base32 digits; see SnowflakeOrderNumberGenerator.
+         */
+        SNOWFLAKE,
+        /**
+         * ORD-yyyyMMddHHmmss-XXXXXXXX with a random suffix, as before.
+         */
+        LEGACY
+    }
+
+    private Generator generator = Generator.SNOWFLAKE;
+
+    /**
+     * Node id (0-1023) embedded in snowflake order numbers; must differ between application instances.
+     */
+    private int nodeId = 0;
+}
@@ -0,0 +1,116 @@
+package com.ibrahim.DBPulse.ordernumber;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake-style order numbers: a 64-bit id of milliseconds since 2025-01-01 (41 bits),
+ * node id (10 bits) and a per-millisecond sequence (12 bits), written as ORD- and 13
+ * Crockford base32 digits, e.g. ORD-06JHS5FQM0000.
+ *
+ * The fixed-width digits sort like the ids, so numbers from one node are strictly
+ * increasing and numbers from all nodes are ordered by time to the millisecond; the unique
+ * index on orders.order_number takes appends instead of random inserts.
+ *
+ * Lock-free: the last timestamp and sequence live in one AtomicLong advanced by CAS. When
+ * a millisecond's 4096 numbers are used up, or the clock steps back, the generator runs on
+ * ahead of the wall clock instead of waiting, which keeps numbers monotonic per node.
+ */
+public class SnowflakeOrderNumberGenerator implements OrderNumberGenerator {
+
+    static final long EPOCH = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final String PREFIX = "ORD-";
+    private static final int DIGITS = 13;
+    private static final byte[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".getBytes(StandardCharsets.US_ASCII);
+
+    // Encoding buffer per thread with the prefix already in place
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> {
+        byte[] buffer = new byte[PREFIX.length() + DIGITS];
+        System.arraycopy(PREFIX.getBytes(StandardCharsets.US_ASCII), 0, buffer, 0, PREFIX.length());
+        return buffer;
+    });
+
+    private final long node;
+    private final LongSupplier clock;
+    // (milliseconds since EPOCH << SEQUENCE_BITS) | sequence of the last number handed out
+    private final AtomicLong last = new AtomicLong();
+
+    public SnowflakeOrderNumberGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    SnowflakeOrderNumberGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ", was " + nodeId);
+        }
+        this.node = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    @Override
+    public String next() {
+        byte[] buffer = BUFFER.get();
+        encode(nextId(), buffer, PREFIX.length());
+        return new String(buffer, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * The next 64-bit id: timestamp, node, sequence from the most significant bit down.
+     */
+    long nextId() {
+        long now = (clock.getAsLong() - EPOCH) << SEQUENCE_BITS;
+        long previous;
+        long next;
+        do {
+            previous = last.get();
+            // A new millisecond restarts the sequence; otherwise count on, carrying into the timestamp
+            next = Math.max(previous + 1, now);
+        } while (!last.compareAndSet(previous, next));
+        long timestamp = next >>> SEQUENCE_BITS;
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | node | sequence;
+    }
+
+    /**
+     * Write an id as 13 base32 digits, most significant first; the first digit holds the top 4 bits.
+     */
+    static void encode(long id, byte[] buffer, int offset) {
+        for (int i = offset + DIGITS - 1; i >= offset; i--) {
+            buffer[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+    }
+
+    /**
+     * Milliseconds since the Unix epoch at which an order number was generated.
+     */
+    public static long timestampOf(String orderNumber) {
+        if (!orderNumber.startsWith(PREFIX) || orderNumber.length() != PREFIX.length() + DIGITS) {
+            throw new IllegalArgumentException("Not a snowflake order number: " + orderNumber);
+        }
+        long id = 0;
+        for (int i = PREFIX.length(); i < orderNumber.length(); i++) {
+            int digit = indexOf((byte) orderNumber.charAt(i));
+            if (digit < 0) {
+                throw new IllegalArgumentException("Not a snowflake order number: " + orderNumber);
+            }
+            id = (id << 5) | digit;
+        }
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH;
+    }
+
+    private static int indexOf(byte digit) {
+        for (int i = 0; i < ALPHABET.length; i++) {
+            if (ALPHABET[i] == digit) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
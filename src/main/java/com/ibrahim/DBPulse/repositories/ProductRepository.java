@@ -15,6 +15,9 @@ import java.util.Optional;
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    // Stock held in a bucketed product's product_stock_buckets rows, 0 for other products
+    String BUCKET_STOCK = "COALESCE((SELECT SUM(b.quantity) FROM ProductStockBucket b WHERE b.productId = p.id), 0)";
+
     // Find by SKU
     Optional<Product> findBySku(String sku);
 
@@ -28,7 +31,7 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findByCategory(String category);
 
     // Find products in stock
-    @Query("SELECT p FROM Product p WHERE p.stockQuantity > 0 AND p.active = true")
+    @Query("SELECT p FROM Product p WHERE p.stockQuantity + " + BUCKET_STOCK + " > 0 AND p.active = true")
     List<Product> findInStockProducts();
 
     // Find products by price range
@@ -42,9 +45,22 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     Page<Product> searchProducts(@Param("searchTerm") String searchTerm, Pageable pageable);
 
     // Find low stock products (stock < threshold)
-    @Query("SELECT p FROM Product p WHERE p.stockQuantity < :threshold AND p.active = true")
+    @Query("SELECT p FROM Product p WHERE p.stockQuantity + " + BUCKET_STOCK + " < :threshold AND p.active = true")
     List<Product> findLowStockProducts(@Param("threshold") Integer threshold);
 
+    // Count low stock products (stock < threshold)
+    @Query("SELECT COUNT(p) FROM Product p WHERE p.stockQuantity + " + BUCKET_STOCK + " < :threshold AND p.active = true")
+    long countLowStockProducts(@Param("threshold") Integer threshold);
+
+    // Get total stock across all products, bucket rows included
+    @Query("SELECT COALESCE(SUM(p.stockQuantity), 0) + "
+            + "(SELECT COALESCE(SUM(b.quantity), 0) FROM ProductStockBucket b) FROM Product p")
+    long sumStockQuantity();
+
+    // Current stock straight from the database, bypassing the persistence context
+    @Query("SELECT p.stockQuantity + " + BUCKET_STOCK + " FROM Product p WHERE p.id = :id")
+    Long findStockQuantityById(@Param("id") Long id);
+
     // Count products by category
     long countByCategory(String category);
 
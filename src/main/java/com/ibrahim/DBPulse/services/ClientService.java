@@ -6,6 +6,7 @@ import com.ibrahim.DBPulse.entities.Client;
 import com.ibrahim.DBPulse.exceptions.DuplicateResourceException;
 import com.ibrahim.DBPulse.exceptions.ResourceNotFoundException;
 import com.ibrahim.DBPulse.mappers.EntityMapper;
+import com.ibrahim.DBPulse.metrics.ServiceTimers;
 import com.ibrahim.DBPulse.repositories.ClientRepository;
 import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
@@ -23,10 +24,19 @@ import java.util.stream.Collectors;
 @Transactional
 public class ClientService {
 
+    private static final String CREATE_CLIENT_TIMER = "dbpulse.clients.create";
+    private static final String GET_CLIENT_TIMER = "dbpulse.clients.get";
+    private static final String UPDATE_CLIENT_TIMER = "dbpulse.clients.update";
+
     private final ClientRepository clientRepository;
+    private final ServiceTimers serviceTimers;
 
-    @Timed(value = "dbpulse.clients.create", description = "Time to create a client")
+    @Timed(value = CREATE_CLIENT_TIMER, description = "Time to create a client")
     public ClientResponse createClient(ClientRequest request) {
+        return serviceTimers.record(CREATE_CLIENT_TIMER, () -> doCreateClient(request));
+    }
+
+    private ClientResponse doCreateClient(ClientRequest request) {
         log.info("Creating new client with email: {}", request.getEmail());
 
         if (clientRepository.existsByEmail(request.getEmail())) {
@@ -41,8 +51,12 @@ public class ClientService {
     }
 
     @Transactional(readOnly = true)
-    @Timed(value = "dbpulse.clients.get", description = "Time to retrieve a client")
+    @Timed(value = GET_CLIENT_TIMER, description = "Time to retrieve a client")
     public ClientResponse getClientById(Long id) {
+        return serviceTimers.record(GET_CLIENT_TIMER, () -> doGetClientById(id));
+    }
+
+    private ClientResponse doGetClientById(Long id) {
         log.info("Fetching client with ID: {}", id);
 
         Client client = clientRepository.findById(id)
@@ -68,8 +82,12 @@ public class ClientService {
         return clientPage.map(EntityMapper::toResponse);
     }
 
-    @Timed(value = "dbpulse.clients.update", description = "Time to update a client")
+    @Timed(value = UPDATE_CLIENT_TIMER, description = "Time to update a client")
     public ClientResponse updateClient(Long id, ClientRequest request) {
+        return serviceTimers.record(UPDATE_CLIENT_TIMER, () -> doUpdateClient(id, request));
+    }
+
+    private ClientResponse doUpdateClient(Long id, ClientRequest request) {
         log.info("Updating client with ID: {}", id);
 
         Client client = clientRepository.findById(id)
@@ -0,0 +1,389 @@
+package com.ibrahim.DBPulse.services;
+
+import com.ibrahim.DBPulse.dtos.OrderBatchItemResult;
+import com.ibrahim.DBPulse.dtos.OrderBatchResponse;
+import com.ibrahim.DBPulse.dtos.OrderItemRequest;
+import com.ibrahim.DBPulse.dtos.OrderRequest;
+import com.ibrahim.DBPulse.entities.Order;
+import com.ibrahim.DBPulse.exceptions.BadRequestException;
+import com.ibrahim.DBPulse.inventory.HotStockLedger;
+import com.ibrahim.DBPulse.inventory.StockBuckets;
+import com.ibrahim.DBPulse.metrics.ClientHeavyHitters;
+import com.ibrahim.DBPulse.metrics.InventoryTracker;
+import com.ibrahim.DBPulse.metrics.ServiceTimers;
+import com.ibrahim.DBPulse.ordernumber.OrderNumberGenerator;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Creates many orders in one transaction with set-based reads and JDBC batch writes.
+ * All referenced clients and products are read with one query each, the products
+ * locked FOR UPDATE in id order so concurrent batches cannot deadlock. Each order is
+ * then checked against the remaining stock in memory; orders that fail (unknown client
+ * or product, insufficient stock, invalid request) are reported per item while the
+ * rest are written with three JDBC batches: stock updates, orders and order items.
+ * Stock of hot products is reserved through the HotStockLedger instead, when enabled.
+ * Bucketed products are locked after the other rows, each with all its StockBuckets rows,
+ * planned against their total like any other product and written back spread over the buckets.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class OrderBatchService {
+
+    private static final String CREATE_BATCH_TIMER = "dbpulse.orders.batch";
+
+    private static final String CLIENT_IDS_QUERY = "SELECT id FROM clients WHERE id IN (:ids)";
+    private static final String PRODUCTS_QUERY = "SELECT id, name, price, stock_quantity FROM products WHERE id IN (:ids)";
+    private static final String PRODUCTS_FOR_UPDATE_QUERY = PRODUCTS_QUERY + " ORDER BY id FOR UPDATE";
+    private static final String UPDATE_STOCK = "UPDATE products SET stock_quantity = ?, updated_at = ? WHERE id = ?";
+    // Ids come from the entities' sequences; each nextval here wastes the rest of its pooled block
+    // but never collides with the ranges Hibernate hands out
+    private static final String INSERT_ORDER = "INSERT INTO orders (id, order_number, client_id, total_amount, status, "
+            + "shipping_address, notes, created_at, updated_at) VALUES (nextval('orders_seq'), ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ORDER_ITEM = "INSERT INTO order_items (id, order_id, product_id, quantity, "
+            + "unit_price, subtotal) VALUES (nextval('order_items_seq'), ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final Validator validator;
+    private final Counter orderCreatedCounter;
+    private final Counter revenueCounter;
+    private final DistributionSummary orderBatchSizeSummary;
+    private final InventoryTracker inventoryTracker;
+    private final ServiceTimers serviceTimers;
+    private final ClientHeavyHitters clientHeavyHitters;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final ObjectProvider<HotStockLedger> hotStockLedger;
+    private final ObjectProvider<StockBuckets> stockBuckets;
+
+    @Value("${app.orders.batch.max-size:500}")
+    private int maxBatchSize;
+
+    /**
+     * Product row locked for the batch, with the stock left after the orders planned so far.
+     */
+    private static final class ProductStock {
+        private final long id;
+        private final String name;
+        private final BigDecimal price;
+        private int remaining;
+        private boolean changed;
+        private boolean bucketed;
+
+        private ProductStock(long id, String name, BigDecimal price, int remaining) {
+            this.id = id;
+            this.name = name;
+            this.price = price;
+            this.remaining = remaining;
+        }
+    }
+
+    private record PlannedItem(long productId, int quantity, BigDecimal unitPrice, BigDecimal subtotal) {
+    }
+
+    private record PlannedOrder(int index, OrderRequest request, String orderNumber, BigDecimal totalAmount,
+                                List<PlannedItem> items) {
+    }
+
+    /**
+     * Create a batch of orders.
+     * Timed through ServiceTimers under the @Timed name, like the single-order path.
+     */
+    @Timed(value = CREATE_BATCH_TIMER, description = "Time taken to create a batch of orders")
+    public OrderBatchResponse createOrders(List<OrderRequest> requests) {
+        return serviceTimers.record(CREATE_BATCH_TIMER, () -> doCreateOrders(requests));
+    }
+
+    private OrderBatchResponse doCreateOrders(List<OrderRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new BadRequestException("Batch must contain at least one order");
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new BadRequestException(
+                    "Batch contains " + requests.size() + " orders, the maximum is " + maxBatchSize);
+        }
+        log.info("Creating batch of {} orders", requests.size());
+
+        OrderBatchItemResult[] results = new OrderBatchItemResult[requests.size()];
+        Set<Long> clientIds = new HashSet<>();
+        Set<Long> productIds = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            String violation = validate(requests.get(i));
+            if (violation != null) {
+                results[i] = OrderBatchItemResult.failed(i, violation);
+                continue;
+            }
+            clientIds.add(requests.get(i).getClientId());
+            requests.get(i).getItems().forEach(item -> productIds.add(item.getProductId()));
+        }
+
+        Set<Long> existingClients = existingClients(clientIds);
+        Map<Long, ProductStock> products = lockProducts(productIds);
+        HotStockLedger ledger = hotStockLedger.getIfAvailable();
+
+        List<PlannedOrder> planned = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            OrderRequest request = requests.get(i);
+            String failure = existingClients.contains(request.getClientId())
+                    ? reserve(request, products, ledger)
+                    : "Client not found with ID: " + request.getClientId();
+            if (failure != null) {
+                results[i] = OrderBatchItemResult.failed(i, failure);
+                continue;
+            }
+            planned.add(plan(i, request, products));
+        }
+
+        if (!planned.isEmpty()) {
+            updateStock(products);
+            long[] orderIds = insertOrders(planned);
+            insertOrderItems(planned, orderIds);
+            recordCreated(planned, orderIds, results);
+        }
+
+        orderBatchSizeSummary.record(requests.size());
+        log.info("Batch created {} of {} orders", planned.size(), requests.size());
+        return new OrderBatchResponse(requests.size(), planned.size(), requests.size() - planned.size(),
+                Arrays.asList(results));
+    }
+
+    /**
+     * Bean validation of one order and its items; the first violation, or null when valid.
+     */
+    private String validate(OrderRequest request) {
+        if (request == null) {
+            return "Order must not be null";
+        }
+        for (ConstraintViolation<OrderRequest> violation : validator.validate(request)) {
+            return violation.getPropertyPath() + ": " + violation.getMessage();
+        }
+        for (OrderItemRequest item : request.getItems()) {
+            if (item == null) {
+                return "items: Order item must not be null";
+            }
+            for (ConstraintViolation<OrderItemRequest> violation : validator.validate(item)) {
+                return "items." + violation.getPropertyPath() + ": " + violation.getMessage();
+            }
+        }
+        return null;
+    }
+
+    private Set<Long> existingClients(Set<Long> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(CLIENT_IDS_QUERY, Map.of("ids", ids), Long.class));
+    }
+
+    private Map<Long, ProductStock> lockProducts(Set<Long> ids) {
+        Map<Long, ProductStock> products = new TreeMap<>();
+        StockBuckets buckets = stockBuckets.getIfAvailable();
+        Set<Long> rowIds = new HashSet<>(ids);
+        Set<Long> bucketedIds = new TreeSet<>();
+        if (buckets != null) {
+            ids.stream().filter(buckets::isBucketed).forEach(bucketedIds::add);
+            rowIds.removeAll(bucketedIds);
+        }
+        if (!rowIds.isEmpty()) {
+            loadProducts(PRODUCTS_FOR_UPDATE_QUERY, rowIds, products);
+        }
+        if (!bucketedIds.isEmpty()) {
+            loadProducts(PRODUCTS_QUERY, bucketedIds, products);
+            for (Long id : bucketedIds) {
+                ProductStock product = products.get(id);
+                if (product != null) {
+                    product.remaining = (int) buckets.lockTotal(id);
+                    product.bucketed = true;
+                }
+            }
+        }
+        return products;
+    }
+
+    private void loadProducts(String query, Set<Long> ids, Map<Long, ProductStock> products) {
+        namedParameterJdbcTemplate.query(query, Map.of("ids", ids), rs -> {
+            long id = rs.getLong("id");
+            products.put(id, new ProductStock(id, rs.getString("name"), rs.getBigDecimal("price"),
+                    rs.getInt("stock_quantity")));
+        });
+    }
+
+    /**
+     * Take the order's quantities from the remaining stock, all or nothing.
+     *
+     * @return why the order cannot be fulfilled, or null once its stock is reserved
+     */
+    private String reserve(OrderRequest request, Map<Long, ProductStock> products, HotStockLedger ledger) {
+        // The same product may appear on several lines of one order
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItemRequest item : request.getItems()) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        Map<Long, Integer> hotQuantities = new LinkedHashMap<>();
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            ProductStock product = products.get(entry.getKey());
+            if (product == null) {
+                return "Product not found with ID: " + entry.getKey();
+            }
+            if (ledger != null && !product.bucketed && ledger.isHot(product.id)) {
+                hotQuantities.put(product.id, entry.getValue());
+            } else if (product.remaining < entry.getValue()) {
+                return insufficientStock(product.name, product.remaining, entry.getValue());
+            }
+        }
+
+        // Hot products are reserved in memory, which the row read above does not reflect
+        Map<Long, Integer> hotReserved = new LinkedHashMap<>();
+        for (Map.Entry<Long, Integer> entry : hotQuantities.entrySet()) {
+            if (!ledger.reserve(entry.getKey(), entry.getValue())) {
+                hotReserved.forEach(ledger::release);
+                return insufficientStock(products.get(entry.getKey()).name,
+                        ledger.available(entry.getKey()).orElse(0), entry.getValue());
+            }
+            hotReserved.put(entry.getKey(), entry.getValue());
+        }
+
+        quantities.forEach((productId, quantity) -> {
+            if (hotReserved.containsKey(productId)) {
+                return;
+            }
+            ProductStock product = products.get(productId);
+            product.remaining -= quantity;
+            product.changed = true;
+            if (ledger != null && !product.bucketed) {
+                ledger.recordDemand(productId);
+            }
+        });
+        return null;
+    }
+
+    private static String insufficientStock(String product, long available, int requested) {
+        return String.format("Insufficient stock for product %s. Available: %d, Requested: %d",
+                product, available, requested);
+    }
+
+    private PlannedOrder plan(int index, OrderRequest request, Map<Long, ProductStock> products) {
+        List<PlannedItem> items = new ArrayList<>(request.getItems().size());
+        BigDecimal total = BigDecimal.ZERO;
+        for (OrderItemRequest item : request.getItems()) {
+            BigDecimal price = products.get(item.getProductId()).price;
+            BigDecimal subtotal = price.multiply(new BigDecimal(item.getQuantity()));
+            items.add(new PlannedItem(item.getProductId(), item.getQuantity(), price, subtotal));
+            total = total.add(subtotal);
+        }
+        return new PlannedOrder(index, request, orderNumberGenerator.next(), total, items);
+    }
+
+    /**
+     * One batched UPDATE per changed product, in id order like the locks; bucketed products
+     * get their remaining stock spread over their buckets.
+     */
+    private void updateStock(Map<Long, ProductStock> products) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> updates = new ArrayList<>();
+        for (ProductStock product : products.values()) {
+            if (product.changed && product.bucketed) {
+                stockBuckets.getObject().setTotal(product.id, product.remaining);
+            } else if (product.changed) {
+                updates.add(new Object[]{product.remaining, now, product.id});
+            }
+        }
+        if (updates.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_STOCK, updates);
+    }
+
+    private long[] insertOrders(List<PlannedOrder> planned) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_ORDER, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        PlannedOrder order = planned.get(i);
+                        ps.setString(1, order.orderNumber());
+                        ps.setLong(2, order.request().getClientId());
+                        ps.setBigDecimal(3, order.totalAmount());
+                        ps.setString(4, Order.OrderStatus.PENDING.name());
+                        ps.setString(5, order.request().getShippingAddress());
+                        ps.setString(6, order.request().getNotes());
+                        ps.setTimestamp(7, now);
+                        ps.setTimestamp(8, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return planned.size();
+                    }
+                },
+                keys);
+        List<Map<String, Object>> generated = keys.getKeyList();
+        long[] ids = new long[planned.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = ((Number) generated.get(i).values().iterator().next()).longValue();
+        }
+        return ids;
+    }
+
+    private void insertOrderItems(List<PlannedOrder> planned, long[] orderIds) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < planned.size(); i++) {
+            for (PlannedItem item : planned.get(i).items()) {
+                rows.add(new Object[]{orderIds[i], item.productId(), item.quantity(), item.unitPrice(), item.subtotal()});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_ORDER_ITEM, rows);
+    }
+
+    private void recordCreated(List<PlannedOrder> planned, long[] orderIds, OrderBatchItemResult[] results) {
+        long reservedQuantity = 0;
+        for (int i = 0; i < planned.size(); i++) {
+            PlannedOrder order = planned.get(i);
+            results[order.index()] = OrderBatchItemResult.created(order.index(), orderIds[i], order.orderNumber(),
+                    order.totalAmount());
+            for (PlannedItem item : order.items()) {
+                reservedQuantity += item.quantity();
+            }
+            double amount = order.totalAmount().doubleValue();
+            revenueCounter.increment(amount);
+            clientHeavyHitters.recordOrder(order.request().getClientId(), amount);
+        }
+        inventoryTracker.adjust(-reservedQuantity);
+        orderCreatedCounter.increment(planned.size());
+    }
+}
@@ -10,20 +10,33 @@ import com.ibrahim.DBPulse.entities.OrderItem;
 import com.ibrahim.DBPulse.entities.Product;
 import com.ibrahim.DBPulse.exceptions.InsufficientStockException;
 import com.ibrahim.DBPulse.exceptions.ResourceNotFoundException;
+import com.ibrahim.DBPulse.inventory.HotStockLedger;
+import com.ibrahim.DBPulse.inventory.StockBuckets;
+import com.ibrahim.DBPulse.metrics.ClientHeavyHitters;
+import com.ibrahim.DBPulse.metrics.InventoryTracker;
+import com.ibrahim.DBPulse.metrics.ServiceTimers;
+import com.ibrahim.DBPulse.monitoring.jdbc.RequestQueryStats;
+import com.ibrahim.DBPulse.ordernumber.OrderNumberGenerator;
 import com.ibrahim.DBPulse.repositories.ClientRepository;
 import com.ibrahim.DBPulse.repositories.OrderRepository;
 import com.ibrahim.DBPulse.repositories.ProductRepository;
 import io.micrometer.core.annotation.Timed;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,18 +45,50 @@ import java.util.stream.Collectors;
 @Transactional
 public class OrderService {
 
+        private static final String CREATE_ORDER_TIMER = "dbpulse.orders.create";
+        private static final String RESERVE_STOCK = "UPDATE products SET stock_quantity = stock_quantity - ?, "
+                        + "updated_at = ? WHERE id = ? AND stock_quantity >= ?";
+        private static final String RETURN_STOCK = "UPDATE products SET stock_quantity = stock_quantity + ?, "
+                        + "updated_at = ? WHERE id = ?";
+
         private final OrderRepository orderRepository;
         private final ClientRepository clientRepository;
         private final ProductRepository productRepository;
         private final Counter orderCreatedCounter;
         private final Counter revenueCounter;
+        private final InventoryTracker inventoryTracker;
+        private final ServiceTimers serviceTimers;
+        private final ClientHeavyHitters clientHeavyHitters;
+        private final JdbcTemplate jdbcTemplate;
+        private final DistributionSummary orderStatementsSummary;
+        private final OrderNumberGenerator orderNumberGenerator;
+        private final ObjectProvider<HotStockLedger> hotStockLedger;
+        private final ObjectProvider<StockBuckets> stockBuckets;
 
         /**
          * Create a new order.
-         * Monitored with @Timed for performance tracking.
+         * Timed through ServiceTimers under the @Timed name for performance tracking.
          */
-        @Timed(value = "dbpulse.orders.create", description = "Time taken to create an order")
+        @Timed(value = CREATE_ORDER_TIMER, description = "Time taken to create an order")
         public OrderResponse createOrder(OrderRequest request) {
+                long start = System.nanoTime();
+                RequestQueryStats queryStats = RequestQueryStats.current();
+                long statementsBefore = queryStats != null ? queryStats.getStatements() : 0;
+                try {
+                        OrderResponse response = serviceTimers.record(CREATE_ORDER_TIMER, () -> doCreateOrder(request));
+                        // Only countable inside an HTTP request, where the JDBC listener tracks statements
+                        if (queryStats != null) {
+                                orderStatementsSummary.record(queryStats.getStatements() - statementsBefore);
+                        }
+                        return response;
+                } finally {
+                        if (request.getClientId() != null) {
+                                clientHeavyHitters.recordRequest(request.getClientId(), System.nanoTime() - start);
+                        }
+                }
+        }
+
+        private OrderResponse doCreateOrder(OrderRequest request) {
                 log.info("Creating new order for client ID: {}", request.getClientId());
 
                 // Validate client exists
@@ -54,49 +99,137 @@ public class OrderService {
                 // Create order
                 Order order = new Order();
                 order.setClient(client);
-                order.setOrderNumber(generateOrderNumber());
+                order.setOrderNumber(orderNumberGenerator.next());
                 order.setShippingAddress(request.getShippingAddress());
                 order.setNotes(request.getNotes());
                 order.setStatus(Order.OrderStatus.PENDING);
 
-                // Process order items
+                // Collapse repeated products into one line each, in id order: stock rows are then
+                // always locked in the same order, so concurrent orders sharing products cannot deadlock
+                Map<Long, Integer> quantities = new TreeMap<>();
                 for (OrderItemRequest itemRequest : request.getItems()) {
-                        Product product = productRepository.findById(itemRequest.getProductId())
-                                        .orElseThrow(() -> new ResourceNotFoundException(
-                                                        "Product not found with ID: " + itemRequest.getProductId()));
-
-                        // Check stock
-                        if (!product.hasEnoughStock(itemRequest.getQuantity())) {
-                                throw new InsufficientStockException(
-                                                String.format("Insufficient stock for product %s. Available: %d, Requested: %d",
-                                                                product.getName(), product.getStockQuantity(),
-                                                                itemRequest.getQuantity()));
+                        quantities.merge(itemRequest.getProductId(), itemRequest.getQuantity(), Integer::sum);
+                }
+
+                // Load all products with one query
+                Map<Long, Product> products = productRepository.findAllById(quantities.keySet()).stream()
+                                .collect(Collectors.toMap(Product::getId, Function.identity()));
+                for (Long productId : quantities.keySet()) {
+                        if (!products.containsKey(productId)) {
+                                throw new ResourceNotFoundException("Product not found with ID: " + productId);
                         }
+                }
 
-                        // Create order item
-                        OrderItem orderItem = OrderItem.createFromProduct(product, itemRequest.getQuantity());
-                        order.addOrderItem(orderItem);
+                reserveStock(quantities, products);
 
-                        // Update product stock
-                        product.setStockQuantity(product.getStockQuantity() - itemRequest.getQuantity());
-                        productRepository.save(product);
+                // Process order items
+                long reservedQuantity = 0;
+                for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+                        OrderItem orderItem = OrderItem.createFromProduct(products.get(line.getKey()), line.getValue());
+                        order.addOrderItem(orderItem);
+                        reservedQuantity += line.getValue();
                 }
 
                 // Calculate total
                 order.calculateTotal();
 
-                // Save order
-                Order savedOrder = orderRepository.save(order);
+                // Save order; flushed here so its inserts count towards the order's statements
+                Order savedOrder = orderRepository.saveAndFlush(order);
 
                 // Update metrics
+                inventoryTracker.adjust(-reservedQuantity);
                 orderCreatedCounter.increment();
                 revenueCounter.increment(savedOrder.getTotalAmount().doubleValue());
+                clientHeavyHitters.recordOrder(client.getId(), savedOrder.getTotalAmount().doubleValue());
 
                 log.info("Order created successfully with order number: {}", savedOrder.getOrderNumber());
 
                 return mapToOrderResponse(savedOrder);
         }
 
+        /**
+         * Take every line's quantity from stock with one JDBC batch of conditional decrements,
+         * in product id order. A read-check-write would oversell under concurrent orders; a line
+         * that updates no row is short, and the transaction rolls back the lines before it.
+         * Lines for hot products are reserved in memory by the HotStockLedger instead, and lines
+         * for bucketed products from their StockBuckets rows after the batch, when enabled.
+         */
+        private void reserveStock(Map<Long, Integer> quantities, Map<Long, Product> products) {
+                HotStockLedger ledger = hotStockLedger.getIfAvailable();
+                StockBuckets buckets = stockBuckets.getIfAvailable();
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                List<Object[]> lines = new ArrayList<>(quantities.size());
+                List<Long> bucketed = new ArrayList<>();
+                for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+                        Long productId = line.getKey();
+                        int quantity = line.getValue();
+                        if (buckets != null && buckets.isBucketed(productId)) {
+                                bucketed.add(productId);
+                        } else if (ledger == null) {
+                                lines.add(new Object[]{quantity, now, productId, quantity});
+                        } else if (!ledger.isHot(productId)) {
+                                ledger.recordDemand(productId);
+                                lines.add(new Object[]{quantity, now, productId, quantity});
+                        } else if (!ledger.reserve(productId, quantity)) {
+                                // Units already reserved in memory go back when the transaction rolls back
+                                throw insufficientStock(products.get(productId), ledger.available(productId).orElse(0),
+                                                quantity);
+                        }
+                }
+
+                if (!lines.isEmpty()) {
+                        int[] updated = jdbcTemplate.batchUpdate(RESERVE_STOCK, lines);
+                        for (int i = 0; i < updated.length; i++) {
+                                if (updated[i] == 0) {
+                                        Long productId = (Long) lines.get(i)[2];
+                                        throw insufficientStock(products.get(productId),
+                                                        productRepository.findStockQuantityById(productId),
+                                                        quantities.get(productId));
+                                }
+                        }
+                        if (ledger != null) {
+                                moveToLedger(ledger, lines, products, now);
+                        }
+                }
+
+                // Bucket rows are locked after all product rows, like the batch endpoint does
+                for (Long productId : bucketed) {
+                        if (!buckets.reserve(productId, quantities.get(productId))) {
+                                throw insufficientStock(products.get(productId),
+                                                productRepository.findStockQuantityById(productId),
+                                                quantities.get(productId));
+                        }
+                }
+        }
+
+        /**
+         * Re-check hotness now that the row locks are held. A product promoted after it was
+         * checked above, but before this transaction got its row lock, was loaded into the ledger
+         * with the units just decremented; they go back to the row and are reserved from the
+         * ledger instead. Promotion publishes under the row lock, so it cannot happen from here on.
+         */
+        private void moveToLedger(HotStockLedger ledger, List<Object[]> lines, Map<Long, Product> products,
+                                  Timestamp now) {
+                for (Object[] line : lines) {
+                        Long productId = (Long) line[2];
+                        if (!ledger.isHot(productId)) {
+                                continue;
+                        }
+                        int quantity = (Integer) line[0];
+                        jdbcTemplate.update(RETURN_STOCK, quantity, now, productId);
+                        if (!ledger.reserve(productId, quantity)) {
+                                throw insufficientStock(products.get(productId), ledger.available(productId).orElse(0),
+                                                quantity);
+                        }
+                }
+        }
+
+        private static InsufficientStockException insufficientStock(Product product, long available, int requested) {
+                return new InsufficientStockException(
+                                String.format("Insufficient stock for product %s. Available: %d, Requested: %d",
+                                                product.getName(), available, requested));
+        }
+
         @Transactional(readOnly = true)
         public OrderResponse getOrderById(Long id) {
                 log.info("Fetching order with ID: {}", id);
@@ -138,12 +271,6 @@ public class OrderService {
                 return mapToOrderResponse(updatedOrder);
         }
 
-        private String generateOrderNumber() {
-                String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-                String uniqueId = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-                return "ORD-" + timestamp + "-" + uniqueId;
-        }
-
         private OrderResponse mapToOrderResponse(Order order) {
                 List<OrderItemResponse> items = order.getOrderItems().stream()
                                 .map(item -> new OrderItemResponse(
@@ -5,11 +5,15 @@ import com.ibrahim.DBPulse.dtos.ProductResponse;
 import com.ibrahim.DBPulse.entities.Product;
 import com.ibrahim.DBPulse.exceptions.DuplicateResourceException;
 import com.ibrahim.DBPulse.exceptions.ResourceNotFoundException;
+import com.ibrahim.DBPulse.inventory.StockBuckets;
 import com.ibrahim.DBPulse.mappers.EntityMapper;
+import com.ibrahim.DBPulse.metrics.InventoryTracker;
+import com.ibrahim.DBPulse.metrics.ServiceTimers;
 import com.ibrahim.DBPulse.repositories.ProductRepository;
 import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,10 +27,20 @@ import java.util.stream.Collectors;
 @Transactional
 public class ProductService {
 
+    private static final String CREATE_PRODUCT_TIMER = "dbpulse.products.create";
+    private static final String UPDATE_PRODUCT_TIMER = "dbpulse.products.update";
+
     private final ProductRepository productRepository;
+    private final InventoryTracker inventoryTracker;
+    private final ServiceTimers serviceTimers;
+    private final ObjectProvider<StockBuckets> stockBuckets;
 
-    @Timed(value = "dbpulse.products.create", description = "Time to create a product")
+    @Timed(value = CREATE_PRODUCT_TIMER, description = "Time to create a product")
     public ProductResponse createProduct(ProductRequest request) {
+        return serviceTimers.record(CREATE_PRODUCT_TIMER, () -> doCreateProduct(request));
+    }
+
+    private ProductResponse doCreateProduct(ProductRequest request) {
         log.info("Creating new product with SKU: {}", request.getSku());
 
         if (productRepository.existsBySku(request.getSku())) {
@@ -35,6 +49,7 @@ public class ProductService {
 
         Product product = EntityMapper.toEntity(request);
         Product savedProduct = productRepository.save(product);
+        inventoryTracker.adjust(stockOf(savedProduct));
 
         log.info("Product created successfully with ID: {}", savedProduct.getId());
         return EntityMapper.toResponse(savedProduct);
@@ -47,7 +62,7 @@ public class ProductService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with ID: " + id));
 
-        return EntityMapper.toResponse(product);
+        return toResponse(product);
     }
 
     @Transactional(readOnly = true)
@@ -55,7 +70,7 @@ public class ProductService {
         log.info("Fetching all products");
 
         return productRepository.findAll().stream()
-                .map(EntityMapper::toResponse)
+                .map(this::toResponse)
                 .collect(Collectors.toList());
     }
 
@@ -64,7 +79,7 @@ public class ProductService {
         log.info("Searching products with term: {}", searchTerm);
 
         Page<Product> productPage = productRepository.searchProducts(searchTerm, pageable);
-        return productPage.map(EntityMapper::toResponse);
+        return productPage.map(this::toResponse);
     }
 
     @Transactional(readOnly = true)
@@ -72,12 +87,16 @@ public class ProductService {
         log.info("Fetching products by category: {}", category);
 
         return productRepository.findByCategory(category).stream()
-                .map(EntityMapper::toResponse)
+                .map(this::toResponse)
                 .collect(Collectors.toList());
     }
 
-    @Timed(value = "dbpulse.products.update", description = "Time to update a product")
+    @Timed(value = UPDATE_PRODUCT_TIMER, description = "Time to update a product")
     public ProductResponse updateProduct(Long id, ProductRequest request) {
+        return serviceTimers.record(UPDATE_PRODUCT_TIMER, () -> doUpdateProduct(id, request));
+    }
+
+    private ProductResponse doUpdateProduct(Long id, ProductRequest request) {
         log.info("Updating product with ID: {}", id);
 
         Product product = productRepository.findById(id)
@@ -88,6 +107,8 @@ public class ProductService {
             throw new DuplicateResourceException("Product with SKU " + request.getSku() + " already exists");
         }
 
+        long stockDelta = stockOf(request.getStockQuantity()) - replaceStock(product);
+
         product.setName(request.getName());
         product.setDescription(request.getDescription());
         product.setSku(request.getSku());
@@ -96,6 +117,7 @@ public class ProductService {
         product.setCategory(request.getCategory());
 
         Product updatedProduct = productRepository.save(product);
+        inventoryTracker.adjust(stockDelta);
         log.info("Product updated successfully with ID: {}", updatedProduct.getId());
 
         return EntityMapper.toResponse(updatedProduct);
@@ -104,11 +126,12 @@ public class ProductService {
     public void deleteProduct(Long id) {
         log.info("Deleting product with ID: {}", id);
 
-        if (!productRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Product not found with ID: " + id);
-        }
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with ID: " + id));
 
-        productRepository.deleteById(id);
+        long stock = isBucketed(product) ? productRepository.findStockQuantityById(id) : stockOf(product);
+        productRepository.delete(product);
+        inventoryTracker.adjust(-stock);
         log.info("Product deleted successfully with ID: {}", id);
     }
 
@@ -118,9 +141,47 @@ public class ProductService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with ID: " + id));
 
+        long stockDelta = stockOf(quantity) - replaceStock(product);
+
         product.setStockQuantity(quantity);
         productRepository.save(product);
+        inventoryTracker.adjust(stockDelta);
 
         log.info("Stock updated successfully for product ID: {}", id);
     }
+
+    /**
+     * Current stock of a product whose stock is about to be set to an absolute quantity.
+     * A bucketed product's buckets are emptied first, so the new quantity lands on its row
+     * alone and is spread over the buckets again once the update commits.
+     */
+    private long replaceStock(Product product) {
+        return isBucketed(product) ? stockBuckets.getObject().drain(product.getId()) : stockOf(product);
+    }
+
+    /**
+     * Map a product, with a bucketed product's stock summed over its row and buckets.
+     */
+    private ProductResponse toResponse(Product product) {
+        ProductResponse response = EntityMapper.toResponse(product);
+        if (isBucketed(product)) {
+            long stock = productRepository.findStockQuantityById(product.getId());
+            response.setStockQuantity((int) stock);
+            response.setInStock(stock > 0);
+        }
+        return response;
+    }
+
+    private boolean isBucketed(Product product) {
+        StockBuckets buckets = stockBuckets.getIfAvailable();
+        return buckets != null && buckets.isBucketed(product.getId());
+    }
+
+    private static int stockOf(Product product) {
+        return stockOf(product.getStockQuantity());
+    }
+
+    private static int stockOf(Integer quantity) {
+        return quantity != null ? quantity : 0;
+    }
 }
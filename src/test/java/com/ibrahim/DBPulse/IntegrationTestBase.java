@@ -1,5 +1,12 @@
 package com.ibrahim.DBPulse;
 
+import com.ibrahim.DBPulse.dtos.ClientRequest;
+import com.ibrahim.DBPulse.dtos.OrderItemRequest;
+import com.ibrahim.DBPulse.dtos.OrderRequest;
+import com.ibrahim.DBPulse.dtos.ProductRequest;
+import com.ibrahim.DBPulse.services.ClientService;
+import com.ibrahim.DBPulse.services.ProductService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -7,25 +14,77 @@ import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.math.BigDecimal;
+import java.util.List;
+
 /**
  * Base class for integration tests using TestContainers.
- * Provides a PostgreSQL container for realistic database testing.
+ * Provides a PostgreSQL container for realistic database testing,
+ * and factories for the clients, products and orders the tests need.
  */
 @SpringBootTest
 @Testcontainers
 public abstract class IntegrationTestBase {
 
+    /**
+     * Unit price of the products created by {@link #createProduct(int)}.
+     */
+    protected static final BigDecimal UNIT_PRICE = new BigDecimal("2.50");
+
     @Container
     static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17")
             .withDatabaseName("testdb")
             .withUsername("test")
             .withPassword("test")
+            .withCommand("postgres", "-c", "shared_preload_libraries=pg_stat_statements")
             .withReuse(true);
 
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private ProductService productService;
+
     @DynamicPropertySource
     static void configureProperties(DynamicPropertyRegistry registry) {
         registry.add("spring.datasource.url", postgres::getJdbcUrl);
         registry.add("spring.datasource.username", postgres::getUsername);
         registry.add("spring.datasource.password", postgres::getPassword);
     }
+
+    /**
+     * Create a product with a unique SKU.
+     *
+     * @return the product ID
+     */
+    protected long createProduct(int stock) {
+        String sku = "TEST-" + System.nanoTime();
+        return productService.createProduct(new ProductRequest(
+                "Test item", null, sku, UNIT_PRICE, stock, "Test")).getId();
+    }
+
+    /**
+     * Create a client with a unique email.
+     *
+     * @return the client ID
+     */
+    protected long createClient() {
+        String email = "client-" + System.nanoTime() + "@example.com";
+        return clientService.createClient(new ClientRequest(
+                "Test", "Client", email, null, null, null, null)).getId();
+    }
+
+    /**
+     * An order of one product for a new client.
+     */
+    protected OrderRequest orderFor(long productId, int quantity) {
+        return orderFor(createClient(), productId, quantity);
+    }
+
+    /**
+     * An order of one product for the given client.
+     */
+    protected static OrderRequest orderFor(long clientId, long productId, int quantity) {
+        return new OrderRequest(clientId, List.of(new OrderItemRequest(productId, quantity)), "1 Test Street", null);
+    }
 }
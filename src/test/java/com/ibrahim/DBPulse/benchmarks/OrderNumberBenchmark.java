@@ -0,0 +1,53 @@
+package com.ibrahim.DBPulse.benchmarks;
+
+import com.ibrahim.DBPulse.ordernumber.LegacyOrderNumberGenerator;
+import com.ibrahim.DBPulse.ordernumber.OrderNumberGenerator;
+import com.ibrahim.DBPulse.ordernumber.SnowflakeOrderNumberGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one order number from the legacy generator (formatted timestamp plus a random
+ * UUID prefix) and from the snowflake generator. Add -prof gc to see bytes allocated per
+ * number, and -t 8 for contention on the snowflake generator's single CAS.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.ibrahim.DBPulse.benchmarks.OrderNumberBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderNumberBenchmark {
+
+    private OrderNumberGenerator legacy;
+    private OrderNumberGenerator snowflake;
+
+    @Setup
+    public void setUp() {
+        legacy = new LegacyOrderNumberGenerator();
+        snowflake = new SnowflakeOrderNumberGenerator(1);
+    }
+
+    @Benchmark
+    public String legacy() {
+        return legacy.next();
+    }
+
+    @Benchmark
+    public String snowflake() {
+        return snowflake.next();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OrderNumberBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
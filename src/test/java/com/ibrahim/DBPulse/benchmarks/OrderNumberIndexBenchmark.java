@@ -0,0 +1,91 @@
+package com.ibrahim.DBPulse.benchmarks;
+
+import com.ibrahim.DBPulse.ordernumber.LegacyOrderNumberGenerator;
+import com.ibrahim.DBPulse.ordernumber.OrderNumberGenerator;
+import com.ibrahim.DBPulse.ordernumber.SnowflakeOrderNumberGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batches of 1000 order numbers inserted into a table with a unique index on the number,
+ * like orders.order_number, on top of 500k existing rows. Legacy numbers land anywhere
+ * in the index within their second; snowflake numbers always go to its right-most leaf.
+ * Rows are merged on the number because legacy numbers collide: 32 random bits per second
+ * give even odds of a duplicate at about 77k numbers within one second, which the setup reaches.
+ * Runs on an embedded H2 database; on PostgreSQL the random inserts additionally cost
+ * page splits, dirtied pages and WAL full-page images across the whole index.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.ibrahim.DBPulse.benchmarks.OrderNumberIndexBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderNumberIndexBenchmark {
+
+    private static final int BATCH = 1000;
+    private static final int EXISTING = 500_000;
+
+    @Param({"legacy", "snowflake"})
+    public String generator;
+
+    private OrderNumberGenerator orderNumbers;
+    private Connection connection;
+    private PreparedStatement insert;
+
+    @Setup
+    public void setUp() throws SQLException {
+        orderNumbers = "legacy".equals(generator)
+                ? new LegacyOrderNumberGenerator()
+                : new SnowflakeOrderNumberGenerator(1);
+        connection = DriverManager.getConnection("jdbc:h2:mem:ordernumbers-" + generator);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE orders (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                    + "order_number VARCHAR(50) NOT NULL UNIQUE)");
+        }
+        connection.setAutoCommit(false);
+        insert = connection.prepareStatement("MERGE INTO orders (order_number) KEY (order_number) VALUES (?)");
+        for (int i = 0; i < EXISTING / BATCH; i++) {
+            insertBatch();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        insert.close();
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void insert() throws SQLException {
+        insertBatch();
+    }
+
+    private void insertBatch() throws SQLException {
+        for (int i = 0; i < BATCH; i++) {
+            insert.setString(1, orderNumbers.next());
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OrderNumberIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,79 @@
+package com.ibrahim.DBPulse.benchmarks;
+
+import com.ibrahim.DBPulse.metrics.ServiceTimers;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call overhead of ServiceTimers compared to a raw invocation and to
+ * Micrometer's Timer.Sample path used by TimedAspect.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.ibrahim.DBPulse.benchmarks.ServiceTimersBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceTimersBenchmark {
+
+    private static final String TIMER = "benchmark.service.call";
+
+    private ServiceTimers serviceTimers;
+    private Timer timer;
+    private SimpleMeterRegistry registry;
+    private long value;
+
+    @Setup
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        serviceTimers = new ServiceTimers(registry);
+        serviceTimers.register(TimedTarget.class);
+        timer = Timer.builder(TIMER + ".sample").register(registry);
+    }
+
+    @Benchmark
+    public long raw() {
+        return work();
+    }
+
+    @Benchmark
+    public long serviceTimers() {
+        return serviceTimers.record(TIMER, this::work);
+    }
+
+    @Benchmark
+    public long timerSample(Blackhole blackhole) {
+        Timer.Sample sample = Timer.start(registry);
+        long result = work();
+        blackhole.consume(sample.stop(timer));
+        return result;
+    }
+
+    private long work() {
+        return ++value;
+    }
+
+    static class TimedTarget {
+
+        @Timed(value = TIMER)
+        public void call() {
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ServiceTimersBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,191 @@
+package com.ibrahim.DBPulse.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibrahim.DBPulse.IntegrationTestBase;
+import com.ibrahim.DBPulse.dtos.OrderBatchResponse;
+import com.ibrahim.DBPulse.dtos.OrderRequest;
+import com.ibrahim.DBPulse.dtos.OrderResponse;
+import com.ibrahim.DBPulse.exceptions.IdempotencyConflictException;
+import com.ibrahim.DBPulse.exceptions.InsufficientStockException;
+import com.ibrahim.DBPulse.repositories.ProductRepository;
+import com.ibrahim.DBPulse.services.OrderBatchService;
+import com.ibrahim.DBPulse.services.OrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * A key must create its orders once: retries and concurrent duplicates get the first response,
+ * also from another instance, and stock is only decremented once.
+ */
+class IdempotentRequestsTest extends IntegrationTestBase {
+
+    private static final String ORDERS = "SELECT COUNT(*) FROM orders WHERE client_id = ?";
+
+    @Autowired
+    private IdempotentRequests idempotentRequests;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Should return the stored response to a retry, also from a fresh instance")
+    void retryReturnsTheStoredResponse() {
+        // Given
+        long productId = createProduct(10);
+        OrderRequest request = orderFor(productId, 2);
+        String key = UUID.randomUUID().toString();
+
+        // When
+        IdempotentRequests.Result<OrderResponse> first = createOrder(idempotentRequests, key, request);
+        IdempotentRequests.Result<OrderResponse> retry = createOrder(idempotentRequests, key, request);
+        // A fresh instance has nothing in memory and answers from idempotency_keys
+        IdempotentRequests.Result<OrderResponse> afterRestart = createOrder(newInstance(), key, request);
+
+        // Then
+        assertThat(first.replayed()).isFalse();
+        assertThat(retry.replayed()).isTrue();
+        assertThat(afterRestart.replayed()).isTrue();
+        assertThat(retry.body().getOrderNumber()).isEqualTo(first.body().getOrderNumber());
+        assertThat(afterRestart.body().getOrderNumber()).isEqualTo(first.body().getOrderNumber());
+        assertThat(jdbcTemplate.queryForObject(ORDERS, Long.class, request.getClientId())).isEqualTo(1);
+        assertThat(productRepository.findStockQuantityById(productId)).isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("Should reject a key reused for a different request")
+    void keyReusedForAnotherRequestIsRejected() {
+        // Given
+        long productId = createProduct(10);
+        String key = UUID.randomUUID().toString();
+        createOrder(idempotentRequests, key, orderFor(productId, 1));
+
+        // When / Then
+        assertThatThrownBy(() -> createOrder(idempotentRequests, key, orderFor(productId, 3)))
+                .isInstanceOf(IdempotencyConflictException.class);
+        assertThatThrownBy(() -> createOrder(newInstance(), key, orderFor(productId, 3)))
+                .isInstanceOf(IdempotencyConflictException.class);
+        assertThat(productRepository.findStockQuantityById(productId)).isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("Should run a failed request again when it is retried")
+    void failedRequestsAreNotRemembered() {
+        // Given
+        long productId = createProduct(1);
+        OrderRequest request = orderFor(productId, 2);
+        String key = UUID.randomUUID().toString();
+        assertThatThrownBy(() -> createOrder(idempotentRequests, key, request))
+                .isInstanceOf(InsufficientStockException.class);
+
+        // When
+        jdbcTemplate.update("UPDATE products SET stock_quantity = 5 WHERE id = ?", productId);
+
+        // Then
+        assertThat(createOrder(idempotentRequests, key, request).replayed()).isFalse();
+        assertThat(productRepository.findStockQuantityById(productId)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should create one order for concurrent duplicates across two instances")
+    void concurrentDuplicatesCreateOneOrder() throws Exception {
+        // Given
+        long productId = createProduct(100);
+        OrderRequest request = orderFor(productId, 1);
+        String key = UUID.randomUUID().toString();
+        // Two instances: duplicates coalesce in memory within one and meet at the primary key across them
+        List<IdempotentRequests> instances = List.of(idempotentRequests, newInstance());
+
+        // When
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<IdempotentRequests.Result<OrderResponse>>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(40)) {
+            for (int i = 0; i < 40; i++) {
+                IdempotentRequests instance = instances.get(i % 2);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return createOrder(instance, key, request);
+                }));
+            }
+            start.countDown();
+        }
+
+        // Then
+        List<String> orderNumbers = new ArrayList<>();
+        int executed = 0;
+        for (Future<IdempotentRequests.Result<OrderResponse>> result : results) {
+            orderNumbers.add(result.get().body().getOrderNumber());
+            executed += result.get().replayed() ? 0 : 1;
+        }
+        assertThat(executed).isEqualTo(1);
+        assertThat(orderNumbers).containsOnly(orderNumbers.getFirst());
+        assertThat(jdbcTemplate.queryForObject(ORDERS, Long.class, request.getClientId())).isEqualTo(1);
+        assertThat(productRepository.findStockQuantityById(productId)).isEqualTo(99);
+    }
+
+    @Test
+    @DisplayName("Should return the stored response to a batch retry")
+    void batchRetryReturnsTheStoredResponse() {
+        // Given
+        long productId = createProduct(10);
+        List<OrderRequest> requests = List.of(orderFor(productId, 1), orderFor(productId, 20));
+        String key = UUID.randomUUID().toString();
+
+        // When
+        OrderBatchResponse first = createOrders(key, requests).body();
+        IdempotentRequests.Result<OrderBatchResponse> retry = createOrders(key, requests);
+
+        // Then
+        assertThat(first.getCreated()).isEqualTo(1);
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.body()).isEqualTo(first);
+        assertThat(productRepository.findStockQuantityById(productId)).isEqualTo(9);
+        // The single-order endpoint does not accept the batch's key
+        assertThatThrownBy(() -> createOrder(idempotentRequests, key, requests.getFirst()))
+                .isInstanceOf(IdempotencyConflictException.class);
+    }
+
+    private IdempotentRequests.Result<OrderResponse> createOrder(IdempotentRequests instance, String key,
+                                                                  OrderRequest request) {
+        return instance.execute("order", key, request, OrderResponse.class, () -> orderService.createOrder(request));
+    }
+
+    private IdempotentRequests.Result<OrderBatchResponse> createOrders(String key, List<OrderRequest> requests) {
+        return idempotentRequests.execute("order-batch", key, requests, OrderBatchResponse.class,
+                () -> orderBatchService.createOrders(requests));
+    }
+
+    private IdempotentRequests newInstance() {
+        return new IdempotentRequests(new IdempotencyProperties(), jdbcTemplate,
+                new TransactionTemplate(transactionManager), objectMapper, new SimpleMeterRegistry());
+    }
+}
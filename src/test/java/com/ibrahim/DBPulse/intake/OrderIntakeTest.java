@@ -0,0 +1,271 @@
+package com.ibrahim.DBPulse.intake;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibrahim.DBPulse.IntegrationTestBase;
+import com.ibrahim.DBPulse.dtos.OrderRequest;
+import com.ibrahim.DBPulse.dtos.OrderRequestStatusResponse;
+import com.ibrahim.DBPulse.entities.OrderRequestRecord.Status;
+import com.ibrahim.DBPulse.exceptions.IntakeUnavailableException;
+import com.ibrahim.DBPulse.exceptions.ResourceNotFoundException;
+import com.ibrahim.DBPulse.idempotency.IdempotencyProperties;
+import com.ibrahim.DBPulse.idempotency.IdempotentRequests;
+import com.ibrahim.DBPulse.repositories.ProductRepository;
+import com.ibrahim.DBPulse.services.OrderBatchService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Queued orders must end up exactly as the synchronous path would have written them,
+ * with every tracking id resolving to its outcome.
+ */
+class OrderIntakeTest extends IntegrationTestBase {
+
+    private static final String ORDERS = "SELECT COUNT(*) FROM orders WHERE client_id = ?";
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Should never oversell when queued buyers outnumber the stock")
+    void queuedBuyersNeverOversell() throws Exception {
+        // Given
+        long productId = createProduct(50);
+        OrderRequest request = orderFor(productId, 1);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        OrderIntake intake = intake(1000, registry);
+        intake.afterSingletonsInstantiated();
+
+        // When
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<OrderRequestStatusResponse>> submitted = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(50)) {
+            for (int i = 0; i < 200; i++) {
+                submitted.add(executor.submit(() -> {
+                    start.await();
+                    return intake.submit(request);
+                }));
+            }
+            start.countDown();
+        }
+        intake.destroy();
+
+        // Then
+        int created = 0;
+        int failed = 0;
+        for (Future<OrderRequestStatusResponse> accepted : submitted) {
+            assertThat(accepted.get().getStatus()).isEqualTo(Status.QUEUED);
+            OrderRequestStatusResponse outcome = intake.getStatus(accepted.get().getRequestId());
+            if (outcome.getStatus() == Status.CREATED) {
+                assertThat(outcome.getOrderNumber()).startsWith("ORD-");
+                created++;
+            } else {
+                assertThat(outcome.getStatus()).isEqualTo(Status.FAILED);
+                assertThat(outcome.getError()).contains("Insufficient stock");
+                failed++;
+            }
+        }
+        assertThat(created).isEqualTo(50);
+        assertThat(failed).isEqualTo(150);
+        assertThat(productRepository.findStockQuantityById(productId)).isZero();
+        DistributionSummary batchSize = registry.get("dbpulse.orders.intake.batch.size").summary();
+        assertThat(batchSize.totalAmount()).isEqualTo(200);
+        assertThat(batchSize.count()).isLessThan(200);
+    }
+
+    @Test
+    @DisplayName("Should refuse requests while the queue is full and once shutting down")
+    void requestsAreRefusedWhenTheQueueIsFull() throws Exception {
+        // Given
+        long productId = createProduct(5);
+        OrderIntake intake = intake(2, new SimpleMeterRegistry());
+
+        // When: workers not started yet, so requests wait in the queue
+        OrderRequestStatusResponse first = intake.submit(orderFor(productId, 1));
+        OrderRequestStatusResponse second = intake.submit(orderFor(productId, 2));
+
+        // Then
+        assertThatThrownBy(() -> intake.submit(orderFor(productId, 1)))
+                .isInstanceOf(IntakeUnavailableException.class);
+        assertThat(intake.getStatus(first.getRequestId()).getStatus()).isEqualTo(Status.QUEUED);
+        assertThatThrownBy(() -> intake.getStatus("no-such-request"))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        // When
+        intake.afterSingletonsInstantiated();
+        intake.destroy();
+
+        // Then
+        assertThat(intake.getStatus(first.getRequestId()).getStatus()).isEqualTo(Status.CREATED);
+        assertThat(intake.getStatus(second.getRequestId()).getStatus()).isEqualTo(Status.CREATED);
+        assertThat(productRepository.findStockQuantityById(productId)).isEqualTo(2);
+        assertThatThrownBy(() -> intake.submit(orderFor(productId, 1)))
+                .isInstanceOf(IntakeUnavailableException.class)
+                .hasMessageContaining("shutting down");
+    }
+
+    @Test
+    @DisplayName("Should keep answering a request whose outcome cannot be written")
+    void requestsStayAnsweredWhenTheirOutcomeCannotBeWritten() throws Exception {
+        // Given
+        long productId = createProduct(5);
+        // order_requests cannot be written, neither with the orders nor for the failure afterwards
+        JdbcTemplate failingOutcomes = new JdbcTemplate(dataSource) {
+            @Override
+            public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+                throw new DataAccessResourceFailureException("order_requests is unavailable");
+            }
+        };
+        OrderIntake intake = intake(10, new SimpleMeterRegistry(), failingOutcomes);
+
+        // When
+        OrderRequestStatusResponse accepted = intake.submit(orderFor(productId, 2));
+        intake.afterSingletonsInstantiated();
+        intake.destroy();
+
+        // Then
+        OrderRequestStatusResponse outcome = intake.getStatus(accepted.getRequestId());
+        assertThat(outcome.getStatus()).isEqualTo(Status.FAILED);
+        assertThat(outcome.getError()).contains("order_requests is unavailable");
+        assertThat(outcome.getCompletedAt()).isNotNull();
+        // The orders rolled back with the outcome rows
+        assertThat(productRepository.findStockQuantityById(productId)).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should queue one order when two instances take the same Idempotency-Key")
+    void concurrentDuplicatesQueueOneOrder() throws Exception {
+        // Given
+        long productId = createProduct(100);
+        OrderRequest request = orderFor(productId, 1);
+        String key = UUID.randomUUID().toString();
+        OrderIntake intake = intake(100, new SimpleMeterRegistry());
+        intake.afterSingletonsInstantiated();
+        List<IdempotentRequests> instances = List.of(idempotentRequests(jdbcTemplate),
+                idempotentRequests(jdbcTemplate));
+        // Each instance submits before either stores the key, so one of them loses on the primary key
+        CountDownLatch submitting = new CountDownLatch(2);
+
+        // When
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<IdempotentRequests.Result<OrderRequestStatusResponse>>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(20)) {
+            for (int i = 0; i < 20; i++) {
+                IdempotentRequests instance = instances.get(i % 2);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return instance.execute("order-intake", key, request, OrderRequestStatusResponse.class, () -> {
+                        submitting.countDown();
+                        awaitQuietly(submitting);
+                        return intake.submit(request);
+                    });
+                }));
+            }
+            start.countDown();
+        }
+        intake.destroy();
+
+        // Then
+        List<String> requestIds = new ArrayList<>();
+        for (Future<IdempotentRequests.Result<OrderRequestStatusResponse>> result : results) {
+            requestIds.add(result.get().body().getRequestId());
+        }
+        assertThat(requestIds).containsOnly(requestIds.getFirst());
+        assertThat(intake.getStatus(requestIds.getFirst()).getStatus()).isEqualTo(Status.CREATED);
+        assertThat(jdbcTemplate.queryForObject(ORDERS, Long.class, request.getClientId())).isEqualTo(1);
+        assertThat(productRepository.findStockQuantityById(productId)).isEqualTo(99);
+    }
+
+    @Test
+    @DisplayName("Should not queue an order whose Idempotency-Key could not be stored")
+    void requestsAreDroppedWhenTheirKeyIsNotStored() throws Exception {
+        // Given
+        long productId = createProduct(5);
+        OrderRequest request = orderFor(productId, 2);
+        OrderIntake intake = intake(10, new SimpleMeterRegistry());
+        JdbcTemplate failingKeys = new JdbcTemplate(dataSource) {
+            @Override
+            public int update(String sql, Object... args) {
+                throw new DataAccessResourceFailureException("idempotency_keys is unavailable");
+            }
+        };
+        IdempotentRequests instance = idempotentRequests(failingKeys);
+
+        // When
+        assertThatThrownBy(() -> instance.execute("order-intake", UUID.randomUUID().toString(), request,
+                OrderRequestStatusResponse.class, () -> intake.submit(request)))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+        intake.afterSingletonsInstantiated();
+        intake.destroy();
+
+        // Then
+        assertThat(jdbcTemplate.queryForObject(ORDERS, Long.class, request.getClientId())).isZero();
+        assertThat(productRepository.findStockQuantityById(productId)).isEqualTo(5);
+        // The rolled back request gave its place in the queue back
+        OrderIntake full = intake(1, new SimpleMeterRegistry());
+        assertThatThrownBy(() -> instance.execute("order-intake", UUID.randomUUID().toString(), request,
+                OrderRequestStatusResponse.class, () -> full.submit(request)))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+        assertThat(full.submit(request).getStatus()).isEqualTo(Status.QUEUED);
+    }
+
+    private IdempotentRequests idempotentRequests(JdbcTemplate keys) {
+        return new IdempotentRequests(new IdempotencyProperties(), keys,
+                new TransactionTemplate(transactionManager), objectMapper, new SimpleMeterRegistry());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private OrderIntake intake(int capacity, SimpleMeterRegistry registry) {
+        return intake(capacity, registry, jdbcTemplate);
+    }
+
+    private OrderIntake intake(int capacity, SimpleMeterRegistry registry, JdbcTemplate outcomes) {
+        OrderIntakeProperties properties = new OrderIntakeProperties();
+        properties.setEnabled(true);
+        properties.setQueueCapacity(capacity);
+        properties.setWorkers(2);
+        properties.setMaxBatch(25);
+        return new OrderIntake(properties, orderBatchService, outcomes,
+                new TransactionTemplate(transactionManager), registry);
+    }
+}
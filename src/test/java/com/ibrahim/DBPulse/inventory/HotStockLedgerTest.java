@@ -0,0 +1,271 @@
+package com.ibrahim.DBPulse.inventory;
+
+import com.ibrahim.DBPulse.IntegrationTestBase;
+import com.ibrahim.DBPulse.dtos.OrderRequest;
+import com.ibrahim.DBPulse.exceptions.InsufficientStockException;
+import com.ibrahim.DBPulse.repositories.ProductRepository;
+import com.ibrahim.DBPulse.services.OrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Hot products must sell exactly their stock across promotion, rollbacks, write-behind
+ * flushes, changes made outside the ledger and a restart from the journal.
+ */
+class HotStockLedgerTest extends IntegrationTestBase {
+
+    private static final String CHECKPOINT = "SELECT last_segment FROM stock_ledger_checkpoint WHERE id = 1";
+
+    @DynamicPropertySource
+    static void hotStock(DynamicPropertyRegistry registry) {
+        registry.add("app.inventory.hot-stock.enabled", () -> "true");
+        registry.add("app.inventory.hot-stock.journal.directory", () -> tempDirectory("hot-stock-test").toString());
+        // Tests promote and flush explicitly
+        registry.add("app.inventory.hot-stock.auto-detect.enabled", () -> "false");
+        registry.add("app.inventory.hot-stock.flush-interval", () -> "3600000");
+    }
+
+    @Autowired
+    private HotStockLedger ledger;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Should never oversell when a product is promoted while buyers run")
+    void promotionWhileBuyersRunNeverOversells() throws Exception {
+        // Given
+        long productId = createProduct(100);
+        OrderRequest request = orderFor(productId, 1);
+
+        // When
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> buyers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(40)) {
+            for (int i = 0; i < 200; i++) {
+                buyers.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        orderService.createOrder(request);
+                        created.incrementAndGet();
+                    } catch (InsufficientStockException e) {
+                        refused.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            while (created.get() < 20) {
+                Thread.sleep(1);
+            }
+            ledger.promote(productId);
+            for (Future<?> buyer : buyers) {
+                buyer.get();
+            }
+        }
+        ledger.flush();
+
+        // Then
+        assertThat(ledger.isHot(productId)).isTrue();
+        assertThat(created.get()).isEqualTo(100);
+        assertThat(refused.get()).isEqualTo(100);
+        assertThat(ledger.available(productId)).hasValue(0);
+        assertThat(productRepository.findStockQuantityById(productId)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reserve from the ledger for an order waiting on the row during promotion")
+    void orderWaitingOnTheRowDuringPromotionReservesFromTheLedger() throws Exception {
+        // Given
+        long productId = createProduct(10);
+        OrderRequest request = orderFor(productId, 3);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch promote = new CountDownLatch(1);
+
+        // When
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            // Holds the row lock, then promotes inside the same transaction
+            Future<?> promoter = executor.submit(() -> transaction.executeWithoutResult(status -> {
+                jdbcTemplate.queryForList("SELECT id FROM products WHERE id = ? FOR UPDATE", Long.class, productId);
+                locked.countDown();
+                await(promote);
+                ledger.promote(productId);
+                assertThat(ledger.isHot(productId)).isTrue();
+            }));
+            locked.await();
+            // Checks hotness before the promotion, then waits for the row lock
+            Future<?> buyer = executor.submit(() -> orderService.createOrder(request));
+            Thread.sleep(500);
+            promote.countDown();
+            promoter.get();
+            buyer.get();
+        }
+
+        // Then: the three units were loaded into the ledger and sold from it, not from the row as well
+        assertThat(ledger.available(productId)).hasValue(7);
+        assertThat(productRepository.findStockQuantityById(productId)).isEqualTo(10);
+        ledger.flush();
+        assertThat(productRepository.findStockQuantityById(productId)).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Should leave the product on its row when the promotion rolls back")
+    void promotionRolledBackLeavesTheProductOnItsRow() {
+        // Given
+        long productId = createProduct(5);
+
+        // When
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            ledger.promote(productId);
+            status.setRollbackOnly();
+        });
+
+        // Then
+        assertThat(ledger.isHot(productId)).isFalse();
+        assertThat(ledger.available(productId)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should release a reservation whose transaction rolls back")
+    void rolledBackReservationIsReleased() {
+        // Given
+        long productId = createProduct(10);
+        ledger.promote(productId);
+
+        // When
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertThat(ledger.reserve(productId, 4)).isTrue();
+            assertThat(ledger.available(productId)).hasValue(6);
+            status.setRollbackOnly();
+        });
+
+        // Then
+        assertThat(ledger.available(productId)).hasValue(10);
+        assertThat(ledger.reserve(productId, 11)).isFalse();
+        ledger.flush();
+        assertThat(productRepository.findStockQuantityById(productId)).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should fold changes made outside the ledger into its counters on flush")
+    void flushFoldsOutsideChangesIntoTheCounters() {
+        // Given
+        long productId = createProduct(10);
+        ledger.promote(productId);
+        assertThat(ledger.reserve(productId, 2)).isTrue();
+
+        // When: a restock straight on the row, bypassing the ledger
+        jdbcTemplate.update("UPDATE products SET stock_quantity = stock_quantity + 5 WHERE id = ?", productId);
+        ledger.flush();
+
+        // Then
+        assertThat(productRepository.findStockQuantityById(productId)).isEqualTo(13);
+        assertThat(ledger.available(productId)).hasValue(13);
+
+        // When: a stock correction downwards, also outside the ledger
+        jdbcTemplate.update("UPDATE products SET stock_quantity = stock_quantity - 3 WHERE id = ?", productId);
+        ledger.flush();
+
+        // Then
+        assertThat(ledger.available(productId)).hasValue(10);
+        assertThat(ledger.reserve(productId, 11)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should replay only the journal segments after the checkpoint on startup")
+    void startupReplaysOnlySegmentsAfterTheCheckpoint() throws Exception {
+        // Given
+        long productId = createProduct(50);
+        Path directory = tempDirectory("hot-stock-replay");
+        long checkpoint = jdbcTemplate.queryForObject(CHECKPOINT, Long.class);
+        // Reservations made durable just before a crash, never flushed
+        writeSegment(directory, checkpoint + 1, productId, -4);
+
+        // When
+        HotStockLedger restarted = newLedger(directory);
+        restarted.afterSingletonsInstantiated();
+        restarted.destroy();
+
+        // Then
+        assertThat(productRepository.findStockQuantityById(productId)).isEqualTo(46);
+        assertThat(jdbcTemplate.queryForObject(CHECKPOINT, Long.class)).isGreaterThan(checkpoint);
+        assertThat(StockJournal.segments(directory)).allMatch(segment -> StockJournal.segmentId(segment) > checkpoint + 1);
+
+        // When: a segment the checkpoint already covers is found again
+        writeSegment(directory, checkpoint + 1, productId, -4);
+        HotStockLedger again = newLedger(directory);
+        again.afterSingletonsInstantiated();
+        again.destroy();
+
+        // Then: it is deleted without being applied again
+        assertThat(productRepository.findStockQuantityById(productId)).isEqualTo(46);
+    }
+
+    private void writeSegment(Path directory, long id, long productId, int delta) throws IOException {
+        try (StockJournal journal = new StockJournal(directory, id, 16, new SimpleMeterRegistry())) {
+            journal.append(productId, delta).join();
+        }
+    }
+
+    private HotStockLedger newLedger(Path directory) {
+        HotStockProperties properties = new HotStockProperties();
+        properties.setEnabled(true);
+        properties.getJournal().setDirectory(directory.toString());
+        properties.getAutoDetect().setEnabled(false);
+        return new HotStockLedger(properties, jdbcTemplate, namedParameterJdbcTemplate,
+                new TransactionTemplate(transactionManager), new SimpleMeterRegistry());
+    }
+
+    private static Path tempDirectory(String prefix) {
+        try {
+            return Files.createTempDirectory(prefix);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
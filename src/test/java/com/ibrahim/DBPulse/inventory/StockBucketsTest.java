@@ -0,0 +1,132 @@
+package com.ibrahim.DBPulse.inventory;
+
+import com.ibrahim.DBPulse.IntegrationTestBase;
+import com.ibrahim.DBPulse.repositories.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Reservations against bucketed stock must stay exact: never oversell under contention,
+ * never refuse an order the product's total stock covers, and keep restocks in the total.
+ */
+class StockBucketsTest extends IntegrationTestBase {
+
+    private static final String BUCKETS = "SELECT quantity FROM product_stock_buckets WHERE product_id = ? ORDER BY bucket";
+    private static final String ROW_STOCK = "SELECT stock_quantity FROM products WHERE id = ?";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Should never oversell bucketed stock to parallel buyers")
+    void parallelBuyersNeverOversell() throws Exception {
+        // Given
+        long productId = createProduct(50);
+        StockBuckets buckets = bucket(productId);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // When
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> buyers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(200)) {
+            for (int i = 0; i < 200; i++) {
+                buyers.add(executor.submit(() -> {
+                    start.await();
+                    if (Boolean.TRUE.equals(transaction.execute(status -> buckets.reserve(productId, 1)))) {
+                        reserved.incrementAndGet();
+                    } else {
+                        refused.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> buyer : buyers) {
+                buyer.get();
+            }
+        }
+
+        // Then
+        assertThat(reserved.get()).isEqualTo(50);
+        assertThat(refused.get()).isEqualTo(150);
+        assertThat(jdbcTemplate.queryForList(BUCKETS, Integer.class, productId)).containsOnly(0);
+        assertThat(productRepository.findStockQuantityById(productId)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should take a large order from several buckets and refuse one the total does not cover")
+    void largeOrdersTakeFromSeveralBuckets() {
+        // Given
+        long productId = createProduct(10);
+        StockBuckets buckets = bucket(productId);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        assertThat(jdbcTemplate.queryForList(BUCKETS, Integer.class, productId)).containsExactly(3, 3, 2, 2);
+
+        // When
+        Boolean taken = transaction.execute(status -> buckets.reserve(productId, 7));
+        Boolean refused = transaction.execute(status -> buckets.reserve(productId, 4));
+
+        // Then
+        assertThat(taken).isTrue();
+        assertThat(refused).isFalse();
+        assertThat(productRepository.findStockQuantityById(productId)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should spread a restock over the buckets once it commits")
+    void restockIsSpreadAfterCommit() {
+        // Given
+        long productId = createProduct(8);
+        StockBuckets buckets = bucket(productId);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // When
+        long before = transaction.execute(status -> {
+            long stock = buckets.drain(productId);
+            jdbcTemplate.update("UPDATE products SET stock_quantity = 20 WHERE id = ?", productId);
+            return stock;
+        });
+
+        // Then
+        assertThat(before).isEqualTo(8);
+        assertThat(jdbcTemplate.queryForObject(ROW_STOCK, Integer.class, productId)).isZero();
+        assertThat(jdbcTemplate.queryForList(BUCKETS, Integer.class, productId)).containsExactly(5, 5, 5, 5);
+    }
+
+    private StockBuckets bucket(long productId) {
+        StockBucketProperties properties = new StockBucketProperties();
+        properties.setEnabled(true);
+        properties.setProducts(List.of(productId));
+        properties.setBuckets(4);
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        StockBuckets buckets = new StockBuckets(properties, jdbcTemplate, requiresNew, new SimpleMeterRegistry());
+        buckets.afterSingletonsInstantiated();
+        assertThat(buckets.isBucketed(productId)).isTrue();
+        return buckets;
+    }
+}
@@ -0,0 +1,118 @@
+package com.ibrahim.DBPulse.inventory;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the hot product stock counters and their journal.
+ */
+class StockJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should sum durable deltas per product in the rotated segment")
+    void testRotateReturnsSegmentTotals() throws Exception {
+        try (StockJournal journal = new StockJournal(directory, 1, 64, new SimpleMeterRegistry())) {
+            List<CompletableFuture<Void>> appends = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                appends.add(journal.append(i % 2 == 0 ? 7 : 8, -1));
+            }
+            appends.add(journal.append(7, 5));
+            CompletableFuture.allOf(appends.toArray(CompletableFuture[]::new)).join();
+
+            StockJournal.Segment segment = journal.rotate().join();
+
+            assertThat(segment.id()).isEqualTo(1);
+            assertThat(segment.deltas()).containsOnly(entry(7L, -45L), entry(8L, -50L));
+            assertThat(StockJournal.read(segment.path())).isEqualTo(segment.deltas());
+            assertThat(StockJournal.segments(directory)).extracting(StockJournal::segmentId).containsExactly(1L, 2L);
+        }
+    }
+
+    @Test
+    @DisplayName("Should stop replay at a torn record left by a crash")
+    void testReplayIgnoresTornTail() throws Exception {
+        Path segment;
+        try (StockJournal journal = new StockJournal(directory, 5, 64, new SimpleMeterRegistry())) {
+            journal.append(1, -3).join();
+            journal.append(2, -4).join();
+            segment = journal.rotate().join().path();
+        }
+        // Half a record, then a complete record with a bad checksum
+        Files.write(segment, new byte[StockJournal.RECORD_BYTES / 2], StandardOpenOption.APPEND);
+        Map<Long, Long> intact = StockJournal.read(segment);
+
+        ByteBuffer corrupt = ByteBuffer.allocate(StockJournal.RECORD_BYTES).putLong(1).putInt(-100).putInt(42);
+        Path other = directory.resolve("stock-00000000000000000009.journal");
+        Files.write(other, corrupt.array());
+
+        assertThat(intact).containsOnly(entry(1L, -3L), entry(2L, -4L));
+        assertThat(StockJournal.read(other)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should never sell more than the stock under concurrent reservations")
+    void testStripedStockFloor() throws Exception {
+        StripedStock stock = new StripedStock(1000, 8);
+        AtomicInteger sold = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> buyers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (int t = 0; t < 16; t++) {
+                buyers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 1000; i++) {
+                        // Mixed sizes exercise the path that gathers units from several stripes
+                        int quantity = 1 + i % 3;
+                        if (stock.tryReserve(quantity)) {
+                            sold.addAndGet(quantity);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> buyer : buyers) {
+                buyer.get();
+            }
+        }
+
+        assertThat(sold.get()).isLessThanOrEqualTo(1000);
+        assertThat(sold.get() + stock.available()).isEqualTo(1000);
+        assertThat(stock.stripes()).isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("Should take a negative correction down to zero and report the shortfall")
+    void testStripedStockAdjust() {
+        StripedStock stock = new StripedStock(10, 3);
+
+        assertThat(stock.stripes()).isEqualTo(4);
+        assertThat(stock.tryReserve(10)).isTrue();
+        assertThat(stock.tryReserve(1)).isFalse();
+
+        stock.adjust(5);
+        assertThat(stock.adjust(-8)).isEqualTo(3);
+        assertThat(stock.available()).isZero();
+    }
+}
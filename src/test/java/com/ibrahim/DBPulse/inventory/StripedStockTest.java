@@ -0,0 +1,69 @@
+package com.ibrahim.DBPulse.inventory;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the striped stock counters of hot products.
+ */
+class StripedStockTest {
+
+    @Test
+    @DisplayName("Should gather a reservation larger than any single stripe from several stripes")
+    void testGatherAcrossStripes() {
+        // Given - 10 units over 4 stripes, at most 3 in any one
+        StripedStock stock = new StripedStock(10, 4);
+
+        // When
+        boolean reserved = stock.tryReserve(9);
+
+        // Then
+        assertThat(reserved).isTrue();
+        assertThat(stock.available()).isEqualTo(1);
+        assertThat(stock.tryReserve(1)).isTrue();
+        assertThat(stock.available()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should put gathered units back when the stripes together fall short")
+    void testShortGatherRollsBack() {
+        // Given
+        StripedStock stock = new StripedStock(10, 4);
+
+        // When
+        boolean reserved = stock.tryReserve(11);
+
+        // Then - all or nothing: every stripe gets its units back
+        assertThat(reserved).isFalse();
+        assertThat(stock.available()).isEqualTo(10);
+        assertThat(stock.tryReserve(10)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should make released units available again")
+    void testReleaseRestoresStock() {
+        // Given
+        StripedStock stock = new StripedStock(6, 2);
+        assertThat(stock.tryReserve(6)).isTrue();
+
+        // When - the order holding the units rolled back
+        stock.release(4);
+
+        // Then
+        assertThat(stock.available()).isEqualTo(4);
+        assertThat(stock.tryReserve(5)).isFalse();
+        assertThat(stock.tryReserve(4)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should start a negative initial stock at zero")
+    void testNegativeInitialStock() {
+        StripedStock stock = new StripedStock(-3, 1);
+
+        assertThat(stock.stripes()).isEqualTo(1);
+        assertThat(stock.available()).isZero();
+        assertThat(stock.tryReserve(1)).isFalse();
+    }
+}
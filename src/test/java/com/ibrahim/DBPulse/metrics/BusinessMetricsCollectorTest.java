@@ -0,0 +1,106 @@
+package com.ibrahim.DBPulse.metrics;
+
+import com.ibrahim.DBPulse.config.MetricsConfig;
+import com.ibrahim.DBPulse.metrics.BusinessMetricsCollector.Metric;
+import com.ibrahim.DBPulse.repositories.ClientRepository;
+import com.ibrahim.DBPulse.repositories.OrderRepository;
+import com.ibrahim.DBPulse.repositories.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BusinessMetricsCollector snapshots and the gauges served from them.
+ */
+@ExtendWith(MockitoExtension.class)
+class BusinessMetricsCollectorTest {
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private InventoryTracker inventoryTracker;
+
+    private SimpleMeterRegistry registry;
+    private BusinessMetricsCollector collector;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        collector = new BusinessMetricsCollector(registry, clientRepository, orderRepository, productRepository,
+                inventoryTracker);
+        MetricsConfig config = new MetricsConfig();
+        config.activeClientsGauge(registry, collector);
+        config.totalOrdersGauge(registry, collector);
+        config.lowStockProductsGauge(registry, collector);
+        config.inventoryGauge(registry, collector);
+    }
+
+    @Test
+    @DisplayName("Should serve gauges from the last snapshot without querying on scrape")
+    void testGaugesServedFromSnapshot() {
+        // Given
+        when(clientRepository.countByActiveTrue()).thenReturn(12L);
+        when(orderRepository.count()).thenReturn(340L);
+        when(productRepository.countLowStockProducts(BusinessMetricsCollector.LOW_STOCK_THRESHOLD)).thenReturn(3L);
+        when(inventoryTracker.getTotal()).thenReturn(5_000L);
+
+        // When
+        collector.refresh();
+        double activeClients = registry.get("dbpulse.clients.active").gauge().value();
+        registry.get("dbpulse.orders.total").gauge().value();
+        // A second scrape reads the same snapshot
+        double totalOrders = registry.get("dbpulse.orders.total").gauge().value();
+
+        // Then
+        assertThat(activeClients).isEqualTo(12.0);
+        assertThat(totalOrders).isEqualTo(340.0);
+        assertThat(registry.get("dbpulse.products.low_stock").gauge().value()).isEqualTo(3.0);
+        assertThat(registry.get("dbpulse.inventory.total").gauge().value()).isEqualTo(5_000.0);
+        assertThat(registry.get("dbpulse.metrics.snapshot.refresh").timer().count()).isEqualTo(1);
+        verify(orderRepository, times(1)).count();
+        verify(clientRepository, times(1)).countByActiveTrue();
+    }
+
+    @Test
+    @DisplayName("Should keep the previous value of a metric whose query fails")
+    void testFailedSource() {
+        // Given
+        when(clientRepository.countByActiveTrue()).thenReturn(12L);
+        when(orderRepository.count()).thenReturn(340L).thenThrow(new QueryTimeoutException("statement timeout"));
+        collector.refresh();
+
+        // When
+        when(clientRepository.countByActiveTrue()).thenReturn(15L);
+        collector.refresh();
+
+        // Then
+        assertThat(collector.value(Metric.ACTIVE_CLIENTS)).isEqualTo(15.0);
+        assertThat(collector.value(Metric.TOTAL_ORDERS)).isEqualTo(340.0);
+        assertThat(registry.get("dbpulse.metrics.snapshot.age").tag("metric", "orders.total").gauge().value())
+                .isNotNaN();
+    }
+
+    @Test
+    @DisplayName("Should report zero values and no age before the first refresh")
+    void testBeforeFirstRefresh() {
+        assertThat(registry.get("dbpulse.clients.active").gauge().value()).isZero();
+        assertThat(registry.get("dbpulse.metrics.snapshot.age").tag("metric", "clients.active").gauge().value())
+                .isNaN();
+        verifyNoInteractions(clientRepository, orderRepository, productRepository, inventoryTracker);
+    }
+}
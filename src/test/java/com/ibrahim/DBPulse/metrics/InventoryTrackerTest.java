@@ -0,0 +1,73 @@
+package com.ibrahim.DBPulse.metrics;
+
+import com.ibrahim.DBPulse.repositories.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for InventoryTracker.
+ */
+@ExtendWith(MockitoExtension.class)
+class InventoryTrackerTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private InventoryTracker inventoryTracker;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should seed total from a single SUM query and apply deltas")
+    void testSeedAndAdjust() {
+        when(productRepository.sumStockQuantity()).thenReturn(100L);
+
+        inventoryTracker.seed();
+        inventoryTracker.adjust(-5);
+        inventoryTracker.adjust(20);
+
+        assertThat(inventoryTracker.getTotal()).isEqualTo(115L);
+        verify(productRepository, times(1)).sumStockQuantity();
+        verify(productRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Should apply delta only after the transaction commits")
+    void testAdjust_DeferredUntilCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        inventoryTracker.adjust(-3);
+        assertThat(inventoryTracker.getTotal()).isZero();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(inventoryTracker.getTotal()).isEqualTo(-3L);
+    }
+
+    @Test
+    @DisplayName("Should report and correct drift on reconciliation")
+    void testReconcile_CorrectsDrift() {
+        when(productRepository.sumStockQuantity()).thenReturn(100L, 90L);
+        inventoryTracker.seed();
+
+        inventoryTracker.reconcile();
+
+        assertThat(inventoryTracker.getTotal()).isEqualTo(90L);
+        assertThat(inventoryTracker.getLastDrift()).isEqualTo(-10L);
+    }
+}
@@ -0,0 +1,73 @@
+package com.ibrahim.DBPulse.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the SpaceSaving heavy-hitters sketch.
+ */
+class SpaceSavingTest {
+
+    @Test
+    @DisplayName("Should count exactly while keys fit in the sketch")
+    void testExactBelowCapacity() {
+        SpaceSaving sketch = new SpaceSaving(10);
+        for (int i = 1; i <= 5; i++) {
+            for (int n = 0; n < i; n++) {
+                sketch.add(i, 2.5);
+            }
+        }
+
+        List<SpaceSaving.Entry> top = sketch.top(3);
+
+        assertThat(top).extracting(SpaceSaving.Entry::key).containsExactly(5L, 4L, 3L);
+        assertThat(top).extracting(SpaceSaving.Entry::count).containsExactly(12.5, 10.0, 7.5);
+        assertThat(top).allSatisfy(entry -> assertThat(entry.error()).isZero());
+        assertThat(sketch.total()).isEqualTo(37.5);
+    }
+
+    @Test
+    @DisplayName("Should find the heavy hitters of a skewed stream with bounded error")
+    void testSkewedStream() {
+        SpaceSaving sketch = new SpaceSaving(50);
+        Map<Long, Double> exact = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            // Ten heavy clients over a long tail of 100k occasional ones
+            long key = random.nextInt(4) == 0 ? random.nextInt(10) : 1_000 + random.nextInt(100_000);
+            double weight = 1 + random.nextInt(100);
+            sketch.add(key, weight);
+            exact.merge(key, weight, Double::sum);
+        }
+
+        List<SpaceSaving.Entry> top = sketch.top(10);
+
+        assertThat(top).extracting(SpaceSaving.Entry::key)
+                .containsExactlyInAnyOrder(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L);
+        double maxError = sketch.total() / sketch.capacity();
+        for (SpaceSaving.Entry entry : top) {
+            double trueWeight = exact.get(entry.key());
+            assertThat(entry.count()).isGreaterThanOrEqualTo(trueWeight);
+            assertThat(entry.count() - entry.error()).isLessThanOrEqualTo(trueWeight);
+            assertThat(entry.error()).isLessThanOrEqualTo(maxError);
+        }
+    }
+
+    @Test
+    @DisplayName("Should ignore non-positive weights")
+    void testIgnoresNonPositiveWeights() {
+        SpaceSaving sketch = new SpaceSaving(2);
+        sketch.add(1, 0);
+        sketch.add(1, -3);
+
+        assertThat(sketch.top(5)).isEmpty();
+        assertThat(sketch.total()).isZero();
+    }
+}
@@ -0,0 +1,194 @@
+package com.ibrahim.DBPulse.monitoring.anomaly;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for AnomalyDetector models and event emission.
+ */
+class AnomalyDetectorTest {
+
+    private static final long STEP = 5000;
+    private static final long HOUR = 3_600_000;
+    private static final long DAY = 24 * HOUR;
+
+    private SimpleMeterRegistry registry;
+    private AnomalyProperties properties;
+    private double value;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        properties = new AnomalyProperties();
+        properties.getSeasonal().setWarmup(10);
+        now = 1_700_000_000_000L;
+    }
+
+    private AnomalyDetector detector(AnomalyDetector.Kind kind) {
+        AnomalyDetector.Signal signal = new AnomalyDetector.Signal("test.signal", kind, null,
+                (meters, sink) -> sink.accept("", value, 0));
+        return new AnomalyDetector(registry, properties, null, new ObjectMapper(), List.of(signal));
+    }
+
+    private List<AnomalyEvent> step(AnomalyDetector detector, double next) {
+        value = next;
+        now += STEP;
+        return detector.evaluate(now);
+    }
+
+    @Test
+    @DisplayName("Should stay quiet on noisy but stable input and flag a spike")
+    void testEwmaSpike() {
+        AnomalyDetector detector = detector(AnomalyDetector.Kind.GAUGE);
+        Random random = new Random(1);
+        for (int i = 0; i < 100; i++) {
+            assertThat(step(detector, 100 + random.nextGaussian() * 5)).isEmpty();
+        }
+
+        List<AnomalyEvent> events = step(detector, 400);
+
+        assertThat(events).singleElement().satisfies(event -> {
+            assertThat(event.series()).isEqualTo("test.signal");
+            assertThat(event.model()).isEqualTo("ewma");
+            assertThat(event.expected()).isCloseTo(100, within(5.0));
+            assertThat(event.zScore()).isGreaterThan(properties.getThreshold());
+        });
+        Counter counter = registry.find("dbpulse.anomalies").tag("signal", "test.signal").counter();
+        assertThat(counter).isNotNull();
+        assertThat(counter.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should emit at most one event per series within the cooldown")
+    void testCooldown() {
+        AnomalyDetector detector = detector(AnomalyDetector.Kind.GAUGE);
+        for (int i = 0; i < 50; i++) {
+            step(detector, 100 + (i % 2));
+        }
+
+        assertThat(step(detector, 1000)).hasSize(1);
+        assertThat(step(detector, 5000)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should derive rates from cumulative counts")
+    void testRate() {
+        AnomalyDetector detector = detector(AnomalyDetector.Kind.RATE);
+        double count = 0;
+        for (int i = 0; i < 60; i++) {
+            // About 10 per second
+            count += 50 + (i % 3);
+            assertThat(step(detector, count)).isEmpty();
+        }
+
+        List<AnomalyEvent> events = step(detector, count + 500);
+
+        assertThat(events).singleElement().satisfies(event -> assertThat(event.value()).isCloseTo(100, within(0.01)));
+    }
+
+    @Test
+    @DisplayName("Should flag a value that is normal for the day but not for its hour")
+    void testSeasonal() {
+        properties.getSeasonal().setPeriod(Duration.ofSeconds(20));
+        properties.getSeasonal().setSlots(2);
+        AnomalyDetector detector = detector(AnomalyDetector.Kind.GAUGE);
+        Random random = new Random(3);
+        // Two steps per slot: high in the first half of each period, low in the second
+        for (int i = 0; i < 120; i++) {
+            boolean high = ((now + STEP) / 10_000) % 2 == 0;
+            assertThat(step(detector, (high ? 100 : 10) + random.nextGaussian())).isEmpty();
+        }
+        while (((now + STEP) / 10_000) % 2 != 0) {
+            step(detector, 10);
+        }
+
+        List<AnomalyEvent> events = step(detector, 10);
+
+        assertThat(events).singleElement().satisfies(event -> {
+            assertThat(event.model()).isEqualTo("seasonal");
+            assertThat(event.expected()).isCloseTo(100, within(5.0));
+        });
+    }
+
+    @Test
+    @DisplayName("Should compare an hour with the same hour on previous days, not with its last minutes")
+    void testSeasonalAcrossDays() {
+        // Given: the default one-day period in hourly slots, 720 steps per slot visit
+        properties.getSeasonal().setWarmup(new AnomalyProperties.Seasonal().getWarmup());
+        AnomalyDetector detector = detector(AnomalyDetector.Kind.GAUGE);
+        Random random = new Random(5);
+        now = Math.floorDiv(now, DAY) * DAY;
+        long start = now;
+
+        // When: two normal days, then a day whose 18:00 hour runs at the daily peak
+        List<AnomalyEvent> earlyEvents = new ArrayList<>();
+        while (now + STEP < start + 2 * DAY + 18 * HOUR) {
+            assertThat(step(detector, daily(random))).isEmpty();
+        }
+        while (now + STEP < start + 2 * DAY + 19 * HOUR) {
+            earlyEvents.addAll(step(detector, 250 + random.nextGaussian() * 3));
+        }
+        // The EWMA flags the return to normal; let it settle
+        while (now + STEP < start + 2 * DAY + 19 * HOUR + 30 * 60_000) {
+            step(detector, daily(random));
+        }
+        while (now + STEP < start + 4 * DAY + 6 * HOUR) {
+            assertThat(step(detector, daily(random))).isEmpty();
+        }
+        // and, on the fifth day, 06:00 (the peak) drops to the daily mean for the whole hour
+        List<AnomalyEvent> lateEvents = new ArrayList<>();
+        while (now + STEP < start + 4 * DAY + 7 * HOUR) {
+            List<AnomalyEvent> events = step(detector, 150 + random.nextGaussian() * 3);
+            if (now >= start + 4 * DAY + 6 * HOUR + 30 * 60_000) {
+                lateEvents.addAll(events);
+            }
+        }
+
+        // Then: slots only fire once they have seen three days
+        assertThat(earlyEvents).extracting(AnomalyEvent::model).doesNotContain("seasonal");
+        // half an hour into the drop the hour slot still expects the peak of previous days
+        assertThat(lateEvents).isNotEmpty().allSatisfy(event -> {
+            assertThat(event.model()).isEqualTo("seasonal");
+            assertThat(event.expected()).isCloseTo(250, within(10.0));
+        });
+    }
+
+    /**
+     * A daily cycle between 50 and 250, peaking at 06:00, with a little noise.
+     */
+    private double daily(Random random) {
+        double phase = 2 * Math.PI * Math.floorMod(now + STEP, DAY) / DAY;
+        return 150 + 100 * Math.sin(phase) + random.nextGaussian() * 3;
+    }
+
+    @Test
+    @DisplayName("Should score a series that sat at zero against the absolute deviation floor")
+    void testZeroBaseline() {
+        // Given: a signal constant at zero, so its variance is zero too
+        AnomalyDetector detector = detector(AnomalyDetector.Kind.GAUGE);
+        for (int i = 0; i < 40; i++) {
+            assertThat(step(detector, 0)).isEmpty();
+        }
+
+        // When / Then: a small value stays within the floor, a large one scores finitely
+        assertThat(step(detector, 0.1)).isEmpty();
+        List<AnomalyEvent> events = step(detector, 1.0);
+
+        assertThat(events).singleElement().satisfies(event -> {
+            assertThat(event.zScore()).isCloseTo(19.9, within(0.5));
+            assertThat(event.expected()).isCloseTo(0, within(0.01));
+        });
+    }
+}
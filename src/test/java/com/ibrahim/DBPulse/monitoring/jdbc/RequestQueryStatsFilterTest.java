@@ -0,0 +1,89 @@
+package com.ibrahim.DBPulse.monitoring.jdbc;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for per-request statement and row counts through the monitoring proxy.
+ */
+class RequestQueryStatsFilterTest {
+
+    private SimpleMeterRegistry registry;
+    private JdbcTemplate jdbcTemplate;
+    private RequestQueryStatsFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:request-stats-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        registry = new SimpleMeterRegistry();
+        JdbcMonitoringProperties properties = new JdbcMonitoringProperties();
+        // Wrapped the way JdbcMonitoringConfig wraps the application DataSource
+        DataSource dataSource = ProxyDataSourceBuilder.create("test", h2)
+                .listener(new StatementMetricsListener(registry, properties, new SlowQueryLog(10)))
+                .proxyResultSet(new ResultSetRowCounter())
+                .build();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE items (id INT PRIMARY KEY, name VARCHAR(20))");
+        filter = new RequestQueryStatsFilter(registry, properties);
+    }
+
+    @Test
+    @DisplayName("Should count the statements and fetched rows of a request")
+    void testStatementAndRowCounts() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/items");
+
+        // When: 3 inserts, a 3-row select and a 1-row count
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/items");
+            for (int i = 1; i <= 3; i++) {
+                jdbcTemplate.update("INSERT INTO items (id, name) VALUES (?, ?)", i, "item" + i);
+            }
+            assertThat(jdbcTemplate.queryForList("SELECT name FROM items ORDER BY id", String.class)).hasSize(3);
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM items", Long.class)).isEqualTo(3);
+        });
+
+        // Then
+        DistributionSummary statements = registry.get("dbpulse.request.statements")
+                .tag("uri", "/api/items").tag("method", "GET").summary();
+        DistributionSummary rows = registry.get("dbpulse.request.rows")
+                .tag("uri", "/api/items").tag("method", "GET").summary();
+        assertThat(statements.count()).isEqualTo(1);
+        assertThat(statements.totalAmount()).isEqualTo(5);
+        assertThat(rows.totalAmount()).isEqualTo(4);
+        assertThat(RequestQueryStats.current()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should leave result sets outside a request uncounted but working")
+    void testOutsideRequest() throws Exception {
+        jdbcTemplate.update("INSERT INTO items (id, name) VALUES (1, 'a')");
+
+        try (Connection connection = jdbcTemplate.getDataSource().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT id, name FROM items")) {
+            assertThat(resultSet.next()).isTrue();
+            assertThat(resultSet.getString("name")).isEqualTo("a");
+            assertThat(resultSet.isWrapperFor(ResultSet.class)).isTrue();
+            assertThat(resultSet.next()).isFalse();
+        }
+        assertThat(registry.find("dbpulse.request.rows").summary()).isNull();
+    }
+}
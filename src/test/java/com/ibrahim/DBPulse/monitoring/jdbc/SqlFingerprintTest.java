@@ -0,0 +1,42 @@
+package com.ibrahim.DBPulse.monitoring.jdbc;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for SqlFingerprint normalization.
+ */
+class SqlFingerprintTest {
+
+    @Test
+    @DisplayName("Should strip string and numeric literals")
+    void testNormalize_StripsLiterals() {
+        SqlFingerprint a = SqlFingerprint.of("SELECT * FROM clients WHERE email = 'a@b.com' AND id = 42");
+        SqlFingerprint b = SqlFingerprint.of("select *  from clients\n where email = 'it''s@x.org' and id = 7");
+
+        assertThat(a.sql()).isEqualTo("select * from clients where email = ? and id = ?");
+        assertThat(a.id()).isEqualTo(b.id());
+        assertThat(a.operation()).isEqualTo("select");
+    }
+
+    @Test
+    @DisplayName("Should collapse IN lists of any length")
+    void testNormalize_CollapsesInLists() {
+        SqlFingerprint two = SqlFingerprint.of("select p1_0.id from products p1_0 where p1_0.id in (?, ?)");
+        SqlFingerprint five = SqlFingerprint.of("select p1_0.id from products p1_0 where p1_0.id in (?,?,?,?,?)");
+
+        assertThat(two.sql()).isEqualTo("select p1_0.id from products p1_0 where p1_0.id in (?...)");
+        assertThat(two.id()).isEqualTo(five.id());
+    }
+
+    @Test
+    @DisplayName("Should collapse multi-row VALUES lists and positional parameters")
+    void testNormalize_CollapsesValuesLists() {
+        SqlFingerprint fingerprint = SqlFingerprint.of("insert into order_items (order_id, quantity) values ($1, $2), ($3, $4)");
+
+        assertThat(fingerprint.sql()).isEqualTo("insert into order_items (order_id, quantity) values (?, ?), ...");
+        assertThat(fingerprint.operation()).isEqualTo("insert");
+    }
+}
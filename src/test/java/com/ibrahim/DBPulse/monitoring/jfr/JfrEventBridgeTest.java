@@ -0,0 +1,78 @@
+package com.ibrahim.DBPulse.monitoring.jfr;
+
+import com.ibrahim.DBPulse.monitoring.jfr.JfrFrameAggregator.Category;
+import com.ibrahim.DBPulse.monitoring.jfr.JfrFrameAggregator.FrameStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static com.ibrahim.DBPulse.monitoring.jfr.JfrFrameAggregatorTest.frame;
+import static com.ibrahim.DBPulse.monitoring.jfr.JfrFrameAggregatorTest.stack;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for JfrEventBridge thread grouping and event handling.
+ */
+class JfrEventBridgeTest {
+
+    private static final Instant MINUTE = Instant.parse("2026-01-01T10:00:00Z");
+
+    @Test
+    @DisplayName("Should group threads by name without their trailing number")
+    void testThreadGroup() {
+        assertThat(JfrEventBridge.threadGroup(thread("http-nio-8080-exec-12", false))).isEqualTo("http-nio-8080-exec");
+        assertThat(JfrEventBridge.threadGroup(thread("ForkJoinPool-1-worker-3", false))).isEqualTo("ForkJoinPool-1-worker");
+        assertThat(JfrEventBridge.threadGroup(thread("order-intake-0", true))).isEqualTo("order-intake");
+        assertThat(JfrEventBridge.threadGroup(thread("main", false))).isEqualTo("main");
+        assertThat(JfrEventBridge.threadGroup(thread("", true))).isEqualTo("virtual");
+        assertThat(JfrEventBridge.threadGroup(thread(null, false))).isEqualTo("unnamed");
+        assertThat(JfrEventBridge.threadGroup(null)).isEqualTo("unknown");
+    }
+
+    @Test
+    @DisplayName("Should count allocation samples per thread group and add them to the frame totals")
+    void testAllocation() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        JfrEventBridge bridge = new JfrEventBridge(registry, new JfrProperties());
+        RecordedStackTrace stack = stack(
+                frame("java.util.ArrayList", "grow", 237),
+                frame("com.ibrahim.DBPulse.services.OrderService", "createOrder", 120));
+
+        // When
+        bridge.onAllocation(allocation("http-nio-8080-exec-1", 4096, stack));
+        bridge.onAllocation(allocation("http-nio-8080-exec-2", 1024, stack));
+        bridge.onAllocation(allocation("order-intake-0", 512, stack));
+
+        // Then
+        assertThat(registry.get("dbpulse.jfr.allocation").tag("thread", "http-nio-8080-exec").counter().count())
+                .isEqualTo(5120.0);
+        assertThat(registry.get("dbpulse.jfr.allocation").tag("thread", "order-intake").counter().count())
+                .isEqualTo(512.0);
+        assertThat(bridge.top(Category.ALLOCATION, MINUTE, 10))
+                .containsExactly(new FrameStats("OrderService.createOrder:120", "ArrayList.grow:237", 3, 5632));
+    }
+
+    private static RecordedEvent allocation(String threadName, long weight, RecordedStackTrace stack) {
+        RecordedThread thread = thread(threadName, false);
+        RecordedEvent event = mock(RecordedEvent.class);
+        when(event.getLong("weight")).thenReturn(weight);
+        when(event.getThread("eventThread")).thenReturn(thread);
+        when(event.getStartTime()).thenReturn(MINUTE);
+        when(event.getStackTrace()).thenReturn(stack);
+        return event;
+    }
+
+    private static RecordedThread thread(String name, boolean virtual) {
+        RecordedThread thread = mock(RecordedThread.class);
+        when(thread.getJavaName()).thenReturn(name);
+        when(thread.isVirtual()).thenReturn(virtual);
+        return thread;
+    }
+}
@@ -0,0 +1,152 @@
+package com.ibrahim.DBPulse.monitoring.jfr;
+
+import com.ibrahim.DBPulse.monitoring.jfr.JfrFrameAggregator.Category;
+import com.ibrahim.DBPulse.monitoring.jfr.JfrFrameAggregator.FrameStats;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for JfrFrameAggregator frame attribution and per-minute top-N logic.
+ */
+class JfrFrameAggregatorTest {
+
+    private static final Instant MINUTE = Instant.parse("2026-01-01T10:00:00Z");
+
+    @Test
+    @DisplayName("Should attribute an event to the first application frame and the top frame")
+    void testApplicationFrame() {
+        // Given
+        JfrFrameAggregator aggregator = new JfrFrameAggregator(5, 100);
+        RecordedStackTrace stack = stack(
+                frame("java.util.HashMap", "resize", 10),
+                frame("org.hibernate.engine.Loader", "load", 55),
+                frame("com.ibrahim.DBPulse.monitoring.jdbc.ResultSetRowCounter", "invoke", 40),
+                frame("com.ibrahim.DBPulse.services.OrderService$$SpringCGLIB$$0", "createOrder", 0),
+                frame("com.ibrahim.DBPulse.services.OrderService", "createOrder", 120));
+
+        // When
+        aggregator.add(Category.ALLOCATION, MINUTE, stack, 1024);
+        aggregator.add(Category.ALLOCATION, MINUTE.plusSeconds(5), stack, 512);
+
+        // Then
+        assertThat(aggregator.top(Category.ALLOCATION, MINUTE, 10))
+                .containsExactly(new FrameStats("OrderService.createOrder:120", "HashMap.resize:10", 2, 1536));
+        assertThat(aggregator.top(Category.CONTENTION, MINUTE, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should fall back to the first non-JDK frame, then to the top frame")
+    void testFallbackFrames() {
+        // Given
+        JfrFrameAggregator aggregator = new JfrFrameAggregator(5, 100);
+
+        // When
+        aggregator.add(Category.SOCKET_READ, MINUTE, stack(
+                frame("sun.nio.ch.NioSocketImpl", "read", 300),
+                frame("org.postgresql.core.PGStream", "receiveChar", 0)), 40);
+        aggregator.add(Category.SOCKET_READ, MINUTE, stack(
+                frame("java.lang.Object", "wait", 0),
+                frame("java.lang.Thread", "run", 1583)), 20);
+        aggregator.add(Category.SOCKET_READ, MINUTE, null, 10);
+
+        // Then
+        assertThat(aggregator.top(Category.SOCKET_READ, MINUTE, 10)).containsExactly(
+                new FrameStats("PGStream.receiveChar", "NioSocketImpl.read:300", 1, 40),
+                new FrameStats("Object.wait", "Object.wait", 1, 20),
+                new FrameStats("unknown", "unknown", 1, 10));
+    }
+
+    @Test
+    @DisplayName("Should merge buckets in the window and rank frames by value")
+    void testTopAcrossBuckets() {
+        // Given
+        JfrFrameAggregator aggregator = new JfrFrameAggregator(5, 100);
+        RecordedStackTrace orders = stack(frame("com.ibrahim.DBPulse.services.OrderService", "createOrder", 120));
+        RecordedStackTrace products = stack(frame("com.ibrahim.DBPulse.services.ProductService", "getProduct", 42));
+        RecordedStackTrace clients = stack(frame("com.ibrahim.DBPulse.services.ClientService", "getClient", 7));
+
+        // When
+        aggregator.add(Category.CONTENTION, MINUTE, orders, 500);
+        aggregator.add(Category.CONTENTION, MINUTE.plusSeconds(60), products, 30);
+        aggregator.add(Category.CONTENTION, MINUTE.plusSeconds(70), orders, 5);
+        aggregator.add(Category.CONTENTION, MINUTE.plusSeconds(125), clients, 20);
+        aggregator.add(Category.CONTENTION, MINUTE.plusSeconds(130), products, 30);
+
+        // Then
+        assertThat(aggregator.top(Category.CONTENTION, MINUTE, 10)).containsExactly(
+                new FrameStats("OrderService.createOrder:120", "OrderService.createOrder:120", 2, 505),
+                new FrameStats("ProductService.getProduct:42", "ProductService.getProduct:42", 2, 60),
+                new FrameStats("ClientService.getClient:7", "ClientService.getClient:7", 1, 20));
+        // The first minute is outside the window
+        assertThat(aggregator.top(Category.CONTENTION, MINUTE.plusSeconds(60), 2)).containsExactly(
+                new FrameStats("ProductService.getProduct:42", "ProductService.getProduct:42", 2, 60),
+                new FrameStats("ClientService.getClient:7", "ClientService.getClient:7", 1, 20));
+    }
+
+    @Test
+    @DisplayName("Should fold frames past the per-bucket limit into other")
+    void testFrameLimit() {
+        // Given
+        JfrFrameAggregator aggregator = new JfrFrameAggregator(5, 2);
+
+        // When
+        aggregator.add(Category.PINNED, MINUTE, stack(frame("com.ibrahim.DBPulse.a.A", "a", 1)), 1);
+        aggregator.add(Category.PINNED, MINUTE, stack(frame("com.ibrahim.DBPulse.b.B", "b", 1)), 2);
+        aggregator.add(Category.PINNED, MINUTE, stack(frame("com.ibrahim.DBPulse.c.C", "c", 1)), 3);
+        aggregator.add(Category.PINNED, MINUTE, stack(frame("com.ibrahim.DBPulse.d.D", "d", 1)), 4);
+        aggregator.add(Category.PINNED, MINUTE, stack(frame("com.ibrahim.DBPulse.a.A", "a", 1)), 5);
+
+        // Then
+        List<FrameStats> top = aggregator.top(Category.PINNED, MINUTE, 10);
+        assertThat(top).containsExactly(
+                new FrameStats(JfrFrameAggregator.OTHER, JfrFrameAggregator.OTHER, 2, 7),
+                new FrameStats("A.a:1", "A.a:1", 2, 6),
+                new FrameStats("B.b:1", "B.b:1", 1, 2));
+    }
+
+    @Test
+    @DisplayName("Should reuse the oldest bucket and drop events that arrive after it moved on")
+    void testRingReuse() {
+        // Given
+        JfrFrameAggregator aggregator = new JfrFrameAggregator(2, 100);
+        RecordedStackTrace stack = stack(frame("com.ibrahim.DBPulse.services.OrderService", "createOrder", 120));
+        aggregator.add(Category.ALLOCATION, MINUTE, stack, 100);
+
+        // When
+        aggregator.add(Category.ALLOCATION, MINUTE.plusSeconds(120), stack, 10);
+        aggregator.add(Category.ALLOCATION, MINUTE.plusSeconds(30), stack, 1000);
+
+        // Then
+        assertThat(aggregator.top(Category.ALLOCATION, MINUTE, 10)).containsExactly(
+                new FrameStats("OrderService.createOrder:120", "OrderService.createOrder:120", 1, 10));
+    }
+
+    static RecordedStackTrace stack(RecordedFrame... frames) {
+        RecordedStackTrace stack = mock(RecordedStackTrace.class);
+        when(stack.getFrames()).thenReturn(List.of(frames));
+        return stack;
+    }
+
+    static RecordedFrame frame(String type, String method, int line) {
+        RecordedClass recordedClass = mock(RecordedClass.class);
+        when(recordedClass.getName()).thenReturn(type);
+        RecordedMethod recordedMethod = mock(RecordedMethod.class);
+        when(recordedMethod.getType()).thenReturn(recordedClass);
+        when(recordedMethod.getName()).thenReturn(method);
+        RecordedFrame frame = mock(RecordedFrame.class);
+        when(frame.isJavaFrame()).thenReturn(true);
+        when(frame.getMethod()).thenReturn(recordedMethod);
+        when(frame.getLineNumber()).thenReturn(line);
+        return frame;
+    }
+}
@@ -0,0 +1,111 @@
+package com.ibrahim.DBPulse.monitoring.latency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for LatencyRecorder interval percentiles.
+ */
+class LatencyRecorderTest {
+
+    private LatencyProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LatencyProperties();
+        properties.setMaxSeries(3);
+    }
+
+    @Test
+    @DisplayName("Should report percentiles within the configured precision for one interval")
+    void testIntervalPercentiles() {
+        LatencyRecorder recorder = new LatencyRecorder(properties);
+        LatencyRecorder.Series series = recorder.series(LatencyRecorder.SERVICE, "OrderService.createOrder");
+        for (int millis = 1; millis <= 1000; millis++) {
+            series.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+
+        recorder.rotate();
+
+        LatencyRecorder.IntervalStats stats = recorder.latest(null).get(0);
+        assertThat(stats.count()).isEqualTo(1000);
+        assertThat(stats.p50Millis()).isCloseTo(500, within(5.0));
+        assertThat(stats.p99Millis()).isCloseTo(990, within(10.0));
+        assertThat(stats.p999Millis()).isCloseTo(999, within(10.0));
+        assertThat(stats.maxMillis()).isCloseTo(1000, within(10.0));
+    }
+
+    @Test
+    @DisplayName("Should start every interval empty")
+    void testRotationResetsInterval() {
+        LatencyRecorder recorder = new LatencyRecorder(properties);
+        LatencyRecorder.Series series = recorder.series(LatencyRecorder.HTTP, "GET /api/orders");
+        series.record(TimeUnit.MILLISECONDS.toNanos(800));
+        recorder.rotate();
+        series.record(TimeUnit.MILLISECONDS.toNanos(2));
+
+        recorder.rotate();
+
+        LatencyRecorder.IntervalStats stats = recorder.latest(LatencyRecorder.HTTP).get(0);
+        assertThat(stats.count()).isEqualTo(1);
+        assertThat(stats.maxMillis()).isCloseTo(2, within(0.05));
+    }
+
+    @Test
+    @DisplayName("Should clamp values above the trackable range instead of failing")
+    void testClampsHighValues() {
+        LatencyRecorder recorder = new LatencyRecorder(properties);
+        recorder.series(LatencyRecorder.HTTP, "GET /api/metrics/live").record(TimeUnit.HOURS.toNanos(2));
+
+        recorder.rotate();
+
+        assertThat(recorder.latest(null).get(0).maxMillis()).isCloseTo(60_000, within(600.0));
+    }
+
+    @Test
+    @DisplayName("Should not lose values recorded concurrently")
+    void testConcurrentRecording() throws InterruptedException {
+        LatencyRecorder recorder = new LatencyRecorder(properties);
+        LatencyRecorder.Series series = recorder.series(LatencyRecorder.HTTP, "POST /api/orders");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int thread = 0; thread < 8; thread++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    series.record(TimeUnit.MICROSECONDS.toNanos(100 + i % 50));
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        recorder.rotate();
+
+        assertThat(recorder.latest(null).get(0).count()).isEqualTo(80_000);
+    }
+
+    @Test
+    @DisplayName("Should share an 'other' series per kind beyond max-series")
+    void testSeriesCap() {
+        LatencyRecorder recorder = new LatencyRecorder(properties);
+        for (int i = 0; i < 5; i++) {
+            recorder.series(LatencyRecorder.HTTP, "GET /api/endpoint" + i).record(1_000_000);
+        }
+
+        recorder.rotate();
+
+        List<LatencyRecorder.IntervalStats> stats = recorder.latest(LatencyRecorder.HTTP);
+        assertThat(recorder.seriesCount()).isEqualTo(4);
+        assertThat(stats).filteredOn(s -> s.name().equals(LatencyRecorder.OTHER))
+                .singleElement()
+                .satisfies(other -> assertThat(other.count()).isEqualTo(2));
+        assertThat(recorder.footprintPerSeries()).isPositive();
+    }
+}
@@ -0,0 +1,107 @@
+package com.ibrahim.DBPulse.monitoring.live;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for LiveMetricsPublisher interval rates and histogram percentiles.
+ */
+class LiveMetricsPublisherTest {
+
+    private SimpleMeterRegistry registry;
+    private LiveMetricsPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        publisher = new LiveMetricsPublisher(registry,
+                new SseBroadcaster("test", 4, 10, 60_000, registry), new ObjectMapper());
+    }
+
+    @Test
+    @DisplayName("Should interpolate percentiles inside the buckets of the interval's requests")
+    void testPercentiles() {
+        // Given: buckets at 10, 50, 100 and 500 ms
+        Timer orders = requests("/api/orders");
+        Timer products = requests("/api/products");
+        record(orders, 200, 100);
+        assertThat(publisher.sample(1_000)).isNull();
+
+        // When: 40 requests under 10 ms, 50 under 50 ms and 10 under 500 ms
+        record(orders, 5, 20);
+        record(products, 5, 20);
+        record(orders, 30, 50);
+        record(products, 200, 10);
+        LiveMetricsFrame frame = publisher.sample(2_000);
+
+        // Then: earlier requests are diffed away
+        assertThat(frame.intervalMillis()).isEqualTo(1_000);
+        assertThat(frame.requestsPerSecond()).isEqualTo(100.0);
+        // Rank 50 is the 10th of 50 requests between 10 and 50 ms
+        assertThat(frame.latencyP50Millis()).isCloseTo(18.0, within(1e-9));
+        // Rank 95 is the 5th of 10 requests between 100 and 500 ms
+        assertThat(frame.latencyP95Millis()).isCloseTo(300.0, within(1e-9));
+        assertThat(frame.latencyP99Millis()).isCloseTo(460.0, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Should report no percentiles and zero rates for an idle interval")
+    void testIdleInterval() {
+        // Given
+        Timer orders = requests("/api/orders");
+        record(orders, 30, 10);
+        publisher.sample(1_000);
+
+        // When
+        LiveMetricsFrame frame = publisher.sample(1_500);
+
+        // Then
+        assertThat(frame.requestsPerSecond()).isZero();
+        assertThat(frame.latencyP50Millis()).isNull();
+        assertThat(frame.latencyP99Millis()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should leave the live stream's own connections out and rate orders per second")
+    void testStreamAndOrders() {
+        // Given
+        Timer orders = requests("/api/orders");
+        Timer stream = requests(LiveMetricsPublisher.STREAM_URI);
+        Counter created = Counter.builder("dbpulse.orders.created").register(registry);
+        publisher.sample(1_000);
+
+        // When
+        record(orders, 30, 4);
+        record(stream, 600_000, 2);
+        created.increment(6);
+        LiveMetricsFrame frame = publisher.sample(3_000);
+
+        // Then
+        assertThat(frame.requestsPerSecond()).isEqualTo(2.0);
+        assertThat(frame.latencyP99Millis()).isLessThanOrEqualTo(50.0);
+        assertThat(frame.ordersPerSecond()).isEqualTo(3.0);
+    }
+
+    private Timer requests(String uri) {
+        return Timer.builder("http.server.requests")
+                .tag("uri", uri)
+                .serviceLevelObjectives(Duration.ofMillis(10), Duration.ofMillis(50), Duration.ofMillis(100),
+                        Duration.ofMillis(500))
+                .register(registry);
+    }
+
+    private static void record(Timer timer, long millis, int times) {
+        for (int i = 0; i < times; i++) {
+            timer.record(Duration.ofMillis(millis));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.ibrahim.DBPulse.monitoring.live;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for SseBroadcaster fan-out and per-subscriber buffering.
+ */
+class SseBroadcasterTest {
+
+    @Test
+    @DisplayName("Should drop the oldest frames of a slow subscriber without holding up the others")
+    void testSlowSubscriber() throws Exception {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SseBroadcaster broadcaster = new SseBroadcaster("test", 4, 10, 60_000, registry);
+        RecordingEmitter slow = new RecordingEmitter(true);
+        RecordingEmitter fast = new RecordingEmitter(false);
+        broadcaster.subscribe(slow);
+        broadcaster.subscribe(fast);
+        broadcaster.publish("metrics", payload(1));
+        assertThat(slow.sending.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(fast.sent.tryAcquire(5, TimeUnit.SECONDS)).isTrue();
+
+        // When: the slow client is stuck sending frame 1 while the fast one keeps up
+        for (int i = 2; i <= 10; i++) {
+            broadcaster.publish("metrics", payload(i));
+            assertThat(fast.sent.tryAcquire(5, TimeUnit.SECONDS)).isTrue();
+        }
+        slow.release.countDown();
+
+        // Then
+        assertThat(slow.sent.tryAcquire(5, 5, TimeUnit.SECONDS)).isTrue();
+        assertThat(fast.payloads).containsExactly(payload(1), payload(2), payload(3), payload(4), payload(5),
+                payload(6), payload(7), payload(8), payload(9), payload(10));
+        assertThat(slow.payloads).containsExactly(payload(1), payload(7), payload(8), payload(9), payload(10));
+        assertThat(registry.get("dbpulse.sse.dropped").tag("stream", "test").counter().count()).isEqualTo(5);
+        broadcaster.closeAll();
+    }
+
+    @Test
+    @DisplayName("Should refuse subscribers past the limit and forget closed ones")
+    void testSubscriberLimit() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SseBroadcaster broadcaster = new SseBroadcaster("test", 4, 1, 60_000, registry);
+        broadcaster.subscribe(new RecordingEmitter(false));
+
+        // When / Then
+        assertThatThrownBy(() -> broadcaster.subscribe(new RecordingEmitter(false)))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Too many subscribers");
+        assertThat(registry.get("dbpulse.sse.subscribers").tag("stream", "test").gauge().value()).isEqualTo(1);
+
+        broadcaster.closeAll();
+        assertThat(broadcaster.hasSubscribers()).isFalse();
+        assertThatCode(() -> broadcaster.subscribe(new RecordingEmitter(false))).doesNotThrowAnyException();
+        broadcaster.closeAll();
+    }
+
+    private static String payload(int n) {
+        return "{\"n\":" + n + "}";
+    }
+
+    /**
+     * Records the JSON payload of each frame; a stalled one blocks on its first send until released.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<Object> payloads = new CopyOnWriteArrayList<>();
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final Semaphore sent = new Semaphore(0);
+        private final CountDownLatch release;
+
+        private RecordingEmitter(boolean stalled) {
+            super(60_000L);
+            this.release = new CountDownLatch(stalled ? 1 : 0);
+        }
+
+        @Override
+        public void send(Set<ResponseBodyEmitter.DataWithMediaType> items) {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            items.stream()
+                    .filter(item -> MediaType.APPLICATION_JSON.equals(item.getMediaType()))
+                    .forEach(item -> payloads.add(item.getData()));
+            sent.release();
+        }
+    }
+}
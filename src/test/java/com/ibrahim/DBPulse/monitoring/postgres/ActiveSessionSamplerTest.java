@@ -0,0 +1,86 @@
+package com.ibrahim.DBPulse.monitoring.postgres;
+
+import com.ibrahim.DBPulse.monitoring.postgres.ActiveSessionSampler.AshReport;
+import com.ibrahim.DBPulse.monitoring.postgres.ActiveSessionSampler.Bucket;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for Active Session History aggregation.
+ */
+class ActiveSessionSamplerTest {
+
+    private static final long NOW = 10_000_000;
+    private static final String ORDER_QUERY = "SELECT * FROM orders WHERE id = 1";
+    private static final String STOCK_QUERY = "UPDATE products SET stock_quantity = 3 WHERE id = 2";
+
+    @Test
+    @DisplayName("Should split samples into buckets by wait event")
+    void testReport_Buckets() {
+        // Given: 1s sampling; two sessions per tick in the older minute, one in the recent minute
+        ActiveSessionSampler sampler = sampler(Duration.ofHours(1));
+        for (int tick = 0; tick < 60; tick++) {
+            long sampledAt = NOW - 120_000 + tick * 1000L;
+            sampler.record(sampledAt, 1, "active", null, null, ORDER_QUERY, 5);
+            sampler.record(sampledAt, 2, "active", "Lock", "tuple", STOCK_QUERY, 800);
+            sampler.record(sampledAt + 60_000, 1, "active", "IO", "DataFileRead", ORDER_QUERY, 5);
+        }
+
+        // When
+        AshReport report = sampler.report(NOW, Duration.ofMinutes(2), Duration.ofMinutes(1), 10);
+
+        // Then
+        assertThat(report.samples()).isEqualTo(180);
+        assertThat(report.averageActiveSessions()).isEqualTo(1.5);
+        assertThat(report.waitEvents()).containsOnly(
+                entry(ActiveSessionSampler.CPU, 60L), entry("Lock:tuple", 60L), entry("IO:DataFileRead", 60L));
+        assertThat(report.states()).containsExactly(entry("active", 180L));
+        assertThat(report.buckets()).extracting(Bucket::averageActiveSessions).containsExactly(2.0, 1.0);
+        assertThat(report.buckets().get(0).waitEvents())
+                .containsOnly(entry(ActiveSessionSampler.CPU, 60L), entry("Lock:tuple", 60L));
+        assertThat(report.buckets().get(1).waitEvents()).containsOnly(entry("IO:DataFileRead", 60L));
+        assertThat(report.topQueries()).hasSize(2);
+        assertThat(report.topQueries().get(0).samples()).isEqualTo(120);
+        assertThat(report.topQueries().get(0).waitEvents())
+                .containsOnly(entry(ActiveSessionSampler.CPU, 60L), entry("IO:DataFileRead", 60L));
+    }
+
+    @Test
+    @DisplayName("Should cap the window at the retention and the number of buckets")
+    void testReport_Bounds() {
+        // Given
+        ActiveSessionSampler sampler = sampler(Duration.ofHours(1));
+
+        // When: a year in one-second buckets
+        AshReport report = sampler.report(NOW, Duration.ofDays(365), Duration.ofSeconds(1), 10);
+
+        // Then
+        assertThat(Duration.between(report.from(), report.to())).isEqualTo(Duration.ofHours(1));
+        assertThat(report.buckets()).hasSize(ActiveSessionSampler.MAX_BUCKETS);
+        assertThat(Duration.between(report.buckets().get(0).start(), report.buckets().get(1).start()))
+                .isEqualTo(Duration.ofSeconds(5));
+        assertThat(report.samples()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not use buckets narrower than the sampling interval")
+    void testReport_MinimumBucket() {
+        ActiveSessionSampler sampler = sampler(Duration.ofHours(1));
+
+        AshReport report = sampler.report(NOW, Duration.ofMinutes(1), Duration.ZERO, 10);
+
+        assertThat(report.buckets()).hasSize(60);
+    }
+
+    private static ActiveSessionSampler sampler(Duration retention) {
+        PostgresMonitoringProperties properties = new PostgresMonitoringProperties();
+        properties.getAsh().setInterval(1000);
+        properties.getAsh().setRetention(retention);
+        properties.getAsh().setMaxActiveSessions(4);
+        return new ActiveSessionSampler(null, properties);
+    }
+}
@@ -0,0 +1,70 @@
+package com.ibrahim.DBPulse.monitoring.postgres;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the Active Session History ring buffer.
+ */
+class AshSampleBufferTest {
+
+    @Test
+    @DisplayName("Should visit samples since a timestamp, oldest first")
+    void testForEachSince() {
+        // Given
+        AshSampleBuffer buffer = new AshSampleBuffer(10);
+        for (int i = 0; i < 5; i++) {
+            buffer.add(1000 + i, 100 + i, 1, 2, 3, i * 10);
+        }
+
+        // When
+        List<Integer> pids = new ArrayList<>();
+        List<Integer> durations = new ArrayList<>();
+        buffer.forEachSince(1002, (sampledAt, pid, state, waitEvent, fingerprint, durationMillis) -> {
+            pids.add(pid);
+            durations.add(durationMillis);
+        });
+
+        // Then
+        assertThat(pids).containsExactly(102, 103, 104);
+        assertThat(durations).containsExactly(20, 30, 40);
+        assertThat(buffer.written()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should overwrite the oldest samples once full")
+    void testWrapAround() {
+        // Given
+        AshSampleBuffer buffer = new AshSampleBuffer(4);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            buffer.add(i, i, 0, 0, 0, 0);
+        }
+
+        // Then
+        List<Long> retained = new ArrayList<>();
+        buffer.forEachSince(0, (sampledAt, pid, state, waitEvent, fingerprint, durationMillis) -> retained.add(sampledAt));
+        assertThat(retained).containsExactly(6L, 7L, 8L, 9L);
+        assertThat(buffer.capacity()).isEqualTo(4);
+        assertThat(buffer.written()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should keep at least one slot")
+    void testMinimumCapacity() {
+        AshSampleBuffer buffer = new AshSampleBuffer(0);
+
+        buffer.add(1, 1, 0, 0, 0, 0);
+        buffer.add(2, 2, 0, 0, 0, 0);
+
+        List<Integer> pids = new ArrayList<>();
+        buffer.forEachSince(0, (sampledAt, pid, state, waitEvent, fingerprint, durationMillis) -> pids.add(pid));
+        assertThat(pids).containsExactly(2);
+    }
+}
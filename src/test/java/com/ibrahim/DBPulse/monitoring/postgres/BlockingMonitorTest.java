@@ -0,0 +1,63 @@
+package com.ibrahim.DBPulse.monitoring.postgres;
+
+import com.ibrahim.DBPulse.monitoring.postgres.BlockingMonitor.BlockingReport;
+import com.ibrahim.DBPulse.monitoring.postgres.BlockingMonitor.BlockingSession;
+import com.ibrahim.DBPulse.monitoring.postgres.BlockingMonitor.Row;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for BlockingMonitor graph building.
+ */
+class BlockingMonitorTest {
+
+    @Test
+    @DisplayName("Should build a chain rooted at the session holding the row lock")
+    void testBuild_Chain() {
+        // Given: 10 holds the products row, 11 waits on its transaction, 12 and 13 queue on the tuple lock
+        List<Row> rows = List.of(
+                row(10, new int[0], 0, null),
+                row(11, new int[]{10}, 800, "products"),
+                row(12, new int[]{11}, 500, "products"),
+                row(13, new int[]{11}, 300, "products"),
+                row(20, new int[]{21}, 100, "orders"),
+                row(21, new int[0], 0, null));
+
+        // When
+        BlockingReport report = BlockingMonitor.build(rows);
+
+        // Then
+        assertThat(report.blockedSessions()).isEqualTo(4);
+        assertThat(report.longestWaitMillis()).isEqualTo(800);
+        assertThat(report.blockedByRelation()).containsExactly(entry("products", 3L), entry("orders", 1L));
+        assertThat(report.roots()).extracting(BlockingSession::pid).containsExactly(10, 21);
+
+        BlockingSession head = report.roots().get(0);
+        assertThat(head.relation()).isNull();
+        assertThat(head.blocked()).extracting(BlockingSession::pid).containsExactly(11);
+        assertThat(head.blocked().get(0).blocked()).extracting(BlockingSession::pid).containsExactly(12, 13);
+    }
+
+    @Test
+    @DisplayName("Should report sessions of a lock cycle even without a root")
+    void testBuild_Cycle() {
+        List<Row> rows = List.of(
+                row(1, new int[]{2}, 50, "products"),
+                row(2, new int[]{1}, 40, "products"));
+
+        BlockingReport report = BlockingMonitor.build(rows);
+
+        assertThat(report.blockedSessions()).isEqualTo(2);
+        assertThat(report.roots()).hasSize(1);
+        assertThat(report.roots().get(0).blocked()).hasSize(1);
+    }
+
+    private static Row row(int pid, int[] blockedBy, long waitMillis, String relation) {
+        return new Row(pid, blockedBy, "active", blockedBy.length > 0 ? "Lock:transactionid" : null,
+                "update products set stock_quantity = ? where id = ?", waitMillis, 1000, null, null, relation);
+    }
+}
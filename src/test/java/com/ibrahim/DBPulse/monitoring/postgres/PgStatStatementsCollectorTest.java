@@ -0,0 +1,60 @@
+package com.ibrahim.DBPulse.monitoring.postgres;
+
+import com.ibrahim.DBPulse.IntegrationTestBase;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for PgStatStatementsCollector against PostgreSQL with pg_stat_statements preloaded.
+ */
+@TestPropertySource(properties = "app.monitoring.postgres.statements.top-n=100")
+class PgStatStatementsCollectorTest extends IntegrationTestBase {
+
+    private static final String PROBE = "SELECT count(*) FROM pg_class WHERE relpages >= ?";
+
+    @Autowired
+    private PgStatStatementsCollector collector;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_stat_statements");
+    }
+
+    @Test
+    @DisplayName("Should publish interval deltas tagged with the pg_stat_statements queryid")
+    void testCollect_PublishesDeltas() {
+        // Given
+        collector.refresh();
+        for (int i = 0; i < 25; i++) {
+            jdbcTemplate.queryForObject(PROBE, Long.class, i);
+        }
+
+        // When
+        collector.refresh();
+
+        // Then
+        Long queryId = jdbcTemplate.queryForObject(
+                "SELECT queryid FROM pg_stat_statements WHERE query = 'SELECT count(*) FROM pg_class WHERE relpages >= $1'",
+                Long.class);
+        assertThat(collector.getPublished()).containsKey(queryId);
+        assertThat(collector.getPublished().get(queryId).calls()).isEqualTo(25);
+
+        Gauge calls = registry.find("dbpulse.pg.statements.calls").tag("queryid", queryId.toString()).gauge();
+        assertThat(calls).isNotNull();
+        assertThat(calls.value()).isEqualTo(25.0);
+    }
+}
@@ -0,0 +1,75 @@
+package com.ibrahim.DBPulse.monitoring.postgres;
+
+import com.ibrahim.DBPulse.monitoring.postgres.StatementStatsSnapshot.StatementDelta;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for StatementStatsSnapshot delta and top-N logic.
+ */
+class StatementStatsSnapshotTest {
+
+    @Test
+    @DisplayName("Should diff counters per queryid and rank by interval time")
+    void testTopByTime() {
+        StatementStatsSnapshot previous = new StatementStatsSnapshot(4);
+        previous.add(-7L, 10, 100.0, 10, 50, 5);
+        previous.add(3L, 100, 1000.0, 100, 500, 50);
+        previous.add(9L, 1, 1.0, 1, 1, 1);
+
+        StatementStatsSnapshot current = new StatementStatsSnapshot(4);
+        current.add(-7L, 30, 700.0, 30, 90, 5);
+        current.add(3L, 110, 1100.0, 120, 520, 60);
+        current.add(5L, 2, 50.0, 2, 2, 0);
+        current.add(9L, 1, 1.0, 1, 1, 1);
+
+        List<StatementDelta> top = current.topByTime(previous, 10);
+
+        assertThat(top).extracting(StatementDelta::queryId).containsExactly(-7L, 3L, 5L);
+        assertThat(top.get(0)).isEqualTo(new StatementDelta(-7L, 20, 600.0, 20, 40, 0));
+        assertThat(top.get(0).meanTimeMillis()).isEqualTo(30.0);
+        assertThat(top.get(1)).isEqualTo(new StatementDelta(3L, 10, 100.0, 20, 20, 10));
+        // New statements count from zero
+        assertThat(top.get(2)).isEqualTo(new StatementDelta(5L, 2, 50.0, 2, 2, 0));
+    }
+
+    @Test
+    @DisplayName("Should keep only the N most expensive statements")
+    void testTopByTime_Limit() {
+        StatementStatsSnapshot previous = new StatementStatsSnapshot(0);
+        StatementStatsSnapshot current = new StatementStatsSnapshot(0);
+        for (long queryId = 0; queryId < 100; queryId++) {
+            current.add(queryId, 1, queryId, 1, 0, 0);
+        }
+
+        List<StatementDelta> top = current.topByTime(previous, 3);
+
+        assertThat(top).extracting(StatementDelta::queryId).containsExactly(99L, 98L, 97L);
+    }
+
+    @Test
+    @DisplayName("Should restart from zero when counters go backwards after a reset")
+    void testTopByTime_Reset() {
+        StatementStatsSnapshot previous = new StatementStatsSnapshot(1);
+        previous.add(1L, 500, 5000.0, 500, 0, 0);
+        StatementStatsSnapshot current = new StatementStatsSnapshot(1);
+        current.add(1L, 4, 8.0, 4, 0, 0);
+
+        assertThat(current.topByTime(previous, 5))
+                .containsExactly(new StatementDelta(1L, 4, 8.0, 4, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Should reject entries out of queryid order")
+    void testAdd_OutOfOrder() {
+        StatementStatsSnapshot snapshot = new StatementStatsSnapshot(1);
+        snapshot.add(2L, 1, 1.0, 1, 0, 0);
+
+        assertThatThrownBy(() -> snapshot.add(1L, 1, 1.0, 1, 0, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,71 @@
+package com.ibrahim.DBPulse.monitoring.postgres;
+
+import com.ibrahim.DBPulse.monitoring.postgres.TableHealthCollector.TableStats;
+import com.ibrahim.DBPulse.monitoring.postgres.TableHealthCollector.UnusedIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for TableHealthCollector stats keys and gauge rows.
+ */
+class TableHealthCollectorTest {
+
+    @Test
+    @DisplayName("Should keep same-named tables of different schemas apart")
+    void testSchemaQualifiedTables() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TableHealthCollector collector = new TableHealthCollector(null, registry);
+
+        // When
+        collector.publish(List.of(
+                        new TableStats("public", "orders", 90, 10, 30.0, 1, 3, 8192, 4096),
+                        new TableStats("archive", "orders", 1000, 0, Double.NaN, 4, 0, 65536, 0)),
+                List.of(new UnusedIndex("public", "orders", "idx_orders_note", 16384),
+                        new UnusedIndex("archive", "orders", "idx_orders_note", 32768)));
+
+        // Then
+        assertThat(collector.getTables()).containsOnlyKeys("public.orders", "archive.orders");
+        assertThat(collector.getTables().get("public.orders").deadTupleRatio()).isEqualTo(0.1);
+        assertThat(collector.getTables().get("archive.orders").seqScanRatio()).isEqualTo(1.0);
+        assertThat(collector.getUnusedIndexes()).containsOnlyKeys("public.idx_orders_note", "archive.idx_orders_note");
+
+        assertThat(registry.get("dbpulse.pg.table.tuples.live").tags("schema", "public", "table", "orders")
+                .gauge().value()).isEqualTo(90.0);
+        assertThat(registry.get("dbpulse.pg.table.tuples.live").tags("schema", "archive", "table", "orders")
+                .gauge().value()).isEqualTo(1000.0);
+        assertThat(registry.get("dbpulse.pg.table.size").tags("schema", "archive", "table", "orders")
+                .gauge().value()).isEqualTo(65536.0);
+        assertThat(registry.get("dbpulse.pg.index.unused")
+                .tags("schema", "archive", "table", "orders", "index", "idx_orders_note")
+                .gauge().value()).isEqualTo(32768.0);
+    }
+
+    @Test
+    @DisplayName("Should drop gauge rows of tables and indexes that are gone")
+    void testDroppedRows() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TableHealthCollector collector = new TableHealthCollector(null, registry);
+        collector.publish(List.of(
+                        new TableStats("public", "orders", 90, 10, 30.0, 1, 3, 8192, 4096),
+                        new TableStats("archive", "orders", 1000, 0, Double.NaN, 4, 0, 65536, 0)),
+                List.of(new UnusedIndex("public", "orders", "idx_orders_note", 16384)));
+
+        // When
+        collector.publish(List.of(new TableStats("public", "orders", 95, 5, 60.0, 1, 9, 8192, 4096)),
+                List.of());
+
+        // Then
+        assertThat(collector.getTables()).containsOnlyKeys("public.orders");
+        assertThat(registry.get("dbpulse.pg.table.tuples.live").gauges()).hasSize(1);
+        assertThat(registry.get("dbpulse.pg.table.tuples.dead").tags("schema", "public", "table", "orders")
+                .gauge().value()).isEqualTo(5.0);
+        assertThat(registry.find("dbpulse.pg.index.unused").gauges()).isEmpty();
+    }
+}
@@ -0,0 +1,150 @@
+package com.ibrahim.DBPulse.monitoring.request;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Unit tests for RequestResourceFilter dispatch accounting.
+ */
+class RequestResourceFilterTest {
+
+    private static final int MEGABYTE = 1 << 20;
+
+    private SimpleMeterRegistry registry;
+    private RequestResourceFilter filter;
+    private MockHttpServletRequest request;
+
+    // Keeps the allocations of the chain reachable so they are not optimized away
+    private volatile byte[] sink;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        filter = new RequestResourceFilter(registry, new RequestResourceProperties());
+        assumeTrue(filter.isCpuTimeSupported() && filter.isAllocationSupported(),
+                "JVM reports no per-thread cpu time or allocation");
+        request = new MockHttpServletRequest("POST", "/api/orders/batch");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/orders/batch");
+    }
+
+    @Test
+    @DisplayName("Should record the cpu time and bytes of a request once per endpoint")
+    void testSynchronousRequest() throws Exception {
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), allocating(MEGABYTE));
+
+        // Then
+        assertThat(allocated().count()).isEqualTo(1);
+        assertThat(allocated().totalAmount()).isGreaterThanOrEqualTo(MEGABYTE);
+        assertThat(cpu().count()).isEqualTo(1);
+        assertThat(cpu().totalAmount()).isGreaterThanOrEqualTo(0);
+        assertThat(filter.getSkippedVirtual()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should sum the dispatches of an async request and record it when the last one ends")
+    void testAsyncRequest() throws Exception {
+        // Given
+        request.setAsyncStarted(true);
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), allocating(MEGABYTE));
+
+        // Then
+        assertThat(registry.find("dbpulse.request.allocated").summary()).isNull();
+
+        // When: the container resumes the request on another of its threads
+        request.setAsyncStarted(false);
+        request.setDispatcherType(DispatcherType.ASYNC);
+        dispatchOn(Thread.ofPlatform(), allocating(2 * MEGABYTE));
+
+        // Then
+        assertThat(allocated().count()).isEqualTo(1);
+        assertThat(allocated().totalAmount()).isGreaterThanOrEqualTo(3 * MEGABYTE);
+        assertThat(cpu().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should skip and count a request dispatched on a virtual thread")
+    void testVirtualThread() throws Exception {
+        // When
+        dispatchOn(Thread.ofVirtual(), allocating(MEGABYTE));
+
+        // Then
+        assertThat(filter.getSkippedVirtual()).isEqualTo(1);
+        assertThat(registry.find("dbpulse.request.allocated").summary()).isNull();
+        assertThat(registry.find("dbpulse.request.cpu").summary()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should not record an async request when one of its dispatches could not be measured")
+    void testUnavailableDispatch() throws Exception {
+        // Given
+        request.setAsyncStarted(true);
+        filter.doFilter(request, new MockHttpServletResponse(), allocating(MEGABYTE));
+
+        // When: the async dispatch runs on a virtual thread
+        request.setAsyncStarted(false);
+        request.setDispatcherType(DispatcherType.ASYNC);
+        dispatchOn(Thread.ofVirtual(), allocating(MEGABYTE));
+
+        // Then
+        assertThat(filter.getSkippedVirtual()).isEqualTo(1);
+        assertThat(registry.find("dbpulse.request.allocated").summary()).isNull();
+        assertThat(registry.find("dbpulse.request.cpu").summary()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should pass requests through untouched when disabled")
+    void testDisabled() throws Exception {
+        // Given
+        filter.setEnabled(false);
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), allocating(MEGABYTE));
+
+        // Then
+        assertThat(registry.find("dbpulse.request.allocated").summary()).isNull();
+        assertThat(request.getAttributeNames().asIterator()).toIterable()
+                .noneMatch(name -> name.startsWith(RequestResourceFilter.class.getName()));
+    }
+
+    private FilterChain allocating(int bytes) {
+        return (req, res) -> sink = new byte[bytes];
+    }
+
+    private void dispatchOn(Thread.Builder thread, FilterChain chain) throws Exception {
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        thread.start(() -> {
+            try {
+                filter.doFilter(request, new MockHttpServletResponse(), chain);
+            } catch (Exception e) {
+                failure.set(e);
+            }
+        }).join();
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    private DistributionSummary allocated() {
+        return registry.get("dbpulse.request.allocated").tags("uri", "/api/orders/batch", "method", "POST").summary();
+    }
+
+    private DistributionSummary cpu() {
+        return registry.get("dbpulse.request.cpu").tags("uri", "/api/orders/batch", "method", "POST").summary();
+    }
+}
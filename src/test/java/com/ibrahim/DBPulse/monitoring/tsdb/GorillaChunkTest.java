@@ -0,0 +1,119 @@
+package com.ibrahim.DBPulse.monitoring.tsdb;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for GorillaChunk encoding.
+ */
+class GorillaChunkTest {
+
+    @Test
+    @DisplayName("Should round-trip irregular timestamps and arbitrary doubles exactly")
+    void testRoundTrip() {
+        Random random = new Random(42);
+        long[] timestamps = new long[500];
+        double[] values = new double[500];
+        long timestamp = 1_700_000_000_000L;
+        for (int i = 0; i < timestamps.length; i++) {
+            // Mostly a fixed step, with jitter and occasional large gaps
+            timestamp += switch (i % 7) {
+                case 3 -> 10_000 + random.nextInt(200) - 100;
+                case 5 -> 3_600_000L * (1 + random.nextInt(48));
+                default -> 10_000;
+            };
+            timestamps[i] = timestamp;
+            values[i] = switch (i % 5) {
+                case 0 -> values[Math.max(0, i - 1)];
+                case 1 -> random.nextGaussian() * 1e6;
+                case 2 -> random.nextInt(100);
+                case 3 -> i % 2 == 0 ? Double.NaN : -0.0;
+                default -> Double.longBitsToDouble(random.nextLong());
+            };
+        }
+
+        GorillaChunk chunk = new GorillaChunk(1);
+        for (int i = 0; i < timestamps.length; i++) {
+            chunk.append(timestamps[i], values[i]);
+        }
+
+        assertThat(decode(chunk)).containsExactlyElementsOf(points(timestamps, values, 0, timestamps.length));
+        assertThat(chunk.count()).isEqualTo(500);
+        assertThat(chunk.firstTimestamp()).isEqualTo(timestamps[0]);
+        assertThat(chunk.lastTimestamp()).isEqualTo(timestamps[499]);
+    }
+
+    @Test
+    @DisplayName("Should store a steady series in about two bits per point")
+    void testCompression() {
+        GorillaChunk chunk = new GorillaChunk(1);
+        for (int i = 0; i < 120; i++) {
+            chunk.append(1_700_000_000_000L + i * 10_000L, 42.0);
+        }
+        chunk.trim();
+
+        // 128 header bits, one 64-bit first delta, then 2 bits per point
+        assertThat(chunk.serializedSize()).isLessThan(100);
+    }
+
+    @Test
+    @DisplayName("Should decode only the requested range")
+    void testForEachBetween() {
+        GorillaChunk chunk = new GorillaChunk(4);
+        for (int i = 0; i < 10; i++) {
+            chunk.append(i * 1000L, i);
+        }
+
+        List<double[]> points = new ArrayList<>();
+        chunk.forEachBetween(3000, 5500, (timestamp, value) -> points.add(new double[]{timestamp, value}));
+
+        assertThat(points).extracting(point -> point[1]).containsExactly(3.0, 4.0, 5.0);
+    }
+
+    @Test
+    @DisplayName("Should survive serialization")
+    void testSerialization() {
+        GorillaChunk chunk = new GorillaChunk(1);
+        for (int i = 0; i < 50; i++) {
+            chunk.append(i * 15_000L, Math.sin(i));
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(chunk.serializedSize());
+        chunk.writeTo(buffer);
+        buffer.flip();
+
+        GorillaChunk restored = GorillaChunk.readFrom(buffer);
+
+        assertThat(decode(restored)).containsExactlyElementsOf(decode(chunk));
+        assertThat(buffer.remaining()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject timestamps that do not increase")
+    void testAppend_OutOfOrder() {
+        GorillaChunk chunk = new GorillaChunk(1);
+        chunk.append(1000, 1.0);
+
+        assertThatThrownBy(() -> chunk.append(1000, 2.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<String> decode(GorillaChunk chunk) {
+        List<String> decoded = new ArrayList<>();
+        chunk.forEach((timestamp, value) -> decoded.add(timestamp + "=" + Double.doubleToRawLongBits(value)));
+        return decoded;
+    }
+
+    private static List<String> points(long[] timestamps, double[] values, int from, int to) {
+        List<String> points = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            points.add(timestamps[i] + "=" + Double.doubleToRawLongBits(values[i]));
+        }
+        return points;
+    }
+}
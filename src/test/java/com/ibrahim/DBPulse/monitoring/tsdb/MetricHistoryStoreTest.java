@@ -0,0 +1,108 @@
+package com.ibrahim.DBPulse.monitoring.tsdb;
+
+import com.ibrahim.DBPulse.dtos.MetricSeriesResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for MetricHistoryStore recording, rollups, memory cap and persistence.
+ */
+class MetricHistoryStoreTest {
+
+    private static final long START = 1_700_000_040_000L - 1_700_000_040_000L % 600_000L;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong level = new AtomicLong();
+
+    private MetricHistoryStore store(TsdbProperties properties) {
+        Gauge.builder("test.level", level, AtomicLong::get).tag("pool", "main").register(registry);
+        return new MetricHistoryStore(registry, properties);
+    }
+
+    private static TsdbProperties properties() {
+        TsdbProperties properties = new TsdbProperties();
+        properties.getRetention().setRaw(Duration.ofDays(365 * 100L));
+        properties.getRetention().setOneMinute(Duration.ofDays(365 * 100L));
+        properties.getRetention().setTenMinutes(Duration.ofDays(365 * 100L));
+        return properties;
+    }
+
+    @Test
+    @DisplayName("Should record raw points at the step and roll them up to one-minute means")
+    void testRecordAndRollup() {
+        MetricHistoryStore store = store(properties());
+        for (int i = 0; i < 18; i++) {
+            level.set(i);
+            store.record(START + i * 10_000L + 123);
+        }
+
+        List<MetricSeriesResponse> raw = store.query("test.level", Map.of("pool", "main"),
+                Instant.ofEpochMilli(START), Instant.ofEpochMilli(START + 180_000), Resolution.RAW);
+        List<MetricSeriesResponse> minute = store.query("test.level", Map.of(),
+                Instant.ofEpochMilli(START), Instant.ofEpochMilli(START + 180_000), Resolution.ONE_MINUTE);
+
+        assertThat(raw).hasSize(1);
+        assertThat(raw.get(0).getPoints()).hasSize(18);
+        assertThat(raw.get(0).getPoints().get(1).getTimestamp()).isEqualTo(START + 10_000);
+        // Buckets 0-5 and 6-11 are closed, 12-17 is in progress
+        assertThat(minute.get(0).getPoints()).extracting(MetricSeriesResponse.Point::getValue)
+                .containsExactly(2.5, 8.5, 14.5);
+        assertThat(store.query("test.level", Map.of("pool", "other"),
+                Instant.ofEpochMilli(START), Instant.ofEpochMilli(START + 180_000), Resolution.RAW)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should evict the oldest raw chunks to stay under the memory cap")
+    void testMemoryCap() {
+        TsdbProperties properties = properties();
+        properties.setPointsPerChunk(10);
+        properties.setMaxMemory(DataSize.ofKilobytes(4));
+        MetricHistoryStore store = store(properties);
+
+        for (int i = 0; i < 2_000; i++) {
+            level.set(i);
+            store.record(START + i * 10_000L);
+        }
+
+        assertThat(store.stats().getMemoryBytes()).isLessThanOrEqualTo(4096);
+        assertThat(store.stats().getEvictedChunks()).isPositive();
+        List<MetricSeriesResponse> raw = store.query("test.level", Map.of(),
+                Instant.ofEpochMilli(START), Instant.ofEpochMilli(START + 20_000_000), Resolution.RAW);
+        assertThat(raw.get(0).getPoints().get(0).getTimestamp()).isGreaterThan(START);
+    }
+
+    @Test
+    @DisplayName("Should restore history from the memory-mapped snapshot")
+    void testPersistence(@TempDir Path directory) {
+        TsdbProperties properties = properties();
+        properties.getPersistence().setEnabled(true);
+        properties.getPersistence().setFile(directory.resolve("history.dat").toString());
+        MetricHistoryStore store = store(properties);
+        for (int i = 0; i < 30; i++) {
+            level.set(i * 3);
+            store.record(START + i * 10_000L);
+        }
+        store.persist();
+
+        MetricHistoryStore restored = new MetricHistoryStore(new SimpleMeterRegistry(), properties);
+        restored.restore();
+
+        Instant from = Instant.ofEpochMilli(START);
+        Instant to = Instant.ofEpochMilli(START + 300_000);
+        assertThat(restored.query("test.level", Map.of(), from, to, Resolution.RAW))
+                .isEqualTo(store.query("test.level", Map.of(), from, to, Resolution.RAW));
+    }
+}
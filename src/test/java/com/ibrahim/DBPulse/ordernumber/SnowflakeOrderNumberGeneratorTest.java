@@ -0,0 +1,103 @@
+package com.ibrahim.DBPulse.ordernumber;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the snowflake order number generator.
+ */
+class SnowflakeOrderNumberGeneratorTest {
+
+    private static final long NOW = SnowflakeOrderNumberGenerator.EPOCH + 86_400_000L;
+
+    @Test
+    @DisplayName("Should keep the ORD- prefix and a fixed width that fits the column")
+    void testFormat() {
+        String orderNumber = new SnowflakeOrderNumberGenerator(7, () -> NOW).next();
+
+        assertThat(orderNumber).matches("ORD-[0-9A-HJKMNP-TV-Z]{13}");
+        assertThat(SnowflakeOrderNumberGenerator.timestampOf(orderNumber)).isEqualTo(NOW);
+    }
+
+    @Test
+    @DisplayName("Should sort as strings in generation order, across milliseconds and within one")
+    void testSortedWithinAndAcrossMilliseconds() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(3, clock::get);
+
+        List<String> numbers = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            if (i % 1000 == 0) {
+                clock.addAndGet(1);
+            }
+            numbers.add(generator.next());
+        }
+
+        assertThat(numbers).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("Should stay monotonic when the sequence overflows or the clock steps back")
+    void testMonotonicWithoutWaiting() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(0, clock::get);
+
+        long previous = generator.nextId();
+        for (int i = 0; i < 5000; i++) {
+            long id = generator.nextId();
+            assertThat(id).isGreaterThan(previous);
+            previous = id;
+        }
+        // 5001 numbers in one millisecond carried into the next one
+        assertThat(previous >>> 22).isEqualTo(NOW - SnowflakeOrderNumberGenerator.EPOCH + 1);
+
+        clock.addAndGet(-10_000);
+        assertThat(generator.nextId()).isGreaterThan(previous);
+    }
+
+    @Test
+    @DisplayName("Should hand out unique, per-thread increasing numbers under contention")
+    void testConcurrentUnique() throws Exception {
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(1);
+        List<Future<List<String>>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit(() -> {
+                    List<String> numbers = new ArrayList<>();
+                    for (int i = 0; i < 20_000; i++) {
+                        numbers.add(generator.next());
+                    }
+                    return numbers;
+                }));
+            }
+        }
+
+        Set<String> all = new HashSet<>();
+        for (Future<List<String>> result : results) {
+            List<String> numbers = result.get();
+            assertThat(numbers).isSorted();
+            all.addAll(numbers);
+        }
+        assertThat(all).hasSize(8 * 20_000);
+    }
+
+    @Test
+    @DisplayName("Should reject node ids that do not fit in 10 bits")
+    void testNodeIdRange() {
+        assertThatThrownBy(() -> new SnowflakeOrderNumberGenerator(1024))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SnowflakeOrderNumberGenerator(-1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
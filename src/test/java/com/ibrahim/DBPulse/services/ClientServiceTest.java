@@ -5,13 +5,16 @@ import com.ibrahim.DBPulse.dtos.ClientResponse;
 import com.ibrahim.DBPulse.entities.Client;
 import com.ibrahim.DBPulse.exceptions.DuplicateResourceException;
 import com.ibrahim.DBPulse.exceptions.ResourceNotFoundException;
+import com.ibrahim.DBPulse.metrics.ServiceTimers;
 import com.ibrahim.DBPulse.repositories.ClientRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
@@ -31,6 +34,9 @@ class ClientServiceTest {
     @Mock
     private ClientRepository clientRepository;
 
+    @Spy
+    private ServiceTimers serviceTimers = new ServiceTimers(new SimpleMeterRegistry());
+
     @InjectMocks
     private ClientService clientService;
 
@@ -39,6 +45,8 @@ class ClientServiceTest {
 
     @BeforeEach
     void setUp() {
+        serviceTimers.register(ClientService.class);
+
         testClient = new Client();
         testClient.setId(1L);
         testClient.setFirstName("John");
@@ -0,0 +1,165 @@
+package com.ibrahim.DBPulse.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibrahim.DBPulse.IntegrationTestBase;
+import com.ibrahim.DBPulse.dtos.OrderBatchItemResult;
+import com.ibrahim.DBPulse.dtos.OrderBatchResponse;
+import com.ibrahim.DBPulse.dtos.OrderItemRequest;
+import com.ibrahim.DBPulse.dtos.OrderRequest;
+import com.ibrahim.DBPulse.exceptions.BadRequestException;
+import com.ibrahim.DBPulse.repositories.ProductRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A batch must create exactly the orders its stock covers, report every other order with
+ * its reason, and write stock that matches what the created orders took.
+ */
+class OrderBatchServiceTest extends IntegrationTestBase {
+
+    private static final String ORDERS = "SELECT COUNT(*) FROM orders WHERE client_id = ?";
+    private static final String ORDERED = "SELECT COALESCE(SUM(quantity), 0) FROM order_items WHERE product_id = ?";
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Should create the orders the stock covers and report every other order with its reason")
+    void failedOrdersAreReportedPerItem() {
+        // Given
+        long clientId = createClient();
+        long productId = createProduct(5);
+        List<OrderRequest> requests = List.of(
+                orderFor(clientId, productId, 2),
+                orderFor(Long.MAX_VALUE, productId, 1),
+                orderFor(clientId, Long.MAX_VALUE, 1),
+                orderFor(clientId, productId, 10),
+                orderFor(clientId, productId, 0),
+                new OrderRequest(clientId, List.of(), "1 Batch Way", null));
+
+        // When
+        OrderBatchResponse response = orderBatchService.createOrders(requests);
+
+        // Then
+        assertThat(response.getRequested()).isEqualTo(6);
+        assertThat(response.getCreated()).isEqualTo(1);
+        assertThat(response.getFailed()).isEqualTo(5);
+        List<OrderBatchItemResult> results = response.getResults();
+        assertThat(results).extracting(OrderBatchItemResult::getIndex).containsExactly(0, 1, 2, 3, 4, 5);
+        assertThat(results.get(0).isSuccess()).isTrue();
+        assertThat(results.get(0).getOrderNumber()).startsWith("ORD-");
+        assertThat(results.get(0).getTotalAmount()).isEqualByComparingTo(UNIT_PRICE.multiply(BigDecimal.TWO));
+        assertThat(results.get(1).getError()).isEqualTo("Client not found with ID: " + Long.MAX_VALUE);
+        assertThat(results.get(2).getError()).isEqualTo("Product not found with ID: " + Long.MAX_VALUE);
+        assertThat(results.get(3).getError()).contains("Insufficient stock").contains("Available: 3, Requested: 10");
+        assertThat(results.get(4).getError()).isEqualTo("items.quantity: Quantity must be at least 1");
+        assertThat(results.get(5).getError()).isEqualTo("items: Order must contain at least one item");
+        assertThat(results.subList(1, 6)).noneMatch(OrderBatchItemResult::isSuccess);
+
+        assertThat(productRepository.findStockQuantityById(productId)).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject(ORDERS, Long.class, clientId)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should plan a repeated product against the stock the earlier orders left")
+    void repeatedProductIsPlannedAgainstTheRemainingStock() {
+        // Given
+        long clientId = createClient();
+        long productId = createProduct(7);
+        OrderRequest twoLines = new OrderRequest(clientId, List.of(
+                new OrderItemRequest(productId, 1), new OrderItemRequest(productId, 2)), "1 Batch Way", null);
+        List<OrderRequest> requests = List.of(
+                orderFor(clientId, productId, 2),
+                twoLines,
+                orderFor(clientId, productId, 3),
+                orderFor(clientId, productId, 2));
+
+        // When
+        OrderBatchResponse response = orderBatchService.createOrders(requests);
+
+        // Then: 2 + 3 taken, then 3 more than the 2 left, then the last 2
+        assertThat(response.getResults()).extracting(OrderBatchItemResult::isSuccess)
+                .containsExactly(true, true, false, true);
+        assertThat(response.getResults().get(2).getError()).contains("Available: 2, Requested: 3");
+        // The row is written once with the absolute remainder, matching the items inserted
+        assertThat(productRepository.findStockQuantityById(productId)).isZero();
+        assertThat(jdbcTemplate.queryForObject(ORDERED, Long.class, productId)).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Should write nothing when every order of the batch fails")
+    void allFailedBatchWritesNothing() {
+        // Given
+        long clientId = createClient();
+        long productId = createProduct(1);
+
+        // When
+        OrderBatchResponse response = orderBatchService.createOrders(List.of(
+                orderFor(clientId, productId, 2),
+                orderFor(Long.MAX_VALUE, productId, 1)));
+
+        // Then
+        assertThat(response.getCreated()).isZero();
+        assertThat(response.getFailed()).isEqualTo(2);
+        assertThat(response.getResults()).noneMatch(OrderBatchItemResult::isSuccess);
+        assertThat(productRepository.findStockQuantityById(productId)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(ORDERS, Long.class, clientId)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject empty and oversized batches with 400 Bad Request")
+    void emptyAndOversizedBatchesAreRejected() throws Exception {
+        // Given
+        long clientId = createClient();
+        long productId = createProduct(1000);
+        List<OrderRequest> oversized = Collections.nCopies(501, orderFor(clientId, productId, 1));
+
+        // When / Then
+        assertThatThrownBy(() -> orderBatchService.createOrders(List.of()))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Batch must contain at least one order");
+        assertThatThrownBy(() -> orderBatchService.createOrders(oversized))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Batch contains 501 orders, the maximum is 500");
+
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        mockMvc.perform(post("/api/orders/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Batch must contain at least one order"));
+        mockMvc.perform(post("/api/orders/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(oversized)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400));
+        assertThat(productRepository.findStockQuantityById(productId)).isEqualTo(1000);
+    }
+}
@@ -0,0 +1,71 @@
+package com.ibrahim.DBPulse.services;
+
+import com.ibrahim.DBPulse.IntegrationTestBase;
+import com.ibrahim.DBPulse.dtos.OrderRequest;
+import com.ibrahim.DBPulse.exceptions.InsufficientStockException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Many buyers race for the last units of one SKU; the conditional stock decrement must
+ * let exactly as many orders through as there are units.
+ */
+class OrderConcurrencyTest extends IntegrationTestBase {
+
+    private static final int BUYERS = 200;
+    private static final int STOCK = 50;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Test
+    @DisplayName("Should let exactly as many parallel buyers through as there are units")
+    void parallelBuyersNeverOversell() throws Exception {
+        // Given
+        long productId = createProduct(STOCK);
+        OrderRequest request = orderFor(productId, 1);
+
+        // When
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> buyers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(BUYERS)) {
+            for (int i = 0; i < BUYERS; i++) {
+                buyers.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        orderService.createOrder(request);
+                        created.incrementAndGet();
+                    } catch (InsufficientStockException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> buyer : buyers) {
+                buyer.get();
+            }
+        }
+
+        // Then
+        assertThat(created.get()).isEqualTo(STOCK);
+        assertThat(rejected.get()).isEqualTo(BUYERS - STOCK);
+        assertThat(productService.getProductById(productId).getStockQuantity()).isZero();
+    }
+}
@@ -0,0 +1,163 @@
+package com.ibrahim.DBPulse.services;
+
+import com.ibrahim.DBPulse.IntegrationTestBase;
+import com.ibrahim.DBPulse.dtos.OrderItemRequest;
+import com.ibrahim.DBPulse.dtos.OrderRequest;
+import com.ibrahim.DBPulse.entities.IdAllocation;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Counts JDBC statements per multi-item order on PostgreSQL through the dbpulse.jdbc.statements
+ * timers, where a JDBC batch counts once. Pooled sequence ids let the item inserts go out as one
+ * batch, and loading products with one query and reserving stock with one batch makes the count
+ * independent of the number of lines. The same lines mapped with the IDENTITY ids used before
+ * serve as the baseline: Hibernate inserts those one statement at a time.
+ */
+class OrderStatementCountTest extends IntegrationTestBase {
+
+    private static final int ITEMS = 10;
+
+    /**
+     * Maps the baseline lines for their own session factory only; annotated entities here
+     * would also be picked up by the application's entity scan.
+     */
+    private static final String LINE_MAPPINGS = """
+            <entity-mappings xmlns="https://jakarta.ee/xml/ns/persistence/orm" version="3.1">
+                <sequence-generator name="statement_count_lines_seq" sequence-name="statement_count_lines_seq"
+                                    allocation-size="%d"/>
+                <entity class="%s" access="FIELD">
+                    <table name="statement_count_identity_lines"/>
+                    <attributes>
+                        <id name="id"><generated-value strategy="IDENTITY"/></id>
+                        <basic name="quantity"/>
+                    </attributes>
+                </entity>
+                <entity class="%s" access="FIELD">
+                    <table name="statement_count_sequence_lines"/>
+                    <attributes>
+                        <id name="id"><generated-value strategy="SEQUENCE" generator="statement_count_lines_seq"/></id>
+                        <basic name="quantity"/>
+                    </attributes>
+                </entity>
+            </entity-mappings>
+            """.formatted(IdAllocation.SIZE, IdentityLine.class.getName(), SequenceLine.class.getName());
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+    private int batchSize;
+
+    /**
+     * An order line whose id the database assigns on insert, as all entities had before.
+     */
+    static class IdentityLine {
+        private Long id;
+        private int quantity = 1;
+    }
+
+    /**
+     * The same line with an id from a pooled sequence, mapped like OrderItem.
+     */
+    static class SequenceLine {
+        private Long id;
+        private int quantity = 1;
+    }
+
+    @Test
+    @DisplayName("Should create a 10-item order in a constant number of statements")
+    void multiItemOrderBatchesItemInserts() {
+        // Given
+        long clientId = createClient();
+        List<OrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(new OrderItemRequest(createProduct(100), 1));
+        }
+        OrderRequest request = new OrderRequest(clientId, items, "1 Test Street", null);
+
+        // The first order may fetch fresh sequence blocks for orders and order_items
+        orderService.createOrder(request);
+
+        // When
+        double perOrder = statementsFor(() -> orderService.createOrder(request));
+
+        // Then: client read, product read, stock reservation batch, order insert, item batch,
+        // and at most one nextval when a block runs out
+        assertThat(perOrder).isLessThanOrEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Should insert 10 lines in one batch with sequence ids where IDENTITY ids take 10 inserts")
+    void sequenceIdsBatchWhereIdentityIdsCannot() {
+        // Given
+        try (SessionFactory lines = lineSessionFactory()) {
+            // The first transaction fetches the sequence block
+            insertLines(lines, SequenceLine::new);
+
+            // When
+            double identityStatements = statementsFor(() -> insertLines(lines, IdentityLine::new));
+            double sequenceStatements = statementsFor(() -> insertLines(lines, SequenceLine::new));
+
+            // Then: IDENTITY needs each generated key back before the next insert, so nothing batches
+            assertThat(identityStatements).isGreaterThanOrEqualTo(ITEMS);
+            // One batched insert, and at most one nextval when a block runs out
+            assertThat(sequenceStatements).isLessThanOrEqualTo(2);
+        }
+    }
+
+    /**
+     * A session factory for the baseline lines on the monitored DataSource, batching like the application.
+     */
+    private SessionFactory lineSessionFactory() {
+        Configuration configuration = new Configuration()
+                .addInputStream(new ByteArrayInputStream(LINE_MAPPINGS.getBytes(StandardCharsets.UTF_8)));
+        configuration.getProperties().put(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, dataSource);
+        configuration.setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop");
+        configuration.setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, Integer.toString(batchSize));
+        configuration.setProperty(AvailableSettings.ORDER_INSERTS, "true");
+        return configuration.buildSessionFactory();
+    }
+
+    private static void insertLines(SessionFactory sessionFactory, Supplier<Object> line) {
+        sessionFactory.inTransaction(session -> {
+            for (int i = 0; i < ITEMS; i++) {
+                session.persist(line.get());
+            }
+        });
+    }
+
+    private double statementsFor(Runnable action) {
+        double before = statementCount();
+        action.run();
+        return statementCount() - before;
+    }
+
+    private double statementCount() {
+        return meterRegistry.find("dbpulse.jdbc.statements").timers().stream()
+                .mapToDouble(Timer::count)
+                .sum();
+    }
+}